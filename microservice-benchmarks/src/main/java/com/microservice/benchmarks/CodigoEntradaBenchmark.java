@@ -0,0 +1,60 @@
+package com.microservice.benchmarks;
+
+import com.microservice.ticketing.security.GeneradorCodigosEntrada;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación del código de cada entrada emitida: el UUID hexadecimal anterior frente a GeneradorCodigosEntrada,
+ * por código y en lote. Con varios hilos se ve la contención de UUID.randomUUID sobre el SecureRandom compartido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class CodigoEntradaBenchmark {
+
+    // Entradas de un invitado en una emisión masiva típica
+    @Param({"4"})
+    public int lote;
+
+    private GeneradorCodigosEntrada generador;
+
+    @Setup
+    public void setUp() {
+        this.generador = new GeneradorCodigosEntrada();
+    }
+
+    /** Código anterior de InvitadoService: 32 caracteres hexadecimales. */
+    @Benchmark
+    public String generarUuid() {
+        return UUID.randomUUID().toString().replace("-", "").toUpperCase();
+    }
+
+    @Benchmark
+    public String generarCodigo() {
+        return generador.generar();
+    }
+
+    /** Un invitado con varias entradas: una sola extracción de bytes para todo el lote. */
+    @Benchmark
+    public String[] generarLote() {
+        return generador.generar(lote);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generarUuidConcurrente() {
+        return generarUuid();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generarCodigoConcurrente() {
+        return generador.generar();
+    }
+}
@@ -0,0 +1,76 @@
+package com.microservice.benchmarks;
+
+import com.microservice.comunicaciones.dto.EnvioEntradasRequest;
+import com.microservice.comunicaciones.service.EmailService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armado del correo de entradas en microservice-comunicaciones: la imagen PNG de cada QR (ZXing + ImageIO)
+ * y el HTML que se guarda en la notificación. Un correo lleva una imagen por entrada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class CorreoEntradasBenchmark {
+
+    // Mismo tamaño que usa EmailService.enviarEntradas
+    private static final int LADO_QR = 200;
+
+    @Param({"1", "4", "10"})
+    public int entradas;
+
+    private ServicioCorreo emailService;
+    private List<EnvioEntradasRequest.TicketData> tickets;
+
+    @Setup
+    public void setUp() {
+        this.emailService = new ServicioCorreo();
+        this.tickets = new ArrayList<>();
+        for (int i = 0; i < entradas; i++) {
+            EnvioEntradasRequest.TicketData ticket = new EnvioEntradasRequest.TicketData();
+            ticket.setCodigoQR(String.format("%032X", 0x5EED0000L + i));
+            tickets.add(ticket);
+        }
+    }
+
+    /** Una imagen QR: se paga una vez por entrada del correo. */
+    @Benchmark
+    public byte[] generarImagenQR() throws Exception {
+        return emailService.imagenQR(tickets.get(0).getCodigoQR());
+    }
+
+    /** Todas las imágenes de un correo. */
+    @Benchmark
+    public int generarImagenesCorreo() throws Exception {
+        int bytes = 0;
+        for (EnvioEntradasRequest.TicketData ticket : tickets) {
+            bytes += emailService.imagenQR(ticket.getCodigoQR()).length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String construirContenido() {
+        return emailService.buildEmailContent("María José Pérez", "Concierto de Verano", "General", tickets);
+    }
+
+    // generateQRCodeImage es protegido; el envío de correo no se usa, por eso no hay JavaMailSender
+    private static final class ServicioCorreo extends EmailService {
+
+        private ServicioCorreo() {
+            super(null);
+        }
+
+        private byte[] imagenQR(String codigo) throws Exception {
+            return generateQRCodeImage(codigo, LADO_QR, LADO_QR);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.microservice.benchmarks;
+
+import com.microservice.eventos.dto.EventoResponse;
+import com.microservice.eventos.model.Evento;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo entidad -> DTO de los listados de eventos (EventoService y DashboardService), que lo aplican a cada
+ * evento de la página. Se mide por página para que el GCProfiler muestre los bytes asignados por listado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class EventoResponseBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int eventos;
+
+    private List<Evento> pagina;
+
+    @Setup
+    public void setUp() {
+        this.pagina = new ArrayList<>();
+        for (int i = 0; i < eventos; i++) {
+            pagina.add(Evento.builder()
+                    .idEvento(50L + i)
+                    .ownerId(7L)
+                    .nombre("Concierto de Verano " + i)
+                    .categoria("Música/Festival")
+                    .descripcion("Festival al aire libre con bandas locales y food trucks.")
+                    .direccion("Av. Principal 123, Santiago")
+                    .fecha(LocalDate.of(2025, 12, 31))
+                    .horaInicio(LocalTime.of(20, 0))
+                    .horaCierrePuertas(LocalTime.of(19, 30))
+                    .horaTermino(LocalTime.of(23, 0))
+                    .capacidadMaxima(500)
+                    .estado(Evento.EstadoEvento.Publicado)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<EventoResponse> mapearPagina() {
+        List<EventoResponse> respuesta = new ArrayList<>(pagina.size());
+        for (Evento evento : pagina) {
+            EventoResponse dto = EventoResponse.fromEntity(evento);
+            dto.setRelacionUsuario("OWNER");
+            respuesta.add(dto);
+        }
+        return respuesta;
+    }
+}
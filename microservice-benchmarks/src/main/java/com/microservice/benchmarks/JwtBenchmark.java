@@ -0,0 +1,84 @@
+package com.microservice.benchmarks;
+
+import com.microservice.usuarios.model.Usuario;
+import com.microservice.usuarios.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT de punta a punta: emisión en microservice-usuarios (JwtUtil.generateToken, una vez por login o refresh)
+ * y validación en el gateway (JwtAuthenticationFilter, una vez por cada solicitud autenticada).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class JwtBenchmark {
+
+    // Mismo secreto y vigencia que application.yaml de usuarios y gateway
+    private static final String SECRET = "c3VwZXJTZWNyZXRrZXlPdXJhR3JpZFRlY2huT2ZDb2RlMjUyNlNhbWFsQ29kZQ==";
+    private static final long EXPIRATION = 86_400_000L;
+
+    private JwtUtil jwtUtil;
+    private Usuario usuario;
+    private String token;
+    private JwtParser parserReutilizado;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.jwtUtil = new JwtUtil();
+        asignar(jwtUtil, "secret", SECRET);
+        asignar(jwtUtil, "expiration", EXPIRATION);
+
+        this.usuario = Usuario.builder()
+                .idUsuario(4821L)
+                .correo("staff.puerta@eventos.com")
+                .build();
+        this.token = jwtUtil.generateToken(usuario);
+        this.parserReutilizado = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generateToken(usuario);
+    }
+
+    /**
+     * Mismo código que JwtAuthenticationFilter.filter: la clave y el parser se construyen en cada solicitud.
+     * El gateway es reactivo y no se agrega al classpath, por eso el parseo se reproduce aquí.
+     */
+    @Benchmark
+    public Claims validarEnGateway() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    /** Referencia: el mismo parseo con un parser construido una sola vez. */
+    @Benchmark
+    public Claims validarConParserReutilizado() {
+        return parserReutilizado.parseClaimsJws(token).getBody();
+    }
+
+    // JwtUtil recibe su configuración por @Value; fuera de Spring se asigna directamente
+    private static void asignar(Object destino, String campo, Object valor) throws ReflectiveOperationException {
+        Field field = destino.getClass().getDeclaredField(campo);
+        field.setAccessible(true);
+        field.set(destino, valor);
+    }
+}
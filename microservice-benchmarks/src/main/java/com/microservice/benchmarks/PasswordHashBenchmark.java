@@ -0,0 +1,68 @@
+package com.microservice.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins por segundo por núcleo según el costo de BCrypt.
+ * Con un solo hilo, el throughput de "verificar" es directamente la capacidad de un núcleo;
+ * multiplicado por los núcleos del pool de login da el techo de logins/s del servicio.
+ * Se usa para elegir seguridad.password.bcrypt-strength en microservice-usuarios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "Clave-Staff-2024";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private PasswordEncoder bcrypt;
+    private PasswordEncoder delegante;
+    private String hashBcrypt;
+    private String hashDelegante;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración que SecurityConfig en microservice-usuarios
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", encoder));
+        delegating.setDefaultPasswordEncoderForMatches(encoder);
+
+        this.bcrypt = encoder;
+        this.delegante = delegating;
+        this.hashBcrypt = encoder.encode(PASSWORD);
+        this.hashDelegante = delegating.encode(PASSWORD);
+    }
+
+    /** Verificación de un login exitoso: el camino caliente de UsuarioService.login. */
+    @Benchmark
+    public boolean verificar() {
+        return delegante.matches(PASSWORD, hashDelegante);
+    }
+
+    /** BCrypt sin el prefijo {bcrypt}: mide el overhead del codificador delegante. */
+    @Benchmark
+    public boolean verificarSinDelegar() {
+        return bcrypt.matches(PASSWORD, hashBcrypt);
+    }
+
+    /** Registro o rehash: costo de generar un hash nuevo. */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String codificar() {
+        return delegante.encode(PASSWORD);
+    }
+}
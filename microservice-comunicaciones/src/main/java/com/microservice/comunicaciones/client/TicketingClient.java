@@ -0,0 +1,16 @@
+package com.microservice.comunicaciones.client;
+
+import com.microservice.comunicaciones.dto.ResultadoEnvioDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+// Endpoint interno de ticketing: actualiza en bloque el estado de envío de los invitados
+@FeignClient(name = "microservice-ticketing", path = "/internal/envios")
+public interface TicketingClient {
+
+    @PostMapping("/resultados")
+    void reportarResultados(@RequestBody List<ResultadoEnvioDto> resultados);
+}
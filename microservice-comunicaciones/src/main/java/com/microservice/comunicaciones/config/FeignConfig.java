@@ -0,0 +1,10 @@
+package com.microservice.comunicaciones.config;
+
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+
+// Cliente hacia microservice-ticketing para reportar el resultado de los reintentos de envío
+@Configuration
+@EnableFeignClients(basePackages = "com.microservice.comunicaciones.client")
+public class FeignConfig {
+}
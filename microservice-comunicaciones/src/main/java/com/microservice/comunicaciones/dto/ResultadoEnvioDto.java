@@ -0,0 +1,22 @@
+package com.microservice.comunicaciones.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado final de un envío reintentado automáticamente, reportado a microservice-ticketing.")
+public class ResultadoEnvioDto {
+
+    @Schema(description = "ID del invitado en el servicio de Ticketing.", example = "505")
+    private Long idInvitado;
+
+    @Schema(description = "true si el correo se entregó en un reintento; false si agotó los reintentos.", example = "true")
+    private boolean enviado;
+
+    @Schema(description = "Cantidad de intentos realizados, incluido el original.", example = "3")
+    private int intentos;
+}
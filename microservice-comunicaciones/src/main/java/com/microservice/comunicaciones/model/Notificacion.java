@@ -10,7 +10,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notificaciones")
+@Table(name = "notificaciones", indexes = {
+        // Reclamo de reintentos vencidos y lectura de resultados pendientes de reportar a ticketing
+        @Index(name = "idx_notificaciones_reintento", columnList = "estado_envio, proximo_intento"),
+        @Index(name = "idx_notificaciones_reporte", columnList = "reportado_ticketing"),
+        @Index(name = "idx_notificaciones_invitado", columnList = "id_invitado")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,7 +56,25 @@ public class Notificacion {
     @Schema(description = "Fecha y hora exacta en que se procesó el envío.", example = "2024-12-01T15:30:00")
     private LocalDateTime fechaEnvio;
 
-    @Schema(description = "Enumeración de los posibles estados de una notificación.")
+    @Builder.Default
+    @Schema(description = "Intentos de envío realizados, incluido el original.", example = "1")
+    private int intentos = 0;
+
+    @Schema(description = "Momento a partir del cual puede reintentarse el envío (REINTENTANDO).", example = "2024-12-01T15:31:00")
+    private LocalDateTime proximoIntento;
+
+    @Column(length = 500)
+    @Schema(description = "Último error de envío.", example = "Mail server connection failed")
+    private String ultimoError;
+
+    @Column(columnDefinition = "TEXT")
+    @Schema(description = "Solicitud original en JSON, guardada solo mientras el envío está pendiente de reintento.")
+    private String solicitud;
+
+    @Schema(description = "false si el resultado de un reintento aún no se reportó a Ticketing; null si no hay nada que reportar.")
+    private Boolean reportadoTicketing;
+
+    @Schema(description = "Enumeración de los posibles estados de una notificación. FALLIDO es definitivo: agotó los reintentos.")
     public enum EstadoEnvio {
         PENDIENTE,
         ENVIADO,
@@ -1,9 +1,69 @@
 package com.microservice.comunicaciones.repository;
 
 import com.microservice.comunicaciones.model.Notificacion;
+import com.microservice.comunicaciones.model.Notificacion.EstadoEnvio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface NotificacionRepository extends JpaRepository<Notificacion, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Reintentos vencidos, bloqueados hasta el fin de la transacción. SKIP LOCKED salta las filas que otra
+     * instancia ya está reclamando, así que cada instancia toma un lote distinto sin esperar.
+     */
+    @Query(value = "SELECT * FROM notificaciones WHERE estado_envio = 'REINTENTANDO' AND proximo_intento <= :ahora " +
+                   "ORDER BY proximo_intento LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Notificacion> reclamarReintentos(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+
+    /**
+     * Un envío nuevo para el invitado (reenvío desde ticketing) reemplaza sus reintentos pendientes,
+     * para no mandarle dos correos.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notificacion n SET n.estadoEnvio = :descartado, n.proximoIntento = null, n.solicitud = null, " +
+           "n.ultimoError = 'Reemplazado por un envío posterior' " +
+           "WHERE n.idInvitado = :idInvitado AND n.estadoEnvio = :reintentando")
+    int descartarReintentos(@Param("idInvitado") Long idInvitado,
+                            @Param("reintentando") EstadoEnvio reintentando,
+                            @Param("descartado") EstadoEnvio descartado);
+
+    /**
+     * Guarda el resultado de un reintento solo si la fila sigue reclamada por quien lo ejecutó: REINTENTANDO y con
+     * el próximo intento que fijó el reclamo. Si mientras tanto un envío nuevo la descartó, o el reclamo venció y
+     * otra instancia la tomó, devuelve 0 y ese estado se conserva.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notificacion n SET n.estadoEnvio = :estado, n.intentos = :intentos, n.proximoIntento = :proximoIntento, " +
+           "n.ultimoError = :ultimoError, n.fechaEnvio = :fechaEnvio, n.solicitud = :solicitud, " +
+           "n.reportadoTicketing = :reportadoTicketing " +
+           "WHERE n.idNotificacion = :id AND n.estadoEnvio = :reintentando AND n.proximoIntento = :reclamado")
+    int registrarReintento(@Param("id") Long id,
+                           @Param("reintentando") EstadoEnvio reintentando,
+                           @Param("reclamado") LocalDateTime reclamado,
+                           @Param("estado") EstadoEnvio estado,
+                           @Param("intentos") int intentos,
+                           @Param("proximoIntento") LocalDateTime proximoIntento,
+                           @Param("ultimoError") String ultimoError,
+                           @Param("fechaEnvio") LocalDateTime fechaEnvio,
+                           @Param("solicitud") String solicitud,
+                           @Param("reportadoTicketing") Boolean reportadoTicketing);
+
+    List<Notificacion> findTop500ByReportadoTicketingFalseOrderByIdNotificacion();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notificacion n SET n.reportadoTicketing = true WHERE n.idNotificacion IN :ids")
+    int marcarReportadas(@Param("ids") Collection<Long> ids);
+}
@@ -1,5 +1,7 @@
 package com.microservice.comunicaciones.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservice.comunicaciones.dto.EnvioEntradasRequest;
 import com.microservice.comunicaciones.model.Notificacion;
 import com.microservice.comunicaciones.model.Notificacion.EstadoEnvio;
@@ -7,23 +9,37 @@ import com.microservice.comunicaciones.repository.NotificacionRepository;
 import jakarta.mail.MessagingException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class NotificacionService {
 
+    private static final int LARGO_MAXIMO_ERROR = 500;
+
     private final NotificacionRepository notificacionRepository;
     private final EmailService emailService;
+    private final PoliticaReintentos politicaReintentos;
+    private final ObjectMapper objectMapper;
 
     /**
      * Procesa una solicitud de envío de entradas, registrando el intento y actualizando el estado.
+     * Si el envío falla, la notificación queda en REINTENTANDO con la solicitud guardada para los reintentos
+     * automáticos, y se relanza la excepción para que ticketing marque ERROR_ENVIO mientras tanto.
      */
-    @Transactional
+    // dontRollbackOn: el registro REINTENTANDO debe persistir aunque se relance la excepción para Feign
+    @Transactional(dontRollbackOn = RuntimeException.class)
     public void procesarEnvioEntradas(EnvioEntradasRequest request) {
 
+        // 0. Un envío nuevo (reenvío desde ticketing) reemplaza los reintentos pendientes del mismo invitado
+        notificacionRepository.descartarReintentos(request.getIdInvitado(), EstadoEnvio.REINTENTANDO, EstadoEnvio.FALLIDO);
+
         // 1. CREAR REGISTRO INICIAL (PENDIENTE)
         Notificacion notificacion = Notificacion.builder()
                 .idInvitado(request.getIdInvitado())
@@ -45,15 +61,16 @@ public class NotificacionService {
             emailService.enviarEntradas(request);
 
             // 3. ACTUALIZAR ESTADO (ÉXITO)
+            notificacion.setIntentos(1);
             notificacion.setEstadoEnvio(EstadoEnvio.ENVIADO);
             notificacion.setFechaEnvio(LocalDateTime.now());
 
-        } catch (MessagingException e) {
-            // 4. ACTUALIZAR ESTADO (FALLO)
-            notificacion.setEstadoEnvio(EstadoEnvio.FALLIDO);
-            notificacion.setFechaEnvio(LocalDateTime.now());
+        } catch (MessagingException | MailException e) {
+            // 4. ACTUALIZAR ESTADO (FALLO): queda programado para reintento
+            notificacion.setSolicitud(serializar(request));
+            registrarFallo(notificacion, e);
 
-            // **CRÍTICO:** Imprimir el stack trace completo de la excepción original (MessagingException)
+            // **CRÍTICO:** Imprimir el stack trace completo de la excepción original
             System.err.println("--- ERROR DE MENSAJERÍA (MAILPIT) ---");
             e.printStackTrace();
             System.err.println("-------------------------------------");
@@ -65,4 +82,112 @@ public class NotificacionService {
             notificacionRepository.save(notificacion);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Toma hasta {@code limite} reintentos vencidos (FOR UPDATE SKIP LOCKED) y les corre el próximo intento
+     * {@code reclamo} hacia adelante antes del commit. Las demás instancias no los verán hasta que venza ese plazo,
+     * que solo llega si esta instancia cae antes de registrar el resultado. Ese próximo intento identifica el reclamo
+     * al guardar el resultado (ver {@link #reintentar}).
+     */
+    @Transactional
+    public List<Notificacion> reclamarReintentos(int limite, Duration reclamo) {
+        LocalDateTime ahora = LocalDateTime.now();
+        // En milisegundos: se compara por igualdad con lo guardado en la BD
+        LocalDateTime reclamadoHasta = ahora.plus(reclamo).truncatedTo(ChronoUnit.MILLIS);
+        List<Notificacion> reclamadas = notificacionRepository.reclamarReintentos(ahora, limite);
+        for (Notificacion notificacion : reclamadas) {
+            notificacion.setProximoIntento(reclamadoHasta);
+        }
+        return notificacionRepository.saveAll(reclamadas);
+    }
+
+    /**
+     * Reintenta el envío con la solicitud guardada. Sin transacción: se llama por cada notificación ya reclamada
+     * y guarda su resultado por separado. Un resultado final (ENVIADO o FALLIDO) queda pendiente de reportar a ticketing.
+     *
+     * El resultado se escribe con un UPDATE condicionado al reclamo: si un envío nuevo descartó la notificación
+     * mientras se reintentaba, su estado FALLIDO no se pisa.
+     *
+     * @return true si el correo se entregó.
+     */
+    public boolean reintentar(Notificacion notificacion) {
+        LocalDateTime reclamado = notificacion.getProximoIntento();
+        EnvioEntradasRequest request;
+        try {
+            request = objectMapper.readValue(notificacion.getSolicitud(), EnvioEntradasRequest.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            // Sin solicitud legible no hay nada que reintentar
+            notificacion.setIntentos(notificacion.getIntentos() + 1);
+            finalizar(notificacion, EstadoEnvio.FALLIDO);
+            notificacion.setUltimoError(truncar("Solicitud guardada ilegible: " + e.getMessage()));
+            guardarResultado(notificacion, reclamado);
+            return false;
+        }
+
+        boolean enviado;
+        try {
+            emailService.enviarEntradas(request);
+            notificacion.setIntentos(notificacion.getIntentos() + 1);
+            finalizar(notificacion, EstadoEnvio.ENVIADO);
+            notificacion.setUltimoError(null);
+            enviado = true;
+        } catch (MessagingException | MailException e) {
+            System.err.println("--- REINTENTO FALLIDO (Notificación ID " + notificacion.getIdNotificacion() + "): " + e.getMessage());
+            registrarFallo(notificacion, e);
+            enviado = false;
+        }
+        guardarResultado(notificacion, reclamado);
+        return enviado;
+    }
+
+    private void guardarResultado(Notificacion notificacion, LocalDateTime reclamado) {
+        int guardadas = notificacionRepository.registrarReintento(notificacion.getIdNotificacion(),
+                EstadoEnvio.REINTENTANDO, reclamado, notificacion.getEstadoEnvio(), notificacion.getIntentos(),
+                notificacion.getProximoIntento(), notificacion.getUltimoError(), notificacion.getFechaEnvio(),
+                notificacion.getSolicitud(), notificacion.getReportadoTicketing());
+        if (guardadas == 0) {
+            System.err.println("--- REINTENTO SIN EFECTO (Notificación ID " + notificacion.getIdNotificacion()
+                    + "): fue descartada o reclamada de nuevo mientras se enviaba.");
+        }
+    }
+
+    // Suma el intento y programa el siguiente, o pasa a FALLIDO (dead-letter) si se agotaron
+    private void registrarFallo(Notificacion notificacion, Exception e) {
+        int intentos = notificacion.getIntentos() + 1;
+        notificacion.setIntentos(intentos);
+        notificacion.setUltimoError(truncar(e.getMessage()));
+        if (politicaReintentos.agotado(intentos)) {
+            finalizar(notificacion, EstadoEnvio.FALLIDO);
+        } else {
+            notificacion.setEstadoEnvio(EstadoEnvio.REINTENTANDO);
+            notificacion.setProximoIntento(politicaReintentos.proximoIntento(intentos));
+            notificacion.setFechaEnvio(LocalDateTime.now());
+        }
+    }
+
+    private void finalizar(Notificacion notificacion, EstadoEnvio estado) {
+        notificacion.setEstadoEnvio(estado);
+        notificacion.setFechaEnvio(LocalDateTime.now());
+        notificacion.setProximoIntento(null);
+        notificacion.setSolicitud(null);
+        // Solo los que pasaron por reintentos: ticketing ya conoce el resultado del primer intento
+        if (notificacion.getIntentos() > 1) {
+            notificacion.setReportadoTicketing(false);
+        }
+    }
+
+    private String serializar(EnvioEntradasRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la solicitud para reintento.", e);
+        }
+    }
+
+    private static String truncar(String mensaje) {
+        if (mensaje == null || mensaje.length() <= LARGO_MAXIMO_ERROR) {
+            return mensaje;
+        }
+        return mensaje.substring(0, LARGO_MAXIMO_ERROR);
+    }
+}
@@ -0,0 +1,54 @@
+package com.microservice.comunicaciones.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Espera entre reintentos de envío: exponencial (base, 2 x base, 4 x base...) con tope, de la que se sortea la
+ * mitad superior. El azar reparte en el tiempo los correos que fallaron juntos durante una caída del SMTP, para
+ * que no vuelvan a intentarse todos a la vez cuando se recupere.
+ */
+@Component
+public class PoliticaReintentos {
+
+    private final int maxIntentos;
+    private final long esperaBaseMs;
+    private final long esperaMaxMs;
+
+    public PoliticaReintentos(@Value("${notificaciones.reintentos.max-intentos:8}") int maxIntentos,
+                              @Value("${notificaciones.reintentos.espera-base:30s}") Duration esperaBase,
+                              @Value("${notificaciones.reintentos.espera-max:30m}") Duration esperaMax) {
+        if (maxIntentos < 1) {
+            throw new IllegalArgumentException("notificaciones.reintentos.max-intentos debe ser al menos 1.");
+        }
+        this.maxIntentos = maxIntentos;
+        this.esperaBaseMs = esperaBase.toMillis();
+        this.esperaMaxMs = esperaMax.toMillis();
+    }
+
+    /**
+     * @param intentos intentos fallidos hasta ahora (incluido el original).
+     * @return true si no quedan reintentos y la notificación pasa a FALLIDO.
+     */
+    public boolean agotado(int intentos) {
+        return intentos >= maxIntentos;
+    }
+
+    public LocalDateTime proximoIntento(int intentos) {
+        return LocalDateTime.now().plus(espera(intentos));
+    }
+
+    Duration espera(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 30);
+        long tope = Math.min(esperaBaseMs << exponente, esperaMaxMs);
+        if (tope < 0) {
+            tope = esperaMaxMs; // Desborde del desplazamiento con bases muy grandes
+        }
+        long mitad = tope / 2;
+        return Duration.ofMillis(tope - mitad + ThreadLocalRandom.current().nextLong(mitad + 1));
+    }
+}
@@ -0,0 +1,92 @@
+package com.microservice.comunicaciones.service;
+
+import com.microservice.comunicaciones.client.TicketingClient;
+import com.microservice.comunicaciones.dto.ResultadoEnvioDto;
+import com.microservice.comunicaciones.model.Notificacion;
+import com.microservice.comunicaciones.model.Notificacion.EstadoEnvio;
+import com.microservice.comunicaciones.repository.NotificacionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reintentos automáticos de los correos que fallaron (REINTENTANDO). En cada pasada reclama un lote de
+ * reintentos vencidos, los envía y luego reporta a ticketing, en una sola llamada, los que terminaron
+ * (ENVIADO o FALLIDO tras agotar los reintentos). Así una caída pasajera del SMTP se recupera sola, sin
+ * reemitir desde ticketing.
+ *
+ * Cada instancia reclama lotes distintos (SKIP LOCKED). Si el reporte falla, los resultados siguen marcados
+ * como no reportados y se envían en la pasada siguiente.
+ *
+ * El lote se envía en serie, así que lote x timeout SMTP debe quedar holgadamente por debajo del plazo de reclamo;
+ * si no, otra instancia podría volver a tomar correos que esta todavía está enviando.
+ */
+@Component
+public class ReintentosNotificaciones {
+
+    private final NotificacionService notificacionService;
+    private final NotificacionRepository notificacionRepository;
+    private final TicketingClient ticketingClient;
+    private final int lote;
+    private final Duration reclamo;
+
+    public ReintentosNotificaciones(NotificacionService notificacionService,
+                                    NotificacionRepository notificacionRepository,
+                                    TicketingClient ticketingClient,
+                                    @Value("${notificaciones.reintentos.lote:50}") int lote,
+                                    @Value("${notificaciones.reintentos.reclamo:10m}") Duration reclamo,
+                                    @Value("${spring.mail.properties.mail.smtp.timeout:5000}") long timeoutSmtpMs) {
+        if (Duration.ofMillis(timeoutSmtpMs).multipliedBy(lote).compareTo(reclamo.dividedBy(2)) > 0) {
+            throw new IllegalArgumentException(
+                    "notificaciones.reintentos.reclamo debe ser al menos el doble de lote x mail.smtp.timeout.");
+        }
+        this.notificacionService = notificacionService;
+        this.notificacionRepository = notificacionRepository;
+        this.ticketingClient = ticketingClient;
+        this.lote = lote;
+        this.reclamo = reclamo;
+    }
+
+    @Scheduled(fixedDelayString = "${notificaciones.reintentos.intervalo:15s}")
+    public void procesar() {
+        try {
+            List<Notificacion> reclamadas = notificacionService.reclamarReintentos(lote, reclamo);
+            int enviadas = 0;
+            for (Notificacion notificacion : reclamadas) {
+                if (notificacionService.reintentar(notificacion)) {
+                    enviadas++;
+                }
+            }
+            if (!reclamadas.isEmpty()) {
+                System.out.println("Reintentos de correo: " + enviadas + " de " + reclamadas.size() + " enviados.");
+            }
+        } catch (Exception e) {
+            System.err.println("--- REINTENTOS DE CORREO: " + e.getMessage());
+        }
+        reportarResultados();
+    }
+
+    /**
+     * Envía a ticketing los resultados finales aún no reportados, un lote por llamada.
+     */
+    public void reportarResultados() {
+        List<Notificacion> pendientes = notificacionRepository.findTop500ByReportadoTicketingFalseOrderByIdNotificacion();
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<ResultadoEnvioDto> resultados = pendientes.stream()
+                .map(n -> new ResultadoEnvioDto(n.getIdInvitado(), n.getEstadoEnvio() == EstadoEnvio.ENVIADO, n.getIntentos()))
+                .toList();
+        try {
+            ticketingClient.reportarResultados(resultados);
+        } catch (Exception e) {
+            // Quedan sin marcar: se reintentan en la próxima pasada
+            System.err.println("--- REPORTE A TICKETING: " + e.getMessage());
+            return;
+        }
+        notificacionRepository.marcarReportadas(pendientes.stream().map(Notificacion::getIdNotificacion).toList());
+    }
+}
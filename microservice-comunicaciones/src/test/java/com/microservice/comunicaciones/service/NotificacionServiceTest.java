@@ -1,5 +1,6 @@
 package com.microservice.comunicaciones.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservice.comunicaciones.dto.EnvioEntradasRequest;
 import com.microservice.comunicaciones.model.Notificacion;
 import com.microservice.comunicaciones.model.Notificacion.EstadoEnvio;
@@ -11,13 +12,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +38,12 @@ public class NotificacionServiceTest {
     @Mock
     private EmailService emailService;
 
+    // Política real con 3 intentos como máximo; el ObjectMapper guarda y relee la solicitud
+    @Spy
+    private PoliticaReintentos politicaReintentos = new PoliticaReintentos(3, Duration.ofSeconds(30), Duration.ofMinutes(30));
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private NotificacionService notificacionService;
 
@@ -55,10 +69,10 @@ public class NotificacionServiceTest {
         request.setTickets(Collections.singletonList(ticket));
 
         // Mock genérico para la generación del contenido HTML (simula que es exitoso)
-        when(emailService.buildEmailContent(any(), any(), any(), any())).thenReturn("<html>...content...</html>");
+        lenient().when(emailService.buildEmailContent(any(), any(), any(), any())).thenReturn("<html>...content...</html>");
         
         // Mock: Simular que el repositorio retorna la Notificacion con ID después de guardar
-        when(notificacionRepository.save(any(Notificacion.class))).thenAnswer(invocation -> {
+        lenient().when(notificacionRepository.save(any(Notificacion.class))).thenAnswer(invocation -> {
             Notificacion saved = invocation.getArgument(0);
             if (saved.getIdNotificacion() == null) {
                  saved.setIdNotificacion(1L); // Asignar un ID simulado
@@ -120,14 +134,147 @@ public class NotificacionServiceTest {
         assertTrue(exception.getMessage().contains("Fallo al enviar el correo: Error SMTP"), 
                    "El mensaje de la excepción debe indicar el fallo de envío.");
         
-        // 1. Verificar que se intentó guardar la notificación (PENDIENTE y FALLIDO)
+        // 1. Verificar que se intentó guardar la notificación (PENDIENTE y REINTENTANDO)
         verify(notificacionRepository, times(2)).save(notificacionCaptor.capture()); 
         
-        // 2. Verificar que el estado final guardado es FALLIDO
+        // 2. Verificar que quedó programada para reintento con la solicitud guardada
         List<Notificacion> allSaves = notificacionCaptor.getAllValues();
         Notificacion notificacionFinal = allSaves.get(allSaves.size() - 1); // Último objeto guardado
 
-        assertEquals(EstadoEnvio.FALLIDO, notificacionFinal.getEstadoEnvio(), 
-                     "El estado final de la notificación debe ser FALLIDO.");
+        assertEquals(EstadoEnvio.REINTENTANDO, notificacionFinal.getEstadoEnvio(), 
+                     "El estado final de la notificación debe ser REINTENTANDO.");
+        assertEquals(1, notificacionFinal.getIntentos());
+        assertTrue(notificacionFinal.getProximoIntento().isAfter(LocalDateTime.now()));
+        assertTrue(notificacionFinal.getSolicitud().contains("TKT123"));
+        assertEquals("Error SMTP", notificacionFinal.getUltimoError());
+    }
+
+    @Test
+    void testProcesarEnvioEntradas_Fallo_ConexionSmtp_QuedaParaReintento() throws Exception {
+        // Un SMTP caído llega como MailSendException (no chequeada), no como MessagingException
+        doThrow(new MailSendException("Mail server connection failed")).when(emailService).enviarEntradas(any(EnvioEntradasRequest.class));
+
+        assertThrows(RuntimeException.class, () -> notificacionService.procesarEnvioEntradas(request));
+
+        ArgumentCaptor<Notificacion> notificacionCaptor = ArgumentCaptor.forClass(Notificacion.class);
+        verify(notificacionRepository, times(2)).save(notificacionCaptor.capture());
+        assertEquals(EstadoEnvio.REINTENTANDO, notificacionCaptor.getValue().getEstadoEnvio());
+    }
+
+    @Test
+    void testProcesarEnvioEntradas_DescartaReintentosPendientesDelInvitado() throws Exception {
+        doNothing().when(emailService).enviarEntradas(any(EnvioEntradasRequest.class));
+
+        notificacionService.procesarEnvioEntradas(request);
+
+        verify(notificacionRepository).descartarReintentos(INVITADO_ID, EstadoEnvio.REINTENTANDO, EstadoEnvio.FALLIDO);
+    }
+
+    // ----------------------------------------------------------------------------------
+    // Tests de Reintentos
+    // ----------------------------------------------------------------------------------
+
+    private Notificacion notificacionEnReintento(int intentos) throws Exception {
+        return Notificacion.builder()
+                .idNotificacion(7L)
+                .idInvitado(INVITADO_ID)
+                .destinatario(CORREO_TEST)
+                .asunto("Tus Entradas para: Evento de Prueba")
+                .estadoEnvio(EstadoEnvio.REINTENTANDO)
+                .intentos(intentos)
+                .proximoIntento(LocalDateTime.now().minusSeconds(1))
+                .solicitud(new ObjectMapper().writeValueAsString(request))
+                .build();
+    }
+
+    @Test
+    void testReclamarReintentos_CorreElProximoIntentoPorElPlazoDeReclamo() throws Exception {
+        Notificacion pendiente = notificacionEnReintento(1);
+        when(notificacionRepository.reclamarReintentos(any(LocalDateTime.class), eq(50))).thenReturn(List.of(pendiente));
+        when(notificacionRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+
+        List<Notificacion> reclamadas = notificacionService.reclamarReintentos(50, Duration.ofMinutes(5));
+
+        assertEquals(1, reclamadas.size());
+        assertTrue(pendiente.getProximoIntento().isAfter(LocalDateTime.now().plusMinutes(4)));
+        // Identifica el reclamo al guardar el resultado: sin fracciones que la BD pudiera redondear
+        assertEquals(0, pendiente.getProximoIntento().getNano() % 1_000_000);
+    }
+
+    @Test
+    void testReintentar_Exito_EnviadoYPendienteDeReporte() throws Exception {
+        Notificacion notificacion = notificacionEnReintento(1);
+        LocalDateTime reclamado = notificacion.getProximoIntento();
+        doNothing().when(emailService).enviarEntradas(any(EnvioEntradasRequest.class));
+
+        assertTrue(notificacionService.reintentar(notificacion));
+
+        ArgumentCaptor<EnvioEntradasRequest> enviada = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        verify(emailService).enviarEntradas(enviada.capture());
+        assertEquals(CORREO_TEST, enviada.getValue().getCorreoDestino());
+        assertEquals("TKT123", enviada.getValue().getTickets().get(0).getCodigoQR());
+
+        assertEquals(EstadoEnvio.ENVIADO, notificacion.getEstadoEnvio());
+        assertEquals(2, notificacion.getIntentos());
+        assertEquals(Boolean.FALSE, notificacion.getReportadoTicketing());
+        assertNull(notificacion.getSolicitud());
+        assertNull(notificacion.getProximoIntento());
+        verify(notificacionRepository).registrarReintento(eq(7L), eq(EstadoEnvio.REINTENTANDO), eq(reclamado),
+                eq(EstadoEnvio.ENVIADO), eq(2), isNull(), isNull(), any(LocalDateTime.class), isNull(), eq(false));
+        verify(notificacionRepository, never()).save(any());
+    }
+
+    @Test
+    void testReintentar_DescartadaMientrasSeEnviaba_NoPisaElEstado() throws Exception {
+        Notificacion notificacion = notificacionEnReintento(1);
+        doNothing().when(emailService).enviarEntradas(any(EnvioEntradasRequest.class));
+        // Un envío nuevo la pasó a FALLIDO: el UPDATE condicionado no encuentra la fila reclamada
+        when(notificacionRepository.registrarReintento(any(), any(), any(), any(), anyInt(), any(), any(), any(), any(), any()))
+                .thenReturn(0);
+
+        assertTrue(notificacionService.reintentar(notificacion));
+
+        verify(notificacionRepository, never()).save(any());
+    }
+
+    @Test
+    void testReintentar_Fallo_ProgramaElSiguienteConBackoff() throws Exception {
+        Notificacion notificacion = notificacionEnReintento(1);
+        doThrow(new MailSendException("Mail server connection failed")).when(emailService).enviarEntradas(any(EnvioEntradasRequest.class));
+
+        assertFalse(notificacionService.reintentar(notificacion));
+
+        assertEquals(EstadoEnvio.REINTENTANDO, notificacion.getEstadoEnvio());
+        assertEquals(2, notificacion.getIntentos());
+        // Segundo fallo: entre 30 s y 60 s (mitad superior de 2 x base)
+        assertTrue(notificacion.getProximoIntento().isAfter(LocalDateTime.now().plusSeconds(29)));
+        assertTrue(notificacion.getProximoIntento().isBefore(LocalDateTime.now().plusSeconds(61)));
+        assertNotNull(notificacion.getSolicitud());
+        assertNull(notificacion.getReportadoTicketing());
+    }
+
+    @Test
+    void testReintentar_AgotaLosIntentos_PasaAFallido() throws Exception {
+        Notificacion notificacion = notificacionEnReintento(2);
+        doThrow(new MessagingException("Error SMTP")).when(emailService).enviarEntradas(any(EnvioEntradasRequest.class));
+
+        assertFalse(notificacionService.reintentar(notificacion));
+
+        assertEquals(EstadoEnvio.FALLIDO, notificacion.getEstadoEnvio());
+        assertEquals(3, notificacion.getIntentos());
+        assertEquals(Boolean.FALSE, notificacion.getReportadoTicketing());
+        assertNull(notificacion.getSolicitud());
+        assertNull(notificacion.getProximoIntento());
+    }
+
+    @Test
+    void testReintentar_SolicitudIlegible_PasaAFallidoSinEnviar() throws Exception {
+        Notificacion notificacion = notificacionEnReintento(1);
+        notificacion.setSolicitud("{no es json");
+
+        assertFalse(notificacionService.reintentar(notificacion));
+
+        assertEquals(EstadoEnvio.FALLIDO, notificacion.getEstadoEnvio());
+        verify(emailService, never()).enviarEntradas(any());
     }
 }
\ No newline at end of file
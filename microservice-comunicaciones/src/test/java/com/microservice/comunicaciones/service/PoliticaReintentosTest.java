@@ -0,0 +1,52 @@
+package com.microservice.comunicaciones.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoliticaReintentosTest {
+
+    private final PoliticaReintentos politica = new PoliticaReintentos(8, Duration.ofSeconds(30), Duration.ofMinutes(30));
+
+    @Test
+    void espera_CreceExponencialYQuedaEnLaMitadSuperior() {
+        long[] topesMs = {30_000, 60_000, 120_000, 240_000, 480_000, 960_000, 1_800_000, 1_800_000};
+        for (int intentos = 1; intentos <= topesMs.length; intentos++) {
+            long tope = topesMs[intentos - 1];
+            for (int i = 0; i < 200; i++) {
+                long espera = politica.espera(intentos).toMillis();
+                assertTrue(espera >= tope / 2 && espera <= tope, "intentos=" + intentos + " espera=" + espera);
+            }
+        }
+    }
+
+    @Test
+    void espera_ConJitter_NoEsSiempreLaMisma() {
+        long distintas = IntStream.range(0, 100)
+                .mapToLong(i -> politica.espera(3).toMillis())
+                .distinct()
+                .count();
+
+        assertTrue(distintas > 1);
+    }
+
+    @Test
+    void espera_MuchosIntentos_NoDesbordaElTope() {
+        assertTrue(politica.espera(1_000).toMillis() <= Duration.ofMinutes(30).toMillis());
+    }
+
+    @Test
+    void agotado_AlLlegarAlMaximo() {
+        assertFalse(politica.agotado(7));
+        assertTrue(politica.agotado(8));
+    }
+
+    @Test
+    void maxIntentosInvalido_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PoliticaReintentos(0, Duration.ofSeconds(30), Duration.ofMinutes(30)));
+    }
+}
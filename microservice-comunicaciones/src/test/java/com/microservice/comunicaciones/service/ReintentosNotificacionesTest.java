@@ -0,0 +1,105 @@
+package com.microservice.comunicaciones.service;
+
+import com.microservice.comunicaciones.client.TicketingClient;
+import com.microservice.comunicaciones.dto.ResultadoEnvioDto;
+import com.microservice.comunicaciones.model.Notificacion;
+import com.microservice.comunicaciones.model.Notificacion.EstadoEnvio;
+import com.microservice.comunicaciones.repository.NotificacionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReintentosNotificacionesTest {
+
+    @Mock
+    private NotificacionService notificacionService;
+    @Mock
+    private NotificacionRepository notificacionRepository;
+    @Mock
+    private TicketingClient ticketingClient;
+
+    private ReintentosNotificaciones reintentos;
+
+    @BeforeEach
+    void setUp() {
+        reintentos = new ReintentosNotificaciones(notificacionService, notificacionRepository, ticketingClient,
+                50, Duration.ofMinutes(10), 5000);
+    }
+
+    private Notificacion terminada(Long id, Long idInvitado, EstadoEnvio estado, int intentos) {
+        return Notificacion.builder().idNotificacion(id).idInvitado(idInvitado).estadoEnvio(estado)
+                .intentos(intentos).reportadoTicketing(false).build();
+    }
+
+    @Test
+    void procesar_ReintentaCadaReclamadaYReportaEnUnaLlamada() {
+        Notificacion n1 = Notificacion.builder().idNotificacion(1L).idInvitado(500L).build();
+        Notificacion n2 = Notificacion.builder().idNotificacion(2L).idInvitado(501L).build();
+        when(notificacionService.reclamarReintentos(50, Duration.ofMinutes(5))).thenReturn(List.of(n1, n2));
+        when(notificacionService.reintentar(n1)).thenReturn(true);
+        when(notificacionService.reintentar(n2)).thenReturn(false);
+        when(notificacionRepository.findTop500ByReportadoTicketingFalseOrderByIdNotificacion()).thenReturn(List.of(
+                terminada(1L, 500L, EstadoEnvio.ENVIADO, 2),
+                terminada(3L, 502L, EstadoEnvio.FALLIDO, 8)));
+
+        reintentos.procesar();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ResultadoEnvioDto>> reporte = ArgumentCaptor.forClass(List.class);
+        verify(ticketingClient, times(1)).reportarResultados(reporte.capture());
+        assertEquals(List.of(new ResultadoEnvioDto(500L, true, 2), new ResultadoEnvioDto(502L, false, 8)), reporte.getValue());
+        verify(notificacionRepository).marcarReportadas(List.of(1L, 3L));
+    }
+
+    @Test
+    void reportarResultados_FalloDeTicketing_NoLosMarcaComoReportados() {
+        when(notificacionRepository.findTop500ByReportadoTicketingFalseOrderByIdNotificacion())
+                .thenReturn(List.of(terminada(1L, 500L, EstadoEnvio.ENVIADO, 2)));
+        doThrow(new RuntimeException("ticketing no disponible")).when(ticketingClient).reportarResultados(any());
+
+        reintentos.reportarResultados();
+
+        verify(notificacionRepository, never()).marcarReportadas(any());
+    }
+
+    @Test
+    void procesar_SinPendientes_NoLlamaATicketing() {
+        when(notificacionService.reclamarReintentos(50, Duration.ofMinutes(5))).thenReturn(Collections.emptyList());
+        when(notificacionRepository.findTop500ByReportadoTicketingFalseOrderByIdNotificacion()).thenReturn(Collections.emptyList());
+
+        reintentos.procesar();
+
+        verifyNoInteractions(ticketingClient);
+    }
+
+    @Test
+    void procesar_FalloAlReclamar_IgualReportaLosResultadosPendientes() {
+        when(notificacionService.reclamarReintentos(50, Duration.ofMinutes(5))).thenThrow(new RuntimeException("BD no disponible"));
+        when(notificacionRepository.findTop500ByReportadoTicketingFalseOrderByIdNotificacion())
+                .thenReturn(List.of(terminada(1L, 500L, EstadoEnvio.ENVIADO, 2)));
+
+        reintentos.procesar();
+
+        verify(ticketingClient).reportarResultados(any());
+        verify(notificacionRepository).marcarReportadas(List.of(1L));
+    }
+
+    @Test
+    void constructor_LoteQueNoAlcanzaATerminarDentroDelReclamo_Rechaza() {
+        // 50 x 10 s = 500 s, más de la mitad de 10 min
+        assertThrows(IllegalArgumentException.class, () -> new ReintentosNotificaciones(notificacionService,
+                notificacionRepository, ticketingClient, 50, Duration.ofMinutes(10), 10_000));
+    }
+}
@@ -0,0 +1,42 @@
+package com.microservice.eventos.client;
+
+import com.microservice.eventos.dto.RevocacionCapacidadDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Publica las revocaciones de tokens de capacidad a todas las instancias de microservice-ticketing.
+ * No se usa Feign porque el balanceo enviaría la revocación a una sola instancia.
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketingRevocacionNotifier {
+
+    private static final String SERVICIO_TICKETING = "microservice-ticketing";
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient = RestClient.create();
+
+    public void notificarRevocacion(Long idEvento, Long usuarioId) {
+        List<RevocacionCapacidadDto> revocaciones = List.of(
+                new RevocacionCapacidadDto(idEvento, usuarioId, System.currentTimeMillis()));
+
+        for (ServiceInstance instancia : discoveryClient.getInstances(SERVICIO_TICKETING)) {
+            try {
+                restClient.post()
+                        .uri(instancia.getUri() + "/internal/capacidades/revocaciones")
+                        .body(revocaciones)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                // El token expira por TTL; un fallo de entrega no debe romper la revocación local
+                System.err.println("No se pudo notificar la revocación a " + instancia.getUri() + ": " + e.getMessage());
+            }
+        }
+    }
+}
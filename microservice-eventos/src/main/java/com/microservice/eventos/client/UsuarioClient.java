@@ -5,10 +5,11 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-@FeignClient(name = "microservice-usuarios", path = "/api/usuarios")
+// Endpoints internos de usuarios: responden solo id, correo, nombres, apellidos y estado
+@FeignClient(name = "microservice-usuarios", path = "/internal/usuarios")
 public interface UsuarioClient {
 
-    @GetMapping("/id/{id}")
+    @GetMapping("/{id}")
     UsuarioDto getUsuarioById(@PathVariable("id") Long id);
 
     @GetMapping("/correo/{correo}")
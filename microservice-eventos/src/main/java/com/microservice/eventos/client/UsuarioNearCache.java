@@ -0,0 +1,105 @@
+package com.microservice.eventos.client;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.microservice.eventos.dto.UsuarioDto;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Caché local (near-cache) de perfiles de usuario delante de {@link UsuarioClient}.
+ * Acota el tamaño (W-TinyLFU de Caffeine), expira por TTL, cachea también los usuarios
+ * inexistentes con un TTL más corto y refresca en segundo plano las entradas antiguas
+ * (stale-while-revalidate), devolviendo el valor previo mientras se recarga.
+ */
+@Component
+public class UsuarioNearCache {
+
+    private final UsuarioClient usuarioClient;
+    private final LoadingCache<Long, Optional<UsuarioDto>> usuariosPorId;
+    private final LoadingCache<String, Optional<UsuarioDto>> usuariosPorCorreo;
+
+    public UsuarioNearCache(UsuarioClient usuarioClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${usuarios.cache.max-size:10000}") long maxSize,
+                            @Value("${usuarios.cache.ttl:10m}") Duration ttl,
+                            @Value("${usuarios.cache.negative-ttl:1m}") Duration negativeTtl,
+                            @Value("${usuarios.cache.refresh-after:2m}") Duration refreshAfter) {
+        this.usuarioClient = usuarioClient;
+
+        this.usuariosPorId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<Long, Optional<UsuarioDto>>writing(
+                        (id, usuario) -> usuario.isPresent() ? ttl : negativeTtl))
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(this::cargarPorId);
+
+        this.usuariosPorCorreo = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, Optional<UsuarioDto>>writing(
+                        (correo, usuario) -> usuario.isPresent() ? ttl : negativeTtl))
+                .refreshAfterWrite(refreshAfter)
+                .recordStats()
+                .build(this::cargarPorCorreo);
+
+        // Métricas de aciertos/fallos expuestas en /actuator/metrics (cache.gets, cache.evictions, ...)
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosPorId, "usuarios.porId");
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosPorCorreo, "usuarios.porCorreo");
+    }
+
+    /**
+     * Retorna el usuario por ID o null si no existe en microservice-usuarios.
+     */
+    public UsuarioDto getUsuarioById(Long idUsuario) {
+        return usuariosPorId.get(idUsuario).orElse(null);
+    }
+
+    /**
+     * Retorna el usuario por correo o null si no existe (resultado negativo cacheado).
+     */
+    public UsuarioDto getUsuarioByCorreo(String correo) {
+        return usuariosPorCorreo.get(normalizarCorreo(correo)).orElse(null);
+    }
+
+    /**
+     * Elimina al usuario de ambas cachés. Invocado cuando microservice-usuarios notifica un cambio de perfil.
+     */
+    public void invalidar(Long idUsuario) {
+        usuariosPorId.invalidate(idUsuario);
+        usuariosPorCorreo.asMap().entrySet().removeIf(entry -> entry.getValue()
+                .map(usuario -> idUsuario.equals(usuario.getIdUsuario()))
+                .orElse(false));
+    }
+
+    private Optional<UsuarioDto> cargarPorId(Long idUsuario) {
+        try {
+            return Optional.ofNullable(usuarioClient.getUsuarioById(idUsuario));
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<UsuarioDto> cargarPorCorreo(String correo) {
+        try {
+            Optional<UsuarioDto> usuario = Optional.ofNullable(usuarioClient.getUsuarioByCorreo(correo));
+            // Aprovechamos la respuesta para poblar también la caché por ID
+            usuario.ifPresent(u -> usuariosPorId.put(u.getIdUsuario(), usuario));
+            return usuario;
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private String normalizarCorreo(String correo) {
+        return correo == null ? "" : correo.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -8,6 +8,7 @@ import com.microservice.eventos.model.StaffEvento.EstadoInvitacion;
 import com.microservice.eventos.repository.CatalogoPermisoRepository;
 import com.microservice.eventos.repository.EventoRepository;
 import com.microservice.eventos.repository.StaffEventoRepository;
+import com.microservice.eventos.service.CatalogoPermisosSnapshot;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -26,6 +27,7 @@ public class DataInitializer implements CommandLineRunner {
     private final EventoRepository eventoRepository;
     private final CatalogoPermisoRepository catalogoPermisoRepository;
     private final StaffEventoRepository staffEventoRepository;
+    private final CatalogoPermisosSnapshot catalogoPermisosSnapshot;
 
     @Override
     public void run(String... args) throws Exception {
@@ -41,6 +43,8 @@ public class DataInitializer implements CommandLineRunner {
 
         // Obtener todos los permisos para asignarlos a las invitaciones de prueba
         Set<CatalogoPermiso> todosLosPermisos = new HashSet<>(catalogoPermisoRepository.findAll());
+        catalogoPermisosSnapshot.recargar();
+        long mascaraTodosLosPermisos = catalogoPermisosSnapshot.mascaraCompleta();
 
         // 2. Precargar Evento 1 (Owner: Usuario 1)
         Evento evento1 = eventoRepository.findById(1L).orElse(null);
@@ -92,6 +96,7 @@ public class DataInitializer implements CommandLineRunner {
                     .fechaAsignacion(LocalDateTime.now())
                     .activo(false) // No activo hasta que acepte
                     .estadoInvitacion(EstadoInvitacion.PENDIENTE)
+                    .permisosMask(mascaraTodosLosPermisos)
                     .permisos(todosLosPermisos)
                     .build();
             
@@ -107,6 +112,7 @@ public class DataInitializer implements CommandLineRunner {
                     .fechaAsignacion(LocalDateTime.now())
                     .activo(false)
                     .estadoInvitacion(EstadoInvitacion.PENDIENTE)
+                    .permisosMask(mascaraTodosLosPermisos)
                     .permisos(todosLosPermisos)
                     .build();
 
@@ -0,0 +1,13 @@
+package com.microservice.eventos.config;
+
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita los clientes Feign fuera de la clase principal para que los tests de capa (@DataJpaTest, @WebMvcTest)
+ * no intenten registrarlos.
+ */
+@Configuration
+@EnableFeignClients(basePackages = "com.microservice.eventos.client")
+public class FeignConfig {
+}
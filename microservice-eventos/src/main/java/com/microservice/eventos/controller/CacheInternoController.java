@@ -0,0 +1,24 @@
+package com.microservice.eventos.controller;
+
+import com.microservice.eventos.client.UsuarioNearCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/internal/cache")
+@RequiredArgsConstructor
+@Tag(name = "Interno - Caché", description = "Endpoints de servicio a servicio para invalidar cachés locales.")
+public class CacheInternoController {
+
+    private final UsuarioNearCache usuarioNearCache;
+
+    @Operation(summary = "Invalidar Usuario en Caché", description = "Llamado por microservice-usuarios tras actualizar un perfil para descartar la copia local del usuario.")
+    @DeleteMapping("/usuarios/{idUsuario}")
+    public ResponseEntity<Void> invalidarUsuario(@PathVariable Long idUsuario) {
+        usuarioNearCache.invalidar(idUsuario);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -217,6 +217,42 @@ public class EventoController {
         return ResponseEntity.ok(tienePermiso);
     }
 
+    @Operation(
+            summary = "Consultar Permisos en Lote",
+            description = "Retorna, en una sola llamada, el Owner y los permisos efectivos de una lista de usuarios sobre una lista de eventos (o de un usuario sobre varios eventos). Los eventos inexistentes se omiten.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lista de permisos por evento.",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = PermisosEventoResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Listas vacías o que exceden el máximo permitido.")
+            }
+    )
+    @PostMapping("/permisos/bulk")
+    public ResponseEntity<List<PermisosEventoResponse>> obtenerPermisosBulk(
+            @RequestBody PermisosBulkRequest request) {
+
+        // Propagamos IllegalArgumentException.
+        return ResponseEntity.ok(eventoService.obtenerPermisosBulk(request));
+    }
+
+    @Operation(
+            summary = "Emitir Token de Capacidad",
+            description = "Emite un token firmado y de corta duración con los permisos del usuario (Owner o Staff activo) sobre el evento. microservice-ticketing lo verifica localmente en el check-in (cabecera X-Capability-Token).",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Token emitido.",
+                            content = @Content(schema = @Schema(implementation = CapacidadTokenResponse.class))),
+                    @ApiResponse(responseCode = "403", description = "El usuario no tiene permisos en el evento.")
+            }
+    )
+    @GetMapping("/{idEvento}/capacidad")
+    public ResponseEntity<CapacidadTokenResponse> emitirTokenCapacidad(
+            @Parameter(description = "ID del evento.") @PathVariable("idEvento") Long idEvento,
+            @Parameter(description = "ID del usuario logueado (inyectado por el Gateway).") @RequestHeader("X-User-ID") Long userId) {
+
+        // Propagamos SecurityException.
+        return ResponseEntity.ok(eventoService.emitirTokenCapacidad(idEvento, userId));
+    }
+
     @Operation(
             summary = "Obtener Lista de Permisos",
             description = "Retorna todos los permisos activos del usuario (si es Staff) o todos los permisos disponibles (si es Owner) para el evento.",
@@ -0,0 +1,26 @@
+package com.microservice.eventos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.Set;
+
+@Data
+@Builder
+@Schema(description = "Token de capacidad firmado que acredita los permisos de un usuario sobre un evento.")
+public class CapacidadTokenResponse {
+
+    @Schema(description = "Token JWT firmado. Se envía a microservice-ticketing en la cabecera X-Capability-Token.")
+    private String token;
+
+    @Schema(description = "ID del evento al que aplica el token.", example = "1")
+    private Long idEvento;
+
+    @Schema(description = "Permisos incluidos en el token.", example = "[\"escanear_entrada\"]")
+    private Set<String> permisos;
+
+    @Schema(description = "Fecha de expiración del token.")
+    private Date expiraEn;
+}
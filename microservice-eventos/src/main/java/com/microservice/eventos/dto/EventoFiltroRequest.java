@@ -1,15 +1,41 @@
 package com.microservice.eventos.dto;
 
+import com.microservice.eventos.model.Evento;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
 
 @Data
-@Schema(description = "DTO de entrada para aplicar filtros al buscar eventos.")
+@Schema(description = "DTO de entrada para aplicar filtros al buscar eventos. La paginación es por keyset: " +
+        "para pedir la página siguiente se envían la fecha y el ID del último evento recibido.")
 public class EventoFiltroRequest {
 
-    @Schema(description = "Filtro de búsqueda por nombre del evento (contiene).", example = "Concierto")
+    @Schema(description = "Filtro de búsqueda por nombre del evento (comienza con, sin distinguir mayúsculas).", example = "Concierto")
     private String nombre;
 
     @Schema(description = "Filtro por rol del usuario en relación al evento.", example = "OWNER o STAFF")
     private String relacion;
-}
\ No newline at end of file
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Fecha mínima del evento (inclusive).", example = "2024-01-01")
+    private LocalDate fechaDesde;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Fecha máxima del evento (inclusive).", example = "2024-12-31")
+    private LocalDate fechaHasta;
+
+    @Schema(description = "Filtro por estado del evento.", example = "Publicado")
+    private Evento.EstadoEvento estado;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Cursor: fecha del último evento de la página anterior.", example = "2024-06-15")
+    private LocalDate cursorFecha;
+
+    @Schema(description = "Cursor: ID del último evento de la página anterior. Obligatorio si se envía cursorFecha.", example = "50")
+    private Long cursorId;
+
+    @Schema(description = "Cantidad máxima de eventos por página (por defecto 20, máximo 100).", example = "20")
+    private Integer limite;
+}
@@ -0,0 +1,9 @@
+package com.microservice.eventos.dto;
+
+import com.microservice.eventos.model.Evento;
+
+/**
+ * Datos mínimos de un evento para chequeos de propiedad y estado, sin cargar la entidad completa.
+ */
+public record EventoMetadata(Long idEvento, Long ownerId, Evento.EstadoEvento estado) {
+}
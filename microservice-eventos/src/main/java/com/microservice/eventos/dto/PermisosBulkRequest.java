@@ -0,0 +1,17 @@
+package com.microservice.eventos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "DTO de entrada para consultar en una sola llamada los permisos efectivos de varios usuarios sobre uno o varios eventos.")
+public class PermisosBulkRequest {
+
+    @Schema(description = "IDs de los eventos a consultar.", example = "[1, 2]", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<Long> idEventos;
+
+    @Schema(description = "IDs de los usuarios (Owner o Staff) cuyos permisos se quieren resolver.", example = "[100, 105]", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<Long> usuarioIds;
+}
@@ -0,0 +1,24 @@
+package com.microservice.eventos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@Builder
+@Schema(description = "Owner y permisos efectivos de cada usuario consultado para un evento.")
+public class PermisosEventoResponse {
+
+    @Schema(description = "ID del evento.", example = "1")
+    private Long idEvento;
+
+    @Schema(description = "ID del Owner del evento.", example = "100")
+    private Long ownerId;
+
+    @Schema(description = "Permisos efectivos por ID de usuario. El Owner recibe el catálogo completo; un usuario sin relación activa recibe un conjunto vacío.",
+            example = "{\"100\": [\"escanear_entrada\", \"registrar_invitados\"], \"105\": [\"escanear_entrada\"]}")
+    private Map<Long, Set<String>> permisosPorUsuario;
+}
@@ -0,0 +1,22 @@
+package com.microservice.eventos.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Revocación de los tokens de capacidad de un usuario en un evento, enviada a microservice-ticketing.")
+public class RevocacionCapacidadDto {
+
+    @Schema(description = "ID del evento.", example = "1")
+    private Long idEvento;
+
+    @Schema(description = "ID del usuario cuyos tokens quedan revocados.", example = "105")
+    private Long usuarioId;
+
+    @Schema(description = "Instante de la revocación (epoch en milisegundos). Se invalidan los tokens emitidos antes.", example = "1730822400000")
+    private Long revocadoEn;
+}
@@ -9,7 +9,7 @@ public class UsuarioDto {
     @Schema(description = "Identificador único del usuario.", example = "101")
     private Long idUsuario;
 
-    @Schema(description = "Rol Único Tributario.")
+    @Schema(description = "Rol Único Tributario. No viene en las consultas internas de usuarios.")
     private String rut;
 
     @Schema(description = "Correo electrónico del usuario.")
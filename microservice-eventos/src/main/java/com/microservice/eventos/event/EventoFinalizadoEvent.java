@@ -0,0 +1,10 @@
+package com.microservice.eventos.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de dominio publicado por cada Evento que el finalizador programado pasa a estado Finalizado.
+ * Los consumidores (cachés locales, integraciones) lo reciben con @EventListener.
+ */
+public record EventoFinalizadoEvent(Long idEvento, LocalDateTime finalizadoEn) {
+}
@@ -0,0 +1,51 @@
+package com.microservice.eventos.model;
+
+import com.microservice.eventos.dto.EventoResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Entity
+@Table(name = "dashboard_usuarios")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Modelo de lectura materializado del Dashboard de un usuario. Se elimina ante cualquier escritura que lo afecte y se recalcula en la siguiente lectura.")
+public class DashboardUsuario {
+
+    @Id
+    @Column(name = "usuario_id")
+    @Schema(description = "ID del usuario dueño del dashboard.", example = "101")
+    private Long usuarioId;
+
+    @Column(name = "cantidad_eventos_propios", nullable = false)
+    private long cantidadEventosPropios;
+
+    @Column(name = "cantidad_eventos_staff", nullable = false)
+    private long cantidadEventosStaff;
+
+    @Column(name = "cantidad_invitaciones_pendientes", nullable = false)
+    private long cantidadInvitacionesPendientes;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "proximos_eventos")
+    @Schema(description = "Próximos eventos (máximo 5) ya mapeados a DTO con su relación.")
+    private List<EventoResponse> proximosEventos;
+
+    @Column(name = "valido_hasta")
+    @Schema(description = "Inicio del primer evento listado. Pasado este instante la lista de próximos eventos cambia y se recalcula.")
+    private LocalDateTime validoHasta;
+
+    @Column(name = "actualizado_en", nullable = false)
+    @Schema(description = "Momento del último recálculo.")
+    private LocalDateTime actualizadoEn;
+}
@@ -10,7 +10,14 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "eventos")
+@Table(name = "eventos", indexes = {
+        // Soporta el barrido del finalizador: estado = Publicado y (fecha, hora_termino) vencidos
+        @Index(name = "idx_eventos_estado_fecha_termino", columnList = "estado, fecha, hora_termino"),
+        // Búsqueda de "mis eventos": rama Owner recorrida ya en el orden del keyset (fecha, id_evento)
+        @Index(name = "idx_eventos_owner_fecha", columnList = "owner_id, fecha, id_evento"),
+        // Filtro por prefijo de nombre (LIKE 'texto%')
+        @Index(name = "idx_eventos_nombre", columnList = "nombre")
+})
 @Data
 @Builder
 @NoArgsConstructor
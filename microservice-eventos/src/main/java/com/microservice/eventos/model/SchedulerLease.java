@@ -0,0 +1,32 @@
+package com.microservice.eventos.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lease en base de datos que garantiza que una tarea programada corra en una sola instancia a la vez.")
+public class SchedulerLease {
+
+    @Id
+    @Schema(description = "Nombre de la tarea programada.", example = "finalizar-eventos")
+    private String nombre;
+
+    @Column(nullable = false)
+    @Schema(description = "Identificador de la instancia que posee el lease.")
+    private String propietario;
+
+    @Column(name = "expira_en", nullable = false)
+    @Schema(description = "Instante en que el lease deja de ser válido y puede ser tomado por otra instancia.")
+    private LocalDateTime expiraEn;
+}
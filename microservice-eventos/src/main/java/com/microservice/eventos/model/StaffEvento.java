@@ -12,6 +12,9 @@ import java.util.Set;
 @Entity
 @Table(name = "staff_eventos", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"evento_id", "usuario_id"})
+}, indexes = {
+        // Eventos donde un usuario es Staff activo (búsqueda de "mis eventos" y dashboard)
+        @Index(name = "idx_staff_usuario_activo", columnList = "usuario_id, activo, evento_id")
 })
 @Data
 @Builder
@@ -47,7 +50,12 @@ public class StaffEvento {
     @Schema(description = "Estado del flujo de invitación (PENDIENTE, ACEPTADO, RECHAZADO).", example = "PENDIENTE")
     private EstadoInvitacion estadoInvitacion;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @Column(name = "permisos_mask", nullable = false)
+    @Schema(description = "Permisos del Staff como máscara de bits (bit = idPermiso - 1). Es la fuente usada en los chequeos de permisos.", example = "3")
+    private long permisosMask;
+
+    // LAZY: los chequeos usan permisosMask; cada consulta del repositorio define qué relaciones necesita
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "staff_permisos",
             joinColumns = @JoinColumn(name = "staff_id"),
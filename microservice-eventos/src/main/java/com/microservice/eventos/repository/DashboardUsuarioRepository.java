@@ -0,0 +1,7 @@
+package com.microservice.eventos.repository;
+
+import com.microservice.eventos.model.DashboardUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DashboardUsuarioRepository extends JpaRepository<DashboardUsuario, Long> {
+}
@@ -1,39 +1,134 @@
 package com.microservice.eventos.repository;
 
 
+import com.microservice.eventos.dto.EventoMetadata;
 import com.microservice.eventos.model.Evento;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventoRepository extends JpaRepository<Evento, Long> {
     long countByOwnerId(Long ownerId);
 
-    @Query("SELECT DISTINCT e FROM Evento e " +
-           "LEFT JOIN StaffEvento se ON se.evento.idEvento = e.idEvento " +
-           "WHERE (e.ownerId = :userId OR (se.usuarioId = :userId AND se.activo = true)) " +
+    /**
+     * Próximos eventos donde el usuario es Owner o Staff activo, a partir de (fecha, hora) actual.
+     * EXISTS evita el DISTINCT sobre el JOIN y el Pageable empuja el LIMIT a la base de datos.
+     */
+    @Query("SELECT e FROM Evento e " +
+           "WHERE (e.ownerId = :userId OR EXISTS (" +
+           "    SELECT 1 FROM StaffEvento se WHERE se.evento = e AND se.usuarioId = :userId AND se.activo = true)) " +
            "AND (e.fecha > :currentDate OR (e.fecha = :currentDate AND e.horaInicio >= :currentTime)) " +
-           "ORDER BY e.fecha ASC, e.horaInicio ASC")
+           "ORDER BY e.fecha ASC, e.horaInicio ASC, e.idEvento ASC")
     List<Evento> findProximosEventos(
             @Param("userId") Long userId,
             @Param("currentDate") LocalDate currentDate,
-            @Param("currentTime") LocalTime currentTime);
+            @Param("currentTime") LocalTime currentTime,
+            Pageable pageable);
 
-    List<Evento> findAllByOwnerId(Long ownerId);
-    List<Evento> findAllByIdEventoInOrderByFechaAsc(List<Long> idEventos);
-    List<Evento> findAllByNombreContainingIgnoreCaseAndIdEventoInOrderByFechaAsc(String nombre, List<Long> idEventos);
+    @Query("SELECT new com.microservice.eventos.dto.EventoMetadata(e.idEvento, e.ownerId, e.estado) " +
+           "FROM Evento e WHERE e.idEvento = :idEvento")
+    Optional<EventoMetadata> findMetadataById(@Param("idEvento") Long idEvento);
 
-    @Query("SELECT e FROM Evento e WHERE e.estado = :estadoPublicado " +
+    /**
+     * Búsqueda paginada por keyset (fecha, idEvento) de los eventos donde el usuario es Owner y/o Staff activo.
+     * Una sola consulta con proyección: no hidrata entidades ni arma listas IN en memoria, y el coste
+     * depende del tamaño de la página y no del historial de eventos del usuario.
+     * El nombre se filtra por prefijo (LIKE 'texto%') para poder usar idx_eventos_nombre.
+     */
+    @Query("SELECT e.idEvento AS idEvento, e.nombre AS nombre, e.categoria AS categoria, e.descripcion AS descripcion, " +
+           "e.direccion AS direccion, e.fecha AS fecha, e.horaInicio AS horaInicio, e.horaCierrePuertas AS horaCierrePuertas, " +
+           "e.horaTermino AS horaTermino, e.capacidadMaxima AS capacidadMaxima, e.estado AS estado, " +
+           "CASE WHEN e.ownerId = :usuarioId THEN 'OWNER' ELSE 'STAFF' END AS relacion " +
+           "FROM Evento e " +
+           "WHERE ((:incluirOwner = true AND e.ownerId = :usuarioId) " +
+           "    OR (:incluirStaff = true AND EXISTS (" +
+           "        SELECT 1 FROM StaffEvento se WHERE se.evento = e AND se.usuarioId = :usuarioId AND se.activo = true))) " +
+           "AND (:prefijoNombre IS NULL OR e.nombre LIKE :prefijoNombre ESCAPE '!') " +
+           "AND (:fechaDesde IS NULL OR e.fecha >= :fechaDesde) " +
+           "AND (:fechaHasta IS NULL OR e.fecha <= :fechaHasta) " +
+           "AND (:estado IS NULL OR e.estado = :estado) " +
+           "AND (:cursorFecha IS NULL OR e.fecha > :cursorFecha " +
+           "    OR (e.fecha = :cursorFecha AND e.idEvento > :cursorId)) " +
+           "ORDER BY e.fecha ASC, e.idEvento ASC")
+    List<EventoBusquedaFila> buscarPorUsuario(
+            @Param("usuarioId") Long usuarioId,
+            @Param("incluirOwner") boolean incluirOwner,
+            @Param("incluirStaff") boolean incluirStaff,
+            @Param("prefijoNombre") String prefijoNombre,
+            @Param("fechaDesde") LocalDate fechaDesde,
+            @Param("fechaHasta") LocalDate fechaHasta,
+            @Param("estado") Evento.EstadoEvento estado,
+            @Param("cursorFecha") LocalDate cursorFecha,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    interface EventoBusquedaFila {
+        Long getIdEvento();
+        String getNombre();
+        String getCategoria();
+        String getDescripcion();
+        String getDireccion();
+        LocalDate getFecha();
+        LocalTime getHoraInicio();
+        LocalTime getHoraCierrePuertas();
+        LocalTime getHoraTermino();
+        Integer getCapacidadMaxima();
+        Evento.EstadoEvento getEstado();
+        String getRelacion();
+    }
+
+    /**
+     * Resuelve en una sola consulta el owner de cada evento y la máscara de permisos de los usuarios Staff activos indicados.
+     * Retorna una fila por (evento, usuario); los eventos sin Staff coincidente aparecen con usuarioId nulo.
+     */
+    @Query("SELECT e.idEvento AS idEvento, e.ownerId AS ownerId, se.usuarioId AS usuarioId, se.permisosMask AS permisosMask " +
+           "FROM Evento e " +
+           "LEFT JOIN StaffEvento se ON se.evento = e AND se.activo = true AND se.usuarioId IN :usuarioIds " +
+           "WHERE e.idEvento IN :idEventos")
+    List<PermisoEfectivoFila> findPermisosEfectivos(
+            @Param("idEventos") Collection<Long> idEventos,
+            @Param("usuarioIds") Collection<Long> usuarioIds);
+
+    interface PermisoEfectivoFila {
+        Long getIdEvento();
+        Long getOwnerId();
+        Long getUsuarioId();
+        Long getPermisosMask();
+    }
+
+    @Query("SELECT e.idEvento FROM Evento e WHERE e.estado = :estado " +
             "AND (e.fecha < :currentDate " +
             "OR (e.fecha = :currentDate AND e.horaTermino <= :currentTime))")
-    List<Evento> findEventosToFinalize(
-            @Param("estadoPublicado") String estadoPublicado,
+    List<Long> findIdsToFinalize(
+            @Param("estado") Evento.EstadoEvento estado,
             @Param("currentDate") LocalDate currentDate,
-            @Param("currentTime") LocalTime currentTime);
+            @Param("currentTime") LocalTime currentTime,
+            Pageable pageable);
+
+    @Query("SELECT e.idEvento FROM Evento e WHERE e.idEvento IN :ids AND e.estado = :estado")
+    List<Long> findIdsByIdEventoInAndEstado(
+            @Param("ids") Collection<Long> ids,
+            @Param("estado") Evento.EstadoEvento estado);
+
+    /**
+     * UPDATE masivo de un bloque de eventos. La condición sobre el estado evita pisar una cancelación concurrente.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Evento e SET e.estado = :nuevoEstado WHERE e.idEvento IN :ids AND e.estado = :estadoActual")
+    int actualizarEstado(
+            @Param("ids") Collection<Long> ids,
+            @Param("estadoActual") Evento.EstadoEvento estadoActual,
+            @Param("nuevoEstado") Evento.EstadoEvento nuevoEstado);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.microservice.eventos.repository;
+
+import com.microservice.eventos.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Toma o renueva el lease solo si está vencido o ya pertenece a esta instancia. Retorna 1 si se obtuvo.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.propietario = :propietario, l.expiraEn = :expiraEn " +
+           "WHERE l.nombre = :nombre AND (l.expiraEn < :ahora OR l.propietario = :propietario)")
+    int adquirir(@Param("nombre") String nombre,
+                 @Param("propietario") String propietario,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("expiraEn") LocalDateTime expiraEn);
+
+    /**
+     * INSERT explícito (no merge) para que dos instancias no puedan crear la misma fila: la segunda falla por clave duplicada.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (nombre, propietario, expira_en) VALUES (:nombre, :propietario, :expiraEn)",
+           nativeQuery = true)
+    void crear(@Param("nombre") String nombre,
+               @Param("propietario") String propietario,
+               @Param("expiraEn") LocalDateTime expiraEn);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.expiraEn = :ahora WHERE l.nombre = :nombre AND l.propietario = :propietario")
+    int liberar(@Param("nombre") String nombre,
+                @Param("propietario") String propietario,
+                @Param("ahora") LocalDateTime ahora);
+}
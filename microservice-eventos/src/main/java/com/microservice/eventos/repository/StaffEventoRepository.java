@@ -2,10 +2,12 @@ package com.microservice.eventos.repository;
 
 import com.microservice.eventos.model.StaffEvento;
 import com.microservice.eventos.model.StaffEvento.EstadoInvitacion;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -14,14 +16,31 @@ public interface StaffEventoRepository extends JpaRepository<StaffEvento, Long>
 
     Optional<StaffEvento> findByEvento_IdEventoAndUsuarioId(Long idEvento, Long usuarioId);
 
-    @Query("SELECT se.evento.idEvento FROM StaffEvento se WHERE se.usuarioId = :usuarioId AND se.activo = true")
-    Set<Long> findActiveEventIdsByUsuarioId(@Param("usuarioId") Long usuarioId);
-
     long countByUsuarioIdAndActivoTrue(Long usuarioId);
 
     long countByUsuarioIdAndEstadoInvitacion(Long usuarioId, EstadoInvitacion estadoInvitacion);
 
+    // Las invitaciones se muestran con los datos del evento: se traen en el mismo SELECT (JOIN)
+    @EntityGraph(attributePaths = "evento")
     List<StaffEvento> findByUsuarioIdAndEstadoInvitacion(Long usuarioId, EstadoInvitacion estadoInvitacion);
-    
-    List<StaffEvento> findAllByEvento_IdEvento(Long idEvento);
+
+    /**
+     * Listado de Staff de un evento como proyección: una sola consulta, sin cargar evento ni staff_permisos.
+     */
+    @Query("SELECT se.idStaff AS idStaff, se.usuarioId AS usuarioId, se.fechaAsignacion AS fechaAsignacion, " +
+           "se.activo AS activo, se.estadoInvitacion AS estadoInvitacion, se.permisosMask AS permisosMask " +
+           "FROM StaffEvento se WHERE se.evento.idEvento = :idEvento")
+    List<StaffResumen> findResumenByEventoId(@Param("idEvento") Long idEvento);
+
+    interface StaffResumen {
+        Long getIdStaff();
+        Long getUsuarioId();
+        LocalDateTime getFechaAsignacion();
+        Boolean getActivo();
+        EstadoInvitacion getEstadoInvitacion();
+        Long getPermisosMask();
+    }
+
+    @Query("SELECT se.usuarioId FROM StaffEvento se WHERE se.evento.idEvento = :idEvento AND se.activo = true")
+    Set<Long> findActiveUsuarioIdsByEventoId(@Param("idEvento") Long idEvento);
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.microservice.eventos.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Emite tokens de capacidad firmados (HS256) que declaran los permisos de un usuario sobre un evento.
+ * microservice-ticketing los verifica localmente con el mismo secreto, sin llamar a este servicio.
+ */
+@Component
+public class CapacidadTokenUtil {
+
+    private final SecretKey key;
+    private final Duration ttl;
+
+    public CapacidadTokenUtil(@Value("${capacidad.secret}") String secret,
+                              @Value("${capacidad.ttl:10m}") Duration ttl) {
+        // La clave se construye una sola vez y se reutiliza en cada firma
+        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.ttl = ttl;
+    }
+
+    public String generarToken(Long usuarioId, Long idEvento, Set<String> permisos, Date emitidoEn) {
+        return Jwts.builder()
+                .setSubject(String.valueOf(usuarioId))
+                .claim("idEvento", idEvento)
+                .claim("permisos", permisos)
+                .setIssuedAt(emitidoEn)
+                .setExpiration(calcularExpiracion(emitidoEn))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Date calcularExpiracion(Date emitidoEn) {
+        return new Date(emitidoEn.getTime() + ttl.toMillis());
+    }
+}
@@ -0,0 +1,126 @@
+package com.microservice.eventos.service;
+
+import com.microservice.eventos.model.CatalogoPermiso;
+import com.microservice.eventos.repository.CatalogoPermisoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Copia inmutable en memoria del catálogo de permisos. Cada permiso ocupa el bit (idPermiso - 1) de una máscara
+ * {@code long}, de modo que los permisos de un Staff se guardan y se comparan como un número, sin consultar
+ * {@code staff_permisos}. Se carga de forma perezosa en el primer uso (después de que DataInitializer precargue
+ * el catálogo) y puede recargarse si el catálogo cambia.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogoPermisosSnapshot {
+
+    private static final int MAX_PERMISOS = Long.SIZE;
+
+    private final CatalogoPermisoRepository catalogoPermisoRepository;
+    private volatile Catalogo catalogo;
+
+    private record Catalogo(Map<String, CatalogoPermiso> porNombre, CatalogoPermiso[] porBit, long mascaraCompleta) {
+    }
+
+    /**
+     * Bit del permiso indicado (sin distinguir mayúsculas) o 0 si no existe en el catálogo.
+     */
+    public long bit(String nombrePermiso) {
+        if (nombrePermiso == null) {
+            return 0L;
+        }
+        CatalogoPermiso permiso = catalogo().porNombre().get(nombrePermiso.toLowerCase(Locale.ROOT));
+        return permiso == null ? 0L : 1L << (permiso.getIdPermiso() - 1);
+    }
+
+    public long mascara(Collection<String> nombresPermisos) {
+        long mascara = 0L;
+        for (String nombre : nombresPermisos) {
+            long bit = bit(nombre);
+            if (bit == 0L) {
+                throw new NoSuchElementException("Permiso no válido: " + nombre);
+            }
+            mascara |= bit;
+        }
+        return mascara;
+    }
+
+    public long mascaraCompleta() {
+        return catalogo().mascaraCompleta();
+    }
+
+    /**
+     * Nombres canónicos (instancias compartidas del catálogo) de los permisos presentes en la máscara.
+     */
+    public Set<String> nombres(long mascara) {
+        Set<String> nombres = new HashSet<>();
+        for (CatalogoPermiso permiso : permisos(mascara)) {
+            nombres.add(permiso.getNombrePermiso());
+        }
+        return nombres;
+    }
+
+    /**
+     * Entidades del catálogo presentes en la máscara, para mantener la tabla staff_permisos sin consultarla.
+     */
+    public Set<CatalogoPermiso> permisos(long mascara) {
+        CatalogoPermiso[] porBit = catalogo().porBit();
+        Set<CatalogoPermiso> permisos = new HashSet<>();
+        long restante = mascara;
+        while (restante != 0L) {
+            int bit = Long.numberOfTrailingZeros(restante);
+            if (porBit[bit] != null) {
+                permisos.add(porBit[bit]);
+            }
+            restante &= restante - 1;
+        }
+        return permisos;
+    }
+
+    public void recargar() {
+        catalogo = cargar();
+    }
+
+    private Catalogo catalogo() {
+        Catalogo actual = catalogo;
+        if (actual == null) {
+            synchronized (this) {
+                actual = catalogo;
+                if (actual == null) {
+                    actual = cargar();
+                    catalogo = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    private Catalogo cargar() {
+        List<CatalogoPermiso> permisos = catalogoPermisoRepository.findAll();
+        Map<String, CatalogoPermiso> porNombre = new HashMap<>();
+        CatalogoPermiso[] porBit = new CatalogoPermiso[MAX_PERMISOS];
+        long mascaraCompleta = 0L;
+
+        for (CatalogoPermiso permiso : permisos) {
+            if (permiso.getIdPermiso() < 1 || permiso.getIdPermiso() > MAX_PERMISOS) {
+                throw new IllegalStateException("El catálogo de permisos admite como máximo " + MAX_PERMISOS + " permisos (ID fuera de rango: " + permiso.getIdPermiso() + ").");
+            }
+            int bit = (int) (permiso.getIdPermiso() - 1);
+            porNombre.put(permiso.getNombrePermiso().toLowerCase(Locale.ROOT), permiso);
+            porBit[bit] = permiso;
+            mascaraCompleta |= 1L << bit;
+        }
+
+        return new Catalogo(Map.copyOf(porNombre), porBit, mascaraCompleta);
+    }
+}
@@ -0,0 +1,124 @@
+package com.microservice.eventos.service;
+
+import com.microservice.eventos.dto.DashboardResponse;
+import com.microservice.eventos.dto.EventoResponse;
+import com.microservice.eventos.model.DashboardUsuario;
+import com.microservice.eventos.model.Evento;
+import com.microservice.eventos.model.StaffEvento.EstadoInvitacion;
+import com.microservice.eventos.repository.DashboardUsuarioRepository;
+import com.microservice.eventos.repository.EventoRepository;
+import com.microservice.eventos.repository.StaffEventoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene el modelo de lectura {@link DashboardUsuario}. Las escrituras de eventos y staff eliminan las filas
+ * de los usuarios afectados y la siguiente lectura las recalcula, por lo que abrir el dashboard es normalmente
+ * una lectura por clave primaria.
+ */
+@Service
+public class DashboardService {
+
+    private static final int MAX_PROXIMOS_EVENTOS = 5;
+
+    private final DashboardUsuarioRepository dashboardUsuarioRepository;
+    private final EventoRepository eventoRepository;
+    private final StaffEventoRepository staffEventoRepository;
+    private final Duration maxAntiguedad;
+
+    public DashboardService(DashboardUsuarioRepository dashboardUsuarioRepository,
+                            EventoRepository eventoRepository,
+                            StaffEventoRepository staffEventoRepository,
+                            @Value("${dashboard.max-antiguedad:5m}") Duration maxAntiguedad) {
+        this.dashboardUsuarioRepository = dashboardUsuarioRepository;
+        this.eventoRepository = eventoRepository;
+        this.staffEventoRepository = staffEventoRepository;
+        this.maxAntiguedad = maxAntiguedad;
+    }
+
+    public DashboardResponse obtenerDashboard(Long userId) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        DashboardUsuario dashboard = dashboardUsuarioRepository.findById(userId)
+                .filter(d -> esVigente(d, ahora))
+                .orElseGet(() -> recalcular(userId, ahora));
+
+        return DashboardResponse.builder()
+                .cantidadEventosPropios(dashboard.getCantidadEventosPropios())
+                .cantidadEventosStaff(dashboard.getCantidadEventosStaff())
+                .cantidadInvitacionesPendientes(dashboard.getCantidadInvitacionesPendientes())
+                .proximosEventos(dashboard.getProximosEventos())
+                .build();
+    }
+
+    /**
+     * Descarta los dashboards materializados de los usuarios indicados.
+     */
+    public void invalidar(Collection<Long> usuarioIds) {
+        if (!usuarioIds.isEmpty()) {
+            dashboardUsuarioRepository.deleteAllByIdInBatch(usuarioIds);
+        }
+    }
+
+    /**
+     * Descarta los dashboards del Owner y del Staff activo de un evento (cambios de fecha, nombre o estado).
+     */
+    public void invalidarEvento(Long idEvento, Long ownerId) {
+        Set<Long> afectados = new HashSet<>(staffEventoRepository.findActiveUsuarioIdsByEventoId(idEvento));
+        afectados.add(ownerId);
+        invalidar(afectados);
+    }
+
+    private boolean esVigente(DashboardUsuario dashboard, LocalDateTime ahora) {
+        // La antigüedad máxima acota una posible carrera entre un recálculo y una invalidación concurrente
+        if (dashboard.getActualizadoEn().plus(maxAntiguedad).isBefore(ahora)) {
+            return false;
+        }
+        return dashboard.getValidoHasta() == null || dashboard.getValidoHasta().isAfter(ahora);
+    }
+
+    private DashboardUsuario recalcular(Long userId, LocalDateTime ahora) {
+        List<Evento> proximos = eventoRepository.findProximosEventos(
+                userId, ahora.toLocalDate(), ahora.toLocalTime(), PageRequest.of(0, MAX_PROXIMOS_EVENTOS));
+
+        List<EventoResponse> proximosDto = proximos.stream()
+                .map(e -> {
+                    EventoResponse dto = EventoResponse.fromEntity(e);
+                    dto.setRelacionUsuario(e.getOwnerId().equals(userId) ? "OWNER" : "STAFF");
+                    return dto;
+                }).collect(Collectors.toList());
+
+        // La lista cambia cuando comienza el primer evento listado
+        LocalDateTime validoHasta = proximos.isEmpty() ? null : LocalDateTime.of(
+                proximos.get(0).getFecha(),
+                proximos.get(0).getHoraInicio() != null ? proximos.get(0).getHoraInicio() : LocalTime.MIN);
+
+        DashboardUsuario dashboard = DashboardUsuario.builder()
+                .usuarioId(userId)
+                .cantidadEventosPropios(eventoRepository.countByOwnerId(userId))
+                .cantidadEventosStaff(staffEventoRepository.countByUsuarioIdAndActivoTrue(userId))
+                .cantidadInvitacionesPendientes(staffEventoRepository.countByUsuarioIdAndEstadoInvitacion(userId, EstadoInvitacion.PENDIENTE))
+                .proximosEventos(proximosDto)
+                .validoHasta(validoHasta)
+                .actualizadoEn(ahora)
+                .build();
+
+        try {
+            return dashboardUsuarioRepository.save(dashboard);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición materializó el mismo dashboard en paralelo; el valor calculado sigue siendo válido
+            return dashboard;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.microservice.eventos.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.microservice.eventos.dto.EventoMetadata;
+import com.microservice.eventos.event.EventoFinalizadoEvent;
+import com.microservice.eventos.repository.EventoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Mapa en memoria idEvento → (ownerId, estado) para resolver chequeos de propiedad sin cargar la entidad Evento.
+ * Se carga con una consulta de proyección y se invalida en cada escritura del evento. El owner no cambia nunca;
+ * el TTL solo acota cuánto puede tardar otra instancia en ver un cambio de estado.
+ * Los eventos inexistentes no se cachean, para que un evento recién creado sea visible de inmediato.
+ */
+@Component
+public class EventoOwnershipResolver {
+
+    private final LoadingCache<Long, EventoMetadata> metadataPorEvento;
+
+    public EventoOwnershipResolver(EventoRepository eventoRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${eventos.cache.metadata.max-size:10000}") long maxSize,
+                                   @Value("${eventos.cache.metadata.ttl:1m}") Duration ttl) {
+        this.metadataPorEvento = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(idEvento -> eventoRepository.findMetadataById(idEvento).orElse(null));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, metadataPorEvento, "eventos.metadata");
+    }
+
+    /**
+     * Retorna los metadatos del evento o null si no existe.
+     */
+    public EventoMetadata obtener(Long idEvento) {
+        return metadataPorEvento.get(idEvento);
+    }
+
+    public boolean esOwner(Long idEvento, Long idUsuario) {
+        EventoMetadata metadata = obtener(idEvento);
+        return metadata != null && metadata.ownerId().equals(idUsuario);
+    }
+
+    public void invalidar(Long idEvento) {
+        metadataPorEvento.invalidate(idEvento);
+    }
+
+    @EventListener
+    public void onEventoFinalizado(EventoFinalizadoEvent evento) {
+        invalidar(evento.idEvento());
+    }
+}
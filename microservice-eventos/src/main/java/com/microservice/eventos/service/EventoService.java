@@ -1,62 +1,56 @@
 package com.microservice.eventos.service;
 
-import com.microservice.eventos.client.UsuarioClient;
+import com.microservice.eventos.client.TicketingRevocacionNotifier;
+import com.microservice.eventos.client.UsuarioNearCache;
 import com.microservice.eventos.dto.*;
+import com.microservice.eventos.event.EventoFinalizadoEvent;
 import com.microservice.eventos.model.*;
 import com.microservice.eventos.model.StaffEvento.EstadoInvitacion;
 import com.microservice.eventos.repository.*;
+import com.microservice.eventos.security.CapacidadTokenUtil;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled; // Importación necesaria
 import org.springframework.stereotype.Service;
-import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class EventoService {
 
+    private static final int MAX_ELEMENTOS_BULK = 500;
+    private static final String LEASE_FINALIZADOR = "finalizar-eventos";
+    private static final Duration DURACION_LEASE_FINALIZADOR = Duration.ofMinutes(4);
+    private static final int LIMITE_BUSQUEDA_DEFECTO = 20;
+    private static final int LIMITE_BUSQUEDA_MAXIMO = 100;
+    private static final int TAMANO_BLOQUE_FINALIZADOR = 500;
+
     private final EventoRepository eventoRepository;
     private final StaffEventoRepository staffEventoRepository;
-    private final CatalogoPermisoRepository catalogoPermisoRepository;
-    private final UsuarioClient usuarioClient;
+    private final CatalogoPermisosSnapshot catalogoPermisosSnapshot;
+    private final UsuarioNearCache usuarioNearCache;
+    private final CapacidadTokenUtil capacidadTokenUtil;
+    private final TicketingRevocacionNotifier ticketingRevocacionNotifier;
+    private final EventoOwnershipResolver eventoOwnershipResolver;
+    private final DashboardService dashboardService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DashboardResponse obtenerDashboard(Long userId) {
-        long eventosPropios = eventoRepository.countByOwnerId(userId);
-        long eventosStaff = staffEventoRepository.countByUsuarioIdAndActivoTrue(userId);
-        long invitacionesPendientes = staffEventoRepository.countByUsuarioIdAndEstadoInvitacion(userId, EstadoInvitacion.PENDIENTE);
-
-        // Obtener próximos 5 eventos
-        List<Evento> proximos = eventoRepository.findProximosEventos(userId, LocalDate.now(), LocalTime.now());
-        
-        // Mapear a DTO con rol
-        List<EventoResponse> proximosDto = proximos.stream()
-                .limit(5)
-                .map(e -> {
-                    EventoResponse dto = EventoResponse.fromEntity(e);
-                    // Determinar rol rápidamente
-                    if (e.getOwnerId().equals(userId)) {
-                        dto.setRelacionUsuario("OWNER");
-                    } else {
-                        dto.setRelacionUsuario("STAFF");
-                    }
-                    return dto;
-                }).collect(Collectors.toList());
-
-        return DashboardResponse.builder()
-                .cantidadEventosPropios(eventosPropios)
-                .cantidadEventosStaff(eventosStaff)
-                .cantidadInvitacionesPendientes(invitacionesPendientes)
-                .proximosEventos(proximosDto)
-                .build();
+        return dashboardService.obtenerDashboard(userId);
     }
 
     public StaffEvento asignarStaffYPermisos(StaffAsignacionRequest request, Long ownerId) {
@@ -66,7 +60,7 @@ public class EventoService {
         }
 
         // 2. Validar Usuario Staff
-        UsuarioDto staffDto = usuarioClient.getUsuarioByCorreo(request.getCorreoUsuarioStaff());
+        UsuarioDto staffDto = usuarioNearCache.getUsuarioByCorreo(request.getCorreoUsuarioStaff());
         if (staffDto == null || !"Activo".equalsIgnoreCase(staffDto.getEstado())) {
             throw new IllegalArgumentException("El usuario a invitar no existe o no está activo.");
         }
@@ -79,10 +73,9 @@ public class EventoService {
         Evento evento = eventoRepository.findById(request.getIdEvento())
                 .orElseThrow(() -> new NoSuchElementException("Evento no encontrado."));
 
-        Set<CatalogoPermiso> permisos = request.getPermisos().stream()
-                .map(nombre -> catalogoPermisoRepository.findByNombrePermiso(nombre)
-                        .orElseThrow(() -> new NoSuchElementException("Permiso no válido: " + nombre)))
-                .collect(Collectors.toSet());
+        // Una sola resolución en memoria contra el catálogo, sin consultas por permiso
+        long permisosMask = catalogoPermisosSnapshot.mascara(request.getPermisos());
+        Set<CatalogoPermiso> permisos = catalogoPermisosSnapshot.permisos(permisosMask);
 
         // 3. Crear o Actualizar Invitación
         StaffEvento staffEvento = staffEventoRepository.findByEvento_IdEventoAndUsuarioId(
@@ -100,9 +93,17 @@ public class EventoService {
              staffEvento.setActivo(false);
         }
         
+        // Si el Staff ya estaba activo, sus tokens de capacidad vigentes podrían declarar permisos retirados
+        boolean revocarTokens = staffEvento.isActivo();
+        staffEvento.setPermisosMask(permisosMask);
         staffEvento.setPermisos(permisos);
 
-        return staffEventoRepository.save(staffEvento);
+        StaffEvento guardado = staffEventoRepository.save(staffEvento);
+        dashboardService.invalidar(List.of(staffDto.getIdUsuario()));
+        if (revocarTokens) {
+            ticketingRevocacionNotifier.notificarRevocacion(request.getIdEvento(), staffDto.getIdUsuario());
+        }
+        return guardado;
     }
 
     public List<EventoResponse> listarInvitacionesPendientes(Long userId) {
@@ -134,11 +135,12 @@ public class EventoService {
             invitacion.setActivo(false);
         }
         staffEventoRepository.save(invitacion);
+        dashboardService.invalidar(List.of(userId));
     }
 
 
     public Evento crearEvento(Evento evento, Long ownerId) {
-        UsuarioDto owner = usuarioClient.getUsuarioById(ownerId);
+        UsuarioDto owner = usuarioNearCache.getUsuarioById(ownerId);
         if (owner == null || !"Activo".equalsIgnoreCase(owner.getEstado())) {
             throw new IllegalArgumentException("El Owner del evento no es válido o no está activo.");
         }
@@ -146,16 +148,17 @@ public class EventoService {
         evento.setOwnerId(ownerId);
         evento.setEstado(Evento.EstadoEvento.Publicado);
 
-        return eventoRepository.save(evento);
+        Evento creado = eventoRepository.save(evento);
+        eventoOwnershipResolver.invalidar(creado.getIdEvento());
+        dashboardService.invalidar(List.of(ownerId));
+        return creado;
     }
 
     public Evento actualizarEvento(Long idEvento, Long editorId, Evento eventoActualizado) {
-        if (!esOwner(idEvento, editorId)) {
-            throw new SecurityException("Acceso denegado. Solo el Owner puede modificar el evento.");
-        }
-
+        // Una sola carga: la misma entidad sirve para validar al Owner y para modificarla
         Evento evento = eventoRepository.findById(idEvento)
-                .orElseThrow(() -> new NoSuchElementException("Evento no encontrado."));
+                .filter(e -> e.getOwnerId().equals(editorId))
+                .orElseThrow(() -> new SecurityException("Acceso denegado. Solo el Owner puede modificar el evento."));
 
         if (evento.getEstado() == Evento.EstadoEvento.Finalizado || evento.getEstado() == Evento.EstadoEvento.Cancelado) {
             throw new IllegalArgumentException("No se puede modificar un evento que está " + evento.getEstado() + ".");
@@ -172,15 +175,16 @@ public class EventoService {
         evento.setHoraCierrePuertas(eventoActualizado.getHoraCierrePuertas());
         evento.setHoraTermino(eventoActualizado.getHoraTermino());
 
-        return eventoRepository.save(evento);
+        Evento guardado = eventoRepository.save(evento);
+        eventoOwnershipResolver.invalidar(idEvento);
+        dashboardService.invalidarEvento(idEvento, editorId);
+        return guardado;
     }
 
     public Evento cancelarEvento(Long idEvento, Long ownerId) {
-        if (!esOwner(idEvento, ownerId)) {
-            throw new SecurityException("Acceso denegado. Solo el Owner puede cancelar el evento.");
-        }
-
-        Evento evento = findById(idEvento);
+        Evento evento = eventoRepository.findById(idEvento)
+                .filter(e -> e.getOwnerId().equals(ownerId))
+                .orElseThrow(() -> new SecurityException("Acceso denegado. Solo el Owner puede cancelar el evento."));
 
         if (evento.getEstado() == Evento.EstadoEvento.Finalizado) {
             throw new IllegalArgumentException("No se puede cancelar un evento que ya está Finalizado.");
@@ -191,28 +195,57 @@ public class EventoService {
         }
 
         evento.setEstado(Evento.EstadoEvento.Cancelado);
-        return eventoRepository.save(evento);
+        Evento cancelado = eventoRepository.save(evento);
+        eventoOwnershipResolver.invalidar(idEvento);
+        dashboardService.invalidarEvento(idEvento, ownerId);
+        return cancelado;
     }
 
+    /**
+     * Finaliza por bloques los eventos Publicado cuya hora de término ya pasó, con UPDATE masivos en vez de
+     * cargar y guardar cada entidad. Un lease en base de datos evita que varias instancias corran a la vez.
+     */
     @Scheduled(cron = "0 0/5 * * * *")
     public void finalizarEventosExpirados() {
-        LocalDateTime now = LocalDateTime.now();
+        if (!schedulerLeaseService.intentarAdquirir(LEASE_FINALIZADOR, DURACION_LEASE_FINALIZADOR)) {
+            return;
+        }
 
-        List<Evento> eventosAFinalizar = eventoRepository.findEventosToFinalize(
-                Evento.EstadoEvento.Publicado.name(),
-                now.toLocalDate(),
-                now.toLocalTime());
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int totalFinalizados = 0;
+
+            while (true) {
+                List<Long> ids = eventoRepository.findIdsToFinalize(
+                        Evento.EstadoEvento.Publicado,
+                        now.toLocalDate(),
+                        now.toLocalTime(),
+                        PageRequest.of(0, TAMANO_BLOQUE_FINALIZADOR));
+                if (ids.isEmpty()) {
+                    break;
+                }
 
-        if (!eventosAFinalizar.isEmpty()) {
-            eventosAFinalizar.forEach(evento -> {
-                evento.setEstado(Evento.EstadoEvento.Finalizado);
-                eventoRepository.save(evento);
-            });
-            System.out.println("SCHEDULER: Se finalizaron " + eventosAFinalizar.size() + " eventos.");
-        }
-    }
+                int actualizados = eventoRepository.actualizarEstado(
+                        ids, Evento.EstadoEvento.Publicado, Evento.EstadoEvento.Finalizado);
+                if (actualizados == 0) {
+                    break;
+                }
 
+                // Si alguno cambió de estado entre el SELECT y el UPDATE, solo notificamos los realmente finalizados
+                List<Long> finalizados = actualizados == ids.size()
+                        ? ids
+                        : eventoRepository.findIdsByIdEventoInAndEstado(ids, Evento.EstadoEvento.Finalizado);
+                finalizados.forEach(id -> eventPublisher.publishEvent(new EventoFinalizadoEvent(id, now)));
+                totalFinalizados += actualizados;
+            }
 
+            if (totalFinalizados > 0) {
+                System.out.println("SCHEDULER: Se finalizaron " + totalFinalizados + " eventos.");
+            }
+        } finally {
+            schedulerLeaseService.liberar(LEASE_FINALIZADOR);
+        }
+    }
 
     public void revocarStaff(Long idEvento, Long staffUsuarioId, Long ownerId) {
         if (!esOwner(idEvento, ownerId)) {
@@ -224,43 +257,110 @@ public class EventoService {
 
         staffEvento.setActivo(false);
         staffEventoRepository.save(staffEvento);
+        dashboardService.invalidar(List.of(staffUsuarioId));
+
+        // Invalidamos en ticketing los tokens de capacidad ya emitidos a este Staff
+        ticketingRevocacionNotifier.notificarRevocacion(idEvento, staffUsuarioId);
     }
 
 
     public boolean esOwner(Long idEvento, Long idUsuario) {
-        return eventoRepository.findById(idEvento)
-                .map(e -> e.getOwnerId().equals(idUsuario))
-                .orElse(false);
+        return eventoOwnershipResolver.esOwner(idEvento, idUsuario);
     }
 
     public boolean staffTienePermiso(Long idEvento, Long idUsuario, String nombrePermiso) {
-        if (esOwner(idEvento, idUsuario)) {
-            return true;
+        long bit = catalogoPermisosSnapshot.bit(nombrePermiso);
+        return bit != 0L && (obtenerMascaraPermisos(idEvento, idUsuario) & bit) != 0L;
+    }
+
+    public Set<String> obtenerPermisosStaff(Long idEvento, Long idUsuario) {
+        return catalogoPermisosSnapshot.nombres(obtenerMascaraPermisos(idEvento, idUsuario));
+    }
+
+    /**
+     * Máscara efectiva de un usuario en un evento: el catálogo completo si es Owner, la de su relación Staff activa
+     * o 0 si no tiene relación (o el evento no existe).
+     */
+    private long obtenerMascaraPermisos(Long idEvento, Long idUsuario) {
+        long mascara = 0L;
+        for (EventoRepository.PermisoEfectivoFila fila : eventoRepository.findPermisosEfectivos(List.of(idEvento), List.of(idUsuario))) {
+            if (fila.getOwnerId().equals(idUsuario)) {
+                return catalogoPermisosSnapshot.mascaraCompleta();
+            }
+            if (fila.getUsuarioId() != null) {
+                mascara |= fila.getPermisosMask();
+            }
+        }
+        return mascara;
+    }
+
+    public CapacidadTokenResponse emitirTokenCapacidad(Long idEvento, Long usuarioId) {
+        Set<String> permisos = obtenerPermisosStaff(idEvento, usuarioId);
+        if (permisos.isEmpty()) {
+            throw new SecurityException("Acceso denegado. El usuario no tiene permisos en este evento.");
         }
 
-        Optional<StaffEvento> staff = staffEventoRepository.findByEvento_IdEventoAndUsuarioId(idEvento, idUsuario);
+        Date emitidoEn = new Date();
+        return CapacidadTokenResponse.builder()
+                .token(capacidadTokenUtil.generarToken(usuarioId, idEvento, permisos, emitidoEn))
+                .idEvento(idEvento)
+                .permisos(permisos)
+                .expiraEn(capacidadTokenUtil.calcularExpiracion(emitidoEn))
+                .build();
+    }
 
-        if (staff.isEmpty() || !staff.get().isActivo()) {
-            return false;
+    public List<PermisosEventoResponse> obtenerPermisosBulk(PermisosBulkRequest request) {
+        if (request.getIdEventos() == null || request.getIdEventos().isEmpty()
+                || request.getUsuarioIds() == null || request.getUsuarioIds().isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un evento y un usuario.");
         }
 
-        return staff.get().getPermisos().stream()
-                .anyMatch(p -> p.getNombrePermiso().equalsIgnoreCase(nombrePermiso));
+        Set<Long> idEventos = new LinkedHashSet<>(request.getIdEventos());
+        Set<Long> usuarioIds = new LinkedHashSet<>(request.getUsuarioIds());
+        if (idEventos.size() > MAX_ELEMENTOS_BULK || usuarioIds.size() > MAX_ELEMENTOS_BULK) {
+            throw new IllegalArgumentException("La consulta masiva admite como máximo " + MAX_ELEMENTOS_BULK + " eventos y " + MAX_ELEMENTOS_BULK + " usuarios.");
+        }
+
+        Map<Long, PermisosEventoResponse> porEvento = resolverPermisos(idEventos, usuarioIds);
+
+        // Respetamos el orden de la solicitud; los eventos inexistentes se omiten
+        return idEventos.stream()
+                .map(porEvento::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    public Set<String> obtenerPermisosStaff(Long idEvento, Long idUsuario) {
-        if (esOwner(idEvento, idUsuario)) {
-            return catalogoPermisoRepository.findAll().stream()
-                    .map(CatalogoPermiso::getNombrePermiso)
-                    .collect(Collectors.toSet());
+    /**
+     * Resuelve owner y permisos efectivos de varios usuarios sobre varios eventos con una única consulta JOIN.
+     * El Owner recibe el catálogo completo y los usuarios sin relación Staff activa un conjunto vacío.
+     */
+    private Map<Long, PermisosEventoResponse> resolverPermisos(Set<Long> idEventos, Set<Long> usuarioIds) {
+        Map<Long, PermisosEventoResponse> porEvento = new HashMap<>();
+
+        for (EventoRepository.PermisoEfectivoFila fila : eventoRepository.findPermisosEfectivos(idEventos, usuarioIds)) {
+            PermisosEventoResponse permisos = porEvento.computeIfAbsent(fila.getIdEvento(), id -> {
+                Map<Long, Set<String>> permisosPorUsuario = new HashMap<>();
+                usuarioIds.forEach(usuarioId -> permisosPorUsuario.put(usuarioId, Set.of()));
+                return PermisosEventoResponse.builder()
+                        .idEvento(id)
+                        .ownerId(fila.getOwnerId())
+                        .permisosPorUsuario(permisosPorUsuario)
+                        .build();
+            });
+
+            if (fila.getUsuarioId() != null) {
+                permisos.getPermisosPorUsuario().put(fila.getUsuarioId(), catalogoPermisosSnapshot.nombres(fila.getPermisosMask()));
+            }
         }
 
-        return staffEventoRepository.findByEvento_IdEventoAndUsuarioId(idEvento, idUsuario)
-                .filter(StaffEvento::isActivo)
-                .map(staff -> staff.getPermisos().stream()
-                        .map(CatalogoPermiso::getNombrePermiso)
-                        .collect(Collectors.toSet()))
-                .orElse(Set.of());
+        for (PermisosEventoResponse permisos : porEvento.values()) {
+            if (usuarioIds.contains(permisos.getOwnerId())) {
+                permisos.getPermisosPorUsuario().put(permisos.getOwnerId(),
+                        catalogoPermisosSnapshot.nombres(catalogoPermisosSnapshot.mascaraCompleta()));
+            }
+        }
+
+        return porEvento;
     }
 
 
@@ -271,50 +371,62 @@ public class EventoService {
 
     public List<EventoResponse> buscarEventosFiltrados(Long usuarioId, EventoFiltroRequest filtros) {
 
-        Set<Long> ownerEventIds = Set.of();
-        Set<Long> staffEventIds = Set.of();
-
         String relacion = filtros.getRelacion() != null ? filtros.getRelacion().toUpperCase() : null;
+        boolean incluirOwner = relacion == null || "OWNER".equals(relacion);
+        boolean incluirStaff = relacion == null || "STAFF".equals(relacion);
 
-        if (relacion == null || "OWNER".equals(relacion)) {
-            ownerEventIds = eventoRepository.findAllByOwnerId(usuarioId)
-                    .stream()
-                    .map(Evento::getIdEvento)
-                    .collect(Collectors.toSet());
+        if (filtros.getCursorFecha() != null && filtros.getCursorId() == null) {
+            throw new IllegalArgumentException("cursorId es obligatorio cuando se envía cursorFecha.");
         }
-
-        if (relacion == null || "STAFF".equals(relacion)) {
-            staffEventIds = Set.copyOf(staffEventoRepository.findActiveEventIdsByUsuarioId(usuarioId));
+        if (filtros.getFechaDesde() != null && filtros.getFechaHasta() != null
+                && filtros.getFechaDesde().isAfter(filtros.getFechaHasta())) {
+            throw new IllegalArgumentException("fechaDesde no puede ser posterior a fechaHasta.");
         }
 
-        List<Long> idsFinales = Stream.concat(ownerEventIds.stream(), staffEventIds.stream())
-                .distinct()
+        int limite = filtros.getLimite() == null ? LIMITE_BUSQUEDA_DEFECTO
+                : Math.max(1, Math.min(filtros.getLimite(), LIMITE_BUSQUEDA_MAXIMO));
+
+        return eventoRepository.buscarPorUsuario(
+                        usuarioId,
+                        incluirOwner,
+                        incluirStaff,
+                        prefijoLike(filtros.getNombre()),
+                        filtros.getFechaDesde(),
+                        filtros.getFechaHasta(),
+                        filtros.getEstado(),
+                        filtros.getCursorFecha(),
+                        filtros.getCursorId(),
+                        PageRequest.of(0, limite))
+                .stream()
+                .map(fila -> EventoResponse.builder()
+                        .idEvento(fila.getIdEvento())
+                        .nombre(fila.getNombre())
+                        .categoria(fila.getCategoria())
+                        .descripcion(fila.getDescripcion())
+                        .direccion(fila.getDireccion())
+                        .fecha(fila.getFecha())
+                        .horaInicio(fila.getHoraInicio())
+                        .horaCierrePuertas(fila.getHoraCierrePuertas())
+                        .horaTermino(fila.getHoraTermino())
+                        .capacidadMaxima(fila.getCapacidadMaxima())
+                        .estado(fila.getEstado().name())
+                        .relacionUsuario(fila.getRelacion())
+                        .build())
                 .collect(Collectors.toList());
+    }
 
-        java.util.Map<Long, String> rolPorEvento = new java.util.HashMap<>();
-
-        ownerEventIds.forEach(id -> rolPorEvento.put(id, "OWNER"));
-        staffEventIds.forEach(id -> rolPorEvento.putIfAbsent(id, "STAFF"));
-
-        if (idsFinales.isEmpty()) {
-            return List.of();
-        }
-
-        List<Evento> eventosFiltrados;
-        if (filtros.getNombre() != null && !filtros.getNombre().isBlank()) {
-            eventosFiltrados = eventoRepository.findAllByNombreContainingIgnoreCaseAndIdEventoInOrderByFechaAsc(
-                    filtros.getNombre(), idsFinales);
-        } else {
-            eventosFiltrados = eventoRepository.findAllByIdEventoInOrderByFechaAsc(idsFinales);
+    /**
+     * Convierte el texto buscado en un patrón LIKE de prefijo, escapando los comodines ingresados por el usuario.
+     */
+    private String prefijoLike(String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            return null;
         }
-
-        return eventosFiltrados.stream()
-                .map(evento -> {
-                    EventoResponse dto = EventoResponse.fromEntity(evento);
-                    dto.setRelacionUsuario(rolPorEvento.get(evento.getIdEvento()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        String escapado = nombre.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escapado + "%";
     }
 
     public List<StaffMemberResponse> listarStaffPorEvento(Long idEvento, Long usuarioSolicitanteId) {
@@ -325,7 +437,7 @@ public class EventoService {
         }
 
         // 2. Obtener la lista de Staff del repositorio local
-        List<StaffEvento> staffList = staffEventoRepository.findAllByEvento_IdEvento(idEvento);
+        List<StaffEventoRepository.StaffResumen> staffList = staffEventoRepository.findResumenByEventoId(idEvento);
 
         // 3. Mapear y enriquecer con datos de usuario (Llamada Feign)
         return staffList.stream().map(staff -> {
@@ -334,8 +446,8 @@ public class EventoService {
             String correo = "Sin correo";
             
             try {
-                // Llamada al Microservicio de Usuarios
-                UsuarioDto usuarioInfo = usuarioClient.getUsuarioById(staff.getUsuarioId());
+                // Llamada al Microservicio de Usuarios (a través de la caché local)
+                UsuarioDto usuarioInfo = usuarioNearCache.getUsuarioById(staff.getUsuarioId());
                 if (usuarioInfo != null) {
                     nombreCompleto = usuarioInfo.getNombres() + " " + usuarioInfo.getApellidos();
                     correo = usuarioInfo.getCorreo();
@@ -346,9 +458,7 @@ public class EventoService {
             }
 
             // Obtener nombres de permisos
-            Set<String> permisosNombres = staff.getPermisos().stream()
-                    .map(CatalogoPermiso::getNombrePermiso)
-                    .collect(Collectors.toSet());
+            Set<String> permisosNombres = catalogoPermisosSnapshot.nombres(staff.getPermisosMask());
 
             // Construir DTO
             return StaffMemberResponse.builder()
@@ -357,7 +467,7 @@ public class EventoService {
                     .nombreCompleto(nombreCompleto)
                     .correo(correo)
                     .fechaAsignacion(staff.getFechaAsignacion())
-                    .activo(staff.isActivo())
+                    .activo(staff.getActivo())
                     .estadoInvitacion(staff.getEstadoInvitacion().name())
                     .permisos(permisosNombres)
                     .build();
@@ -0,0 +1,43 @@
+package com.microservice.eventos.service;
+
+import com.microservice.eventos.repository.SchedulerLeaseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Exclusión mutua entre instancias de microservice-eventos para tareas programadas, basada en un UPDATE condicional.
+ */
+@Service
+@RequiredArgsConstructor
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final String instanciaId = UUID.randomUUID().toString();
+
+    public boolean intentarAdquirir(String nombre, Duration duracion) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (schedulerLeaseRepository.adquirir(nombre, instanciaId, ahora, ahora.plus(duracion)) == 1) {
+            return true;
+        }
+        if (schedulerLeaseRepository.existsById(nombre)) {
+            return false;
+        }
+
+        // Primera ejecución: la fila aún no existe y la crea la instancia que gane el INSERT
+        try {
+            schedulerLeaseRepository.crear(nombre, instanciaId, ahora.plus(duracion));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    public void liberar(String nombre) {
+        schedulerLeaseRepository.liberar(nombre, instanciaId, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,81 @@
+package com.microservice.eventos.client;
+
+import com.microservice.eventos.dto.UsuarioDto;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UsuarioNearCacheTest {
+
+    @Mock
+    private UsuarioClient usuarioClient;
+
+    private UsuarioNearCache usuarioNearCache;
+    private UsuarioDto usuarioDto;
+
+    @BeforeEach
+    void setUp() {
+        usuarioNearCache = new UsuarioNearCache(usuarioClient, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofMinutes(2));
+
+        usuarioDto = new UsuarioDto();
+        usuarioDto.setIdUsuario(7L);
+        usuarioDto.setCorreo("staff@test.cl");
+        usuarioDto.setEstado("Activo");
+    }
+
+    @Test
+    void getUsuarioById_segundaLlamada_noConsultaAlCliente() {
+        when(usuarioClient.getUsuarioById(7L)).thenReturn(usuarioDto);
+
+        assertEquals(usuarioDto, usuarioNearCache.getUsuarioById(7L));
+        assertEquals(usuarioDto, usuarioNearCache.getUsuarioById(7L));
+
+        verify(usuarioClient, times(1)).getUsuarioById(7L);
+    }
+
+    @Test
+    void getUsuarioByCorreo_noEncontrado_cacheaResultadoNegativo() {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/usuarios/correo/x",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        when(usuarioClient.getUsuarioByCorreo("nadie@test.cl"))
+                .thenThrow(new FeignException.NotFound("Not Found", request, null, null));
+
+        assertNull(usuarioNearCache.getUsuarioByCorreo("nadie@test.cl"));
+        assertNull(usuarioNearCache.getUsuarioByCorreo("Nadie@Test.cl"));
+
+        verify(usuarioClient, times(1)).getUsuarioByCorreo("nadie@test.cl");
+    }
+
+    @Test
+    void invalidar_eliminaEntradasPorIdYPorCorreo() {
+        when(usuarioClient.getUsuarioByCorreo("staff@test.cl")).thenReturn(usuarioDto);
+
+        // La carga por correo también puebla la caché por ID
+        usuarioNearCache.getUsuarioByCorreo("staff@test.cl");
+        usuarioNearCache.getUsuarioById(7L);
+        verify(usuarioClient, never()).getUsuarioById(7L);
+
+        usuarioNearCache.invalidar(7L);
+        when(usuarioClient.getUsuarioById(7L)).thenReturn(usuarioDto);
+
+        usuarioNearCache.getUsuarioById(7L);
+        usuarioNearCache.getUsuarioByCorreo("staff@test.cl");
+
+        verify(usuarioClient, times(1)).getUsuarioById(7L);
+        verify(usuarioClient, times(2)).getUsuarioByCorreo("staff@test.cl");
+    }
+}
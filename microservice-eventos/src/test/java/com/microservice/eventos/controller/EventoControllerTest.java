@@ -1,6 +1,8 @@
 package com.microservice.eventos.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.eventos.dto.PermisosBulkRequest;
+import com.microservice.eventos.dto.PermisosEventoResponse;
 import com.microservice.eventos.model.Evento;
 import com.microservice.eventos.model.Evento.EstadoEvento;
 import com.microservice.eventos.service.EventoService;
@@ -8,19 +10,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-// Inicializa solo el EventoController y sus dependencias (las moficadas con @MockBean)
+// Inicializa solo el EventoController y sus dependencias (las moficadas con @MockitoBean)
 @WebMvcTest(EventoController.class)
 public class EventoControllerTest {
 
@@ -32,7 +37,7 @@ public class EventoControllerTest {
     private ObjectMapper objectMapper;
 
     // Inyecta una versión mockeada de EventoService
-    @MockBean
+    @MockitoBean
     private EventoService eventoService;
 
     private Evento eventoPrueba;
@@ -89,4 +94,29 @@ public class EventoControllerTest {
         verify(eventoService, times(1)).cancelarEvento(eq(1L), eq(ownerId));
     }
 
-}
\ No newline at end of file
+    @Test
+    void obtenerPermisosBulk_debeRetornar200_yPermisosPorUsuario() throws Exception {
+        // Arrange
+        PermisosBulkRequest request = new PermisosBulkRequest();
+        request.setIdEventos(List.of(1L));
+        request.setUsuarioIds(List.of(105L));
+
+        PermisosEventoResponse respuesta = PermisosEventoResponse.builder()
+                .idEvento(1L)
+                .ownerId(ownerId)
+                .permisosPorUsuario(Map.of(105L, Set.of("escanear_entrada")))
+                .build();
+        when(eventoService.obtenerPermisosBulk(any(PermisosBulkRequest.class))).thenReturn(List.of(respuesta));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/eventos/permisos/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].ownerId").value(ownerId))
+                .andExpect(jsonPath("$[0].permisosPorUsuario['105'][0]").value("escanear_entrada"));
+
+        verify(eventoService, times(1)).obtenerPermisosBulk(any(PermisosBulkRequest.class));
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.microservice.eventos.repository;
+
+import com.microservice.eventos.model.CatalogoPermiso;
+import com.microservice.eventos.model.Evento;
+import com.microservice.eventos.model.Evento.EstadoEvento;
+import com.microservice.eventos.model.StaffEvento;
+import com.microservice.eventos.model.StaffEvento.EstadoInvitacion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cuenta las sentencias SQL con las estadísticas de Hibernate para fijar los planes de carga del repositorio
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.database=h2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false"
+})
+public class StaffEventoRepositoryTest {
+
+    private static final int CANTIDAD = 500;
+    private static final Long USUARIO_INVITADO = 777L;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StaffEventoRepository staffEventoRepository;
+
+    private Statistics statistics;
+    private Long idEventoConStaff;
+
+    @BeforeEach
+    void setUp() {
+        CatalogoPermiso escanear = entityManager.persist(new CatalogoPermiso(null, "escanear_entrada"));
+        CatalogoPermiso registrar = entityManager.persist(new CatalogoPermiso(null, "registrar_invitados"));
+
+        Evento eventoConStaff = entityManager.persist(evento(1L));
+        idEventoConStaff = eventoConStaff.getIdEvento();
+
+        for (int i = 0; i < CANTIDAD; i++) {
+            // 500 miembros de Staff en un mismo evento
+            entityManager.persist(staff(eventoConStaff, 1000L + i, 3L, Set.of(escanear, registrar)));
+            // 500 invitaciones pendientes del mismo usuario, cada una en un evento distinto
+            entityManager.persist(staff(entityManager.persist(evento(2L)), USUARIO_INVITADO, 1L, Set.of(escanear)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void invitacionesPendientes_conSuEvento_enUnaSolaConsulta() {
+        List<StaffEvento> invitaciones = staffEventoRepository.findByUsuarioIdAndEstadoInvitacion(USUARIO_INVITADO, EstadoInvitacion.PENDIENTE);
+        invitaciones.forEach(inv -> assertNotNull(inv.getEvento().getNombre()));
+
+        assertEquals(CANTIDAD, invitaciones.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void resumenDeStaff_enUnaSolaConsulta_sinStaffPermisos() {
+        List<StaffEventoRepository.StaffResumen> staff = staffEventoRepository.findResumenByEventoId(idEventoConStaff);
+        staff.forEach(s -> assertEquals(3L, s.getPermisosMask()));
+
+        assertEquals(CANTIDAD, staff.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void conteos_noCarganPermisos() {
+        assertEquals(CANTIDAD, staffEventoRepository.countByUsuarioIdAndEstadoInvitacion(USUARIO_INVITADO, EstadoInvitacion.PENDIENTE));
+        assertEquals(0, staffEventoRepository.countByUsuarioIdAndActivoTrue(USUARIO_INVITADO));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Evento evento(Long ownerId) {
+        return Evento.builder()
+                .ownerId(ownerId)
+                .nombre("Evento")
+                .fecha(LocalDate.now().plusDays(10))
+                .horaInicio(LocalTime.of(20, 0))
+                .estado(EstadoEvento.Publicado)
+                .build();
+    }
+
+    private StaffEvento staff(Evento evento, Long usuarioId, long permisosMask, Set<CatalogoPermiso> permisos) {
+        return StaffEvento.builder()
+                .evento(evento)
+                .usuarioId(usuarioId)
+                .fechaAsignacion(LocalDateTime.now())
+                .activo(false)
+                .estadoInvitacion(EstadoInvitacion.PENDIENTE)
+                .permisosMask(permisosMask)
+                .permisos(new HashSet<>(permisos))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservice.eventos.service;
+
+import com.microservice.eventos.model.CatalogoPermiso;
+import com.microservice.eventos.repository.CatalogoPermisoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogoPermisosSnapshotTest {
+
+    @Mock
+    private CatalogoPermisoRepository catalogoPermisoRepository;
+
+    @InjectMocks
+    private CatalogoPermisosSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(catalogoPermisoRepository.findAll()).thenReturn(List.of(
+                new CatalogoPermiso(1L, "escanear_entrada"),
+                new CatalogoPermiso(2L, "registrar_invitados")));
+    }
+
+    @Test
+    void mascara_yNombres_sonInversas() {
+        long mascara = snapshot.mascara(List.of("ESCANEAR_ENTRADA", "registrar_invitados"));
+
+        assertEquals(3L, mascara);
+        assertEquals(3L, snapshot.mascaraCompleta());
+        assertEquals(Set.of("escanear_entrada"), snapshot.nombres(1L));
+        assertEquals(Set.of("escanear_entrada", "registrar_invitados"), snapshot.nombres(mascara));
+    }
+
+    @Test
+    void catalogo_seCargaUnaSolaVez() {
+        snapshot.bit("escanear_entrada");
+        snapshot.mascaraCompleta();
+        snapshot.nombres(3L);
+
+        verify(catalogoPermisoRepository, times(1)).findAll();
+    }
+
+    @Test
+    void mascara_permisoDesconocido_lanzaNoSuchElementException() {
+        NoSuchElementException ex = assertThrows(NoSuchElementException.class,
+                () -> snapshot.mascara(List.of("escanear_entrada", "permiso_fantasma")));
+
+        assertEquals("Permiso no válido: permiso_fantasma", ex.getMessage());
+        assertEquals(0L, snapshot.bit("permiso_fantasma"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.microservice.eventos.service;
+
+import com.microservice.eventos.dto.DashboardResponse;
+import com.microservice.eventos.model.DashboardUsuario;
+import com.microservice.eventos.model.Evento;
+import com.microservice.eventos.model.Evento.EstadoEvento;
+import com.microservice.eventos.model.StaffEvento.EstadoInvitacion;
+import com.microservice.eventos.repository.DashboardUsuarioRepository;
+import com.microservice.eventos.repository.EventoRepository;
+import com.microservice.eventos.repository.StaffEventoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardServiceTest {
+
+    @Mock
+    private DashboardUsuarioRepository dashboardUsuarioRepository;
+    @Mock
+    private EventoRepository eventoRepository;
+    @Mock
+    private StaffEventoRepository staffEventoRepository;
+
+    private DashboardService dashboardService;
+    private final Long userId = 100L;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(dashboardUsuarioRepository, eventoRepository, staffEventoRepository, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void obtenerDashboard_materializadoVigente_esUnaLecturaPorClavePrimaria() {
+        // Arrange
+        DashboardUsuario materializado = DashboardUsuario.builder()
+                .usuarioId(userId)
+                .cantidadEventosPropios(2)
+                .cantidadEventosStaff(1)
+                .cantidadInvitacionesPendientes(3)
+                .proximosEventos(List.of())
+                .actualizadoEn(LocalDateTime.now())
+                .build();
+        when(dashboardUsuarioRepository.findById(userId)).thenReturn(Optional.of(materializado));
+
+        // Act
+        DashboardResponse response = dashboardService.obtenerDashboard(userId);
+
+        // Assert
+        assertEquals(2, response.getCantidadEventosPropios());
+        assertEquals(3, response.getCantidadInvitacionesPendientes());
+        verifyNoInteractions(eventoRepository, staffEventoRepository);
+    }
+
+    @Test
+    void obtenerDashboard_sinMaterializar_recalculaConLimite5YGuarda() {
+        // Arrange
+        Evento proximo = Evento.builder()
+                .idEvento(1L)
+                .ownerId(userId)
+                .nombre("Próximo")
+                .estado(EstadoEvento.Publicado)
+                .fecha(LocalDate.now().plusDays(2))
+                .horaInicio(LocalTime.of(20, 0))
+                .build();
+        when(dashboardUsuarioRepository.findById(userId)).thenReturn(Optional.empty());
+        when(eventoRepository.findProximosEventos(eq(userId), any(), any(), any(Pageable.class))).thenReturn(List.of(proximo));
+        when(eventoRepository.countByOwnerId(userId)).thenReturn(1L);
+        when(staffEventoRepository.countByUsuarioIdAndActivoTrue(userId)).thenReturn(0L);
+        when(staffEventoRepository.countByUsuarioIdAndEstadoInvitacion(userId, EstadoInvitacion.PENDIENTE)).thenReturn(4L);
+        when(dashboardUsuarioRepository.save(any(DashboardUsuario.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        DashboardResponse response = dashboardService.obtenerDashboard(userId);
+
+        // Assert
+        assertEquals(1, response.getCantidadEventosPropios());
+        assertEquals(4, response.getCantidadInvitacionesPendientes());
+        assertEquals("OWNER", response.getProximosEventos().get(0).getRelacionUsuario());
+        verify(eventoRepository).findProximosEventos(eq(userId), any(), any(), eq(Pageable.ofSize(5)));
+        verify(dashboardUsuarioRepository, times(1)).save(argThat(d ->
+                d.getValidoHasta().equals(LocalDateTime.of(proximo.getFecha(), proximo.getHoraInicio()))));
+    }
+
+    @Test
+    void obtenerDashboard_primerEventoYaComenzo_recalcula() {
+        DashboardUsuario vencido = DashboardUsuario.builder()
+                .usuarioId(userId)
+                .proximosEventos(List.of())
+                .validoHasta(LocalDateTime.now().minusMinutes(1))
+                .actualizadoEn(LocalDateTime.now())
+                .build();
+        when(dashboardUsuarioRepository.findById(userId)).thenReturn(Optional.of(vencido));
+        when(eventoRepository.findProximosEventos(eq(userId), any(), any(), any(Pageable.class))).thenReturn(List.of());
+        when(dashboardUsuarioRepository.save(any(DashboardUsuario.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        dashboardService.obtenerDashboard(userId);
+
+        verify(dashboardUsuarioRepository, times(1)).save(any(DashboardUsuario.class));
+    }
+
+    @Test
+    void invalidarEvento_eliminaOwnerYStaffActivo() {
+        when(staffEventoRepository.findActiveUsuarioIdsByEventoId(1L)).thenReturn(Set.of(105L));
+
+        dashboardService.invalidarEvento(1L, userId);
+
+        verify(dashboardUsuarioRepository).deleteAllByIdInBatch(Set.of(105L, userId));
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservice.eventos.service;
+
+import com.microservice.eventos.dto.EventoMetadata;
+import com.microservice.eventos.model.Evento.EstadoEvento;
+import com.microservice.eventos.repository.EventoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EventoOwnershipResolverTest {
+
+    @Mock
+    private EventoRepository eventoRepository;
+
+    private EventoOwnershipResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new EventoOwnershipResolver(eventoRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void esOwner_consultasRepetidas_usanUnaSolaProyeccion() {
+        when(eventoRepository.findMetadataById(1L))
+                .thenReturn(Optional.of(new EventoMetadata(1L, 100L, EstadoEvento.Publicado)));
+
+        assertTrue(resolver.esOwner(1L, 100L));
+        assertFalse(resolver.esOwner(1L, 999L));
+
+        verify(eventoRepository, times(1)).findMetadataById(1L);
+        verify(eventoRepository, never()).findById(any());
+    }
+
+    @Test
+    void esOwner_eventoInexistente_noSeCachea() {
+        when(eventoRepository.findMetadataById(5L)).thenReturn(Optional.empty());
+
+        assertFalse(resolver.esOwner(5L, 100L));
+        assertFalse(resolver.esOwner(5L, 100L));
+
+        // Sin entrada negativa: un evento recién creado debe verse de inmediato
+        verify(eventoRepository, times(2)).findMetadataById(5L);
+    }
+
+    @Test
+    void invalidar_fuerzaRecarga() {
+        when(eventoRepository.findMetadataById(1L))
+                .thenReturn(Optional.of(new EventoMetadata(1L, 100L, EstadoEvento.Publicado)))
+                .thenReturn(Optional.of(new EventoMetadata(1L, 100L, EstadoEvento.Cancelado)));
+
+        assertEquals(EstadoEvento.Publicado, resolver.obtener(1L).estado());
+        resolver.invalidar(1L);
+        assertEquals(EstadoEvento.Cancelado, resolver.obtener(1L).estado());
+    }
+}
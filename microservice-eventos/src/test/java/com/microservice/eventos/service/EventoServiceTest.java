@@ -1,23 +1,41 @@
 package com.microservice.eventos.service;
 
-import com.microservice.eventos.client.UsuarioClient;
+import com.microservice.eventos.client.TicketingRevocacionNotifier;
+import com.microservice.eventos.client.UsuarioNearCache;
+import com.microservice.eventos.dto.CapacidadTokenResponse;
+import com.microservice.eventos.dto.EventoFiltroRequest;
+import com.microservice.eventos.dto.EventoResponse;
+import com.microservice.eventos.dto.PermisosBulkRequest;
+import com.microservice.eventos.dto.PermisosEventoResponse;
 import com.microservice.eventos.dto.UsuarioDto;
+import com.microservice.eventos.event.EventoFinalizadoEvent;
 import com.microservice.eventos.model.Evento;
 import com.microservice.eventos.model.Evento.EstadoEvento;
+import com.microservice.eventos.model.StaffEvento;
 import com.microservice.eventos.repository.EventoRepository;
+import com.microservice.eventos.repository.StaffEventoRepository;
+import com.microservice.eventos.security.CapacidadTokenUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 // Permite usar anotaciones de Mockito, como @Mock y @InjectMocks
@@ -29,7 +47,31 @@ public class EventoServiceTest {
     private EventoRepository eventoRepository;
 
     @Mock
-    private UsuarioClient usuarioFeignClient;
+    private UsuarioNearCache usuarioNearCache;
+
+    @Mock
+    private CatalogoPermisosSnapshot catalogoPermisosSnapshot;
+
+    @Mock
+    private StaffEventoRepository staffEventoRepository;
+
+    @Mock
+    private CapacidadTokenUtil capacidadTokenUtil;
+
+    @Mock
+    private TicketingRevocacionNotifier ticketingRevocacionNotifier;
+
+    @Mock
+    private EventoOwnershipResolver eventoOwnershipResolver;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     // Inyecta los mocks en la instancia real de EventoService
     @InjectMocks
@@ -59,8 +101,8 @@ public class EventoServiceTest {
     @Test
     void crearEvento_exitoso_yEstadoPublicado() {
         // Arrange
-        // Simulamos que el cliente Feign retorna el DTO del Owner
-        when(usuarioFeignClient.getUsuarioById(ownerId)).thenReturn(ownerDto);
+        // Simulamos que la caché de usuarios (cliente Feign) retorna el DTO del Owner
+        when(usuarioNearCache.getUsuarioById(ownerId)).thenReturn(ownerDto);
         // Simulamos que el repositorio guarda y retorna el evento
         when(eventoRepository.save(any(Evento.class))).thenReturn(eventoPrueba);
 
@@ -68,8 +110,8 @@ public class EventoServiceTest {
         Evento resultado = eventoService.crearEvento(eventoPrueba, ownerId);
 
         // Assert
-        // Verificamos que se llamó al Feign Client
-        verify(usuarioFeignClient, times(1)).getUsuarioById(ownerId);
+        // Verificamos que se consultó la caché de usuarios
+        verify(usuarioNearCache, times(1)).getUsuarioById(ownerId);
         // Verificamos que se llamó al método save del repositorio
         verify(eventoRepository, times(1)).save(eventoPrueba);
         // Verificamos que el evento retornado tiene el estado correcto
@@ -93,6 +135,9 @@ public class EventoServiceTest {
         assertEquals(EstadoEvento.Cancelado, eventoCancelado.getEstado(), "El estado debe ser Cancelado");
         // Verificamos que se llamó a save()
         verify(eventoRepository, times(1)).save(eventoPrueba);
+        // La entidad se carga una sola vez y la caché de propiedad se invalida tras la escritura
+        verify(eventoRepository, times(1)).findById(eventoPrueba.getIdEvento());
+        verify(eventoOwnershipResolver, times(1)).invalidar(eventoPrueba.getIdEvento());
     }
 
     @Test
@@ -110,4 +155,189 @@ public class EventoServiceTest {
         // Verificamos que save() nunca se llamó
         verify(eventoRepository, never()).save(any(Evento.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void obtenerPermisosBulk_ownerRecibeCatalogo_yStaffSusPermisos() {
+        // Arrange
+        Long staffId = 105L;
+        Long sinRelacionId = 300L;
+        PermisosBulkRequest request = new PermisosBulkRequest();
+        request.setIdEventos(List.of(1L));
+        request.setUsuarioIds(List.of(ownerId, staffId, sinRelacionId));
+
+        // Una fila por (evento, staff) con su máscara de permisos devuelta por la consulta JOIN
+        when(eventoRepository.findPermisosEfectivos(any(), any())).thenReturn(List.of(
+                fila(1L, ownerId, staffId, 1L)));
+        // Máscaras del catálogo: bit 0 = escanear_entrada, bit 1 = registrar_invitados
+        when(catalogoPermisosSnapshot.nombres(1L)).thenReturn(Set.of("escanear_entrada"));
+        when(catalogoPermisosSnapshot.mascaraCompleta()).thenReturn(3L);
+        when(catalogoPermisosSnapshot.nombres(3L)).thenReturn(Set.of("escanear_entrada", "registrar_invitados"));
+
+        // Act
+        List<PermisosEventoResponse> resultado = eventoService.obtenerPermisosBulk(request);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        PermisosEventoResponse permisos = resultado.get(0);
+        assertEquals(ownerId, permisos.getOwnerId());
+        assertEquals(Set.of("escanear_entrada", "registrar_invitados"), permisos.getPermisosPorUsuario().get(ownerId));
+        assertEquals(Set.of("escanear_entrada"), permisos.getPermisosPorUsuario().get(staffId));
+        assertTrue(permisos.getPermisosPorUsuario().get(sinRelacionId).isEmpty());
+        // Una sola consulta para todo el lote
+        verify(eventoRepository, times(1)).findPermisosEfectivos(any(), any());
+    }
+
+    @Test
+    void obtenerPermisosBulk_listasVacias_debeLanzarIllegalArgumentException() {
+        PermisosBulkRequest request = new PermisosBulkRequest();
+        request.setIdEventos(List.of());
+        request.setUsuarioIds(List.of(ownerId));
+
+        assertThrows(IllegalArgumentException.class, () -> eventoService.obtenerPermisosBulk(request));
+        verify(eventoRepository, never()).findPermisosEfectivos(any(), any());
+    }
+
+    @Test
+    void emitirTokenCapacidad_staffConPermisos_retornaTokenFirmado() {
+        // Arrange
+        Long staffId = 105L;
+        when(eventoRepository.findPermisosEfectivos(any(), any())).thenReturn(List.of(
+                fila(1L, ownerId, staffId, 1L)));
+        when(catalogoPermisosSnapshot.nombres(1L)).thenReturn(Set.of("escanear_entrada"));
+        when(capacidadTokenUtil.generarToken(eq(staffId), eq(1L), eq(Set.of("escanear_entrada")), any())).thenReturn("token-firmado");
+
+        // Act
+        CapacidadTokenResponse respuesta = eventoService.emitirTokenCapacidad(1L, staffId);
+
+        // Assert
+        assertEquals("token-firmado", respuesta.getToken());
+        assertEquals(Set.of("escanear_entrada"), respuesta.getPermisos());
+    }
+
+    @Test
+    void emitirTokenCapacidad_usuarioSinPermisos_debeLanzarSecurityException() {
+        when(eventoRepository.findPermisosEfectivos(any(), any())).thenReturn(List.of(
+                fila(1L, ownerId, null, null)));
+
+        assertThrows(SecurityException.class, () -> eventoService.emitirTokenCapacidad(1L, 999L));
+        verify(capacidadTokenUtil, never()).generarToken(any(), any(), any(), any());
+    }
+
+    @Test
+    void revocarStaff_porOwner_desactivaYNotificaRevocacion() {
+        // Arrange
+        Long staffId = 105L;
+        StaffEvento staff = StaffEvento.builder().evento(eventoPrueba).usuarioId(staffId).activo(true).build();
+        when(eventoOwnershipResolver.esOwner(1L, ownerId)).thenReturn(true);
+        when(staffEventoRepository.findByEvento_IdEventoAndUsuarioId(1L, staffId)).thenReturn(Optional.of(staff));
+
+        // Act
+        eventoService.revocarStaff(1L, staffId, ownerId);
+
+        // Assert
+        assertFalse(staff.isActivo());
+        verify(staffEventoRepository, times(1)).save(staff);
+        verify(ticketingRevocacionNotifier, times(1)).notificarRevocacion(1L, staffId);
+        verify(dashboardService, times(1)).invalidar(List.of(staffId));
+    }
+
+    @Test
+    void finalizarEventosExpirados_conLease_actualizaPorBloquesYPublicaEventos() {
+        // Arrange
+        when(schedulerLeaseService.intentarAdquirir(eq("finalizar-eventos"), any())).thenReturn(true);
+        when(eventoRepository.findIdsToFinalize(eq(EstadoEvento.Publicado), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        when(eventoRepository.actualizarEstado(List.of(1L, 2L), EstadoEvento.Publicado, EstadoEvento.Finalizado)).thenReturn(2);
+
+        // Act
+        eventoService.finalizarEventosExpirados();
+
+        // Assert
+        verify(eventoRepository, never()).save(any(Evento.class));
+        verify(eventPublisher, times(2)).publishEvent(any(EventoFinalizadoEvent.class));
+        verify(schedulerLeaseService, times(1)).liberar("finalizar-eventos");
+    }
+
+    @Test
+    void finalizarEventosExpirados_sinLease_noHaceNada() {
+        when(schedulerLeaseService.intentarAdquirir(eq("finalizar-eventos"), any())).thenReturn(false);
+
+        eventoService.finalizarEventosExpirados();
+
+        verifyNoInteractions(eventoRepository, eventPublisher);
+        verify(schedulerLeaseService, never()).liberar(any());
+    }
+
+    @Test
+    void staffTienePermiso_comparaBitsSinTocarStaffPermisos() {
+        // Arrange
+        Long staffId = 105L;
+        when(catalogoPermisosSnapshot.bit("escanear_entrada")).thenReturn(1L);
+        when(catalogoPermisosSnapshot.bit("registrar_invitados")).thenReturn(2L);
+        when(eventoRepository.findPermisosEfectivos(any(), any())).thenReturn(List.of(
+                fila(1L, ownerId, staffId, 1L)));
+
+        // Act & Assert
+        assertTrue(eventoService.staffTienePermiso(1L, staffId, "escanear_entrada"));
+        assertFalse(eventoService.staffTienePermiso(1L, staffId, "registrar_invitados"));
+    }
+
+    @Test
+    void staffTienePermiso_permisoInexistente_noConsultaBaseDeDatos() {
+        when(catalogoPermisosSnapshot.bit("permiso_fantasma")).thenReturn(0L);
+
+        assertFalse(eventoService.staffTienePermiso(1L, 105L, "permiso_fantasma"));
+        verify(eventoRepository, never()).findPermisosEfectivos(any(), any());
+    }
+
+    @Test
+    void buscarEventosFiltrados_usaUnaConsultaConPrefijoYLimite() {
+        // Arrange
+        EventoFiltroRequest filtros = new EventoFiltroRequest();
+        filtros.setNombre("Rock_50%");
+        filtros.setRelacion("owner");
+        filtros.setEstado(EstadoEvento.Publicado);
+        filtros.setCursorFecha(LocalDate.of(2024, 6, 1));
+        filtros.setCursorId(40L);
+        filtros.setLimite(500);
+
+        EventoRepository.EventoBusquedaFila fila = mock(EventoRepository.EventoBusquedaFila.class);
+        when(fila.getIdEvento()).thenReturn(41L);
+        when(fila.getEstado()).thenReturn(EstadoEvento.Publicado);
+        when(fila.getRelacion()).thenReturn("OWNER");
+        when(eventoRepository.buscarPorUsuario(eq(ownerId), eq(true), eq(false), eq("Rock!_50!%%"),
+                isNull(), isNull(), eq(EstadoEvento.Publicado), eq(LocalDate.of(2024, 6, 1)), eq(40L), any()))
+                .thenReturn(List.of(fila));
+
+        // Act
+        List<EventoResponse> resultado = eventoService.buscarEventosFiltrados(ownerId, filtros);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        assertEquals(41L, resultado.get(0).getIdEvento());
+        assertEquals("OWNER", resultado.get(0).getRelacionUsuario());
+
+        ArgumentCaptor<Pageable> pagina = ArgumentCaptor.forClass(Pageable.class);
+        verify(eventoRepository).buscarPorUsuario(any(), anyBoolean(), anyBoolean(), any(), any(), any(), any(), any(), any(), pagina.capture());
+        assertEquals(100, pagina.getValue().getPageSize());
+    }
+
+    @Test
+    void buscarEventosFiltrados_cursorIncompleto_debeLanzarIllegalArgumentException() {
+        EventoFiltroRequest filtros = new EventoFiltroRequest();
+        filtros.setCursorFecha(LocalDate.of(2024, 6, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> eventoService.buscarEventosFiltrados(ownerId, filtros));
+        verifyNoInteractions(eventoRepository);
+    }
+
+    private EventoRepository.PermisoEfectivoFila fila(Long idEvento, Long owner, Long usuarioId, Long permisosMask) {
+        return new EventoRepository.PermisoEfectivoFila() {
+            public Long getIdEvento() { return idEvento; }
+            public Long getOwnerId() { return owner; }
+            public Long getUsuarioId() { return usuarioId; }
+            public Long getPermisosMask() { return permisosMask; }
+        };
+    }
+}
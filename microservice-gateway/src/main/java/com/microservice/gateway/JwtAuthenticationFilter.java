@@ -13,10 +13,13 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriUtils;
 import reactor.core.publisher.Mono;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
@@ -32,10 +35,20 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             return chain.filter(exchange);
         }
 
-        String path = request.getPath().toString();
+        // Las reglas se evalúan sobre la ruta decodificada, como la verá el servicio de destino
+        String path = rutaNormalizada(request.getPath().pathWithinApplication().value());
+        if (path == null) {
+            return this.onError(exchange, "Ruta no válida", HttpStatus.BAD_REQUEST);
+        }
+
+        // Los endpoints /internal/ son solo de servicio a servicio (también vía rutas del discovery locator)
+        if (esInterna(path)) {
+            return this.onError(exchange, "Recurso no disponible", HttpStatus.NOT_FOUND);
+        }
 
         if (path.startsWith("/api/usuarios/login")
-                || path.startsWith("/api/usuarios/registrar")) {
+                || path.startsWith("/api/usuarios/registrar")
+                || path.startsWith("/api/usuarios/token/refresh")) {
             return chain.filter(exchange);
         }
 
@@ -85,6 +98,41 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         return chain.filter(exchange.mutate().request(modifiedRequest).build());
     }
 
+    /**
+     * Decodifica la ruta y junta las barras repetidas. Devuelve null si es ambigua: segmentos "." o "..",
+     * doble codificación, parámetros de ruta (;) o barras invertidas, que el destino podría interpretar distinto.
+     */
+    static String rutaNormalizada(String rutaCruda) {
+        String decodificada;
+        try {
+            decodificada = UriUtils.decode(rutaCruda, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (decodificada.contains("%") || decodificada.contains(";") || decodificada.contains("\\")) {
+            return null;
+        }
+        List<String> segmentos = new ArrayList<>();
+        for (String segmento : decodificada.split("/")) {
+            if (segmento.equals(".") || segmento.equals("..")) {
+                return null;
+            }
+            if (!segmento.isEmpty()) {
+                segmentos.add(segmento);
+            }
+        }
+        return "/" + String.join("/", segmentos);
+    }
+
+    static boolean esInterna(String rutaNormalizada) {
+        for (String segmento : rutaNormalizada.split("/")) {
+            if (segmento.equalsIgnoreCase("internal")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus ) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(httpStatus );
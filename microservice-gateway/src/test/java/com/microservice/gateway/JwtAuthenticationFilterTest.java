@@ -0,0 +1,66 @@
+package com.microservice.gateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+	private final JwtAuthenticationFilter filtro = new JwtAuthenticationFilter();
+
+	// URI.create conserva la codificación tal como la envía el cliente
+	private HttpStatus filtrar(String rutaCruda, AtomicBoolean continuo) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.method(HttpMethod.GET, URI.create(rutaCruda)).build());
+		filtro.filter(exchange, e -> {
+			continuo.set(true);
+			return e.getResponse().setComplete();
+		}).block();
+		return (HttpStatus) exchange.getResponse().getStatusCode();
+	}
+
+	@Test
+	void rutaInterna_codificada_seBloquea() {
+		AtomicBoolean continuo = new AtomicBoolean();
+
+		assertEquals(HttpStatus.NOT_FOUND, filtrar("/microservice-ticketing/%69nternal/envios/resultados", continuo));
+		assertEquals(HttpStatus.NOT_FOUND, filtrar("/microservice-ticketing//internal/envios/resultados", continuo));
+		assertEquals(HttpStatus.NOT_FOUND, filtrar("/api/eventos/internal", continuo));
+		assertFalse(continuo.get());
+	}
+
+	@Test
+	void rutaAmbigua_seRechaza() {
+		AtomicBoolean continuo = new AtomicBoolean();
+
+		// Un prefijo público no debe servir para llegar a otro endpoint
+		assertEquals(HttpStatus.BAD_REQUEST, filtrar("/api/usuarios/login/../perfil", continuo));
+		assertEquals(HttpStatus.BAD_REQUEST, filtrar("/api/usuarios/login/%2e%2e/perfil", continuo));
+		assertEquals(HttpStatus.BAD_REQUEST, filtrar("/api/ticketing/%2569nternal/x", continuo));
+		assertEquals(HttpStatus.BAD_REQUEST, filtrar("/api/ticketing/internal;x=1/envios", continuo));
+		assertFalse(continuo.get());
+	}
+
+	@Test
+	void rutaPublica_pasaSinToken() {
+		AtomicBoolean continuo = new AtomicBoolean();
+
+		filtrar("/api/usuarios/login", continuo);
+
+		assertTrue(continuo.get());
+	}
+
+	@Test
+	void rutaNormalizada_decodificaYJuntaBarras() {
+		assertEquals("/api/eventos/internal/x", JwtAuthenticationFilter.rutaNormalizada("/api//eventos/%69nternal/x"));
+		assertEquals("/api/eventos/5", JwtAuthenticationFilter.rutaNormalizada("/api/eventos/5/"));
+		assertNull(JwtAuthenticationFilter.rutaNormalizada("/api/%zz"));
+	}
+}
@@ -0,0 +1,45 @@
+package com.microservice.loadtest;
+
+import com.microservice.ticketing.MicroserviceTicketingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Prueba de carga de microservice-ticketing: levanta el servicio en proceso sobre H2 con los clientes de
+ * eventos y comunicaciones simulados, siembra los datos y mide check-ins, emisiones y búsquedas a tasa fija.
+ *
+ * Uso: java -jar microservice-loadtest/target/loadtest.jar --tasa=500 --duracion=60 --latencia-eventos-ms=5
+ */
+public class CheckinLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdeArgumentos(args);
+        Path directorioUso = Files.createTempDirectory("uso-entradas-carga");
+
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(
+                MicroserviceTicketingApplication.class, ClientesSimulados.class)
+                .profiles("loadtest")
+                .run("--spring.cloud.config.enabled=false",
+                        "--entradas.uso.directorio=" + directorioUso,
+                        "--loadtest.latencia-eventos=" + configuracion.latenciaEventos().toMillis() + "ms");
+        try {
+            int puerto = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+            System.out.println("Ticketing escuchando en el puerto " + puerto);
+
+            long inicioSiembra = System.nanoTime();
+            SembradorDatos.DatosSembrados datos = new SembradorDatos(contexto).sembrar(configuracion);
+            System.out.printf("Sembrados %d eventos x %d entradas en %.1f s%n", configuracion.eventos(),
+                    configuracion.entradasPorEvento(), (System.nanoTime() - inicioSiembra) / 1e9);
+
+            ResultadoCarga resultado = new GeneradorCarga(configuracion, datos, puerto).ejecutar();
+            Path archivo = new ReporteCarga().escribir(resultado);
+            System.out.println("Resultado escrito en " + archivo.toAbsolutePath());
+        } finally {
+            contexto.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.microservice.loadtest;
+
+import com.microservice.ticketing.client.EventoClient;
+import com.microservice.ticketing.client.NotificacionClient;
+import com.microservice.ticketing.dto.EnvioEntradasRequest;
+import com.microservice.ticketing.dto.EventoOwnerDTO;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reemplazos en proceso de los clientes Feign, para medir solo a ticketing. Las definiciones que registra
+ * @EnableFeignClients se conservan (FeignAutoConfiguration las busca por nombre), pero pierden la marca
+ * @Primary que trae @FeignClient, así los simulados @Primary son los que se inyectan.
+ * La latencia de eventos es configurable para simular la llamada remota.
+ */
+@Configuration
+public class ClientesSimulados {
+
+    public static final Long OWNER_ID = 1L;
+
+    private static final List<Class<?>> CLIENTES_REEMPLAZADOS = List.of(EventoClient.class, NotificacionClient.class);
+
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor degradarClientesFeign() {
+        return registry -> {
+            for (String nombre : registry.getBeanDefinitionNames()) {
+                BeanDefinition definicion = registry.getBeanDefinition(nombre);
+                Object tipo = definicion.getAttribute(FactoryBean.OBJECT_TYPE_ATTRIBUTE);
+                boolean esClienteFeign = CLIENTES_REEMPLAZADOS.stream().anyMatch(c ->
+                        c.getName().equals(nombre) || c.equals(tipo) || c.getName().equals(tipo));
+                if (esClienteFeign) {
+                    definicion.setPrimary(false);
+                }
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public EventoClient eventoClienteSimulado(@Value("${loadtest.latencia-eventos:0ms}") Duration latencia) {
+        return new EventoClient() {
+            @Override
+            public EventoOwnerDTO getEventoOwnerById(Long id) {
+                esperar(latencia);
+                return new EventoOwnerDTO(OWNER_ID, "Evento de carga " + id);
+            }
+
+            @Override
+            public Boolean staffTienePermiso(Long idEvento, Long idUsuario, String nombrePermiso) {
+                esperar(latencia);
+                return true;
+            }
+        };
+    }
+
+    // El envío de correos no forma parte de la medición
+    @Bean
+    @Primary
+    public NotificacionClient notificacionClienteSimulado() {
+        return (EnvioEntradasRequest request) -> { };
+    }
+
+    private static void esperar(Duration latencia) {
+        if (!latencia.isZero()) {
+            LockSupport.parkNanos(latencia.toNanos());
+        }
+    }
+}
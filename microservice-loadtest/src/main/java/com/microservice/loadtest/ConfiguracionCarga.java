@@ -0,0 +1,72 @@
+package com.microservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba, leídos de argumentos --clave=valor.
+ *
+ * @param eventos             cantidad de eventos sembrados
+ * @param entradasPorEvento   entradas emitidas por evento (las que se escanean)
+ * @param pendientesPorEvento invitados sin emitir por evento (los que consume la operación de emisión)
+ * @param tasa                solicitudes por segundo (modelo abierto: llegan a esta tasa aunque el servicio se atrase)
+ * @param calentamiento       duración descartada antes de medir
+ * @param duracion            duración medida
+ * @param pesoCheckin         peso relativo de los check-ins en la mezcla
+ * @param pesoEmision         peso relativo de las emisiones
+ * @param pesoBusqueda        peso relativo de las búsquedas de invitados
+ * @param latenciaEventos     latencia simulada de microservice-eventos en cada consulta de permisos
+ * @param salida              directorio donde se escriben resultado.json y los histogramas
+ */
+public record ConfiguracionCarga(int eventos,
+                                 int entradasPorEvento,
+                                 int pendientesPorEvento,
+                                 int tasa,
+                                 Duration calentamiento,
+                                 Duration duracion,
+                                 int pesoCheckin,
+                                 int pesoEmision,
+                                 int pesoBusqueda,
+                                 Duration latenciaEventos,
+                                 Path salida) {
+
+    public static ConfiguracionCarga desdeArgumentos(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int igual = arg.indexOf('=');
+                valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+            }
+        }
+        return new ConfiguracionCarga(
+                entero(valores, "eventos", 4),
+                entero(valores, "entradas", 20_000),
+                entero(valores, "pendientes", 2_000),
+                entero(valores, "tasa", 500),
+                Duration.ofSeconds(entero(valores, "calentamiento", 15)),
+                Duration.ofSeconds(entero(valores, "duracion", 60)),
+                entero(valores, "peso-checkin", 80),
+                entero(valores, "peso-emision", 5),
+                entero(valores, "peso-busqueda", 15),
+                Duration.ofMillis(entero(valores, "latencia-eventos-ms", 0)),
+                Path.of(valores.getOrDefault("salida", "target/loadtest")));
+    }
+
+    public int pesoTotal() {
+        return pesoCheckin + pesoEmision + pesoBusqueda;
+    }
+
+    private static int entero(Map<String, String> valores, String clave, int porDefecto) {
+        String valor = valores.get(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para --" + clave + ": " + valor);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.microservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Genera carga de modelo abierto: las solicitudes se programan a una tasa fija y la latencia se mide desde el
+ * instante en que debía partir cada una, no desde que partió. Así un servicio que se atrasa acumula la espera
+ * en los percentiles en lugar de esconderla (omisión coordinada).
+ */
+public class GeneradorCarga {
+
+    public enum Operacion { CHECKIN, EMISION, BUSQUEDA }
+
+    // Hasta 60 s en microsegundos, con 3 dígitos significativos
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.SECONDS.toMicros(60);
+
+    private final ConfiguracionCarga configuracion;
+    private final SembradorDatos.DatosSembrados datos;
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Queue<Long>> pendientesPorEvento = new ConcurrentHashMap<>();
+
+    private final Map<Operacion, Recorder> latencias = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, Map<Integer, LongAdder>> estados = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, LongAdder> fallos = new EnumMap<>(Operacion.class);
+    private final AtomicLong enVuelo = new AtomicLong();
+    private final AtomicLong maxEnVuelo = new AtomicLong();
+
+    public GeneradorCarga(ConfiguracionCarga configuracion, SembradorDatos.DatosSembrados datos, int puerto) {
+        this.configuracion = configuracion;
+        this.datos = datos;
+        this.baseUrl = "http://localhost:" + puerto;
+        this.http = HttpClient.newBuilder()
+                .executor(ejecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operacion operacion : Operacion.values()) {
+            latencias.put(operacion, new Recorder(LATENCIA_MAXIMA_US, 3));
+            estados.put(operacion, new ConcurrentHashMap<>());
+            fallos.put(operacion, new LongAdder());
+        }
+        datos.eventos().forEach(e -> pendientesPorEvento.put(e.idEvento(), new ConcurrentLinkedQueue<>(e.invitadosPendientes())));
+    }
+
+    /**
+     * Ejecuta el calentamiento (descartado) y la fase medida. Retorna los histogramas de la fase medida.
+     */
+    public ResultadoCarga ejecutar() throws InterruptedException {
+        System.out.println("Calentamiento " + configuracion.calentamiento().toSeconds() + " s a " + configuracion.tasa() + " req/s...");
+        programar(configuracion.calentamiento());
+        latencias.values().forEach(Recorder::reset);
+        estados.values().forEach(Map::clear);
+        fallos.values().forEach(LongAdder::reset);
+        maxEnVuelo.set(0);
+
+        System.out.println("Midiendo " + configuracion.duracion().toSeconds() + " s...");
+        long inicio = System.nanoTime();
+        programar(configuracion.duracion());
+        // Se esperan las solicitudes en vuelo para no perder las más lentas
+        while (enVuelo.get() > 0 && System.nanoTime() - inicio < configuracion.duracion().toNanos() + TimeUnit.SECONDS.toNanos(60)) {
+            Thread.sleep(10);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Map<Operacion, Histogram> histogramas = new EnumMap<>(Operacion.class);
+        Map<Operacion, Map<Integer, Long>> porEstado = new EnumMap<>(Operacion.class);
+        Map<Operacion, Long> fallosConexion = new EnumMap<>(Operacion.class);
+        for (Operacion operacion : Operacion.values()) {
+            histogramas.put(operacion, latencias.get(operacion).getIntervalHistogram());
+            Map<Integer, Long> conteo = new TreeMap<>();
+            estados.get(operacion).forEach((estado, n) -> conteo.put(estado, n.sum()));
+            porEstado.put(operacion, conteo);
+            fallosConexion.put(operacion, fallos.get(operacion).sum());
+        }
+        ejecutor.shutdownNow();
+        return new ResultadoCarga(configuracion, segundos, maxEnVuelo.get(), histogramas, porEstado, fallosConexion);
+    }
+
+    private void programar(Duration duracion) {
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / configuracion.tasa();
+        long inicio = System.nanoTime();
+        long total = duracion.toSeconds() * configuracion.tasa();
+        for (long i = 0; i < total; i++) {
+            long programado = inicio + i * intervalo;
+            long espera = programado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Operacion operacion = elegirOperacion();
+            ejecutor.execute(() -> enviar(operacion, programado));
+        }
+    }
+
+    private Operacion elegirOperacion() {
+        int r = ThreadLocalRandom.current().nextInt(configuracion.pesoTotal());
+        if (r < configuracion.pesoCheckin()) {
+            return Operacion.CHECKIN;
+        }
+        return r < configuracion.pesoCheckin() + configuracion.pesoEmision() ? Operacion.EMISION : Operacion.BUSQUEDA;
+    }
+
+    private void enviar(Operacion operacion, long programado) {
+        HttpRequest solicitud = construir(operacion);
+        if (solicitud == null) {
+            return;
+        }
+        long actual = enVuelo.incrementAndGet();
+        maxEnVuelo.accumulateAndGet(actual, Math::max);
+        try {
+            HttpResponse<Void> respuesta = http.send(solicitud, HttpResponse.BodyHandlers.discarding());
+            registrar(operacion, programado, respuesta.statusCode());
+        } catch (Exception e) {
+            fallos.get(operacion).increment();
+            registrar(operacion, programado, -1);
+        } finally {
+            enVuelo.decrementAndGet();
+        }
+    }
+
+    private void registrar(Operacion operacion, long programado, int estado) {
+        long latenciaUs = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - programado), LATENCIA_MAXIMA_US);
+        latencias.get(operacion).recordValue(latenciaUs);
+        estados.get(operacion).computeIfAbsent(estado, e -> new LongAdder()).increment();
+    }
+
+    private HttpRequest construir(Operacion operacion) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<SembradorDatos.EventoSembrado> eventos = datos.eventos();
+        SembradorDatos.EventoSembrado evento = eventos.get(random.nextInt(eventos.size()));
+        String owner = String.valueOf(ClientesSimulados.OWNER_ID);
+
+        return switch (operacion) {
+            // Códigos al azar: la mayoría son primeros ingresos al principio y reingresos (rechazados) hacia el final
+            case CHECKIN -> {
+                String codigo = evento.codigos().get(random.nextInt(evento.codigos().size()));
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/api/entradas/checkin/" + codigo))
+                        .header("X-User-ID", owner)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            case EMISION -> {
+                Long idInvitado = pendientesPorEvento.get(evento.idEvento()).poll();
+                if (idInvitado == null) {
+                    estados.get(operacion).computeIfAbsent(0, e -> new LongAdder()).increment(); // sin pendientes
+                    yield null;
+                }
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/api/invitados/emitir/" + idInvitado))
+                        .header("X-User-ID", owner)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            case BUSQUEDA -> {
+                String termino = URLEncoder.encode("emitido " + random.nextInt(1_000), StandardCharsets.UTF_8);
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/api/invitados/buscar?idTipoEntrada="
+                                + evento.idTipoEntrada() + "&termino=" + termino))
+                        .header("X-User-ID", owner)
+                        .GET()
+                        .build();
+            }
+        };
+    }
+}
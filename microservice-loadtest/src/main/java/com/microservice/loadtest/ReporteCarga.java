@@ -0,0 +1,119 @@
+package com.microservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Escribe el resultado en el directorio de salida: resultado.json con throughput y percentiles por operación,
+ * y un .hgrm por operación con la distribución completa (se puede graficar con HdrHistogram Plotter).
+ */
+public class ReporteCarga {
+
+    // Los histogramas se registran en microsegundos y se informan en milisegundos
+    private static final double US_POR_MS = 1_000.0;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public Path escribir(ResultadoCarga resultado) throws IOException {
+        Path salida = resultado.configuracion().salida();
+        Files.createDirectories(salida);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("fecha", Instant.now().toString());
+        json.put("configuracion", configuracion(resultado.configuracion()));
+        json.put("segundosMedidos", redondear(resultado.segundos()));
+        json.put("maxSolicitudesEnVuelo", resultado.maxEnVuelo());
+
+        Map<String, Object> operaciones = new LinkedHashMap<>();
+        for (GeneradorCarga.Operacion operacion : GeneradorCarga.Operacion.values()) {
+            Histogram histograma = resultado.histogramas().get(operacion);
+            Map<Integer, Long> porEstado = resultado.porEstado().get(operacion);
+            operaciones.put(operacion.name().toLowerCase(), operacion(histograma, porEstado,
+                    resultado.fallosConexion().get(operacion), resultado.segundos()));
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(salida.resolve(operacion.name().toLowerCase() + ".hgrm")))) {
+                histograma.outputPercentileDistribution(hgrm, US_POR_MS);
+            }
+        }
+        json.put("operaciones", operaciones);
+
+        Path archivo = salida.resolve("resultado.json");
+        objectMapper.writeValue(archivo.toFile(), json);
+        imprimirResumen(resultado);
+        return archivo;
+    }
+
+    private Map<String, Object> configuracion(ConfiguracionCarga c) {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("eventos", c.eventos());
+        valores.put("entradasPorEvento", c.entradasPorEvento());
+        valores.put("pendientesPorEvento", c.pendientesPorEvento());
+        valores.put("tasaObjetivo", c.tasa());
+        valores.put("calentamientoSegundos", c.calentamiento().toSeconds());
+        valores.put("duracionSegundos", c.duracion().toSeconds());
+        valores.put("mezcla", Map.of("checkin", c.pesoCheckin(), "emision", c.pesoEmision(), "busqueda", c.pesoBusqueda()));
+        valores.put("latenciaEventosMs", c.latenciaEventos().toMillis());
+        return valores;
+    }
+
+    private Map<String, Object> operacion(Histogram histograma, Map<Integer, Long> porEstado, long fallosConexion, double segundos) {
+        long solicitudes = histograma.getTotalCount();
+        // Un 400 en check-in es un rechazo de negocio (entrada ya utilizada), no un error del servicio
+        long errores = porEstado.entrySet().stream()
+                .filter(e -> e.getKey() < 0 || e.getKey() >= 500)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+
+        Map<String, Object> latencia = new LinkedHashMap<>();
+        latencia.put("p50", ms(histograma.getValueAtPercentile(50)));
+        latencia.put("p90", ms(histograma.getValueAtPercentile(90)));
+        latencia.put("p99", ms(histograma.getValueAtPercentile(99)));
+        latencia.put("p999", ms(histograma.getValueAtPercentile(99.9)));
+        latencia.put("max", ms(histograma.getMaxValue()));
+        latencia.put("media", redondear(histograma.getMean() / US_POR_MS));
+
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("solicitudes", solicitudes);
+        valores.put("porEstado", porEstado);
+        valores.put("errores", errores);
+        valores.put("fallosConexion", fallosConexion);
+        valores.put("throughput", redondear(solicitudes / segundos));
+        valores.put("latenciaMs", latencia);
+        return valores;
+    }
+
+    private void imprimirResumen(ResultadoCarga resultado) {
+        System.out.println();
+        System.out.printf("%-10s %10s %10s %9s %9s %9s %9s %9s%n",
+                "operación", "solic.", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errores");
+        for (GeneradorCarga.Operacion operacion : GeneradorCarga.Operacion.values()) {
+            Histogram h = resultado.histogramas().get(operacion);
+            long errores = resultado.porEstado().get(operacion).entrySet().stream()
+                    .filter(e -> e.getKey() < 0 || e.getKey() >= 500)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            System.out.printf("%-10s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9d%n",
+                    operacion.name().toLowerCase(), h.getTotalCount(), h.getTotalCount() / resultado.segundos(),
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), errores);
+        }
+        System.out.println("Máximo de solicitudes en vuelo: " + resultado.maxEnVuelo());
+    }
+
+    private static double ms(long microsegundos) {
+        return redondear(microsegundos / US_POR_MS);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 1_000) / 1_000.0;
+    }
+}
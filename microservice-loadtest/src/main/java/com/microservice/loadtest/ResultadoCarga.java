@@ -0,0 +1,17 @@
+package com.microservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * Resultado de la fase medida: histogramas de latencia en microsegundos y conteos de respuesta por operación.
+ * El estado -1 corresponde a fallos de conexión o timeouts y el 0 a emisiones omitidas por falta de pendientes.
+ */
+public record ResultadoCarga(ConfiguracionCarga configuracion,
+                             double segundos,
+                             long maxEnVuelo,
+                             Map<GeneradorCarga.Operacion, Histogram> histogramas,
+                             Map<GeneradorCarga.Operacion, Map<Integer, Long>> porEstado,
+                             Map<GeneradorCarga.Operacion, Long> fallosConexion) {
+}
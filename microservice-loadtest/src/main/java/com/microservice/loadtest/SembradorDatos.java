@@ -0,0 +1,140 @@
+package com.microservice.loadtest;
+
+import com.microservice.ticketing.model.EntradaEmitida;
+import com.microservice.ticketing.model.Invitado;
+import com.microservice.ticketing.model.TipoEntrada;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import com.microservice.ticketing.repository.InvitadoRepository;
+import com.microservice.ticketing.repository.TipoEntradaRepository;
+import com.microservice.ticketing.security.CodigoEntradaFirmado;
+import com.microservice.ticketing.security.GeneradorCodigosEntrada;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Siembra N eventos, cada uno con un tipo de entrada, sus entradas ya emitidas (las que se escanean) e
+ * invitados pendientes (los que consume la emisión). Usa los repositorios de ticketing, así que los códigos
+ * y columnas derivadas quedan igual que en producción.
+ */
+public class SembradorDatos {
+
+    static final long PRIMER_EVENTO = 1_000L;
+    private static final int ENTRADAS_POR_INVITADO = 4;
+    private static final int LOTE = 1_000;
+
+    private final TipoEntradaRepository tipoEntradaRepository;
+    private final InvitadoRepository invitadoRepository;
+    private final EntradaEmitidaRepository entradaEmitidaRepository;
+    private final CodigoEntradaFirmado codigoEntradaFirmado;
+    private final GeneradorCodigosEntrada generadorCodigosEntrada;
+    private final TransactionTemplate transaccion;
+
+    public SembradorDatos(ApplicationContext contexto) {
+        this.tipoEntradaRepository = contexto.getBean(TipoEntradaRepository.class);
+        this.invitadoRepository = contexto.getBean(InvitadoRepository.class);
+        this.entradaEmitidaRepository = contexto.getBean(EntradaEmitidaRepository.class);
+        this.codigoEntradaFirmado = contexto.getBean(CodigoEntradaFirmado.class);
+        this.generadorCodigosEntrada = contexto.getBean(GeneradorCodigosEntrada.class);
+        this.transaccion = contexto.getBean(TransactionTemplate.class);
+    }
+
+    public DatosSembrados sembrar(ConfiguracionCarga configuracion) {
+        List<EventoSembrado> eventos = new ArrayList<>();
+        for (int e = 0; e < configuracion.eventos(); e++) {
+            long idEvento = PRIMER_EVENTO + e;
+            TipoEntrada tipo = tipoEntradaRepository.save(TipoEntrada.builder()
+                    .idEvento(idEvento)
+                    .nombre("General carga " + idEvento)
+                    .descripcion("Tipo de entrada sembrado por la prueba de carga.")
+                    .precio(BigDecimal.TEN)
+                    .cantidadTotal(configuracion.entradasPorEvento()
+                            + configuracion.pendientesPorEvento() * ENTRADAS_POR_INVITADO)
+                    .cantidadEmitida(configuracion.entradasPorEvento())
+                    .fechaInicioVenta(LocalDateTime.now().minusDays(1))
+                    .fechaFinVenta(LocalDateTime.now().plusDays(1))
+                    .estado(TipoEntrada.EstadoTipoEntrada.ACTIVO)
+                    .build());
+
+            List<String> codigos = new ArrayList<>(configuracion.entradasPorEvento());
+            int emitidas = 0;
+            while (emitidas < configuracion.entradasPorEvento()) {
+                int lote = Math.min(LOTE, configuracion.entradasPorEvento() - emitidas);
+                codigos.addAll(sembrarLoteEmitido(idEvento, tipo, emitidas, lote));
+                emitidas += lote;
+            }
+
+            List<Long> pendientes = new ArrayList<>(configuracion.pendientesPorEvento());
+            for (int i = 0; i < configuracion.pendientesPorEvento(); i += LOTE) {
+                int desde = i;
+                int lote = Math.min(LOTE, configuracion.pendientesPorEvento() - i);
+                pendientes.addAll(transaccion.execute(status -> {
+                    List<Invitado> invitados = new ArrayList<>(lote);
+                    for (int j = 0; j < lote; j++) {
+                        invitados.add(invitado(tipo, "pendiente", desde + j, Invitado.EstadoEnvio.PENDIENTE));
+                    }
+                    return invitadoRepository.saveAll(invitados).stream().map(Invitado::getIdInvitado).toList();
+                }));
+            }
+
+            eventos.add(new EventoSembrado(idEvento, tipo.getIdTipoEntrada(), codigos, pendientes));
+            System.out.println("Evento " + idEvento + ": " + codigos.size() + " entradas, " + pendientes.size() + " invitados pendientes");
+        }
+        return new DatosSembrados(eventos);
+    }
+
+    // Un lote en su propia transacción: invitados con ENTRADAS_POR_INVITADO entradas cada uno
+    private List<String> sembrarLoteEmitido(long idEvento, TipoEntrada tipo, int desde, int cantidad) {
+        return transaccion.execute(status -> {
+            List<Invitado> invitados = new ArrayList<>();
+            for (int i = 0; i < cantidad; i += ENTRADAS_POR_INVITADO) {
+                invitados.add(invitado(tipo, "emitido", desde + i, Invitado.EstadoEnvio.ENVIADO));
+            }
+            invitadoRepository.saveAll(invitados);
+
+            LocalDateTime ahora = LocalDateTime.now();
+            List<EntradaEmitida> entradas = new ArrayList<>(cantidad);
+            String[] codigos = generadorCodigosEntrada.generar(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                entradas.add(EntradaEmitida.builder()
+                        .idInvitado(invitados.get(i / ENTRADAS_POR_INVITADO).getIdInvitado())
+                        .idTipoEntrada(tipo.getIdTipoEntrada())
+                        .codigoQR(codigos[i])
+                        .fechaEmision(ahora)
+                        .estadoUso(EntradaEmitida.EstadoUso.NO_UTILIZADA)
+                        .build());
+            }
+            entradaEmitidaRepository.saveAll(entradas);
+
+            // Igual que InvitadoService: el código firmado necesita el ID asignado
+            if (codigoEntradaFirmado.habilitado()) {
+                for (EntradaEmitida entrada : entradas) {
+                    entrada.setCodigoQR(codigoEntradaFirmado.firmar(entrada.getIdEntrada(), entrada.getIdTipoEntrada(),
+                            idEvento, entrada.getFechaEmision()));
+                }
+            }
+            return entradas.stream().map(EntradaEmitida::getCodigoQR).toList();
+        });
+    }
+
+    private Invitado invitado(TipoEntrada tipo, String prefijo, int numero, Invitado.EstadoEnvio estado) {
+        return Invitado.builder()
+                .nombreCompleto("Invitado " + prefijo + " " + numero)
+                .correo(prefijo + numero + "@carga.test")
+                .idTipoEntrada(tipo.getIdTipoEntrada())
+                .cantidad(estado == Invitado.EstadoEnvio.PENDIENTE ? 2 : ENTRADAS_POR_INVITADO)
+                .fechaCreacion(LocalDateTime.now())
+                .estadoEnvio(estado)
+                .build();
+    }
+
+    public record EventoSembrado(long idEvento, long idTipoEntrada, List<String> codigos, List<Long> invitadosPendientes) {
+    }
+
+    public record DatosSembrados(List<EventoSembrado> eventos) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservice.ticketing.controller;
+
+import com.microservice.ticketing.dto.RevocacionCapacidadRequest;
+import com.microservice.ticketing.security.RevocacionCapacidadRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/capacidades")
+@RequiredArgsConstructor
+@Tag(name = "Interno - Capacidades", description = "Endpoints de servicio a servicio para la revocación de tokens de capacidad.")
+public class CapacidadInternaController {
+
+    private final RevocacionCapacidadRegistry revocacionRegistry;
+
+    @Operation(summary = "Registrar Revocaciones", description = "Llamado por microservice-eventos al revocar un Staff o modificar sus permisos.")
+    @PostMapping("/revocaciones")
+    public ResponseEntity<Void> registrarRevocaciones(@RequestBody List<RevocacionCapacidadRequest> revocaciones) {
+        revocaciones.forEach(r -> revocacionRegistry.revocar(r.getIdEvento(), r.getUsuarioId(), r.getRevocadoEn()));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,15 +1,28 @@
 package com.microservice.ticketing.controller;
 
+import com.microservice.ticketing.dto.AsistenciaResponse;
 import com.microservice.ticketing.dto.CheckinResponse;
+import com.microservice.ticketing.service.ContadoresAsistencia;
 import com.microservice.ticketing.service.EntradaService;
+import com.microservice.ticketing.service.FeedCambiosEntradas;
+import com.microservice.ticketing.service.ManifiestoEntradasService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/entradas")
@@ -18,6 +31,9 @@ import org.springframework.web.bind.annotation.*;
 public class EntradaController {
 
     private final EntradaService entradaService;
+    private final ManifiestoEntradasService manifiestoEntradasService;
+    private final FeedCambiosEntradas feedCambiosEntradas;
+    private final ContadoresAsistencia contadoresAsistencia;
 
     @PostMapping("/checkin/{codigoQR}")
     @Operation(summary = "Valida y marca el uso de un ticket (Check-In).",
@@ -30,14 +46,16 @@ public class EntradaController {
             @Parameter(description = "Código QR único del ticket a validar.")
             @PathVariable String codigoQR,
             @Parameter(description = "ID del usuario Staff (o Owner) que realiza el escaneo.", required = true)
-            @RequestHeader("X-User-ID") Long staffId) {
+            @RequestHeader("X-User-ID") Long staffId,
+            @Parameter(description = "Token de capacidad emitido por microservice-eventos. Si es válido, los permisos se verifican sin consultar a eventos.")
+            @RequestHeader(value = "X-Capability-Token", required = false) String tokenCapacidad) {
 
         if (staffId == null) {
             return new ResponseEntity<>("Se requiere ID de Staff para el check-in.", HttpStatus.UNAUTHORIZED);
         }
 
         try {
-            CheckinResponse response = entradaService.validarYUsarEntrada(staffId, codigoQR);
+            CheckinResponse response = entradaService.validarYUsarEntrada(staffId, codigoQR, tokenCapacidad);
 
             return ResponseEntity.ok(response);
 
@@ -55,4 +73,161 @@ public class EntradaController {
             return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST); // 400
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/eventos/{idEvento}/clave-verificacion")
+    @Operation(summary = "Obtiene la clave de verificación de códigos QR firmados del evento.",
+            description = "Clave HMAC del evento en Base32. Permite al escáner del Staff validar la autenticidad de las entradas sin conexión.")
+    @ApiResponse(responseCode = "200", description = "Clave del evento.")
+    @ApiResponse(responseCode = "403", description = "El Staff no tiene el permiso 'escanear_entrada' para este evento.")
+    public ResponseEntity<?> obtenerClaveVerificacion(
+            @Parameter(description = "ID del evento.")
+            @PathVariable Long idEvento,
+            @Parameter(description = "ID del usuario Staff (o Owner) que solicita la clave.", required = true)
+            @RequestHeader("X-User-ID") Long staffId,
+            @Parameter(description = "Token de capacidad emitido por microservice-eventos.")
+            @RequestHeader(value = "X-Capability-Token", required = false) String tokenCapacidad) {
+
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "idEvento", idEvento,
+                    "clave", entradaService.obtenerClaveVerificacion(staffId, idEvento, tokenCapacidad)));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Acceso Denegado")) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.FORBIDDEN);
+            }
+            throw e;
+        }
+    }
+
+    @GetMapping("/evento/{idEvento}/manifest")
+    @Operation(summary = "Descarga el manifiesto binario de entradas del evento para el escáner.",
+            description = "Hashes de 64 bits de los códigos ordenados, estado de uso y nombre del invitado, para validar en el dispositivo con búsqueda binaria. "
+                    + "Con 'desde' (o If-Modified-Since) devuelve solo las entradas modificadas desde esa versión. Formato en ManifiestoEntradasService.")
+    @ApiResponse(responseCode = "200", description = "Manifiesto en application/octet-stream. La cabecera X-Manifest-Version trae el cursor del próximo delta.")
+    @ApiResponse(responseCode = "403", description = "El Staff no tiene el permiso 'escanear_entrada' para este evento.")
+    public ResponseEntity<?> descargarManifiesto(
+            @Parameter(description = "ID del evento.")
+            @PathVariable Long idEvento,
+            @Parameter(description = "Versión (epoch ms) de un manifiesto anterior. Si se indica, la respuesta es un delta.")
+            @RequestParam(required = false) Long desde,
+            @Parameter(description = "Alternativa HTTP a 'desde'; se usa si 'desde' no viene.")
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+            @Parameter(description = "ID del usuario Staff (o Owner) que descarga el manifiesto.", required = true)
+            @RequestHeader("X-User-ID") Long staffId,
+            @Parameter(description = "Token de capacidad emitido por microservice-eventos.")
+            @RequestHeader(value = "X-Capability-Token", required = false) String tokenCapacidad) {
+
+        long version;
+        try {
+            version = manifiestoEntradasService.prepararManifiesto(staffId, idEvento, tokenCapacidad);
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Acceso Denegado")) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.FORBIDDEN);
+            }
+            throw e;
+        }
+
+        Long desdeVersion = desde != null ? desde : parsearFechaHttp(ifModifiedSince);
+        StreamingResponseBody cuerpo = salida ->
+                manifiestoEntradasService.escribirManifiesto(idEvento, desdeVersion, version, salida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .lastModified(version)
+                .header("X-Manifest-Version", String.valueOf(version))
+                .body(cuerpo);
+    }
+
+    @GetMapping(value = "/evento/{idEvento}/cambios", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribe un escáner a los cambios de estado de las entradas del evento (SSE).",
+            description = "Difunde check-ins y anulaciones hechos en otras puertas. Cada evento SSE 'cambios' trae una lista de cambios y su id es el cursor; "
+                    + "al reconectar con Last-Event-ID se reciben los cambios pendientes. Un evento 'resincronizar' indica que se debe descargar de nuevo el manifiesto.")
+    @ApiResponse(responseCode = "200", description = "Stream text/event-stream abierto.")
+    @ApiResponse(responseCode = "403", description = "El Staff no tiene el permiso 'escanear_entrada' para este evento.")
+    public ResponseEntity<?> suscribirCambios(
+            @Parameter(description = "ID del evento.")
+            @PathVariable Long idEvento,
+            @Parameter(description = "Secuencia desde la que se quieren los cambios. Alternativa a Last-Event-ID.")
+            @RequestParam(required = false) Long desde,
+            @Parameter(description = "Cursor enviado automáticamente por EventSource al reconectar.")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @Parameter(description = "ID del usuario Staff (o Owner) del escáner.", required = true)
+            @RequestHeader("X-User-ID") Long staffId,
+            @Parameter(description = "Token de capacidad emitido por microservice-eventos.")
+            @RequestHeader(value = "X-Capability-Token", required = false) String tokenCapacidad) {
+
+        ResponseEntity<?> denegado = verificarAccesoEvento(staffId, idEvento, tokenCapacidad);
+        if (denegado != null) {
+            return denegado;
+        }
+
+        SseEmitter emitter = feedCambiosEntradas.suscribir(idEvento, lastEventId != null ? lastEventId : desde);
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/evento/{idEvento}/asistencia")
+    @Operation(summary = "Contadores de asistencia del evento (emitidas, utilizadas, anuladas) por tipo de entrada.",
+            description = "Se sirve desde contadores en memoria, sin consultar la base de datos.")
+    @ApiResponse(responseCode = "200", description = "Contadores del evento.")
+    @ApiResponse(responseCode = "403", description = "El Staff no tiene el permiso 'escanear_entrada' para este evento.")
+    public ResponseEntity<?> obtenerAsistencia(
+            @Parameter(description = "ID del evento.")
+            @PathVariable Long idEvento,
+            @Parameter(description = "ID del usuario Staff (o Owner).", required = true)
+            @RequestHeader("X-User-ID") Long staffId,
+            @Parameter(description = "Token de capacidad emitido por microservice-eventos.")
+            @RequestHeader(value = "X-Capability-Token", required = false) String tokenCapacidad) {
+
+        ResponseEntity<?> denegado = verificarAccesoEvento(staffId, idEvento, tokenCapacidad);
+        if (denegado != null) {
+            return denegado;
+        }
+        AsistenciaResponse asistencia = contadoresAsistencia.obtener(idEvento);
+        return ResponseEntity.ok(asistencia);
+    }
+
+    @GetMapping(value = "/evento/{idEvento}/asistencia/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribe un panel a los contadores de asistencia del evento (SSE).",
+            description = "Envía el estado actual y luego un evento 'asistencia' cada vez que cambian, agrupando los cambios de cada segundo.")
+    @ApiResponse(responseCode = "200", description = "Stream text/event-stream abierto.")
+    @ApiResponse(responseCode = "403", description = "El Staff no tiene el permiso 'escanear_entrada' para este evento.")
+    public ResponseEntity<?> suscribirAsistencia(
+            @Parameter(description = "ID del evento.")
+            @PathVariable Long idEvento,
+            @Parameter(description = "ID del usuario Staff (o Owner).", required = true)
+            @RequestHeader("X-User-ID") Long staffId,
+            @Parameter(description = "Token de capacidad emitido por microservice-eventos.")
+            @RequestHeader(value = "X-Capability-Token", required = false) String tokenCapacidad) {
+
+        ResponseEntity<?> denegado = verificarAccesoEvento(staffId, idEvento, tokenCapacidad);
+        if (denegado != null) {
+            return denegado;
+        }
+        return ResponseEntity.ok(contadoresAsistencia.suscribir(idEvento));
+    }
+
+    // 403 si el usuario no es Owner ni Staff con permiso de escaneo en el evento; null si puede continuar
+    private ResponseEntity<?> verificarAccesoEvento(Long staffId, Long idEvento, String tokenCapacidad) {
+        try {
+            entradaService.verificarPermisoEscaneo(staffId, idEvento, tokenCapacidad);
+            return null;
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Acceso Denegado")) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.FORBIDDEN);
+            }
+            throw e;
+        }
+    }
+
+    // Una fecha mal formada se ignora y se entrega el manifiesto completo
+    private Long parsearFechaHttp(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(valor, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservice.ticketing.controller;
+
+import com.microservice.ticketing.dto.ResultadoEnvioRequest;
+import com.microservice.ticketing.service.InvitadoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/envios")
+@RequiredArgsConstructor
+@Tag(name = "Interno - Envíos", description = "Endpoints de servicio a servicio para el resultado de los reintentos de correo.")
+public class EnvioInternoController {
+
+    private final InvitadoService invitadoService;
+
+    @Operation(summary = "Registrar Resultados de Envío", description = "Llamado por microservice-comunicaciones con los envíos que terminaron sus reintentos automáticos.")
+    @PostMapping("/resultados")
+    public ResponseEntity<Void> registrarResultados(@RequestBody List<ResultadoEnvioRequest> resultados) {
+        invitadoService.registrarResultadosEnvio(resultados);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,6 +4,7 @@ import com.microservice.ticketing.dto.EmisionMasivaResponse;
 import com.microservice.ticketing.dto.InvitadoRequest;
 import com.microservice.ticketing.model.Invitado;
 import com.microservice.ticketing.model.Invitado.EstadoEnvio;
+import com.microservice.ticketing.service.IdempotenciaService;
 import com.microservice.ticketing.service.InvitadoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,10 +13,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,6 +28,7 @@ import java.util.List;
 public class InvitadoController {
 
     private final InvitadoService invitadoService;
+    private final IdempotenciaService idempotenciaService;
 
     // --- Endpoints de BÚSQUEDA y FILTRADO ---
 
@@ -140,6 +144,7 @@ public class InvitadoController {
     }
 
     // --- Endpoints de EMISIÓN (Exclusivo OWNER) ---
+    // Aceptan Idempotency-Key: un reintento con la misma clave recibe la respuesta original sin volver a emitir.
 
     @PostMapping("/emitir/{idInvitado}")
     @Operation(summary = "Emite tickets y los envía por correo a un invitado ya registrado.",
@@ -147,15 +152,19 @@ public class InvitadoController {
     @ApiResponse(responseCode = "200", description = "Tickets emitidos y envío iniciado (EstadoEnvio: ENVIADO o ERROR_ENVIO).")
     @ApiResponse(responseCode = "403", description = "Acceso denegado. No es el Owner.")
     @ApiResponse(responseCode = "400", description = "Error de stock insuficiente o ya fueron emitidos previamente.")
+    @ApiResponse(responseCode = "409", description = "Hay una solicitud con la misma Idempotency-Key en curso.")
+    @ApiResponse(responseCode = "422", description = "La Idempotency-Key ya se usó en otra operación.")
     public ResponseEntity<Invitado> emitirEntradasRegistradas(
             @Parameter(description = "ID del invitado al que se le emitirán los tickets.")
             @PathVariable Long idInvitado,
             @Parameter(description = "ID del usuario Owner del evento.", required = true)
-            @RequestHeader(value = "X-User-ID") Long ownerId) {
-        
+            @RequestHeader(value = "X-User-ID") Long ownerId,
+            @Parameter(description = "Clave única del intento de emisión (ej. UUID) para que los reintentos no vuelvan a emitir.")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
+
         // Propaga SecurityException y RuntimeException
-        Invitado invitadoEmitido = invitadoService.emitirEntradasPorId(idInvitado, ownerId);
-        return ResponseEntity.ok(invitadoEmitido); // 200
+        return idempotenciaService.ejecutar(idempotencyKey, ownerId, "emitir:" + idInvitado, Invitado.class,
+                () -> ResponseEntity.ok(invitadoService.emitirEntradasPorId(idInvitado, ownerId))); // 200
     }
 
     @PostMapping("/emitir/tipo-entrada/{idTipoEntrada}")
@@ -166,16 +175,102 @@ public class InvitadoController {
     @ApiResponse(responseCode = "204", description = "No había invitados pendientes para procesar.")
     @ApiResponse(responseCode = "403", description = "Acceso denegado. No es el Owner.")
     @ApiResponse(responseCode = "400", description = "Error de stock insuficiente.")
+    @ApiResponse(responseCode = "409", description = "Hay una solicitud con la misma Idempotency-Key en curso.")
     public ResponseEntity<EmisionMasivaResponse> emitirEntradasMasivasPorTipo(
             @Parameter(description = "ID del Tipo de Entrada.")
             @PathVariable Long idTipoEntrada,
             
             @Parameter(description = "ID del usuario Owner del evento.", required = true)
-            @RequestHeader(value = "X-User-ID") Long ownerId) {
+            @RequestHeader(value = "X-User-ID") Long ownerId,
+
+            @Parameter(description = "Clave única del intento de emisión para que los reintentos no vuelvan a emitir.")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
         
         // Propaga SecurityException y RuntimeException
-        List<Invitado> invitadosProcesados = invitadoService.emitirEntradasMasivas(idTipoEntrada, ownerId);
-        
+        return idempotenciaService.ejecutar(idempotencyKey, ownerId, "emitir-masiva:" + idTipoEntrada,
+                EmisionMasivaResponse.class,
+                () -> resumenEmisionMasiva(invitadoService.emitirEntradasMasivas(idTipoEntrada, ownerId),
+                        "Proceso de emisión completado."));
+    }
+
+    @PostMapping("/emitir/tipo-entrada/{idTipoEntrada}/generar")
+    @Operation(summary = "Emisión por Etapas: generar sin enviar.",
+            description = "Genera en bloque las entradas de los invitados PENDIENTES (o con ERROR) y los deja en EMITIDO. " +
+                    "Los correos se envían después por el despacho programado, desde 'envioDesde' y con un máximo por ventana de tiempo. EXCLUSIVO OWNER.")
+    @ApiResponse(responseCode = "200", description = "Resumen de la generación (entradas programadas para envío).",
+            content = @Content(schema = @Schema(implementation = EmisionMasivaResponse.class)))
+    @ApiResponse(responseCode = "204", description = "No había invitados pendientes para procesar.")
+    @ApiResponse(responseCode = "403", description = "Acceso denegado. No es el Owner.")
+    @ApiResponse(responseCode = "400", description = "Error de stock insuficiente.")
+    @ApiResponse(responseCode = "409", description = "Hay una solicitud con la misma Idempotency-Key en curso.")
+    public ResponseEntity<EmisionMasivaResponse> generarEntradasMasivasPorTipo(
+            @Parameter(description = "ID del Tipo de Entrada.")
+            @PathVariable Long idTipoEntrada,
+
+            @Parameter(description = "Fecha y hora desde la que pueden enviarse los correos (ISO-8601). Si se omite, se envían en cuanto haya cupo.",
+                    example = "2024-10-21T09:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime envioDesde,
+
+            @Parameter(description = "ID del usuario Owner del evento.", required = true)
+            @RequestHeader(value = "X-User-ID") Long ownerId,
+
+            @Parameter(description = "Clave única del intento de generación para que los reintentos no vuelvan a generar.")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
+
+        // Propaga SecurityException y RuntimeException
+        return idempotenciaService.ejecutar(idempotencyKey, ownerId, "generar:" + idTipoEntrada + ":" + envioDesde,
+                EmisionMasivaResponse.class,
+                () -> resumenGeneracion(invitadoService.generarEntradasMasivas(idTipoEntrada, ownerId, envioDesde)));
+    }
+
+    // --- Endpoints de REENVÍO (Exclusivo OWNER): mismas entradas, sin stock ni códigos nuevos ---
+
+    @PostMapping("/reenviar/{idInvitado}")
+    @Operation(summary = "Reenvía por correo las entradas ya emitidas de un invitado.",
+            description = "No genera códigos nuevos ni toca el stock: envía las mismas entradas. Válido para invitados ENVIADO o con ERROR_ENVIO. EXCLUSIVO OWNER.")
+    @ApiResponse(responseCode = "200", description = "Reenvío realizado (EstadoEnvio: ENVIADO o ERROR_ENVIO).")
+    @ApiResponse(responseCode = "403", description = "Acceso denegado. No es el Owner.")
+    @ApiResponse(responseCode = "400", description = "El invitado aún no tiene entradas emitidas o su envío ya está programado.")
+    @ApiResponse(responseCode = "409", description = "Hay una solicitud con la misma Idempotency-Key en curso.")
+    public ResponseEntity<Invitado> reenviarEntradas(
+            @Parameter(description = "ID del invitado al que se le reenviarán los tickets.")
+            @PathVariable Long idInvitado,
+            @Parameter(description = "ID del usuario Owner del evento.", required = true)
+            @RequestHeader(value = "X-User-ID") Long ownerId,
+            @Parameter(description = "Clave única del intento de reenvío para que los reintentos no dupliquen el correo.")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
+
+        // Propaga SecurityException y RuntimeException
+        return idempotenciaService.ejecutar(idempotencyKey, ownerId, "reenviar:" + idInvitado, Invitado.class,
+                () -> ResponseEntity.ok(invitadoService.reenviarEntradas(idInvitado, ownerId))); // 200
+    }
+
+    @PostMapping("/reenviar/tipo-entrada/{idTipoEntrada}")
+    @Operation(summary = "Reenvío Masivo de los invitados con ERROR_ENVIO de un Tipo de Entrada.",
+            description = "Lee en bloque las entradas ya emitidas y reintenta el correo de cada invitado con ERROR_ENVIO, sin regenerar códigos ni tocar el stock. EXCLUSIVO OWNER.")
+    @ApiResponse(responseCode = "200", description = "Resumen del reenvío (total entradas, enviadas, fallidas).",
+            content = @Content(schema = @Schema(implementation = EmisionMasivaResponse.class)))
+    @ApiResponse(responseCode = "204", description = "No había invitados con error de envío.")
+    @ApiResponse(responseCode = "403", description = "Acceso denegado. No es el Owner.")
+    @ApiResponse(responseCode = "409", description = "Hay una solicitud con la misma Idempotency-Key en curso.")
+    public ResponseEntity<EmisionMasivaResponse> reenviarEntradasMasivasPorTipo(
+            @Parameter(description = "ID del Tipo de Entrada.")
+            @PathVariable Long idTipoEntrada,
+
+            @Parameter(description = "ID del usuario Owner del evento.", required = true)
+            @RequestHeader(value = "X-User-ID") Long ownerId,
+
+            @Parameter(description = "Clave única del intento de reenvío para que los reintentos no dupliquen los correos.")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
+
+        // Propaga SecurityException y RuntimeException
+        return idempotenciaService.ejecutar(idempotencyKey, ownerId, "reenviar-masivo:" + idTipoEntrada,
+                EmisionMasivaResponse.class,
+                () -> resumenEmisionMasiva(invitadoService.reenviarEntradasMasivas(idTipoEntrada, ownerId),
+                        "Proceso de reenvío completado."));
+    }
+
+    private ResponseEntity<EmisionMasivaResponse> resumenEmisionMasiva(List<Invitado> invitadosProcesados, String mensaje) {
         if (invitadosProcesados.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -197,7 +292,7 @@ public class InvitadoController {
 
         // Construir el DTO de respuesta
         EmisionMasivaResponse response = EmisionMasivaResponse.builder()
-                .mensaje("Proceso de emisión completado.")
+                .mensaje(mensaje)
                 .totalProcesados(totalEntradas)
                 .enviadas(enviadas)
                 .fallidas(fallidas)
@@ -205,4 +300,22 @@ public class InvitadoController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<EmisionMasivaResponse> resumenGeneracion(List<Invitado> invitadosEmitidos) {
+        if (invitadosEmitidos.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        int totalEntradas = invitadosEmitidos.stream()
+                .mapToInt(Invitado::getCantidad)
+                .sum();
+
+        EmisionMasivaResponse response = EmisionMasivaResponse.builder()
+                .mensaje("Entradas generadas. El envío de correos quedó programado.")
+                .totalProcesados(totalEntradas)
+                .programadas(totalEntradas)
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+}
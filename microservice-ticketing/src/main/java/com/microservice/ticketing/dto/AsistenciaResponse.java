@@ -0,0 +1,48 @@
+package com.microservice.ticketing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Contadores de asistencia de un evento, totales y por tipo de entrada.")
+public class AsistenciaResponse {
+
+    @Schema(description = "ID del evento.", example = "101")
+    private Long idEvento;
+
+    @Schema(description = "Entradas vigentes emitidas.", example = "1200")
+    private long emitidas;
+
+    @Schema(description = "Entradas utilizadas (personas que ingresaron).", example = "850")
+    private long utilizadas;
+
+    @Schema(description = "Entradas anuladas o eliminadas desde el arranque de la instancia (las eliminaciones no quedan en BD).", example = "3")
+    private long anuladas;
+
+    @Schema(description = "Desglose por tipo de entrada.")
+    private List<TipoAsistencia> tipos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Contadores de un tipo de entrada.")
+    public static class TipoAsistencia {
+        @Schema(description = "ID del tipo de entrada.", example = "1")
+        private Long idTipoEntrada;
+
+        @Schema(description = "Entradas vigentes emitidas de este tipo.", example = "1000")
+        private long emitidas;
+
+        @Schema(description = "Entradas utilizadas de este tipo.", example = "700")
+        private long utilizadas;
+
+        @Schema(description = "Entradas anuladas de este tipo.", example = "2")
+        private long anuladas;
+    }
+}
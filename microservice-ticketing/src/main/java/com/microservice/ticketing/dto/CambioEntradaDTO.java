@@ -0,0 +1,25 @@
+package com.microservice.ticketing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cambio de estado de una entrada, difundido a los escáneres del evento.")
+public class CambioEntradaDTO {
+
+    @Schema(description = "Secuencia creciente del cambio. Se usa como cursor (Last-Event-ID) al reconectar.", example = "1730836800000001")
+    private long secuencia;
+
+    @Schema(description = "ID de la entrada.", example = "1001")
+    private Long idEntrada;
+
+    @Schema(description = "Hash de 64 bits del código QR, la clave del manifiesto del escáner.", example = "-4265194728183051183")
+    private Long hashCodigo;
+
+    @Schema(description = "Nuevo estado: UTILIZADA tras un check-in, ANULADA si la entrada fue eliminada o reemplazada.", example = "UTILIZADA")
+    private String estadoUso;
+}
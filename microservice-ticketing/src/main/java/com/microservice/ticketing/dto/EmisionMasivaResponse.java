@@ -1,11 +1,15 @@
 package com.microservice.ticketing.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "Resumen del resultado del proceso de emisión masiva de entradas.")
 public class EmisionMasivaResponse {
 
@@ -20,4 +24,7 @@ public class EmisionMasivaResponse {
 
     @Schema(description = "Cantidad de envíos fallidos.", example = "2")
     private int fallidas;
+
+    @Schema(description = "Entradas generadas cuyo correo quedó programado (emisión por etapas).", example = "0")
+    private int programadas;
 }
\ No newline at end of file
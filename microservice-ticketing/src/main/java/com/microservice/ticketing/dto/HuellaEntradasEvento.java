@@ -0,0 +1,8 @@
+package com.microservice.ticketing.dto;
+
+/**
+ * Huella de las entradas de un evento en BD (menor y mayor idEntrada, cantidad). Un snapshot de uso solo es
+ * válido si se tomó con la misma huella: si la BD se recreó o cambiaron las entradas, se descarta.
+ */
+public record HuellaEntradasEvento(Long minIdEntrada, Long maxIdEntrada, Long cantidad) {
+}
@@ -0,0 +1,11 @@
+package com.microservice.ticketing.event;
+
+import com.microservice.ticketing.model.EntradaEmitida;
+
+/**
+ * Publicado cuando cambia el estado de uso de una entrada (check-in) o cuando la entrada deja de ser válida
+ * (ANULADA: eliminada o reemplazada por una re-emisión). Los listeners lo reciben tras el commit.
+ */
+public record EntradaCambioEvent(Long idEvento, Long idTipoEntrada, Long idEntrada, Long hashCodigo,
+                                 EntradaEmitida.EstadoUso estadoUso) {
+}
@@ -0,0 +1,8 @@
+package com.microservice.ticketing.event;
+
+/**
+ * Publicado una vez por emisión con la cantidad de entradas nuevas de un tipo. Solo lo usan los contadores de
+ * asistencia: los escáneres reciben las entradas nuevas con el manifiesto, no por el feed de cambios.
+ */
+public record EntradasEmitidasEvent(Long idEvento, Long idTipoEntrada, int cantidad) {
+}
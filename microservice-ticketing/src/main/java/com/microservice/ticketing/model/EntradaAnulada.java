@@ -0,0 +1,42 @@
+package com.microservice.ticketing.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "entradas_anuladas", indexes = {
+        // Respaldo del feed de cambios: anulaciones de un evento desde una fecha
+        @Index(name = "idx_anuladas_evento_fecha", columnList = "id_evento, fecha_anulacion"),
+        // Purga de las que superan la retención
+        @Index(name = "idx_anuladas_fecha", columnList = "fecha_anulacion")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Registro de una entrada eliminada, para que el feed de cambios pueda informar la anulación a escáneres atrasados.")
+public class EntradaAnulada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long idEntrada;
+
+    // Guardado directamente: el tipo de entrada puede haberse eliminado junto con la entrada
+    @Column(nullable = false)
+    private Long idEvento;
+
+    @Schema(description = "Hash de 64 bits del código QR anulado.", example = "-4265194728183051183")
+    private Long hashCodigo;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaAnulacion;
+}
@@ -6,10 +6,23 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "entradas_emitidas")
+@Table(name = "entradas_emitidas", indexes = {
+        // Carga del mapa de uso por evento: entradas utilizadas de cada tipo de entrada
+        @Index(name = "idx_entradas_tipo_estado_uso", columnList = "id_tipo_entrada, estado_uso, fecha_uso"),
+        // Manifiesto del escáner: completo ordenado por hash y deltas por fecha de modificación
+        @Index(name = "idx_entradas_tipo_hash", columnList = "id_tipo_entrada, hash_codigo"),
+        @Index(name = "idx_entradas_tipo_modificacion", columnList = "id_tipo_entrada, fecha_modificacion"),
+        // Entradas de un invitado: reenvío, despacho programado y eliminación
+        @Index(name = "idx_entradas_invitado", columnList = "id_invitado")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,6 +55,32 @@ public class EntradaEmitida {
     @Schema(description = "Timestamp del check-in (momento del escaneo). Solo si estadoUso es UTILIZADA.", example = "2024-11-05T18:00:00")
     private LocalDateTime fechaUso;
 
+    @Schema(description = "Primeros 64 bits del SHA-256 del código QR. Clave de búsqueda del manifiesto del escáner.", example = "-4265194728183051183")
+    private Long hashCodigo;
+
+    @Schema(description = "Último cambio del ticket (emisión, re-código o check-in). Cursor de los deltas del manifiesto.", example = "2024-11-05T18:00:00")
+    private LocalDateTime fechaModificacion;
+
+    @PrePersist
+    @PreUpdate
+    void actualizarDatosManifiesto() {
+        this.hashCodigo = hashCodigo(codigoQR);
+        this.fechaModificacion = LocalDateTime.now();
+    }
+
+    /**
+     * Hash de 64 bits del código (SHA-256 truncado, big-endian). El escáner aplica la misma función al leer un QR
+     * y lo busca por búsqueda binaria en el manifiesto.
+     */
+    public static long hashCodigo(String codigoQR) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(codigoQR.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
     public enum EstadoUso {
         NO_UTILIZADA,
         UTILIZADA,
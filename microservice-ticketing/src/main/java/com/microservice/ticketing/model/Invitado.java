@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "invitados")
+@Table(name = "invitados", indexes = {
+        // Despacho programado: invitados EMITIDO cuya fecha de envío ya llegó y envíos ENVIANDO interrumpidos
+        @Index(name = "idx_invitados_envio_programado", columnList = "estado_envio, fecha_envio_programada")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -38,11 +41,18 @@ public class Invitado {
     private LocalDateTime fechaCreacion;
 
     @Enumerated(EnumType.STRING)
-    @Schema(description = "Estado del proceso de comunicación (envío del QR al correo). PENDIENTE, ENVIADO, ERROR_ENVIO.", example = "PENDIENTE")
+    @Schema(description = "Estado del proceso de comunicación (envío del QR al correo). PENDIENTE, EMITIDO, ENVIANDO, ENVIADO, ERROR_ENVIO.", example = "PENDIENTE")
     private EstadoEnvio estadoEnvio;
 
+    @Schema(description = "Desde cuándo puede despacharse el correo de una emisión por etapas (estado EMITIDO).", example = "2024-10-21T09:00:00")
+    private LocalDateTime fechaEnvioProgramada;
+
     public enum EstadoEnvio {
         PENDIENTE,
+        // Entradas generadas; el correo queda para el despacho programado
+        EMITIDO,
+        // Tomado por el despacho programado mientras se llama a comunicaciones
+        ENVIANDO,
         ENVIADO,
         ERROR_ENVIO
     }
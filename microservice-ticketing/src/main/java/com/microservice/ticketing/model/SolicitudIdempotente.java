@@ -0,0 +1,61 @@
+package com.microservice.ticketing.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "solicitudes_idempotentes", uniqueConstraints = {
+        // Una clave por usuario: la inserción concurrente de la misma clave falla en la BD
+        @UniqueConstraint(name = "uk_idempotencia_usuario_clave", columnNames = {"id_usuario", "clave"})
+}, indexes = {
+        @Index(name = "idx_idempotencia_expira", columnList = "expira_en")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado guardado de una solicitud de emisión con Idempotency-Key, para responder los reintentos sin repetirla.")
+public class SolicitudIdempotente {
+
+    public static final int LARGO_MAXIMO_CLAVE = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long idUsuario;
+
+    @Column(nullable = false, length = LARGO_MAXIMO_CLAVE)
+    private String clave;
+
+    @Schema(description = "Operación y parámetros a los que quedó asociada la clave.", example = "emitir:500")
+    @Column(nullable = false, length = 150)
+    private String operacion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    private EstadoSolicitud estado;
+
+    @Schema(description = "Código HTTP de la respuesta original.", example = "200")
+    private Integer codigoRespuesta;
+
+    @Schema(description = "Cuerpo JSON de la respuesta original (null si no tenía).")
+    @Column(columnDefinition = "TEXT")
+    private String respuesta;
+
+    private LocalDateTime creadoEn;
+
+    private LocalDateTime expiraEn;
+
+    public enum EstadoSolicitud {
+        EN_PROCESO,
+        COMPLETADA
+    }
+}
@@ -0,0 +1,26 @@
+package com.microservice.ticketing.repository;
+
+import com.microservice.ticketing.model.EntradaAnulada;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EntradaAnuladaRepository extends JpaRepository<EntradaAnulada, Long> {
+
+    @Query("SELECT a FROM EntradaAnulada a WHERE a.idEvento = :idEvento AND a.fechaAnulacion >= :desde " +
+           "ORDER BY a.fechaAnulacion")
+    List<EntradaAnulada> findByIdEventoDesde(@Param("idEvento") Long idEvento, @Param("desde") LocalDateTime desde, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EntradaAnulada a WHERE a.fechaAnulacion < :limite")
+    int eliminarAnteriores(@Param("limite") LocalDateTime limite);
+}
@@ -1,15 +1,88 @@
 package com.microservice.ticketing.repository;
 
+import com.microservice.ticketing.dto.HuellaEntradasEvento;
 import com.microservice.ticketing.model.EntradaEmitida;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EntradaEmitidaRepository extends JpaRepository<EntradaEmitida, Long> {
     List<EntradaEmitida> findAllByIdInvitado(Long idInvitado);
+    List<EntradaEmitida> findAllByIdInvitadoIn(Collection<Long> idsInvitado);
     Optional<EntradaEmitida> findByCodigoQR(String codigoQR);
     List<EntradaEmitida> findAllByIdTipoEntrada(Long idTipoEntrada);
-}
\ No newline at end of file
+
+    // Base del mapa de bits de uso del evento y validación de su snapshot (RegistroUsoEntradas)
+    @Query("SELECT new com.microservice.ticketing.dto.HuellaEntradasEvento(MIN(e.idEntrada), MAX(e.idEntrada), COUNT(e)) " +
+           "FROM EntradaEmitida e, TipoEntrada t " +
+           "WHERE t.idTipoEntrada = e.idTipoEntrada AND t.idEvento = :idEvento")
+    HuellaEntradasEvento findHuellaByIdEvento(@Param("idEvento") Long idEvento);
+
+    @Query("SELECT e.idEntrada FROM EntradaEmitida e, TipoEntrada t " +
+           "WHERE t.idTipoEntrada = e.idTipoEntrada AND t.idEvento = :idEvento " +
+           "AND e.estadoUso = :estadoUso AND e.fechaUso >= :desde")
+    List<Long> findIdsByIdEventoAndEstadoUsoDesde(
+            @Param("idEvento") Long idEvento,
+            @Param("estadoUso") EntradaEmitida.EstadoUso estadoUso,
+            @Param("desde") LocalDateTime desde);
+
+    // Manifiesto del escáner. Fetch size Integer.MIN_VALUE: Connector/J entrega las filas de a una (streaming)
+    // en lugar de cargar el resultado completo en memoria. Debe consumirse dentro de una transacción.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("SELECT e.hashCodigo AS hashCodigo, e.estadoUso AS estadoUso, i.nombreCompleto AS nombreInvitado " +
+           "FROM EntradaEmitida e JOIN TipoEntrada t ON t.idTipoEntrada = e.idTipoEntrada " +
+           "LEFT JOIN Invitado i ON i.idInvitado = e.idInvitado " +
+           "WHERE t.idEvento = :idEvento AND e.fechaModificacion >= :desde " +
+           "ORDER BY e.hashCodigo")
+    Stream<ManifiestoFila> streamManifiestoByIdEvento(@Param("idEvento") Long idEvento, @Param("desde") LocalDateTime desde);
+
+    @Query("SELECT COUNT(e) FROM EntradaEmitida e, TipoEntrada t " +
+           "WHERE t.idTipoEntrada = e.idTipoEntrada AND t.idEvento = :idEvento")
+    long countByIdEvento(@Param("idEvento") Long idEvento);
+
+    // Respaldo del feed de cambios para escáneres que se quedaron atrás del buffer en memoria
+    @Query("SELECT e.idEntrada AS idEntrada, e.hashCodigo AS hashCodigo, e.estadoUso AS estadoUso, " +
+           "e.fechaModificacion AS fechaModificacion " +
+           "FROM EntradaEmitida e JOIN TipoEntrada t ON t.idTipoEntrada = e.idTipoEntrada " +
+           "WHERE t.idEvento = :idEvento AND e.fechaModificacion >= :desde " +
+           "ORDER BY e.fechaModificacion")
+    List<CambioFila> findCambiosByIdEventoDesde(@Param("idEvento") Long idEvento, @Param("desde") LocalDateTime desde, Pageable pageable);
+
+    // Reconciliación de los contadores de asistencia (cubierta por idx_entradas_tipo_estado_uso)
+    @Query("SELECT e.idTipoEntrada AS idTipoEntrada, e.estadoUso AS estadoUso, COUNT(e) AS cantidad " +
+           "FROM EntradaEmitida e, TipoEntrada t " +
+           "WHERE t.idTipoEntrada = e.idTipoEntrada AND t.idEvento = :idEvento " +
+           "GROUP BY e.idTipoEntrada, e.estadoUso")
+    List<ConteoEstadoFila> contarPorTipoYEstado(@Param("idEvento") Long idEvento);
+
+    interface ManifiestoFila {
+        Long getHashCodigo();
+        EntradaEmitida.EstadoUso getEstadoUso();
+        String getNombreInvitado();
+    }
+
+    interface CambioFila {
+        Long getIdEntrada();
+        Long getHashCodigo();
+        EntradaEmitida.EstadoUso getEstadoUso();
+        LocalDateTime getFechaModificacion();
+    }
+
+    interface ConteoEstadoFila {
+        Long getIdTipoEntrada();
+        EntradaEmitida.EstadoUso getEstadoUso();
+        Long getCantidad();
+    }
+}
@@ -3,12 +3,17 @@ package com.microservice.ticketing.repository;
 import com.microservice.ticketing.model.Invitado;
 import com.microservice.ticketing.model.Invitado.EstadoEnvio;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -25,4 +30,45 @@ public interface InvitadoRepository extends JpaRepository<Invitado, Long> {
             @Param("idTipoEntrada") Long idTipoEntrada,
             @Param("termino") String termino,
             Sort sort);
-}
\ No newline at end of file
+
+    List<Invitado> findByEstadoEnvioAndFechaEnvioProgramadaLessThanEqual(EstadoEnvio estadoEnvio,
+                                                                         LocalDateTime fecha,
+                                                                         Pageable pageable);
+
+    /**
+     * Cambia el estado solo si sigue siendo {@code actual}. Retorna 0 si otra instancia ya lo tomó.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Invitado i SET i.estadoEnvio = :nuevo WHERE i.idInvitado = :idInvitado AND i.estadoEnvio = :actual")
+    int actualizarEstadoEnvio(@Param("idInvitado") Long idInvitado,
+                              @Param("actual") EstadoEnvio actual,
+                              @Param("nuevo") EstadoEnvio nuevo);
+
+    /**
+     * Toma un invitado para el despacho (actual -> nuevo) y deja en la fecha programada el momento en que se tomó,
+     * para detectar después los envíos interrumpidos. Retorna 0 si otra instancia ya lo tomó.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Invitado i SET i.estadoEnvio = :nuevo, i.fechaEnvioProgramada = :ahora " +
+           "WHERE i.idInvitado = :idInvitado AND i.estadoEnvio = :actual")
+    int reclamarEnvio(@Param("idInvitado") Long idInvitado,
+                      @Param("actual") EstadoEnvio actual,
+                      @Param("nuevo") EstadoEnvio nuevo,
+                      @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Invitado i SET i.estadoEnvio = :nuevo WHERE i.estadoEnvio = :actual AND i.fechaEnvioProgramada < :limite")
+    int actualizarEstadoEnvioAnteriorA(@Param("actual") EstadoEnvio actual,
+                                       @Param("nuevo") EstadoEnvio nuevo,
+                                       @Param("limite") LocalDateTime limite);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Invitado i SET i.estadoEnvio = :nuevo WHERE i.idInvitado IN :idsInvitado AND i.estadoEnvio = :actual")
+    int actualizarEstadoEnvioEnBloque(@Param("idsInvitado") Collection<Long> idsInvitado,
+                                      @Param("actual") EstadoEnvio actual,
+                                      @Param("nuevo") EstadoEnvio nuevo);
+}
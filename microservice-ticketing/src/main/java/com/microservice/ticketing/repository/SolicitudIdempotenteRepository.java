@@ -0,0 +1,52 @@
+package com.microservice.ticketing.repository;
+
+import com.microservice.ticketing.model.SolicitudIdempotente;
+import com.microservice.ticketing.model.SolicitudIdempotente.EstadoSolicitud;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface SolicitudIdempotenteRepository extends JpaRepository<SolicitudIdempotente, Long> {
+
+    Optional<SolicitudIdempotente> findByIdUsuarioAndClave(Long idUsuario, String clave);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.expiraEn < :ahora")
+    int eliminarExpiradas(@Param("ahora") LocalDateTime ahora);
+
+    // Latido de las reservas que esta instancia sigue ejecutando
+    @Modifying
+    @Transactional
+    @Query("UPDATE SolicitudIdempotente s SET s.expiraEn = :expiraEn WHERE s.id IN :ids AND s.estado = :estado")
+    int renovar(@Param("ids") Collection<Long> ids, @Param("estado") EstadoSolicitud estado,
+                @Param("expiraEn") LocalDateTime expiraEn);
+
+    // Condicionado a que la reserva siga EN_PROCESO: 0 si otra solicitud la tomó al vencer
+    @Modifying
+    @Transactional
+    @Query("UPDATE SolicitudIdempotente s SET s.estado = :completada, s.codigoRespuesta = :codigo, " +
+           "s.respuesta = :respuesta, s.expiraEn = :expiraEn WHERE s.id = :id AND s.estado = :enProceso")
+    int completar(@Param("id") Long id, @Param("enProceso") EstadoSolicitud enProceso,
+                  @Param("completada") EstadoSolicitud completada, @Param("codigo") Integer codigo,
+                  @Param("respuesta") String respuesta, @Param("expiraEn") LocalDateTime expiraEn);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.id = :id AND s.estado = :estado")
+    int liberar(@Param("id") Long id, @Param("estado") EstadoSolicitud estado);
+
+    // Solo si sigue vencida: un latido posterior a la lectura la mantiene en manos de su dueño
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.id = :id AND s.expiraEn < :ahora")
+    int eliminarSiExpirada(@Param("id") Long id, @Param("ahora") LocalDateTime ahora);
+}
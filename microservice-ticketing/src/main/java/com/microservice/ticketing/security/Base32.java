@@ -0,0 +1,65 @@
+package com.microservice.ticketing.security;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Base32 RFC 4648 (A-Z, 2-7) sin relleno. Solo usa caracteres del modo alfanumérico de QR,
+ * que codifica 5.5 bits por carácter frente a los 8 del modo byte.
+ */
+public final class Base32 {
+
+    private static final char[] ALFABETO = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+    private static final int[] VALORES = new int[128];
+
+    static {
+        java.util.Arrays.fill(VALORES, -1);
+        for (int i = 0; i < ALFABETO.length; i++) {
+            VALORES[ALFABETO[i]] = i;
+            VALORES[Character.toLowerCase(ALFABETO[i])] = i;
+        }
+    }
+
+    private Base32() {
+    }
+
+    public static String encode(byte[] datos) {
+        StringBuilder sb = new StringBuilder((datos.length * 8 + 4) / 5);
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : datos) {
+            buffer = (buffer << 8) | (b & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                sb.append(ALFABETO[(buffer >>> (bits - 5)) & 0x1F]);
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            sb.append(ALFABETO[(buffer << (5 - bits)) & 0x1F]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException si el texto contiene caracteres fuera del alfabeto.
+     */
+    public static byte[] decode(CharSequence texto) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(texto.length() * 5 / 8);
+        int buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            int valor = c < 128 ? VALORES[c] : -1;
+            if (valor < 0) {
+                throw new IllegalArgumentException("Carácter Base32 no válido: " + c);
+            }
+            buffer = (buffer << 5) | valor;
+            bits += 5;
+            if (bits >= 8) {
+                salida.write((buffer >>> (bits - 8)) & 0xFF);
+                bits -= 8;
+            }
+        }
+        return salida.toByteArray();
+    }
+}
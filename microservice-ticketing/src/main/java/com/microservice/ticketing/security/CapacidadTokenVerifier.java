@@ -0,0 +1,59 @@
+package com.microservice.ticketing.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Verifica localmente los tokens de capacidad emitidos por microservice-eventos.
+ * El parser (y su clave HMAC) se construye una sola vez, de modo que la verificación no hace I/O.
+ */
+@Component
+public class CapacidadTokenVerifier {
+
+    private final JwtParser parser;
+    private final RevocacionCapacidadRegistry revocacionRegistry;
+
+    public CapacidadTokenVerifier(@Value("${capacidad.secret}") String secret,
+                                  RevocacionCapacidadRegistry revocacionRegistry) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
+                .build();
+        this.revocacionRegistry = revocacionRegistry;
+    }
+
+    /**
+     * Retorna true solo si el token es válido, vigente, no revocado, pertenece al usuario,
+     * corresponde al evento y declara el permiso solicitado.
+     */
+    public boolean autoriza(String token, Long usuarioId, Long idEvento, String permiso) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+
+        if (!String.valueOf(usuarioId).equals(claims.getSubject())) {
+            return false;
+        }
+        Number idEventoToken = claims.get("idEvento", Number.class);
+        if (idEventoToken == null || idEventoToken.longValue() != idEvento) {
+            return false;
+        }
+        if (claims.getIssuedAt() == null
+                || revocacionRegistry.estaRevocado(idEvento, usuarioId, claims.getIssuedAt().getTime())) {
+            return false;
+        }
+
+        Collection<?> permisos = claims.get("permisos", Collection.class);
+        return permisos != null && permisos.stream()
+                .anyMatch(p -> permiso.equalsIgnoreCase(String.valueOf(p)));
+    }
+}
@@ -0,0 +1,138 @@
+package com.microservice.ticketing.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Código de entrada autocontenido: (idEntrada, idTipoEntrada, idEvento, emisión) en binario, firmado con
+ * HMAC-SHA256 con una clave derivada por evento y codificado en Base32 con el prefijo "Q".
+ * La autenticidad se verifica con un solo HMAC y sin consultar la base de datos; un escáner que tenga
+ * la clave del evento puede validarlo sin conexión.
+ *
+ * Formato: Q + Base32( versión(1) | idEntrada(8) | idTipoEntrada(4) | idEvento(4) | emisión epoch s(4) | mac(10) )
+ */
+@Component
+public class CodigoEntradaFirmado {
+
+    public static final String PREFIJO = "Q";
+
+    private static final byte VERSION = 1;
+    private static final int LARGO_CONTENIDO = 1 + 8 + 4 + 4 + 4;
+    private static final int LARGO_MAC = 10;
+    private static final int LARGO_CODIGO = PREFIJO.length() + ((LARGO_CONTENIDO + LARGO_MAC) * 8 + 4) / 5;
+    private static final long MAX_UINT32 = 0xFFFFFFFFL;
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final byte[] claveMaestra;
+    private final boolean habilitado;
+    private final Map<Long, byte[]> clavesPorEvento = new ConcurrentHashMap<>();
+
+    public CodigoEntradaFirmado(@Value("${entradas.qr.secret}") String secret,
+                                @Value("${entradas.qr.firmado:true}") boolean habilitado) {
+        this.claveMaestra = secret.getBytes(StandardCharsets.UTF_8);
+        this.habilitado = habilitado;
+    }
+
+    public record Contenido(Long idEntrada, Long idTipoEntrada, Long idEvento, Instant emitidoEn) {
+    }
+
+    /**
+     * Indica si las nuevas entradas se emiten con código firmado (true) o con el código aleatorio anterior.
+     */
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    public static boolean esFormatoFirmado(String codigo) {
+        return codigo != null && codigo.length() == LARGO_CODIGO && codigo.startsWith(PREFIJO);
+    }
+
+    public String firmar(Long idEntrada, Long idTipoEntrada, Long idEvento, LocalDateTime emitidoEn) {
+        if (idTipoEntrada > MAX_UINT32 || idEvento > MAX_UINT32) {
+            throw new IllegalArgumentException("ID fuera del rango soportado por el código firmado.");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(LARGO_CONTENIDO + LARGO_MAC);
+        buffer.put(VERSION)
+                .putLong(idEntrada)
+                .putInt((int) idTipoEntrada.longValue())
+                .putInt((int) idEvento.longValue())
+                .putInt((int) emitidoEn.toEpochSecond(ZoneOffset.UTC));
+        buffer.put(mac(idEvento, buffer.array(), LARGO_CONTENIDO));
+        return PREFIJO + Base32.encode(buffer.array());
+    }
+
+    /**
+     * Retorna el contenido si el código tiene el formato firmado y su HMAC es correcto; vacío en cualquier otro caso.
+     */
+    public Optional<Contenido> verificar(String codigo) {
+        if (!esFormatoFirmado(codigo)) {
+            return Optional.empty();
+        }
+        byte[] datos;
+        try {
+            datos = Base32.decode(codigo.substring(PREFIJO.length()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (datos.length != LARGO_CONTENIDO + LARGO_MAC || datos[0] != VERSION) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(datos);
+        buffer.get();
+        long idEntrada = buffer.getLong();
+        long idTipoEntrada = Integer.toUnsignedLong(buffer.getInt());
+        long idEvento = Integer.toUnsignedLong(buffer.getInt());
+        long emitidoEn = Integer.toUnsignedLong(buffer.getInt());
+
+        byte[] esperado = mac(idEvento, datos, LARGO_CONTENIDO);
+        byte[] recibido = Arrays.copyOfRange(datos, LARGO_CONTENIDO, datos.length);
+        if (!MessageDigest.isEqual(esperado, recibido)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Contenido(idEntrada, idTipoEntrada, idEvento, Instant.ofEpochSecond(emitidoEn)));
+    }
+
+    /**
+     * Clave de verificación del evento en Base32, para distribuirla a los escáneres del Staff.
+     * Solo permite validar entradas de ese evento.
+     */
+    public String claveEventoBase32(Long idEvento) {
+        return Base32.encode(claveEvento(idEvento));
+    }
+
+    private byte[] claveEvento(Long idEvento) {
+        return clavesPorEvento.computeIfAbsent(idEvento, id ->
+                hmac(claveMaestra, ("entradas-qr:" + id).getBytes(StandardCharsets.UTF_8), Integer.MAX_VALUE));
+    }
+
+    private byte[] mac(long idEvento, byte[] datos, int largo) {
+        byte[] completo = hmac(claveEvento(idEvento), datos, largo);
+        return Arrays.copyOf(completo, LARGO_MAC);
+    }
+
+    private static byte[] hmac(byte[] clave, byte[] datos, int largo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(new SecretKeySpec(clave, ALGORITMO));
+            mac.update(datos, 0, Math.min(largo, datos.length));
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC no disponible", e);
+        }
+    }
+}
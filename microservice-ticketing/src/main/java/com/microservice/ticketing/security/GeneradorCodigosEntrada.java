@@ -0,0 +1,103 @@
+package com.microservice.ticketing.security;
+
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Códigos aleatorios de entrada: 100 bits en 20 caracteres Crockford Base32 (0-9 y A-Z sin I, L, O, U).
+ * Son más cortos que los 32 hexadecimales del UUID y caben en el modo alfanumérico de QR, así que la imagen
+ * queda menos densa; además no llevan caracteres que haya que escapar en una URL.
+ *
+ * Cuando el código no va firmado es la credencial de la entrada, por lo que los bits salen de un DRBG y no de
+ * un generador predecible. Se reparten varias instancias entre los hilos para no pasar por el candado global
+ * de NativePRNG que serializa a UUID.randomUUID.
+ */
+@Component
+public class GeneradorCodigosEntrada {
+
+    public static final int LARGO_CODIGO = 20;
+
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // 104 bits leídos, 100 usados: dos mitades de 50 bits que dan 10 caracteres cada una
+    private static final int BYTES_POR_CODIGO = 13;
+    private static final int CARACTERES_POR_MITAD = 10;
+
+    private final SecureRandom[] generadores;
+    private final int mascara;
+
+    public GeneradorCodigosEntrada() {
+        // Potencia de dos >= 2 x núcleos para elegir la instancia con una máscara sobre el id del hilo
+        int instancias = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+        this.generadores = new SecureRandom[instancias];
+        for (int i = 0; i < instancias; i++) {
+            generadores[i] = nuevoGenerador();
+        }
+        this.mascara = instancias - 1;
+    }
+
+    public String generar() {
+        return generar(1)[0];
+    }
+
+    /**
+     * Genera {@code cantidad} códigos distintos entre sí con una sola extracción de bytes, para la emisión masiva.
+     * La unicidad frente a las entradas ya emitidas la garantiza la restricción UNIQUE de codigoQR; con 100 bits
+     * la probabilidad de choque es del orden de 10^-13 aun con mil millones de entradas.
+     */
+    public String[] generar(int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad de códigos no puede ser negativa.");
+        }
+        SecureRandom generador = generadores[(int) Thread.currentThread().threadId() & mascara];
+        byte[] bytes = new byte[cantidad * BYTES_POR_CODIGO];
+        generador.nextBytes(bytes);
+
+        String[] codigos = new String[cantidad];
+        Set<String> generados = cantidad > 1 ? new HashSet<>(cantidad * 2) : null;
+        for (int i = 0; i < cantidad; i++) {
+            String codigo = codificar(bytes, i * BYTES_POR_CODIGO);
+            while (generados != null && !generados.add(codigo)) {
+                byte[] otro = new byte[BYTES_POR_CODIGO];
+                generador.nextBytes(otro);
+                codigo = codificar(otro, 0);
+            }
+            codigos[i] = codigo;
+        }
+        return codigos;
+    }
+
+    private static String codificar(byte[] bytes, int desde) {
+        long alto = 0;
+        for (int i = 0; i < 8; i++) {
+            alto = (alto << 8) | (bytes[desde + i] & 0xFF);
+        }
+        long bajo = 0;
+        for (int i = 8; i < BYTES_POR_CODIGO; i++) {
+            bajo = (bajo << 8) | (bytes[desde + i] & 0xFF);
+        }
+
+        char[] codigo = new char[LARGO_CODIGO];
+        escribirMitad(codigo, 0, alto >>> 14);
+        escribirMitad(codigo, CARACTERES_POR_MITAD, ((alto & 0x3FFF) << 36) | (bajo >>> 4));
+        return new String(codigo);
+    }
+
+    private static void escribirMitad(char[] codigo, int desde, long bits) {
+        for (int i = desde + CARACTERES_POR_MITAD - 1; i >= desde; i--) {
+            codigo[i] = ALFABETO[(int) (bits & 0x1F)];
+            bits >>>= 5;
+        }
+    }
+
+    private static SecureRandom nuevoGenerador() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("DRBG no disponible en esta JVM", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.microservice.ticketing.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revocación compacta: por cada (evento, usuario) guarda solo el instante de la última revocación.
+ * Las entradas más antiguas que el TTL máximo de los tokens se descartan, porque esos tokens ya expiraron.
+ */
+@Component
+public class RevocacionCapacidadRegistry {
+
+    private final Map<String, Long> revocaciones = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public RevocacionCapacidadRegistry(@Value("${capacidad.ttl:10m}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public void revocar(Long idEvento, Long usuarioId, long revocadoEn) {
+        revocaciones.merge(clave(idEvento, usuarioId), revocadoEn, Math::max);
+        purgarExpiradas();
+    }
+
+    /**
+     * Un token está revocado si fue emitido antes (o en el mismo segundo) de la última revocación.
+     */
+    public boolean estaRevocado(Long idEvento, Long usuarioId, long emitidoEn) {
+        Long revocadoEn = revocaciones.get(clave(idEvento, usuarioId));
+        return revocadoEn != null && emitidoEn <= revocadoEn;
+    }
+
+    private void purgarExpiradas() {
+        long limite = System.currentTimeMillis() - ttlMillis;
+        revocaciones.values().removeIf(revocadoEn -> revocadoEn < limite);
+    }
+
+    private String clave(Long idEvento, Long usuarioId) {
+        return idEvento + ":" + usuarioId;
+    }
+}
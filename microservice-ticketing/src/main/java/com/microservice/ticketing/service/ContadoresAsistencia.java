@@ -0,0 +1,243 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.dto.AsistenciaResponse;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.event.EntradasEmitidasEvent;
+import com.microservice.ticketing.model.EntradaEmitida;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de asistencia en memoria por (evento, tipo de entrada): emitidas, utilizadas y anuladas.
+ * Se actualizan con los EntradasEmitidasEvent (uno por emisión) y los EntradaCambioEvent (check-in, anulación),
+ * de modo que consultar el panel no toca la BD. Un evento se carga desde la BD la primera vez que se consulta.
+ *
+ * Cada instancia ve sus propios cambios; la reconciliación periódica con un GROUP BY por evento corrige
+ * lo hecho en otras instancias y cualquier deriva. "anuladas" cuenta además las entradas eliminadas desde que
+ * el evento se cargó, que no quedan en la BD.
+ *
+ * Un evento sin consultas ni suscriptores durante {@code entradas.asistencia.inactividad} se quita de memoria
+ * y deja de reconciliarse; la próxima consulta lo vuelve a cargar.
+ */
+@Component
+public class ContadoresAsistencia {
+
+    private final EntradaEmitidaRepository entradaEmitidaRepository;
+    private final long timeoutMs;
+    private final long inactividadNanos;
+
+    private final Map<Long, AsistenciaEvento> eventos = new ConcurrentHashMap<>();
+    private final Map<Long, List<SseEmitter>> suscriptores = new ConcurrentHashMap<>();
+    private final ExecutorService difusor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ContadoresAsistencia(EntradaEmitidaRepository entradaEmitidaRepository,
+                                @Value("${entradas.asistencia.timeout:30m}") Duration timeout,
+                                @Value("${entradas.asistencia.inactividad:10m}") Duration inactividad) {
+        this.entradaEmitidaRepository = entradaEmitidaRepository;
+        this.timeoutMs = timeout.toMillis();
+        this.inactividadNanos = inactividad.toNanos();
+    }
+
+    public AsistenciaResponse obtener(Long idEvento) {
+        AsistenciaEvento asistencia = eventos.computeIfAbsent(idEvento, this::cargar);
+        asistencia.ultimoAcceso = System.nanoTime();
+        return asistencia.resumen(idEvento);
+    }
+
+    /**
+     * Suscripción SSE al panel: recibe el estado actual y luego, como máximo una vez por intervalo, el nuevo
+     * estado cuando algo cambió. Muchos check-ins seguidos producen un solo envío.
+     */
+    public SseEmitter suscribir(Long idEvento) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Alta y baja dentro de compute: la lista vacía se quita del mapa sin perder un alta concurrente
+        suscriptores.compute(idEvento, (id, delEvento) -> {
+            List<SseEmitter> lista = delEvento != null ? delEvento : new CopyOnWriteArrayList<>();
+            lista.add(emitter);
+            return lista;
+        });
+        Runnable quitar = () -> quitar(idEvento, emitter);
+        emitter.onCompletion(quitar);
+        emitter.onTimeout(quitar);
+        emitter.onError(e -> quitar.run());
+
+        enviar(idEvento, emitter, obtener(idEvento));
+        return emitter;
+    }
+
+    // Solo tras el commit. Un evento que nadie consultó todavía no se carga: su primera lectura de BD ya lo incluye
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEntradaCambio(EntradaCambioEvent evento) {
+        AsistenciaEvento asistencia = eventos.get(evento.idEvento());
+        if (asistencia == null) {
+            return;
+        }
+        Contadores contadores = asistencia.tipo(evento.idTipoEntrada());
+        switch (evento.estadoUso()) {
+            case UTILIZADA -> contadores.utilizadas.increment();
+            case ANULADA -> {
+                contadores.emitidas.decrement();
+                contadores.anuladas.increment();
+            }
+        }
+        asistencia.cambiado.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEntradasEmitidas(EntradasEmitidasEvent evento) {
+        AsistenciaEvento asistencia = eventos.get(evento.idEvento());
+        if (asistencia == null) {
+            return;
+        }
+        asistencia.tipo(evento.idTipoEntrada()).emitidas.add(evento.cantidad());
+        asistencia.cambiado.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${entradas.asistencia.push-intervalo:1s}")
+    public void difundirCambios() {
+        eventos.forEach((idEvento, asistencia) -> {
+            List<SseEmitter> delEvento = suscriptores.get(idEvento);
+            if (asistencia.cambiado.getAndSet(false) && delEvento != null && !delEvento.isEmpty()) {
+                AsistenciaResponse resumen = asistencia.resumen(idEvento);
+                delEvento.forEach(emitter -> difusor.execute(() -> enviar(idEvento, emitter, resumen)));
+            }
+        });
+    }
+
+    /**
+     * Ajusta los contadores emitidas/utilizadas de los eventos cargados a los conteos de la BD. Se toma el valor
+     * antes de la consulta y se suma la diferencia, para no perder los incrementos que lleguen mientras tanto.
+     * Antes se quitan los eventos inactivos, que así no generan consultas.
+     */
+    @Scheduled(fixedDelayString = "${entradas.asistencia.reconciliacion:30s}")
+    public void reconciliar() {
+        long ahora = System.nanoTime();
+        for (Long idEvento : eventos.keySet()) {
+            eventos.computeIfPresent(idEvento, (id, asistencia) ->
+                    !suscriptores.containsKey(id) && ahora - asistencia.ultimoAcceso >= inactividadNanos ? null : asistencia);
+        }
+        eventos.forEach((idEvento, asistencia) -> {
+            Map<Long, long[]> antes = new HashMap<>();
+            asistencia.tipos.forEach((idTipo, c) -> antes.put(idTipo, new long[]{c.emitidas.sum(), c.utilizadas.sum()}));
+
+            Map<Long, long[]> enBd = conteosBd(idEvento);
+            Set<Long> idsTipo = new HashSet<>(antes.keySet());
+            idsTipo.addAll(enBd.keySet());
+            for (Long idTipo : idsTipo) {
+                long[] previo = antes.getOrDefault(idTipo, new long[2]);
+                long[] real = enBd.getOrDefault(idTipo, new long[3]);
+                Contadores c = asistencia.tipo(idTipo);
+                if (real[0] != previo[0] || real[1] != previo[1]) {
+                    c.emitidas.add(real[0] - previo[0]);
+                    c.utilizadas.add(real[1] - previo[1]);
+                    asistencia.cambiado.set(true);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscriptores.values().forEach(delEvento -> delEvento.forEach(SseEmitter::complete));
+        difusor.shutdownNow();
+    }
+
+    private AsistenciaEvento cargar(Long idEvento) {
+        AsistenciaEvento asistencia = new AsistenciaEvento();
+        conteosBd(idEvento).forEach((idTipo, conteo) -> {
+            Contadores c = asistencia.tipo(idTipo);
+            c.emitidas.add(conteo[0]);
+            c.utilizadas.add(conteo[1]);
+            c.anuladas.add(conteo[2]);
+        });
+        return asistencia;
+    }
+
+    // Por tipo: {emitidas vigentes, utilizadas, anuladas en BD}
+    private Map<Long, long[]> conteosBd(Long idEvento) {
+        Map<Long, long[]> conteos = new HashMap<>();
+        for (EntradaEmitidaRepository.ConteoEstadoFila fila : entradaEmitidaRepository.contarPorTipoYEstado(idEvento)) {
+            long[] conteo = conteos.computeIfAbsent(fila.getIdTipoEntrada(), id -> new long[3]);
+            long cantidad = fila.getCantidad();
+            if (fila.getEstadoUso() == EntradaEmitida.EstadoUso.ANULADA) {
+                conteo[2] += cantidad;
+            } else {
+                conteo[0] += cantidad;
+                if (fila.getEstadoUso() == EntradaEmitida.EstadoUso.UTILIZADA) {
+                    conteo[1] += cantidad;
+                }
+            }
+        }
+        return conteos;
+    }
+
+    private void enviar(Long idEvento, SseEmitter emitter, AsistenciaResponse resumen) {
+        try {
+            emitter.send(SseEmitter.event().name("asistencia").data(resumen));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            quitar(idEvento, emitter);
+        }
+    }
+
+    private void quitar(Long idEvento, SseEmitter emitter) {
+        suscriptores.computeIfPresent(idEvento, (id, delEvento) -> {
+            delEvento.remove(emitter);
+            return delEvento.isEmpty() ? null : delEvento;
+        });
+    }
+
+    private static final class Contadores {
+        private final LongAdder emitidas = new LongAdder();
+        private final LongAdder utilizadas = new LongAdder();
+        private final LongAdder anuladas = new LongAdder();
+    }
+
+    private static final class AsistenciaEvento {
+
+        private final Map<Long, Contadores> tipos = new ConcurrentHashMap<>();
+        private final AtomicBoolean cambiado = new AtomicBoolean();
+        private volatile long ultimoAcceso = System.nanoTime();
+
+        private Contadores tipo(Long idTipoEntrada) {
+            return tipos.computeIfAbsent(idTipoEntrada, id -> new Contadores());
+        }
+
+        private AsistenciaResponse resumen(Long idEvento) {
+            List<AsistenciaResponse.TipoAsistencia> detalle = new ArrayList<>();
+            long emitidas = 0, utilizadas = 0, anuladas = 0;
+            for (Map.Entry<Long, Contadores> entry : tipos.entrySet()) {
+                Contadores c = entry.getValue();
+                AsistenciaResponse.TipoAsistencia tipo = new AsistenciaResponse.TipoAsistencia(
+                        entry.getKey(), c.emitidas.sum(), c.utilizadas.sum(), c.anuladas.sum());
+                detalle.add(tipo);
+                emitidas += tipo.getEmitidas();
+                utilizadas += tipo.getUtilizadas();
+                anuladas += tipo.getAnuladas();
+            }
+            detalle.sort((a, b) -> a.getIdTipoEntrada().compareTo(b.getIdTipoEntrada()));
+            return new AsistenciaResponse(idEvento, emitidas, utilizadas, anuladas, detalle);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.microservice.ticketing.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Segunda fase de la emisión por etapas: envía periódicamente los correos de los invitados EMITIDO cuya fecha
+ * programada ya llegó, con un máximo de envíos por ventana de tiempo para no saturar el SMTP.
+ * El límite es por instancia; con varias instancias el total es la suma de sus cupos.
+ * En cada pasada también cierra los envíos que quedaron en ENVIANDO por una instancia caída; el plazo
+ * (envio-interrumpido) debe superar con holgura el timeout de la llamada a comunicaciones.
+ */
+@Component
+public class DespachoEntradas {
+
+    private final InvitadoService invitadoService;
+    private final int maxPorVentana;
+    private final long ventanaMs;
+    private final Duration envioInterrumpido;
+
+    // Solo lo usa el hilo del scheduler (fixedDelay no solapa ejecuciones)
+    private long inicioVentana;
+    private int enviadosEnVentana;
+
+    public DespachoEntradas(InvitadoService invitadoService,
+                            @Value("${entradas.despacho.max-por-ventana:300}") int maxPorVentana,
+                            @Value("${entradas.despacho.ventana:1m}") Duration ventana,
+                            @Value("${entradas.despacho.envio-interrumpido:10m}") Duration envioInterrumpido) {
+        this.invitadoService = invitadoService;
+        this.maxPorVentana = maxPorVentana;
+        this.ventanaMs = ventana.toMillis();
+        this.envioInterrumpido = envioInterrumpido;
+    }
+
+    @Scheduled(fixedDelayString = "${entradas.despacho.intervalo:10s}")
+    public void despachar() {
+        long ahora = System.currentTimeMillis();
+        if (ahora - inicioVentana >= ventanaMs) {
+            inicioVentana = ahora;
+            enviadosEnVentana = 0;
+        }
+        try {
+            invitadoService.cerrarEnviosInterrumpidos(LocalDateTime.now().minus(envioInterrumpido));
+            int cupo = maxPorVentana - enviadosEnVentana;
+            if (cupo > 0) {
+                enviadosEnVentana += invitadoService.despacharProgramados(cupo);
+            }
+        } catch (Exception e) {
+            System.err.println("--- DESPACHO DE ENTRADAS: " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.microservice.ticketing.service;
 
 import com.microservice.ticketing.client.EventoClient;
 import com.microservice.ticketing.dto.EventoOwnerDTO;
+import com.microservice.ticketing.event.EntradaCambioEvent;
 import com.microservice.ticketing.model.EntradaEmitida;
 import com.microservice.ticketing.model.Invitado;
 import com.microservice.ticketing.model.TipoEntrada;
@@ -9,6 +10,9 @@ import com.microservice.ticketing.repository.EntradaEmitidaRepository;
 import com.microservice.ticketing.repository.InvitadoRepository;
 import com.microservice.ticketing.repository.TipoEntradaRepository;
 import com.microservice.ticketing.dto.CheckinResponse;
+import com.microservice.ticketing.security.CapacidadTokenVerifier;
+import com.microservice.ticketing.security.CodigoEntradaFirmado;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -23,37 +27,61 @@ public class EntradaService {
     private final InvitadoRepository invitadoRepository;
     private final TipoEntradaRepository tipoEntradaRepository;
     private final EventoClient eventoClient;
+    private final CapacidadTokenVerifier capacidadTokenVerifier;
+    private final CodigoEntradaFirmado codigoEntradaFirmado;
+    private final RegistroUsoEntradas registroUsoEntradas;
+    private final ApplicationEventPublisher eventPublisher;
     // Asumimos que tienes el método findByCodigoQR en tu EntradaEmitidaRepository
 
     @Transactional
     public CheckinResponse validarYUsarEntrada(Long staffId, String codigoQR) {
+        return validarYUsarEntrada(staffId, codigoQR, null);
+    }
 
-        // 1. OBTENER LA ENTRADA POR QR (Fuente de Verdad)
-        EntradaEmitida entrada = entradaEmitidaRepository.findByCodigoQR(codigoQR)
-                .orElseThrow(() -> new RuntimeException("QR no válido o no encontrado."));
-
-        // 2. DERIVAR EL ID DEL EVENTO DE LA ENTRADA
-        TipoEntrada tipoEntrada = tipoEntradaRepository.findById(entrada.getIdTipoEntrada())
-                .orElseThrow(() -> new RuntimeException("Error interno: Tipo de entrada no asociado a la entrada."));
-
-        Long idEvento = tipoEntrada.getIdEvento();
-
-        // 3. VERIFICACIÓN DE PERMISOS DEL STAFF (Llamada a microservice-eventos)
-
-        // a) Verificar si el staff tiene el permiso específico
-        boolean tienePermiso = eventoClient.staffTienePermiso(idEvento, staffId, "escanear_entrada");
-
-        // b) Verificar si el staff es el Owner del evento (el owner siempre tiene permisos)
-        EventoOwnerDTO eventoInfo = eventoClient.getEventoOwnerById(idEvento);
-        boolean esOwner = eventoInfo.getOwnerId().equals(staffId);
-
-        // Si no es el Owner Y no tiene el permiso de escanear, denegar.
-        if (!esOwner && !tienePermiso) {
-            throw new RuntimeException("Acceso Denegado. El Staff no tiene permisos para escanear en este evento.");
+    @Transactional
+    public CheckinResponse validarYUsarEntrada(Long staffId, String codigoQR, String tokenCapacidad) {
+
+        EntradaEmitida entrada;
+        Long idEvento;
+
+        if (CodigoEntradaFirmado.esFormatoFirmado(codigoQR)) {
+            // 1-2. CÓDIGO FIRMADO: la autenticidad y el evento salen del propio código (un HMAC, sin BD).
+            // Un código falsificado o alterado se rechaza aquí sin tocar la base de datos.
+            CodigoEntradaFirmado.Contenido contenido = codigoEntradaFirmado.verificar(codigoQR)
+                    .orElseThrow(() -> new RuntimeException("QR no válido o no encontrado."));
+            idEvento = contenido.idEvento();
+            verificarPermisoEscaneo(staffId, idEvento, tokenCapacidad);
+
+            // Reingreso detectado con una lectura del mapa de uso del evento, sin consultar MySQL
+            if (registroUsoEntradas.estaUsada(idEvento, contenido.idEntrada())) {
+                CheckinResponse rechazo = new CheckinResponse();
+                rechazo.setMensaje("Entrada ya utilizada. Acceso denegado.");
+                rechazo.setCodigoQR(codigoQR);
+                rechazo.setEstadoUso(EntradaEmitida.EstadoUso.UTILIZADA.name());
+                return rechazo;
+            }
+
+            // Búsqueda por PK; el código debe coincidir (una re-emisión invalida los códigos anteriores)
+            entrada = entradaEmitidaRepository.findById(contenido.idEntrada())
+                    .filter(e -> codigoQR.equals(e.getCodigoQR()))
+                    .orElseThrow(() -> new RuntimeException("QR no válido o no encontrado."));
+        } else {
+            // 1. OBTENER LA ENTRADA POR QR (Fuente de Verdad)
+            entrada = entradaEmitidaRepository.findByCodigoQR(codigoQR)
+                    .orElseThrow(() -> new RuntimeException("QR no válido o no encontrado."));
+
+            // 2. DERIVAR EL ID DEL EVENTO DE LA ENTRADA
+            TipoEntrada tipoEntrada = tipoEntradaRepository.findById(entrada.getIdTipoEntrada())
+                    .orElseThrow(() -> new RuntimeException("Error interno: Tipo de entrada no asociado a la entrada."));
+
+            idEvento = tipoEntrada.getIdEvento();
+            verificarPermisoEscaneo(staffId, idEvento, tokenCapacidad);
         }
 
         // 4. VALIDACIÓN DE ESTADO DE LA ENTRADA
         if (entrada.getEstadoUso() == EntradaEmitida.EstadoUso.UTILIZADA) {
+            // Usada en otra instancia (o antes de cargar el evento): se registra para el próximo escaneo
+            registroUsoEntradas.marcarUsada(idEvento, entrada.getIdEntrada());
             // Devolvemos el detalle de uso con el mensaje de denegación
             return buildResponse(entrada, "Entrada ya utilizada. Acceso denegado.");
         }
@@ -63,9 +91,44 @@ public class EntradaService {
         entrada.setFechaUso(LocalDateTime.now());
         entradaEmitidaRepository.save(entrada);
 
+        // Tras el commit: actualiza el mapa de uso (RegistroUsoEntradas) y se difunde a los escáneres (FeedCambiosEntradas)
+        eventPublisher.publishEvent(new EntradaCambioEvent(idEvento, entrada.getIdTipoEntrada(),
+                entrada.getIdEntrada(), entrada.getHashCodigo(), EntradaEmitida.EstadoUso.UTILIZADA));
+
         return buildResponse(entrada, "ACCESO CONCEDIDO.");
     }
 
+    /**
+     * Entrega la clave de verificación del evento (Base32) a un escáner autorizado, para que valide
+     * los códigos firmados sin conexión.
+     */
+    public String obtenerClaveVerificacion(Long staffId, Long idEvento, String tokenCapacidad) {
+        verificarPermisoEscaneo(staffId, idEvento, tokenCapacidad);
+        return codigoEntradaFirmado.claveEventoBase32(idEvento);
+    }
+
+    // 3. VERIFICACIÓN DE PERMISOS DEL STAFF
+    // Con un token de capacidad válido se autoriza localmente, sin llamadas a microservice-eventos.
+    // Si falta, expiró o fue revocado, se consulta a eventos como fuente de verdad.
+    public void verificarPermisoEscaneo(Long staffId, Long idEvento, String tokenCapacidad) {
+        boolean autorizadoPorToken = tokenCapacidad != null
+                && capacidadTokenVerifier.autoriza(tokenCapacidad, staffId, idEvento, "escanear_entrada");
+
+        if (!autorizadoPorToken) {
+            // a) Verificar si el staff tiene el permiso específico
+            boolean tienePermiso = eventoClient.staffTienePermiso(idEvento, staffId, "escanear_entrada");
+
+            // b) Verificar si el staff es el Owner del evento (el owner siempre tiene permisos)
+            EventoOwnerDTO eventoInfo = eventoClient.getEventoOwnerById(idEvento);
+            boolean esOwner = eventoInfo.getOwnerId().equals(staffId);
+
+            // Si no es el Owner Y no tiene el permiso de escanear, denegar.
+            if (!esOwner && !tienePermiso) {
+                throw new RuntimeException("Acceso Denegado. El Staff no tiene permisos para escanear en este evento.");
+            }
+        }
+    }
+
     // Método auxiliar para construir la respuesta completa
     private CheckinResponse buildResponse(EntradaEmitida entrada, String mensaje) {
         Invitado invitado = invitadoRepository.findById(entrada.getIdInvitado()).orElse(null);
@@ -0,0 +1,360 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.dto.CambioEntradaDTO;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.model.EntradaAnulada;
+import com.microservice.ticketing.model.EntradaEmitida;
+import com.microservice.ticketing.repository.EntradaAnuladaRepository;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed de cambios de estado de las entradas (check-ins y anulaciones) para que los escáneres de un evento
+ * mantengan su copia local al día sin hacer polling.
+ *
+ * Cada evento tiene un buffer circular en memoria con los últimos cambios. Un escáner se suscribe por SSE
+ * indicando la última secuencia que vio (Last-Event-ID); si ese punto ya salió del buffer (o es anterior al
+ * arranque de esta instancia) los cambios se leen de la BD por fecha de modificación y, si son demasiados,
+ * se le indica que descargue de nuevo el manifiesto. Las entradas eliminadas ya no están en la BD: cada anulación
+ * deja un registro (entradas_anuladas) en la misma transacción, que el respaldo también lee. Pasada la retención
+ * de esos registros, un cursor más antiguo recibe directamente "resincronizar".
+ *
+ * La secuencia es creciente y derivada del reloj (epoch ms * 1000 + contador), de modo que un cursor se puede
+ * traducir a una fecha para la consulta de respaldo. Cada instancia difunde los check-ins que confirma;
+ * con varias instancias de ticketing, los escáneres de un evento deben apuntar a la misma instancia
+ * (o reconectar, y el respaldo en BD completa lo que falte).
+ *
+ * Los buffers de eventos sin suscriptores ni cambios durante {@code entradas.feed.inactividad} se liberan; un
+ * cursor anterior a la liberación se atiende con el respaldo en BD.
+ */
+@Component
+public class FeedCambiosEntradas {
+
+    static final String EVENTO_CAMBIOS = "cambios";
+    static final String EVENTO_INICIO = "inicio";
+    static final String EVENTO_RESINCRONIZAR = "resincronizar";
+
+    // Cubre relojes de otras instancias y commits tardíos; un cambio repetido es inocuo para el escáner
+    private static final Duration MARGEN_BD = Duration.ofSeconds(5);
+
+    private final EntradaEmitidaRepository entradaEmitidaRepository;
+    private final EntradaAnuladaRepository entradaAnuladaRepository;
+    private final int capacidadBuffer;
+    private final int maxFilasBd;
+    private final long timeoutMs;
+    private final Duration retencionAnulaciones;
+    private final long inactividadNanos;
+
+    private final AtomicLong ultimaSecuencia = new AtomicLong();
+    private final Map<Long, BufferCambios> buffers = new ConcurrentHashMap<>();
+    private final Map<Long, List<Suscripcion>> suscripciones = new ConcurrentHashMap<>();
+    // Envíos en hilos virtuales: un escáner lento no bloquea al resto
+    private final ExecutorService difusor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FeedCambiosEntradas(EntradaEmitidaRepository entradaEmitidaRepository,
+                               EntradaAnuladaRepository entradaAnuladaRepository,
+                               @Value("${entradas.feed.capacidad:4096}") int capacidadBuffer,
+                               @Value("${entradas.feed.max-filas-bd:5000}") int maxFilasBd,
+                               @Value("${entradas.feed.timeout:30m}") Duration timeout,
+                               @Value("${entradas.feed.retencion-anulaciones:7d}") Duration retencionAnulaciones,
+                               @Value("${entradas.feed.inactividad:2h}") Duration inactividad) {
+        this.entradaEmitidaRepository = entradaEmitidaRepository;
+        this.entradaAnuladaRepository = entradaAnuladaRepository;
+        this.capacidadBuffer = capacidadBuffer;
+        this.maxFilasBd = maxFilasBd;
+        this.timeoutMs = timeout.toMillis();
+        this.retencionAnulaciones = retencionAnulaciones;
+        this.inactividadNanos = inactividad.toNanos();
+    }
+
+    /**
+     * Abre la suscripción SSE de un escáner. Sin cursor, recibe un evento "inicio" con la secuencia actual
+     * y desde ahí los cambios en vivo; con cursor, primero los cambios pendientes.
+     */
+    public SseEmitter suscribir(Long idEvento, Long desdeSecuencia) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        long desde = desdeSecuencia != null ? desdeSecuencia : ultimaSecuencia(idEvento);
+        Suscripcion suscripcion = new Suscripcion(idEvento, emitter, desde);
+
+        // Alta y baja dentro de compute: la lista vacía se quita del mapa sin perder un alta concurrente
+        suscripciones.compute(idEvento, (id, delEvento) -> {
+            List<Suscripcion> lista = delEvento != null ? delEvento : new CopyOnWriteArrayList<>();
+            lista.add(suscripcion);
+            return lista;
+        });
+        Runnable quitar = () -> quitar(suscripcion);
+        emitter.onCompletion(quitar);
+        emitter.onTimeout(quitar);
+        emitter.onError(e -> quitar.run());
+
+        if (desdeSecuencia == null) {
+            enviar(suscripcion, SseEmitter.event().id(String.valueOf(desde)).name(EVENTO_INICIO).data(desde));
+        }
+        difusor.execute(() -> enviarPendientes(suscripcion));
+        return emitter;
+    }
+
+    // En la transacción que elimina la entrada: la anulación queda registrada solo si la eliminación se confirma
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void registrarAnulacion(EntradaCambioEvent evento) {
+        if (evento.estadoUso() == EntradaEmitida.EstadoUso.ANULADA) {
+            entradaAnuladaRepository.save(EntradaAnulada.builder()
+                    .idEntrada(evento.idEntrada())
+                    .idEvento(evento.idEvento())
+                    .hashCodigo(evento.hashCodigo())
+                    .fechaAnulacion(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    // Solo tras el commit: un check-in que hace rollback no debe difundirse
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEntradaCambio(EntradaCambioEvent evento) {
+        // Dentro de compute: la liberación de un buffer inactivo no puede perder este cambio
+        buffers.compute(evento.idEvento(), (id, buffer) -> {
+            BufferCambios destino = buffer != null ? buffer : new BufferCambios(capacidadBuffer, siguienteSecuencia());
+            destino.agregar(evento);
+            return destino;
+        });
+        List<Suscripcion> delEvento = suscripciones.get(evento.idEvento());
+        if (delEvento != null) {
+            delEvento.forEach(suscripcion -> difusor.execute(() -> enviarPendientes(suscripcion)));
+        }
+    }
+
+    /**
+     * Secuencia del último cambio conocido del evento: el cursor de un escáner que acaba de sincronizarse.
+     */
+    public long ultimaSecuencia(Long idEvento) {
+        return buffer(idEvento).ultimaSecuencia();
+    }
+
+    /**
+     * Cambios del buffer posteriores a la secuencia, o vacío si parte de ellos ya no está en memoria.
+     */
+    public Optional<List<CambioEntradaDTO>> cambiosEnMemoria(Long idEvento, long desdeSecuencia) {
+        return Optional.ofNullable(buffer(idEvento).desde(desdeSecuencia));
+    }
+
+    // Mantiene viva la conexión a través de proxies que cierran streams inactivos
+    @Scheduled(fixedDelayString = "${entradas.feed.heartbeat:15s}")
+    public void enviarHeartbeat() {
+        suscripciones.values().forEach(delEvento -> delEvento.forEach(suscripcion ->
+                difusor.execute(() -> enviar(suscripcion, SseEmitter.event().comment("ping")))));
+    }
+
+    /**
+     * Libera los buffers de eventos sin suscriptores ni cambios recientes y purga los registros de anulación
+     * que superan la retención.
+     */
+    @Scheduled(fixedDelayString = "${entradas.feed.limpieza:10m}")
+    public void limpiar() {
+        long ahora = System.nanoTime();
+        for (Long idEvento : buffers.keySet()) {
+            buffers.computeIfPresent(idEvento, (id, buffer) ->
+                    !suscripciones.containsKey(id) && ahora - buffer.ultimoCambio() >= inactividadNanos ? null : buffer);
+        }
+        int purgadas = entradaAnuladaRepository.eliminarAnteriores(LocalDateTime.now().minus(retencionAnulaciones));
+        if (purgadas > 0) {
+            System.out.println("Feed de cambios: " + purgadas + " registros de anulación purgados.");
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscripciones.values().forEach(delEvento -> delEvento.forEach(s -> s.emitter.complete()));
+        difusor.shutdownNow();
+    }
+
+    private BufferCambios buffer(Long idEvento) {
+        return buffers.computeIfAbsent(idEvento, id -> new BufferCambios(capacidadBuffer, siguienteSecuencia()));
+    }
+
+    private long siguienteSecuencia() {
+        return ultimaSecuencia.accumulateAndGet(System.currentTimeMillis() * 1000,
+                (anterior, ahora) -> Math.max(anterior + 1, ahora));
+    }
+
+    /**
+     * Envía a la suscripción todo lo pendiente. Si otro hilo ya está enviando, deja la marca y ese hilo
+     * repite la vuelta; así los cambios que llegan en ráfaga se agrupan en un solo evento SSE.
+     */
+    private void enviarPendientes(Suscripcion suscripcion) {
+        suscripcion.pendiente.set(true);
+        while (suscripcion.pendiente.get() && suscripcion.envio.tryLock()) {
+            try {
+                while (suscripcion.pendiente.getAndSet(false)) {
+                    BufferCambios buffer = buffer(suscripcion.idEvento);
+                    List<CambioEntradaDTO> cambios = buffer.desde(suscripcion.ultimaEnviada);
+                    long nuevaUltima;
+                    if (cambios != null) {
+                        nuevaUltima = cambios.isEmpty() ? suscripcion.ultimaEnviada : cambios.get(cambios.size() - 1).getSecuencia();
+                    } else {
+                        // El escáner se quedó atrás del buffer: respaldo en BD desde la fecha de su cursor
+                        nuevaUltima = buffer.ultimaSecuencia();
+                        cambios = cambiosDesdeBd(suscripcion.idEvento, suscripcion.ultimaEnviada);
+                        if (cambios == null) {
+                            enviar(suscripcion, SseEmitter.event().id(String.valueOf(nuevaUltima))
+                                    .name(EVENTO_RESINCRONIZAR).data(nuevaUltima));
+                            suscripcion.ultimaEnviada = nuevaUltima;
+                            continue;
+                        }
+                    }
+                    if (!cambios.isEmpty() && !enviar(suscripcion, SseEmitter.event()
+                            .id(String.valueOf(nuevaUltima)).name(EVENTO_CAMBIOS).data(cambios))) {
+                        return;
+                    }
+                    suscripcion.ultimaEnviada = nuevaUltima;
+                }
+            } finally {
+                suscripcion.envio.unlock();
+            }
+        }
+    }
+
+    // null si hay más cambios que el límite (conviene descargar el manifiesto completo) o si el cursor es anterior
+    // a la retención de anulaciones (ya no se puede saber qué entradas se eliminaron desde entonces)
+    private List<CambioEntradaDTO> cambiosDesdeBd(Long idEvento, long desdeSecuencia) {
+        Instant instanteCursor = Instant.ofEpochMilli(desdeSecuencia / 1000).minus(MARGEN_BD);
+        if (instanteCursor.isBefore(Instant.now().minus(retencionAnulaciones))) {
+            return null;
+        }
+        LocalDateTime desde = LocalDateTime.ofInstant(instanteCursor, ZoneId.systemDefault());
+        List<EntradaEmitidaRepository.CambioFila> filas =
+                entradaEmitidaRepository.findCambiosByIdEventoDesde(idEvento, desde, PageRequest.of(0, maxFilasBd + 1));
+        if (filas.size() > maxFilasBd) {
+            return null;
+        }
+        List<EntradaAnulada> anuladas = entradaAnuladaRepository.findByIdEventoDesde(
+                idEvento, desde, PageRequest.of(0, maxFilasBd + 1 - filas.size()));
+        if (filas.size() + anuladas.size() > maxFilasBd) {
+            return null;
+        }
+
+        List<CambioEntradaDTO> cambios = new ArrayList<>(filas.size() + anuladas.size());
+        for (EntradaEmitidaRepository.CambioFila fila : filas) {
+            cambios.add(new CambioEntradaDTO(secuencia(fila.getFechaModificacion()), fila.getIdEntrada(),
+                    fila.getHashCodigo(), fila.getEstadoUso().name()));
+        }
+        for (EntradaAnulada anulada : anuladas) {
+            cambios.add(new CambioEntradaDTO(secuencia(anulada.getFechaAnulacion()), anulada.getIdEntrada(),
+                    anulada.getHashCodigo(), EntradaEmitida.EstadoUso.ANULADA.name()));
+        }
+        cambios.sort(Comparator.comparingLong(CambioEntradaDTO::getSecuencia));
+        return cambios;
+    }
+
+    private static long secuencia(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() * 1000;
+    }
+
+    private void quitar(Suscripcion suscripcion) {
+        suscripciones.computeIfPresent(suscripcion.idEvento, (id, delEvento) -> {
+            delEvento.remove(suscripcion);
+            return delEvento.isEmpty() ? null : delEvento;
+        });
+    }
+
+    private boolean enviar(Suscripcion suscripcion, SseEmitter.SseEventBuilder evento) {
+        try {
+            suscripcion.emitter.send(evento);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Conexión cerrada por el escáner: se da de baja, reconectará con su último Last-Event-ID
+            suscripcion.emitter.completeWithError(e);
+            quitar(suscripcion);
+            return false;
+        }
+    }
+
+    private static final class Suscripcion {
+
+        private final Long idEvento;
+        private final SseEmitter emitter;
+        private final ReentrantLock envio = new ReentrantLock();
+        private final AtomicBoolean pendiente = new AtomicBoolean();
+        private volatile long ultimaEnviada;
+
+        private Suscripcion(Long idEvento, SseEmitter emitter, long ultimaEnviada) {
+            this.idEvento = idEvento;
+            this.emitter = emitter;
+            this.ultimaEnviada = ultimaEnviada;
+        }
+    }
+
+    /**
+     * Buffer circular de solo-agregar. La secuencia se asigna dentro del lock, por lo que queda ordenada.
+     */
+    private final class BufferCambios {
+
+        private final CambioEntradaDTO[] anillo;
+        private long escritos;
+        private long ultimoCambio = System.nanoTime();
+        // Mayor secuencia que ya no está en el buffer (al crearlo: todo lo anterior es desconocido)
+        private long ultimaDescartada;
+
+        private BufferCambios(int capacidad, long inicio) {
+            this.anillo = new CambioEntradaDTO[capacidad];
+            this.ultimaDescartada = inicio;
+        }
+
+        private synchronized void agregar(EntradaCambioEvent evento) {
+            int posicion = (int) (escritos % anillo.length);
+            if (anillo[posicion] != null) {
+                ultimaDescartada = anillo[posicion].getSecuencia();
+            }
+            anillo[posicion] = new CambioEntradaDTO(siguienteSecuencia(), evento.idEntrada(), evento.hashCodigo(),
+                    evento.estadoUso().name());
+            escritos++;
+            ultimoCambio = System.nanoTime();
+        }
+
+        private synchronized long ultimoCambio() {
+            return ultimoCambio;
+        }
+
+        private synchronized long ultimaSecuencia() {
+            return escritos == 0 ? ultimaDescartada : anillo[(int) ((escritos - 1) % anillo.length)].getSecuencia();
+        }
+
+        private synchronized List<CambioEntradaDTO> desde(long secuencia) {
+            if (secuencia < ultimaDescartada) {
+                return null;
+            }
+            List<CambioEntradaDTO> cambios = new ArrayList<>();
+            long primero = Math.max(0, escritos - anillo.length);
+            for (long i = primero; i < escritos; i++) {
+                CambioEntradaDTO cambio = anillo[(int) (i % anillo.length)];
+                if (cambio.getSecuencia() > secuencia) {
+                    cambios.add(cambio);
+                }
+            }
+            return cambios;
+        }
+    }
+}
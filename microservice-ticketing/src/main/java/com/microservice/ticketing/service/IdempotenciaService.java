@@ -0,0 +1,182 @@
+package com.microservice.ticketing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.ticketing.model.SolicitudIdempotente;
+import com.microservice.ticketing.model.SolicitudIdempotente.EstadoSolicitud;
+import com.microservice.ticketing.repository.SolicitudIdempotenteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Soporte de Idempotency-Key para los endpoints de emisión. La primera solicitud con una clave la reserva
+ * (EN_PROCESO) con un INSERT que la restricción única vuelve atómico entre instancias; al terminar se guarda
+ * el código y el cuerpo de la respuesta. Los reintentos con la misma clave reciben esa respuesta sin volver a
+ * tocar entradas, stock ni correos.
+ *
+ * Si la acción lanza una excepción la reserva se libera, de modo que un reintento vuelve a ejecutarla.
+ *
+ * Mientras la acción corre, un latido corre el vencimiento de la reserva ({@code max-en-proceso} desde cada latido).
+ * Otra solicitud solo puede tomar la clave cuando deja de latir, es decir, cuando la instancia que la ejecutaba cayó.
+ * El resultado se guarda con un UPDATE condicionado a que la reserva siga EN_PROCESO, nunca sobre una fila ajena.
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    private final SolicitudIdempotenteRepository solicitudRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration maxEnProceso;
+    // IDs de las reservas que esta instancia está ejecutando (las que renueva el latido)
+    private final Set<Long> enProceso = ConcurrentHashMap.newKeySet();
+
+    public IdempotenciaService(SolicitudIdempotenteRepository solicitudRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${entradas.idempotencia.ttl:24h}") Duration ttl,
+                               @Value("${entradas.idempotencia.max-en-proceso:5m}") Duration maxEnProceso,
+                               @Value("${entradas.idempotencia.latido:1m}") Duration latido) {
+        if (latido.compareTo(maxEnProceso) >= 0) {
+            throw new IllegalArgumentException("entradas.idempotencia.latido debe ser menor que max-en-proceso.");
+        }
+        this.solicitudRepository = solicitudRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.maxEnProceso = maxEnProceso;
+    }
+
+    /**
+     * Ejecuta la acción una sola vez por (usuario, clave). Sin clave se ejecuta siempre.
+     *
+     * @param operacion identifica el endpoint y sus parámetros; reutilizar la clave en otra operación responde 422.
+     * @return la respuesta de la acción, la guardada (con el header Idempotent-Replayed) o 409 si la
+     * solicitud original sigue en curso.
+     */
+    public <T> ResponseEntity<T> ejecutar(String clave, Long idUsuario, String operacion,
+                                          Class<T> tipoRespuesta, Supplier<ResponseEntity<T>> accion) {
+        if (clave == null || clave.isBlank()) {
+            return accion.get();
+        }
+        if (clave.length() > SolicitudIdempotente.LARGO_MAXIMO_CLAVE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<SolicitudIdempotente> reserva = reservar(clave, idUsuario, operacion);
+        if (reserva.isEmpty()) {
+            return responderExistente(clave, idUsuario, operacion, tipoRespuesta, accion);
+        }
+
+        Long id = reserva.get().getId();
+        ResponseEntity<T> respuesta;
+        enProceso.add(id);
+        try {
+            respuesta = accion.get();
+        } catch (RuntimeException e) {
+            solicitudRepository.liberar(id, EstadoSolicitud.EN_PROCESO);
+            throw e;
+        } finally {
+            enProceso.remove(id);
+        }
+
+        int guardadas = solicitudRepository.completar(id, EstadoSolicitud.EN_PROCESO, EstadoSolicitud.COMPLETADA,
+                respuesta.getStatusCode().value(), serializar(respuesta.getBody()), LocalDateTime.now().plus(ttl));
+        if (guardadas == 0) {
+            // La reserva venció sin latidos (p. ej. BD inaccesible) y otra solicitud la tomó: esa es la que queda
+            System.err.println("Idempotencia: la reserva " + id + " ya no estaba en proceso; no se guardó su respuesta.");
+        }
+        return respuesta;
+    }
+
+    @Scheduled(fixedDelayString = "${entradas.idempotencia.latido:1m}")
+    public void renovarEnProceso() {
+        if (enProceso.isEmpty()) {
+            return;
+        }
+        solicitudRepository.renovar(List.copyOf(enProceso), EstadoSolicitud.EN_PROCESO, LocalDateTime.now().plus(maxEnProceso));
+    }
+
+    @Scheduled(fixedDelayString = "${entradas.idempotencia.limpieza:1h}")
+    public void limpiarExpiradas() {
+        int eliminadas = solicitudRepository.eliminarExpiradas(LocalDateTime.now());
+        if (eliminadas > 0) {
+            System.out.println("Idempotencia: " + eliminadas + " claves expiradas eliminadas.");
+        }
+    }
+
+    // Vacío si la clave ya existe (otra solicitud la reservó antes)
+    private Optional<SolicitudIdempotente> reservar(String clave, Long idUsuario, String operacion) {
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            return Optional.of(solicitudRepository.saveAndFlush(SolicitudIdempotente.builder()
+                    .idUsuario(idUsuario)
+                    .clave(clave)
+                    .operacion(operacion)
+                    .estado(EstadoSolicitud.EN_PROCESO)
+                    .creadoEn(ahora)
+                    // Renovado por el latido; solo vence si la instancia que la ejecuta cae
+                    .expiraEn(ahora.plus(maxEnProceso))
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private <T> ResponseEntity<T> responderExistente(String clave, Long idUsuario, String operacion,
+                                                     Class<T> tipoRespuesta, Supplier<ResponseEntity<T>> accion) {
+        SolicitudIdempotente existente = solicitudRepository.findByIdUsuarioAndClave(idUsuario, clave).orElse(null);
+        if (existente == null) {
+            // Se liberó entre el INSERT fallido y la lectura: la solicitud original falló y puede reintentarse
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if (existente.getExpiraEn() != null && existente.getExpiraEn().isBefore(LocalDateTime.now())) {
+            // Si un latido la renovó desde la lectura no se borra, y el nuevo intento responde 409
+            solicitudRepository.eliminarSiExpirada(existente.getId(), LocalDateTime.now());
+            return ejecutar(clave, idUsuario, operacion, tipoRespuesta, accion);
+        }
+        if (!operacion.equals(existente.getOperacion())) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        if (existente.getEstado() == EstadoSolicitud.EN_PROCESO) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.status(existente.getCodigoRespuesta())
+                .header(HEADER_REPETIDA, "true")
+                .body(deserializar(existente.getRespuesta(), tipoRespuesta));
+    }
+
+    private String serializar(Object cuerpo) {
+        if (cuerpo == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta idempotente.", e);
+        }
+    }
+
+    private <T> T deserializar(String json, Class<T> tipo) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, tipo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta idempotente guardada.", e);
+        }
+    }
+}
@@ -5,6 +5,9 @@ import com.microservice.ticketing.client.NotificacionClient;
 import com.microservice.ticketing.dto.EnvioEntradasRequest;
 import com.microservice.ticketing.dto.EventoOwnerDTO;
 import com.microservice.ticketing.dto.InvitadoRequest;
+import com.microservice.ticketing.dto.ResultadoEnvioRequest;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.event.EntradasEmitidasEvent;
 import com.microservice.ticketing.model.EntradaEmitida;
 import com.microservice.ticketing.model.EntradaEmitida.EstadoUso;
 import com.microservice.ticketing.model.Invitado;
@@ -13,15 +16,21 @@ import com.microservice.ticketing.model.TipoEntrada;
 import com.microservice.ticketing.repository.EntradaEmitidaRepository;
 import com.microservice.ticketing.repository.InvitadoRepository;
 import com.microservice.ticketing.repository.TipoEntradaRepository;
+import com.microservice.ticketing.security.CodigoEntradaFirmado;
+import com.microservice.ticketing.security.GeneradorCodigosEntrada;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.function.ToIntFunction;
 
 @Service
 @RequiredArgsConstructor
@@ -33,8 +42,13 @@ public class InvitadoService {
     private final TipoEntradaService tipoEntradaService;
     private final NotificacionClient notificacionClient;
     private final EventoClient eventoClient;
+    private final CodigoEntradaFirmado codigoEntradaFirmado;
+    private final GeneradorCodigosEntrada generadorCodigosEntrada;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final String PERMISO_REGISTRAR = "registrar_invitados";
+    // Máximo de ids por consulta IN en las lecturas y actualizaciones en bloque por invitado
+    private static final int LOTE_CONSULTA = 1000;
 
     public List<Invitado> filtrarInvitados(Long idTipoEntrada, String termino, String ordenFecha) {
         Sort.Direction direction = Sort.Direction.DESC;
@@ -101,6 +115,7 @@ public class InvitadoService {
                 .orElseThrow(() -> new RuntimeException("Invitado no encontrado."));
         tipoEntradaService.validarPermisoStaff(invitado.getIdTipoEntrada(), usuarioId, PERMISO_REGISTRAR);
 
+        List<EntradaEmitida> entradas = entradaEmitidaRepository.findAllByIdInvitado(idInvitado);
         if (invitado.getEstadoEnvio() != EstadoEnvio.PENDIENTE) {
             TipoEntrada tipoEntrada = tipoEntradaService.findById(invitado.getIdTipoEntrada());
             if (tipoEntrada.getCantidadEmitida() < invitado.getCantidad()) {
@@ -108,8 +123,9 @@ public class InvitadoService {
             }
             tipoEntrada.setCantidadEmitida(tipoEntrada.getCantidadEmitida() - invitado.getCantidad());
             tipoEntradaRepository.save(tipoEntrada);
+            publicarAnulaciones(entradas, tipoEntrada.getIdEvento());
         }
-        entradaEmitidaRepository.deleteAll(entradaEmitidaRepository.findAllByIdInvitado(idInvitado));
+        entradaEmitidaRepository.deleteAll(entradas);
         invitadoRepository.delete(invitado);
     }
 
@@ -158,35 +174,207 @@ public class InvitadoService {
         }
 
         // 3. Validar y Actualizar Stock EN BLOQUE
-        // Solo descontamos stock para los que están PENDIENTES (los de ERROR ya descontaron stock antes)
-        int stockRequeridoNuevo = invitadosPendientes.stream()
-                .filter(i -> i.getEstadoEnvio() == EstadoEnvio.PENDIENTE)
-                .mapToInt(Invitado::getCantidad)
-                .sum();
-
-        if (tipoEntrada.getCantidadEmitida() + stockRequeridoNuevo > tipoEntrada.getCantidadTotal()) {
-            throw new RuntimeException("Stock insuficiente para emitir a todos los invitados pendientes. Faltan: " + 
-                ((tipoEntrada.getCantidadEmitida() + stockRequeridoNuevo) - tipoEntrada.getCantidadTotal()));
-        }
+        descontarStockEnBloque(tipoEntrada, invitadosPendientes);
 
-        // Actualizamos stock una sola vez en la DB
-        if (stockRequeridoNuevo > 0) {
-            tipoEntrada.setCantidadEmitida(tipoEntrada.getCantidadEmitida() + stockRequeridoNuevo);
-            tipoEntradaRepository.save(tipoEntrada);
-        }
+        // 4. Entradas: los de ERROR_ENVIO conservan las suyas, las que faltan se generan en un solo lote
+        Map<Long, List<EntradaEmitida>> entradasPorInvitado = entradasParaEnvio(invitadosPendientes, tipoEntrada);
 
-        // 4. Procesar emisión iterativa (sin consultas extras)
+        // 5. Notificar (sin consultas extras)
         List<Invitado> invitadosProcesados = new ArrayList<>();
         
         for (Invitado invitado : invitadosPendientes) {
-            // Llamamos al método auxiliar pasándole los datos ya cargados
-            Invitado procesado = generarYNotificar(invitado, tipoEntrada, eventoInfo);
+            Invitado procesado = notificar(invitado, tipoEntrada, eventoInfo,
+                    entradasPorInvitado.getOrDefault(invitado.getIdInvitado(), List.of()));
             invitadosProcesados.add(procesado);
         }
 
         return invitadosProcesados;
     }
 
+    /**
+     * Reenvía el correo de un invitado con las entradas que ya tiene, sin regenerarlas ni tocar el stock.
+     * Sirve para los ERROR_ENVIO y para el invitado que no recibió (o perdió) un correo ya ENVIADO.
+     */
+    @Transactional
+    public Invitado reenviarEntradas(Long idInvitado, Long ownerId) {
+        Invitado invitado = invitadoRepository.findById(idInvitado)
+                .orElseThrow(() -> new RuntimeException("Invitado no encontrado."));
+
+        tipoEntradaService.validarPropiedadEvento(invitado.getIdTipoEntrada(), ownerId);
+
+        if (invitado.getEstadoEnvio() == EstadoEnvio.PENDIENTE) {
+            throw new RuntimeException("El invitado aún no tiene entradas emitidas.");
+        }
+        if (invitado.getEstadoEnvio() == EstadoEnvio.EMITIDO) {
+            throw new RuntimeException("El envío de este invitado ya está programado.");
+        }
+        if (invitado.getEstadoEnvio() == EstadoEnvio.ENVIANDO) {
+            throw new RuntimeException("El correo de este invitado se está enviando.");
+        }
+
+        TipoEntrada tipoEntrada = tipoEntradaService.findById(invitado.getIdTipoEntrada());
+        EventoOwnerDTO eventoInfo = eventoClient.getEventoOwnerById(tipoEntrada.getIdEvento());
+        List<EntradaEmitida> entradas = entradasParaEnvio(List.of(invitado), tipoEntrada)
+                .getOrDefault(invitado.getIdInvitado(), List.of());
+        return notificar(invitado, tipoEntrada, eventoInfo, entradas);
+    }
+
+    /**
+     * Reenvío masivo de los invitados en ERROR_ENVIO de un tipo de entrada: una lectura en bloque de sus
+     * entradas y un correo por invitado. No descuenta stock ni genera códigos nuevos.
+     */
+    @Transactional
+    public List<Invitado> reenviarEntradasMasivas(Long idTipoEntrada, Long ownerId) {
+        TipoEntrada tipoEntrada = tipoEntradaService.findById(idTipoEntrada);
+        tipoEntradaService.validarPropiedadEvento(idTipoEntrada, ownerId);
+
+        List<Invitado> conError = invitadoRepository.findAllByIdTipoEntradaAndEstadoEnvioIn(
+                idTipoEntrada, List.of(EstadoEnvio.ERROR_ENVIO));
+
+        if (conError.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        EventoOwnerDTO eventoInfo = eventoClient.getEventoOwnerById(tipoEntrada.getIdEvento());
+        Map<Long, List<EntradaEmitida>> entradasPorInvitado = entradasParaEnvio(conError, tipoEntrada);
+
+        List<Invitado> invitadosProcesados = new ArrayList<>();
+        for (Invitado invitado : conError) {
+            invitadosProcesados.add(notificar(invitado, tipoEntrada, eventoInfo,
+                    entradasPorInvitado.getOrDefault(invitado.getIdInvitado(), List.of())));
+        }
+        return invitadosProcesados;
+    }
+
+    /**
+     * Emisión por etapas, primera fase: genera en bloque las entradas de todos los invitados pendientes y los deja
+     * en EMITIDO sin enviar correos. El despacho programado (DespachoEntradas) los envía a partir de
+     * {@code envioProgramado}, respetando el límite de correos por ventana, así que la generación solo queda
+     * acotada por los INSERT.
+     * Los invitados con ERROR_ENVIO ya tienen sus entradas: solo se reprograma su envío.
+     *
+     * @param envioProgramado desde cuándo pueden enviarse los correos; null para enviarlos en cuanto haya cupo.
+     */
+    @Transactional
+    public List<Invitado> generarEntradasMasivas(Long idTipoEntrada, Long ownerId, LocalDateTime envioProgramado) {
+        TipoEntrada tipoEntrada = tipoEntradaService.findById(idTipoEntrada);
+        tipoEntradaService.validarPropiedadEvento(idTipoEntrada, ownerId);
+
+        List<Invitado> invitadosPendientes = invitadoRepository.findAllByIdTipoEntradaAndEstadoEnvioIn(
+                idTipoEntrada, List.of(EstadoEnvio.PENDIENTE, EstadoEnvio.ERROR_ENVIO));
+
+        if (invitadosPendientes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        descontarStockEnBloque(tipoEntrada, invitadosPendientes);
+
+        List<Invitado> sinEntradas = invitadosPendientes.stream()
+                .filter(i -> i.getEstadoEnvio() == EstadoEnvio.PENDIENTE)
+                .toList();
+        generarEntradas(sinEntradas, tipoEntrada);
+
+        LocalDateTime envio = envioProgramado != null ? envioProgramado : LocalDateTime.now();
+        for (Invitado invitado : invitadosPendientes) {
+            invitado.setEstadoEnvio(EstadoEnvio.EMITIDO);
+            invitado.setFechaEnvioProgramada(envio);
+        }
+        return invitadoRepository.saveAll(invitadosPendientes);
+    }
+
+    /**
+     * Emisión por etapas, segunda fase: envía los correos de hasta {@code limite} invitados EMITIDO cuya fecha
+     * programada ya llegó, con las entradas que se generaron en la primera fase.
+     * Cada invitado se toma con un UPDATE condicional (EMITIDO -> ENVIANDO) antes de llamar a comunicaciones,
+     * de modo que dos instancias no envíen el mismo correo, y pasa a ENVIADO o ERROR_ENVIO según el resultado.
+     * No es transaccional: un fallo de envío no deshace los anteriores.
+     *
+     * @return cantidad de envíos intentados (cuentan para el límite de la ventana aunque fallen).
+     */
+    public int despacharProgramados(int limite) {
+        if (limite <= 0) {
+            return 0;
+        }
+        List<Invitado> programados = invitadoRepository.findByEstadoEnvioAndFechaEnvioProgramadaLessThanEqual(
+                EstadoEnvio.EMITIDO, LocalDateTime.now(),
+                PageRequest.of(0, limite, Sort.by("fechaEnvioProgramada", "idInvitado")));
+
+        Map<Long, TipoEntrada> tipos = new HashMap<>();
+        Map<Long, EventoOwnerDTO> eventos = new HashMap<>();
+        int intentados = 0;
+
+        for (Invitado invitado : programados) {
+            TipoEntrada tipoEntrada;
+            EventoOwnerDTO eventoInfo;
+            try {
+                tipoEntrada = tipos.computeIfAbsent(invitado.getIdTipoEntrada(), tipoEntradaService::findById);
+                eventoInfo = eventos.computeIfAbsent(tipoEntrada.getIdEvento(), eventoClient::getEventoOwnerById);
+            } catch (Exception e) {
+                // Sigue en EMITIDO: se reintenta en la siguiente pasada
+                System.err.println("--- DESPACHO: sin datos del evento para invitado ID " + invitado.getIdInvitado() + ": " + e.getMessage());
+                continue;
+            }
+
+            if (invitadoRepository.reclamarEnvio(invitado.getIdInvitado(), EstadoEnvio.EMITIDO, EstadoEnvio.ENVIANDO,
+                    LocalDateTime.now()) == 0) {
+                continue; // Lo tomó otra instancia o fue modificado entre la consulta y el envío
+            }
+            intentados++;
+
+            List<EntradaEmitida> entradas = entradaEmitidaRepository.findAllByIdInvitado(invitado.getIdInvitado());
+            EstadoEnvio resultado = EstadoEnvio.ENVIADO;
+            try {
+                notificacionClient.enviarEntradas(construirEnvio(invitado, tipoEntrada, eventoInfo, entradas));
+            } catch (Exception e) {
+                System.err.println("--- ERROR COMUNICACIONES (Invitado ID " + invitado.getIdInvitado() + ") ---");
+                e.printStackTrace();
+                resultado = EstadoEnvio.ERROR_ENVIO;
+            }
+            invitadoRepository.actualizarEstadoEnvio(invitado.getIdInvitado(), EstadoEnvio.ENVIANDO, resultado);
+        }
+        return intentados;
+    }
+
+    /**
+     * Envíos del despacho que siguen en ENVIANDO desde antes de {@code limite}: la instancia cayó durante la llamada
+     * a comunicaciones. No se sabe si el correo salió, así que pasan a ERROR_ENVIO para que el dueño decida el reenvío
+     * en lugar de duplicarlo automáticamente; si comunicaciones lo entrega en un reintento, su reporte lo deja en ENVIADO.
+     */
+    public int cerrarEnviosInterrumpidos(LocalDateTime limite) {
+        int cerrados = invitadoRepository.actualizarEstadoEnvioAnteriorA(EstadoEnvio.ENVIANDO, EstadoEnvio.ERROR_ENVIO, limite);
+        if (cerrados > 0) {
+            System.err.println("--- DESPACHO: " + cerrados + " envíos interrumpidos pasan a ERROR_ENVIO.");
+        }
+        return cerrados;
+    }
+
+    /**
+     * Resultados de los reintentos automáticos de comunicaciones. Un correo entregado en un reintento pasa al
+     * invitado de ERROR_ENVIO a ENVIADO con un UPDATE en bloque; la condición sobre el estado evita pisar un
+     * reenvío manual posterior. Los que agotaron los reintentos ya están en ERROR_ENVIO y quedan para el reenvío.
+     *
+     * @return cantidad de invitados que pasaron a ENVIADO.
+     */
+    public int registrarResultadosEnvio(List<ResultadoEnvioRequest> resultados) {
+        List<Long> entregados = resultados.stream()
+                .filter(ResultadoEnvioRequest::isEnviado)
+                .map(ResultadoEnvioRequest::getIdInvitado)
+                .distinct()
+                .toList();
+        long agotados = resultados.stream().filter(r -> !r.isEnviado()).count();
+
+        int actualizados = 0;
+        for (int desde = 0; desde < entregados.size(); desde += LOTE_CONSULTA) {
+            actualizados += invitadoRepository.actualizarEstadoEnvioEnBloque(
+                    entregados.subList(desde, Math.min(desde + LOTE_CONSULTA, entregados.size())),
+                    EstadoEnvio.ERROR_ENVIO, EstadoEnvio.ENVIADO);
+        }
+        if (agotados > 0) {
+            System.err.println("--- COMUNICACIONES: " + agotados + " envíos agotaron los reintentos (quedan en ERROR_ENVIO).");
+        }
+        return actualizados;
+    }
+
     /**
      * Maneja la lógica de stock para un solo invitado y delega la generación.
      * Usado por el endpoint individual.
@@ -205,43 +393,157 @@ public class InvitadoService {
 
         // Obtener info del evento (necesario aquí porque es individual)
         EventoOwnerDTO eventoInfo = eventoClient.getEventoOwnerById(tipoEntrada.getIdEvento());
-        
-        return generarYNotificar(invitado, tipoEntrada, eventoInfo);
+
+        List<EntradaEmitida> entradas = entradasParaEnvio(List.of(invitado), tipoEntrada)
+                .getOrDefault(invitado.getIdInvitado(), List.of());
+        return notificar(invitado, tipoEntrada, eventoInfo, entradas);
+    }
+
+    // Solo se descuenta stock para los PENDIENTES (los de ERROR ya descontaron stock antes)
+    private void descontarStockEnBloque(TipoEntrada tipoEntrada, List<Invitado> invitados) {
+        int stockRequeridoNuevo = invitados.stream()
+                .filter(i -> i.getEstadoEnvio() == EstadoEnvio.PENDIENTE)
+                .mapToInt(Invitado::getCantidad)
+                .sum();
+
+        if (tipoEntrada.getCantidadEmitida() + stockRequeridoNuevo > tipoEntrada.getCantidadTotal()) {
+            throw new RuntimeException("Stock insuficiente para emitir a todos los invitados pendientes. Faltan: " + 
+                ((tipoEntrada.getCantidadEmitida() + stockRequeridoNuevo) - tipoEntrada.getCantidadTotal()));
+        }
+
+        // Actualizamos stock una sola vez en la DB
+        if (stockRequeridoNuevo > 0) {
+            tipoEntrada.setCantidadEmitida(tipoEntrada.getCantidadEmitida() + stockRequeridoNuevo);
+            tipoEntradaRepository.save(tipoEntrada);
+        }
     }
 
     /**
-     * Lógica central de generación de tickets y notificación.
-     * NO realiza operaciones de stock ni consultas de TipoEntrada/Evento.
+     * Entradas a enviar por invitado. Los que ya pasaron por una emisión (ERROR_ENVIO, ENVIADO) conservan sus
+     * entradas, leídas en bloque; solo se generan, en un único lote, las de los PENDIENTES y las que le falten a
+     * quien tenga un juego incompleto de un intento anterior. Si sobran entradas se anulan solo las NO_UTILIZADA:
+     * una entrada que ya pasó por la puerta nunca se borra.
+     * NO realiza operaciones de stock ni cambia el estado de envío.
      */
-    private Invitado generarYNotificar(Invitado invitado, TipoEntrada tipoEntrada, EventoOwnerDTO eventoInfo) {
-        
-        // Limpiar intentos previos (para reintentos de error)
-        entradaEmitidaRepository.deleteAll(entradaEmitidaRepository.findAllByIdInvitado(invitado.getIdInvitado()));
+    private Map<Long, List<EntradaEmitida>> entradasParaEnvio(List<Invitado> invitados, TipoEntrada tipoEntrada) {
+        List<Long> idsConEntradas = invitados.stream()
+                .filter(i -> i.getEstadoEnvio() != EstadoEnvio.PENDIENTE)
+                .map(Invitado::getIdInvitado)
+                .toList();
+
+        Map<Long, List<EntradaEmitida>> porInvitado = new HashMap<>();
+        for (int desde = 0; desde < idsConEntradas.size(); desde += LOTE_CONSULTA) {
+            List<Long> lote = idsConEntradas.subList(desde, Math.min(desde + LOTE_CONSULTA, idsConEntradas.size()));
+            for (EntradaEmitida entrada : entradaEmitidaRepository.findAllByIdInvitadoIn(lote)) {
+                porInvitado.computeIfAbsent(entrada.getIdInvitado(), id -> new ArrayList<>()).add(entrada);
+            }
+        }
 
-        // Generar Tickets
-        List<EntradaEmitida> entradasEmitidas = new ArrayList<>();
-        List<EnvioEntradasRequest.TicketData> ticketsData = new ArrayList<>();
+        List<Invitado> incompletos = new ArrayList<>();
+        Map<Long, Integer> faltantes = new HashMap<>();
+        List<EntradaEmitida> sobrantes = new ArrayList<>();
+        for (Invitado invitado : invitados) {
+            List<EntradaEmitida> previas = porInvitado.computeIfAbsent(invitado.getIdInvitado(), id -> new ArrayList<>());
+            int diferencia = invitado.getCantidad() - previas.size();
+            if (diferencia > 0) {
+                incompletos.add(invitado);
+                faltantes.put(invitado.getIdInvitado(), diferencia);
+            }
+            for (int i = previas.size() - 1; i >= 0 && diferencia < 0; i--) {
+                if (previas.get(i).getEstadoUso() == EstadoUso.NO_UTILIZADA) {
+                    sobrantes.add(previas.remove(i));
+                    diferencia++;
+                }
+            }
+        }
+
+        // Los escáneres reciben los códigos sobrantes como anulados
+        if (!sobrantes.isEmpty()) {
+            entradaEmitidaRepository.deleteAll(sobrantes);
+            publicarAnulaciones(sobrantes, tipoEntrada.getIdEvento());
+        }
+        for (EntradaEmitida entrada : generarEntradas(incompletos, tipoEntrada, i -> faltantes.get(i.getIdInvitado()))) {
+            porInvitado.get(entrada.getIdInvitado()).add(entrada);
+        }
+        return porInvitado;
+    }
 
-        for (int i = 0; i < invitado.getCantidad(); i++) {
-            String codigoQR = generateUniqueQRCode();
-            
-            EntradaEmitida entrada = EntradaEmitida.builder()
-                    .idInvitado(invitado.getIdInvitado())
-                    .idTipoEntrada(invitado.getIdTipoEntrada())
-                    .codigoQR(codigoQR)
-                    .fechaEmision(LocalDateTime.now())
-                    .estadoUso(EstadoUso.NO_UTILIZADA)
-                    .build();
-            entradasEmitidas.add(entrada);
+    // Envía el correo y deja el invitado en ENVIADO o ERROR_ENVIO
+    private Invitado notificar(Invitado invitado, TipoEntrada tipoEntrada, EventoOwnerDTO eventoInfo,
+                               List<EntradaEmitida> entradas) {
+        try {
+            notificacionClient.enviarEntradas(construirEnvio(invitado, tipoEntrada, eventoInfo, entradas));
+            invitado.setEstadoEnvio(EstadoEnvio.ENVIADO);
+        } catch (Exception e) {
+            System.err.println("--- ERROR COMUNICACIONES (Invitado ID " + invitado.getIdInvitado() + ") ---");
+            e.printStackTrace();
+            invitado.setEstadoEnvio(EstadoEnvio.ERROR_ENVIO);
+        }
+
+        return invitadoRepository.save(invitado);
+    }
+
+    /**
+     * Genera las entradas de varios invitados con un solo lote de códigos y un solo saveAll.
+     * No toca el stock ni el estado de envío.
+     */
+    private List<EntradaEmitida> generarEntradas(List<Invitado> invitados, TipoEntrada tipoEntrada) {
+        return generarEntradas(invitados, tipoEntrada, Invitado::getCantidad);
+    }
+
+    // Igual, pero con la cantidad a generar por invitado (p. ej. solo las que le faltan)
+    private List<EntradaEmitida> generarEntradas(List<Invitado> invitados, TipoEntrada tipoEntrada,
+                                                 ToIntFunction<Invitado> cantidad) {
+        int total = invitados.stream().mapToInt(cantidad).sum();
+        if (total == 0) {
+            return new ArrayList<>();
+        }
+        String[] codigos = generadorCodigosEntrada.generar(total);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<EntradaEmitida> entradasEmitidas = new ArrayList<>(total);
+        int siguiente = 0;
+        for (Invitado invitado : invitados) {
+            for (int i = cantidad.applyAsInt(invitado); i > 0; i--) {
+                entradasEmitidas.add(EntradaEmitida.builder()
+                        .idInvitado(invitado.getIdInvitado())
+                        .idTipoEntrada(invitado.getIdTipoEntrada())
+                        .codigoQR(codigos[siguiente++])
+                        .fechaEmision(ahora)
+                        .estadoUso(EstadoUso.NO_UTILIZADA)
+                        .build());
+            }
+        }
+        entradaEmitidaRepository.saveAll(entradasEmitidas);
 
+        // Código firmado: necesita el idEntrada asignado por el INSERT, por lo que reemplaza al código
+        // provisional dentro de la misma transacción (se persiste en el flush).
+        if (codigoEntradaFirmado.habilitado()) {
+            for (EntradaEmitida entrada : entradasEmitidas) {
+                entrada.setCodigoQR(codigoEntradaFirmado.firmar(entrada.getIdEntrada(), entrada.getIdTipoEntrada(),
+                        tipoEntrada.getIdEvento(), entrada.getFechaEmision()));
+            }
+        }
+
+        // Un solo evento por emisión para los contadores de asistencia (tras el commit); los escáneres
+        // reciben las entradas nuevas con el manifiesto
+        if (!entradasEmitidas.isEmpty()) {
+            eventPublisher.publishEvent(new EntradasEmitidasEvent(tipoEntrada.getIdEvento(),
+                    tipoEntrada.getIdTipoEntrada(), entradasEmitidas.size()));
+        }
+        return entradasEmitidas;
+    }
+
+    private EnvioEntradasRequest construirEnvio(Invitado invitado, TipoEntrada tipoEntrada, EventoOwnerDTO eventoInfo,
+                                                List<EntradaEmitida> entradas) {
+        List<EnvioEntradasRequest.TicketData> ticketsData = new ArrayList<>();
+        for (EntradaEmitida entrada : entradas) {
             EnvioEntradasRequest.TicketData ticketData = new EnvioEntradasRequest.TicketData();
-            ticketData.setCodigoQR(codigoQR);
-            ticketData.setEstadoUso(EstadoUso.NO_UTILIZADA.name());
+            ticketData.setCodigoQR(entrada.getCodigoQR());
+            ticketData.setEstadoUso(entrada.getEstadoUso().name());
             ticketsData.add(ticketData);
         }
-        entradaEmitidaRepository.saveAll(entradasEmitidas);
 
-        // Preparar Notificación
         EnvioEntradasRequest requestComunicaciones = new EnvioEntradasRequest();
         requestComunicaciones.setIdInvitado(invitado.getIdInvitado());
         requestComunicaciones.setCorreoDestino(invitado.getCorreo());
@@ -250,21 +552,14 @@ public class InvitadoService {
         requestComunicaciones.setIdTipoEntrada(tipoEntrada.getIdTipoEntrada());
         requestComunicaciones.setNombreTipoEntrada(tipoEntrada.getNombre());
         requestComunicaciones.setTickets(ticketsData);
-
-        // Llamada a Comunicaciones
-        try {
-            notificacionClient.enviarEntradas(requestComunicaciones);
-            invitado.setEstadoEnvio(EstadoEnvio.ENVIADO);
-        } catch (Exception e) {
-            System.err.println("--- ERROR COMUNICACIONES (Invitado ID " + invitado.getIdInvitado() + ") ---");
-            e.printStackTrace();
-            invitado.setEstadoEnvio(EstadoEnvio.ERROR_ENVIO);
-        }
-
-        return invitadoRepository.save(invitado);
+        return requestComunicaciones;
     }
 
-    private String generateUniqueQRCode() {
-        return UUID.randomUUID().toString().replace("-", "").toUpperCase();
+    // Se difunden tras el commit al feed de los escáneres y a los contadores de asistencia
+    private void publicarAnulaciones(List<EntradaEmitida> entradas, Long idEvento) {
+        for (EntradaEmitida entrada : entradas) {
+            eventPublisher.publishEvent(new EntradaCambioEvent(idEvento, entrada.getIdTipoEntrada(),
+                    entrada.getIdEntrada(), entrada.getHashCodigo(), EstadoUso.ANULADA));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.model.EntradaEmitida;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+/**
+ * Manifiesto binario de las entradas de un evento para precargar en los escáneres de puerta.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * int    MAGIC ("EQM1")
+ * byte   tipo: 0 = completo, 1 = delta
+ * long   idEvento
+ * long   version: epoch ms, cursor para pedir el siguiente delta (?desde=version)
+ * int    total de entradas del evento
+ * registros, ordenados por hash:
+ *   byte   estado (ordinal de EstadoUso: 0 NO_UTILIZADA, 1 UTILIZADA, 2 ANULADA)
+ *   long   hash del código (EntradaEmitida.hashCodigo)
+ *   short  largo del nombre en bytes, seguido del nombre del invitado en UTF-8
+ * byte   FIN (0xFF) + int cantidad de registros escritos
+ * </pre>
+ *
+ * Un delta trae las entradas creadas o modificadas desde el cursor y el escáner las fusiona por hash.
+ * Las entradas eliminadas (re-emisiones, bajas de invitados) no viajan en el delta: si tras fusionar
+ * el escáner tiene más entradas que el total informado, descarta su copia y pide el manifiesto completo.
+ */
+@Service
+@RequiredArgsConstructor
+public class ManifiestoEntradasService {
+
+    public static final int MAGIC = 0x45514D31; // "EQM1"
+    public static final byte TIPO_COMPLETO = 0;
+    public static final byte TIPO_DELTA = 1;
+    public static final byte FIN = (byte) 0xFF;
+
+    // Cubre relojes de otras instancias y transacciones confirmadas mientras se generaba el manifiesto;
+    // un registro repetido en el siguiente delta es inocuo porque el escáner fusiona por hash
+    private static final Duration MARGEN_VERSION = Duration.ofMinutes(1);
+    private static final LocalDateTime DESDE_SIEMPRE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int LARGO_MAXIMO_NOMBRE = 255;
+
+    private final EntradaEmitidaRepository entradaEmitidaRepository;
+    private final EntradaService entradaService;
+
+    /**
+     * Verifica el permiso antes de abrir la respuesta, para poder contestar 403 en lugar de un stream cortado,
+     * y fija la versión del manifiesto (epoch ms) que el controlador expone también como Last-Modified.
+     */
+    public long prepararManifiesto(Long staffId, Long idEvento, String tokenCapacidad) {
+        entradaService.verificarPermisoEscaneo(staffId, idEvento, tokenCapacidad);
+        return Instant.now().minus(MARGEN_VERSION).toEpochMilli();
+    }
+
+    /**
+     * Escribe el manifiesto recorriendo las filas con un cursor de la BD, sin materializar la lista.
+     * El conteo y el recorrido comparten la transacción, por lo que ven la misma foto de los datos.
+     *
+     * @param desdeVersion cursor de un manifiesto anterior (epoch ms) o null para el manifiesto completo.
+     * @param version      versión obtenida de {@link #prepararManifiesto}.
+     */
+    @Transactional(readOnly = true)
+    public void escribirManifiesto(Long idEvento, Long desdeVersion, long version, OutputStream salida) throws IOException {
+        LocalDateTime desde = desdeVersion == null
+                ? DESDE_SIEMPRE
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(desdeVersion), ZoneId.systemDefault());
+        long total = entradaEmitidaRepository.countByIdEvento(idEvento);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(salida, TAMANO_BUFFER));
+        out.writeInt(MAGIC);
+        out.writeByte(desdeVersion == null ? TIPO_COMPLETO : TIPO_DELTA);
+        out.writeLong(idEvento);
+        out.writeLong(version);
+        out.writeInt(Math.toIntExact(total));
+
+        int registros = 0;
+        try (Stream<EntradaEmitidaRepository.ManifiestoFila> filas =
+                     entradaEmitidaRepository.streamManifiestoByIdEvento(idEvento, desde)) {
+            for (EntradaEmitidaRepository.ManifiestoFila fila : (Iterable<EntradaEmitidaRepository.ManifiestoFila>) filas::iterator) {
+                escribirRegistro(out, fila);
+                registros++;
+            }
+        }
+
+        out.writeByte(FIN);
+        out.writeInt(registros);
+        out.flush();
+    }
+
+    private void escribirRegistro(DataOutputStream out, EntradaEmitidaRepository.ManifiestoFila fila) throws IOException {
+        EntradaEmitida.EstadoUso estado = fila.getEstadoUso() == null
+                ? EntradaEmitida.EstadoUso.NO_UTILIZADA
+                : fila.getEstadoUso();
+        byte[] nombre = nombreUtf8(fila.getNombreInvitado());
+
+        out.writeByte(estado.ordinal());
+        out.writeLong(fila.getHashCodigo());
+        out.writeShort(nombre.length);
+        out.write(nombre);
+    }
+
+    // Solo para mostrar en el escáner: se recorta para acotar el tamaño del registro
+    private byte[] nombreUtf8(String nombre) {
+        if (nombre == null) {
+            return new byte[0];
+        }
+        String recortado = nombre.length() > LARGO_MAXIMO_NOMBRE ? nombre.substring(0, LARGO_MAXIMO_NOMBRE) : nombre;
+        return recortado.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,260 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.dto.HuellaEntradasEvento;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.model.EntradaEmitida;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapa de bits por evento con las entradas ya utilizadas. El bit i corresponde a la entrada (base + i),
+ * donde base es el menor idEntrada del evento; un evento de 100k entradas ocupa unos 12 KB.
+ * Un escaneo repetido se rechaza con una lectura en memoria, sin consultar MySQL.
+ *
+ * Es un filtro rápido de "ya usada": la base de datos sigue siendo la fuente de verdad. Cada instancia
+ * conoce sus propios check-ins y los que había en BD al cargar el evento; una entrada usada en otra instancia
+ * la detecta la validación en BD y queda registrada aquí.
+ *
+ * Los mapas se guardan periódicamente en archivos mapeados en memoria; al primer uso de un evento tras un
+ * reinicio se carga el snapshot y se completa con las entradas usadas en BD desde ese momento. Cada snapshot lleva
+ * la huella de las entradas del evento en BD al escribirlo; si al cargarlo la huella no coincide (BD recreada,
+ * entradas emitidas o anuladas después) se descarta y el mapa se reconstruye desde la BD.
+ *
+ * Los eventos sin accesos durante {@code entradas.uso.inactividad} se guardan y se quitan de memoria; el próximo
+ * acceso los vuelve a cargar.
+ */
+@Component
+public class RegistroUsoEntradas {
+
+    private static final int MAGIC = 0x55534F32; // "USO2"
+    // magic, base, instante, huella (mín., máx., cantidad), largo de los bits
+    private static final int LARGO_CABECERA = Integer.BYTES + 5 * Long.BYTES + Integer.BYTES;
+    // Margen sobre el instante del snapshot para cubrir check-ins confirmados mientras se escribía
+    private static final Duration MARGEN_SNAPSHOT = Duration.ofMinutes(1);
+    private static final LocalDateTime DESDE_SIEMPRE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final EntradaEmitidaRepository entradaEmitidaRepository;
+    private final Path directorio;
+    private final long inactividadNanos;
+    private final Map<Long, UsoEvento> eventos = new ConcurrentHashMap<>();
+
+    public RegistroUsoEntradas(EntradaEmitidaRepository entradaEmitidaRepository,
+                               @Value("${entradas.uso.directorio:./data/uso-entradas}") String directorio,
+                               @Value("${entradas.uso.inactividad:2h}") Duration inactividad) {
+        this.entradaEmitidaRepository = entradaEmitidaRepository;
+        this.directorio = Path.of(directorio);
+        this.inactividadNanos = inactividad.toNanos();
+    }
+
+    /**
+     * true si la entrada ya figura como utilizada para este evento. Una sola lectura en memoria
+     * una vez cargado el evento.
+     */
+    public boolean estaUsada(Long idEvento, Long idEntrada) {
+        return obtener(idEvento).estaUsada(idEntrada);
+    }
+
+    public void marcarUsada(Long idEvento, Long idEntrada) {
+        obtener(idEvento).marcar(idEntrada);
+    }
+
+    // Solo tras el commit: un check-in que hace rollback no debe quedar marcado
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEntradaCambio(EntradaCambioEvent evento) {
+        if (evento.estadoUso() == EntradaEmitida.EstadoUso.UTILIZADA) {
+            marcarUsada(evento.idEvento(), evento.idEntrada());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${entradas.uso.snapshot-intervalo:30s}")
+    public void guardarSnapshots() {
+        long ahora = System.nanoTime();
+        eventos.forEach((idEvento, uso) -> {
+            boolean guardado = true;
+            if (uso.tomarCambios()) {
+                try {
+                    escribirSnapshot(idEvento, uso);
+                } catch (IOException | RuntimeException e) {
+                    guardado = false;
+                    uso.marcarSucio();
+                    System.err.println("No se pudo guardar el snapshot de uso del evento " + idEvento + ": " + e.getMessage());
+                }
+            }
+            // Un check-in que llegue entre el snapshot y el retiro se recupera de la BD al recargar (MARGEN_SNAPSHOT)
+            if (guardado && ahora - uso.ultimoAcceso >= inactividadNanos) {
+                eventos.remove(idEvento, uso);
+            }
+        });
+    }
+
+    // La carga consulta la BD: se hace fuera del mapa para no bloquear otros eventos. Si dos hilos cargan
+    // el mismo evento a la vez, ambas cargas son válidas y se conserva la primera en registrarse.
+    private UsoEvento obtener(Long idEvento) {
+        UsoEvento uso = eventos.get(idEvento);
+        if (uso == null) {
+            UsoEvento cargado = cargar(idEvento);
+            uso = eventos.putIfAbsent(idEvento, cargado);
+            if (uso == null) {
+                uso = cargado;
+            }
+        }
+        uso.ultimoAcceso = System.nanoTime();
+        return uso;
+    }
+
+    private UsoEvento cargar(Long idEvento) {
+        HuellaEntradasEvento huella = entradaEmitidaRepository.findHuellaByIdEvento(idEvento);
+        UsoEvento uso = leerSnapshot(idEvento, huella);
+        LocalDateTime desde = DESDE_SIEMPRE;
+        if (uso != null) {
+            desde = LocalDateTime.ofInstant(uso.instanteSnapshot.minus(MARGEN_SNAPSHOT), ZoneId.systemDefault());
+        } else {
+            uso = new UsoEvento(huella == null ? null : huella.minIdEntrada(), new BitSet(), Instant.EPOCH);
+        }
+
+        List<Long> usadas = entradaEmitidaRepository.findIdsByIdEventoAndEstadoUsoDesde(
+                idEvento, EntradaEmitida.EstadoUso.UTILIZADA, desde);
+        usadas.forEach(uso::marcar);
+        return uso;
+    }
+
+    private Path archivo(Long idEvento) {
+        return directorio.resolve("evento-" + idEvento + ".bits");
+    }
+
+    private void escribirSnapshot(Long idEvento, UsoEvento uso) throws IOException {
+        Files.createDirectories(directorio);
+        Instant instante = Instant.now();
+        HuellaEntradasEvento huella = entradaEmitidaRepository.findHuellaByIdEvento(idEvento);
+        long base;
+        long[] bits;
+        synchronized (uso) {
+            base = uso.base == null ? 0L : uso.base;
+            bits = uso.usados.toLongArray();
+        }
+
+        Path temporal = archivo(idEvento).resolveSibling("evento-" + idEvento + ".bits.tmp");
+        long largo = LARGO_CABECERA + (long) bits.length * Long.BYTES;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, largo);
+            buffer.putInt(MAGIC).putLong(base).putLong(instante.toEpochMilli())
+                    .putLong(valor(huella == null ? null : huella.minIdEntrada()))
+                    .putLong(valor(huella == null ? null : huella.maxIdEntrada()))
+                    .putLong(valor(huella == null ? null : huella.cantidad()))
+                    .putInt(bits.length);
+            buffer.asLongBuffer().put(bits);
+            buffer.force();
+        }
+        // Reemplazo atómico: un reinicio a mitad de escritura conserva el snapshot anterior
+        Files.move(temporal, archivo(idEvento), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private UsoEvento leerSnapshot(Long idEvento, HuellaEntradasEvento huella) {
+        Path archivo = archivo(idEvento);
+        if (!Files.isRegularFile(archivo)) {
+            return null;
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (canal.size() < LARGO_CABECERA || buffer.getInt() != MAGIC) {
+                return null;
+            }
+            long base = buffer.getLong();
+            Instant instante = Instant.ofEpochMilli(buffer.getLong());
+            long minIdEntrada = buffer.getLong();
+            long maxIdEntrada = buffer.getLong();
+            long cantidad = buffer.getLong();
+            if (huella == null || minIdEntrada != valor(huella.minIdEntrada())
+                    || maxIdEntrada != valor(huella.maxIdEntrada()) || cantidad != valor(huella.cantidad())) {
+                System.out.println("Snapshot de uso del evento " + idEvento + " descartado: las entradas en BD cambiaron.");
+                return null;
+            }
+            long[] bits = new long[buffer.getInt()];
+            buffer.asLongBuffer().get(bits);
+            return new UsoEvento(base, BitSet.valueOf(bits), instante);
+        } catch (IOException | RuntimeException e) {
+            // Snapshot ilegible: se reconstruye completo desde la BD
+            System.err.println("Snapshot de uso inválido para el evento " + idEvento + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static long valor(Long numero) {
+        return numero == null ? 0L : numero;
+    }
+
+    /**
+     * Estado de un evento. Accesos sincronizados sobre la instancia: la sección crítica es una lectura o escritura de un bit.
+     */
+    private static final class UsoEvento {
+
+        private Long base;
+        private BitSet usados;
+        private final Instant instanteSnapshot;
+        private boolean sucio;
+        private volatile long ultimoAcceso = System.nanoTime();
+
+        private UsoEvento(Long base, BitSet usados, Instant instanteSnapshot) {
+            this.base = base;
+            this.usados = usados;
+            this.instanteSnapshot = instanteSnapshot;
+        }
+
+        private synchronized boolean estaUsada(Long idEntrada) {
+            if (base == null || idEntrada < base) {
+                return false;
+            }
+            long ordinal = idEntrada - base;
+            return ordinal <= Integer.MAX_VALUE && usados.get((int) ordinal);
+        }
+
+        private synchronized void marcar(Long idEntrada) {
+            if (base == null) {
+                base = idEntrada;
+            } else if (idEntrada < base) {
+                // Entrada con ID menor a la base (confirmada después de la carga): se desplaza el mapa
+                int desplazamiento = Math.toIntExact(base - idEntrada);
+                BitSet desplazado = new BitSet(usados.length() + desplazamiento);
+                usados.stream().forEach(i -> desplazado.set(i + desplazamiento));
+                usados = desplazado;
+                base = idEntrada;
+            }
+            int ordinal = Math.toIntExact(idEntrada - base);
+            if (!usados.get(ordinal)) {
+                usados.set(ordinal);
+                sucio = true;
+            }
+        }
+
+        private synchronized boolean tomarCambios() {
+            boolean habiaCambios = sucio;
+            sucio = false;
+            return habiaCambios;
+        }
+
+        private synchronized void marcarSucio() {
+            sucio = true;
+        }
+    }
+}
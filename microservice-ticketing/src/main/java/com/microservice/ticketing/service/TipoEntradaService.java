@@ -3,6 +3,8 @@ package com.microservice.ticketing.service;
 import com.microservice.ticketing.client.EventoClient;
 import com.microservice.ticketing.dto.EventoOwnerDTO;
 import com.microservice.ticketing.dto.TipoEntradaRequest;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.model.EntradaEmitida;
 import com.microservice.ticketing.model.TipoEntrada;
 import com.microservice.ticketing.model.TipoEntrada.EstadoTipoEntrada;
 import com.microservice.ticketing.repository.TipoEntradaRepository;
@@ -11,6 +13,7 @@ import com.microservice.ticketing.repository.EntradaEmitidaRepository;
 import lombok.RequiredArgsConstructor;
 import jakarta.transaction.Transactional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +27,7 @@ public class TipoEntradaService {
     private final InvitadoRepository invitadoRepository;
     private final EntradaEmitidaRepository entradaEmitidaRepository;
     private final EventoClient eventoClient;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Busca un TipoEntrada por ID o lanza una excepción.
@@ -149,7 +153,14 @@ public class TipoEntradaService {
         validarPropiedadEvento(idTipoEntrada, ownerId);
 
         // 2. ELIMINACIÓN DE DATOS ASOCIADOS (CASCADA MANUAL)
-        entradaEmitidaRepository.deleteAll(entradaEmitidaRepository.findAllByIdTipoEntrada(idTipoEntrada));
+        // Las entradas eliminadas se publican como anuladas (feed de escáneres y contadores de asistencia, tras el commit)
+        Long idEvento = findById(idTipoEntrada).getIdEvento();
+        List<EntradaEmitida> entradas = entradaEmitidaRepository.findAllByIdTipoEntrada(idTipoEntrada);
+        entradaEmitidaRepository.deleteAll(entradas);
+        for (EntradaEmitida entrada : entradas) {
+            eventPublisher.publishEvent(new EntradaCambioEvent(idEvento, idTipoEntrada, entrada.getIdEntrada(),
+                    entrada.getHashCodigo(), EntradaEmitida.EstadoUso.ANULADA));
+        }
         invitadoRepository.deleteAll(invitadoRepository.findAllByIdTipoEntrada(idTipoEntrada, Sort.by(Sort.Direction.DESC, "fechaCreacion")));
 
         // 3. ELIMINAR TIPO DE ENTRADA
@@ -1,7 +1,11 @@
 package com.microservice.ticketing.controller;
 
+import com.microservice.ticketing.dto.AsistenciaResponse;
 import com.microservice.ticketing.dto.CheckinResponse;
+import com.microservice.ticketing.service.ContadoresAsistencia;
 import com.microservice.ticketing.service.EntradaService;
+import com.microservice.ticketing.service.FeedCambiosEntradas;
+import com.microservice.ticketing.service.ManifiestoEntradasService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,14 +14,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 
@@ -26,6 +37,12 @@ public class EntradaControllerTest {
 
     @Mock
     private EntradaService entradaService;
+    @Mock
+    private ManifiestoEntradasService manifiestoEntradasService;
+    @Mock
+    private FeedCambiosEntradas feedCambiosEntradas;
+    @Mock
+    private ContadoresAsistencia contadoresAsistencia;
 
     @InjectMocks
     private EntradaController entradaController;
@@ -54,10 +71,10 @@ public class EntradaControllerTest {
     @Test
     void testCheckinEntrada_Exito() {
         // Configuración del mock para simular un check-in exitoso
-        doReturn(successfulResponse).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR));
+        doReturn(successfulResponse).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR), isNull());
 
         // Ejecución del método del controlador
-        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID);
+        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID, null);
 
         // Verificaciones
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
@@ -72,7 +89,19 @@ public class EntradaControllerTest {
         assertEquals("Juan Pérez", actualResponse.getNombreInvitado());
         assertNotNull(actualResponse.getFechaUso());
 
-        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR);
+        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR, null);
+    }
+
+    @Test
+    void testCheckinEntrada_ConTokenCapacidad_PropagaToken() {
+        // El token de capacidad de la cabecera se entrega tal cual al servicio
+        String token = "token-capacidad";
+        doReturn(successfulResponse).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR), eq(token));
+
+        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID, token);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR, token);
     }
 
     // ----------------------------------------------------------------------------------
@@ -82,22 +111,22 @@ public class EntradaControllerTest {
     @Test
     void testCheckinEntrada_Fallo_StaffIdNulo_401() {
         // Ejecución con staffId nulo (como si no se enviara la cabecera)
-        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, null);
+        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, null, null);
 
         // Verificaciones
         assertEquals(HttpStatus.UNAUTHORIZED, responseEntity.getStatusCode());
         assertEquals("Se requiere ID de Staff para el check-in.", responseEntity.getBody());
-        verify(entradaService, times(0)).validarYUsarEntrada(any(), any());
+        verify(entradaService, times(0)).validarYUsarEntrada(any(), any(), any());
     }
 
     @Test
     void testCheckinEntrada_Fallo_SinPermisos_403() {
         // Configuración del mock para simular fallo de seguridad
         String forbiddenMessage = "Acceso Denegado: Staff no tiene el permiso 'escanear_entrada'.";
-        doThrow(new RuntimeException(forbiddenMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR));
+        doThrow(new RuntimeException(forbiddenMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR), isNull());
 
         // Ejecución
-        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID);
+        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID, null);
 
         // Verificaciones
         assertEquals(HttpStatus.FORBIDDEN, responseEntity.getStatusCode()); // Mapeado a 403
@@ -106,7 +135,7 @@ public class EntradaControllerTest {
         assertNotNull(errorResponse);
         assertEquals(forbiddenMessage, errorResponse.getMensaje());
         assertEquals(VALID_QR, errorResponse.getCodigoQR());
-        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR);
+        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR, null);
     }
 
     // ----------------------------------------------------------------------------------
@@ -117,10 +146,10 @@ public class EntradaControllerTest {
     void testCheckinEntrada_Fallo_EntradaYaUsada_400() {
         // Configuración del mock para simular una entrada ya utilizada
         String businessErrorMessage = "La entrada con QR ABCD123456 ya ha sido utilizada.";
-        doThrow(new RuntimeException(businessErrorMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR));
+        doThrow(new RuntimeException(businessErrorMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR), isNull());
 
         // Ejecución
-        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID);
+        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID, null);
 
         // Verificaciones
         assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode()); // Mapeado a 400
@@ -129,17 +158,17 @@ public class EntradaControllerTest {
         assertNotNull(errorResponse);
         assertEquals(businessErrorMessage, errorResponse.getMensaje());
         assertEquals(VALID_QR, errorResponse.getCodigoQR());
-        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR);
+        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR, null);
     }
 
     @Test
     void testCheckinEntrada_Fallo_QRNoValido_400() {
         // Configuración del mock para simular un QR no encontrado
         String businessErrorMessage = "El código QR no corresponde a ninguna entrada activa.";
-        doThrow(new RuntimeException(businessErrorMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR));
+        doThrow(new RuntimeException(businessErrorMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR), isNull());
 
         // Ejecución
-        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID);
+        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID, null);
 
         // Verificaciones
         assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode()); // Mapeado a 400
@@ -148,17 +177,17 @@ public class EntradaControllerTest {
         assertNotNull(errorResponse);
         assertEquals(businessErrorMessage, errorResponse.getMensaje());
         assertEquals(VALID_QR, errorResponse.getCodigoQR());
-        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR);
+        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR, null);
     }
 
     @Test
     void testCheckinEntrada_Fallo_OtroError_400() {
         // Configuración del mock para simular cualquier otra RuntimeException
         String genericErrorMessage = "Error inesperado durante el check-in.";
-        doThrow(new RuntimeException(genericErrorMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR));
+        doThrow(new RuntimeException(genericErrorMessage)).when(entradaService).validarYUsarEntrada(eq(STAFF_ID), eq(VALID_QR), isNull());
 
         // Ejecución
-        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID);
+        ResponseEntity<?> responseEntity = entradaController.checkinEntrada(VALID_QR, STAFF_ID, null);
 
         // Verificaciones
         assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode()); // Mapeado a 400 por defecto
@@ -167,6 +196,99 @@ public class EntradaControllerTest {
         assertNotNull(errorResponse);
         assertEquals(genericErrorMessage, errorResponse.getMensaje());
         assertEquals(VALID_QR, errorResponse.getCodigoQR());
-        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR);
+        verify(entradaService, times(1)).validarYUsarEntrada(STAFF_ID, VALID_QR, null);
+    }
+
+    // ----------------------------------------------------------------------------------
+    // Tests del Manifiesto del Escáner
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testDescargarManifiesto_Delta_ConIfModifiedSince() throws Exception {
+        Long idEvento = 101L;
+        long version = 1_700_000_060_000L;
+        doReturn(version).when(manifiestoEntradasService).prepararManifiesto(STAFF_ID, idEvento, null);
+
+        ResponseEntity<?> responseEntity = entradaController.descargarManifiesto(
+                idEvento, null, "Tue, 14 Nov 2023 22:13:20 GMT", STAFF_ID, null);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(String.valueOf(version), responseEntity.getHeaders().getFirst("X-Manifest-Version"));
+
+        // El cuerpo se escribe al consumir la respuesta, con el cursor tomado de If-Modified-Since
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ((StreamingResponseBody) responseEntity.getBody()).writeTo(salida);
+        verify(manifiestoEntradasService).escribirManifiesto(idEvento, 1_700_000_000_000L, version, salida);
+    }
+
+    @Test
+    void testDescargarManifiesto_SinPermisos_403() {
+        Long idEvento = 101L;
+        doThrow(new RuntimeException("Acceso Denegado. El Staff no tiene permisos para escanear en este evento."))
+                .when(manifiestoEntradasService).prepararManifiesto(STAFF_ID, idEvento, null);
+
+        ResponseEntity<?> responseEntity = entradaController.descargarManifiesto(idEvento, null, null, STAFF_ID, null);
+
+        assertEquals(HttpStatus.FORBIDDEN, responseEntity.getStatusCode());
+        verify(manifiestoEntradasService).prepararManifiesto(STAFF_ID, idEvento, null);
+        verifyNoMoreInteractions(manifiestoEntradasService);
+    }
+
+    // ----------------------------------------------------------------------------------
+    // Tests del Feed de Cambios (SSE)
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testSuscribirCambios_LastEventIdTienePrioridad() {
+        Long idEvento = 101L;
+        SseEmitter emitter = new SseEmitter();
+        doReturn(emitter).when(feedCambiosEntradas).suscribir(idEvento, 900L);
+
+        ResponseEntity<?> responseEntity = entradaController.suscribirCambios(idEvento, 500L, 900L, STAFF_ID, null);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertSame(emitter, responseEntity.getBody());
+        verify(entradaService).verificarPermisoEscaneo(STAFF_ID, idEvento, null);
+    }
+
+    @Test
+    void testSuscribirCambios_SinPermisos_403() {
+        Long idEvento = 101L;
+        doThrow(new RuntimeException("Acceso Denegado. El Staff no tiene permisos para escanear en este evento."))
+                .when(entradaService).verificarPermisoEscaneo(STAFF_ID, idEvento, null);
+
+        ResponseEntity<?> responseEntity = entradaController.suscribirCambios(idEvento, null, null, STAFF_ID, null);
+
+        assertEquals(HttpStatus.FORBIDDEN, responseEntity.getStatusCode());
+        verifyNoMoreInteractions(feedCambiosEntradas);
+    }
+
+    // ----------------------------------------------------------------------------------
+    // Tests de Asistencia
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testObtenerAsistencia_Exito() {
+        Long idEvento = 101L;
+        AsistenciaResponse asistencia = new AsistenciaResponse(idEvento, 100, 40, 1, List.of());
+        doReturn(asistencia).when(contadoresAsistencia).obtener(idEvento);
+
+        ResponseEntity<?> responseEntity = entradaController.obtenerAsistencia(idEvento, STAFF_ID, null);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertSame(asistencia, responseEntity.getBody());
+        verify(entradaService).verificarPermisoEscaneo(STAFF_ID, idEvento, null);
+    }
+
+    @Test
+    void testSuscribirAsistencia_SinPermisos_403() {
+        Long idEvento = 101L;
+        doThrow(new RuntimeException("Acceso Denegado. El Staff no tiene permisos para escanear en este evento."))
+                .when(entradaService).verificarPermisoEscaneo(STAFF_ID, idEvento, null);
+
+        ResponseEntity<?> responseEntity = entradaController.suscribirAsistencia(idEvento, STAFF_ID, null);
+
+        assertEquals(HttpStatus.FORBIDDEN, responseEntity.getStatusCode());
+        verifyNoMoreInteractions(contadoresAsistencia);
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.microservice.ticketing.dto.EmisionMasivaResponse;
 import com.microservice.ticketing.dto.InvitadoRequest;
 import com.microservice.ticketing.model.Invitado;
 import com.microservice.ticketing.model.Invitado.EstadoEnvio;
+import com.microservice.ticketing.service.IdempotenciaService;
 import com.microservice.ticketing.service.InvitadoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +15,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +31,9 @@ public class InvitadoControllerTest {
     @Mock
     private InvitadoService invitadoService;
 
+    @Mock
+    private IdempotenciaService idempotenciaService;
+
     @InjectMocks
     private InvitadoController invitadoController;
 
@@ -60,6 +66,9 @@ public class InvitadoControllerTest {
         
         invitadosMockList = Collections.singletonList(invitadoMock);
 
+        // Sin respuesta guardada: el servicio de idempotencia ejecuta la acción del controlador
+        lenient().when(idempotenciaService.ejecutar(any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(4)).get());
     }
 
     // ----------------------------------------------------------------------------------
@@ -200,7 +209,7 @@ public class InvitadoControllerTest {
         invitadoMock.setEstadoEnvio(EstadoEnvio.ENVIADO);
         when(invitadoService.emitirEntradasPorId(eq(INVITADO_ID), eq(OWNER_ID))).thenReturn(invitadoMock);
 
-        ResponseEntity<Invitado> response = invitadoController.emitirEntradasRegistradas(INVITADO_ID, OWNER_ID);
+        ResponseEntity<Invitado> response = invitadoController.emitirEntradasRegistradas(INVITADO_ID, OWNER_ID, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(invitadoMock, response.getBody());
@@ -213,7 +222,7 @@ public class InvitadoControllerTest {
                 .when(invitadoService).emitirEntradasPorId(eq(INVITADO_ID), eq(STAFF_ID));
 
         assertThrows(SecurityException.class, () -> 
-            invitadoController.emitirEntradasRegistradas(INVITADO_ID, STAFF_ID)
+            invitadoController.emitirEntradasRegistradas(INVITADO_ID, STAFF_ID, null)
         );
         // La SecurityException será mapeada a 403.
     }
@@ -224,7 +233,7 @@ public class InvitadoControllerTest {
                 .when(invitadoService).emitirEntradasPorId(eq(INVITADO_ID), eq(OWNER_ID));
 
         assertThrows(RuntimeException.class, () -> 
-            invitadoController.emitirEntradasRegistradas(INVITADO_ID, OWNER_ID)
+            invitadoController.emitirEntradasRegistradas(INVITADO_ID, OWNER_ID, null)
         );
         // La RuntimeException será mapeada a 400.
     }
@@ -236,7 +245,7 @@ public class InvitadoControllerTest {
 
         invitadoMock.setEstadoEnvio(EstadoEnvio.ENVIADO);
 
-        ResponseEntity<EmisionMasivaResponse> response = invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID);
+        ResponseEntity<EmisionMasivaResponse> response = invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         // Verificamos que el cálculo en el controlador es correcto
@@ -249,7 +258,7 @@ public class InvitadoControllerTest {
     void testEmitirEntradasMasivasPorTipo_NoContent_204() {
         when(invitadoService.emitirEntradasMasivas(anyLong(), anyLong())).thenReturn(Collections.emptyList());
 
-        ResponseEntity<EmisionMasivaResponse> response = invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID);
+        ResponseEntity<EmisionMasivaResponse> response = invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID, null);
 
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         assertNull(response.getBody());
@@ -261,7 +270,7 @@ public class InvitadoControllerTest {
                 .when(invitadoService).emitirEntradasMasivas(eq(TIPO_ENTRADA_ID), eq(STAFF_ID));
 
         assertThrows(SecurityException.class, () -> 
-            invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, STAFF_ID)
+            invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, STAFF_ID, null)
         );
         // La SecurityException será mapeada a 403.
     }
@@ -272,8 +281,105 @@ public class InvitadoControllerTest {
                 .when(invitadoService).emitirEntradasMasivas(eq(TIPO_ENTRADA_ID), eq(OWNER_ID));
 
         assertThrows(RuntimeException.class, () -> 
-            invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID)
+            invitadoController.emitirEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID, null)
         );
         // La RuntimeException será mapeada a 400.
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGenerarEntradasMasivasPorTipo_Exito_200_ProgramaEnvio() {
+        LocalDateTime envio = LocalDateTime.of(2030, 5, 1, 9, 0);
+        when(invitadoService.generarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID, envio)).thenReturn(invitadosMockList);
+
+        ResponseEntity<EmisionMasivaResponse> response = invitadoController.generarEntradasMasivasPorTipo(TIPO_ENTRADA_ID, envio, OWNER_ID, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getProgramadas());
+        assertEquals(0, response.getBody().getEnviadas());
+        verify(invitadoService, never()).emitirEntradasMasivas(anyLong(), anyLong());
+    }
+
+    @Test
+    void testGenerarEntradasMasivasPorTipo_NoContent_204() {
+        when(invitadoService.generarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID, null)).thenReturn(Collections.emptyList());
+
+        ResponseEntity<EmisionMasivaResponse> response = invitadoController.generarEntradasMasivasPorTipo(TIPO_ENTRADA_ID, null, OWNER_ID, null);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    }
+
+    @Test
+    void testEmitirEntradasRegistradas_ClaveRepetida_DevuelveRespuestaGuardada() {
+        ResponseEntity<Invitado> guardada = ResponseEntity.ok()
+                .header(IdempotenciaService.HEADER_REPETIDA, "true")
+                .body(invitadoMock);
+        doReturn(guardada).when(idempotenciaService)
+                .ejecutar(eq("clave-1"), eq(OWNER_ID), eq("emitir:" + INVITADO_ID), eq(Invitado.class), any());
+
+        ResponseEntity<Invitado> response = invitadoController.emitirEntradasRegistradas(INVITADO_ID, OWNER_ID, "clave-1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA));
+        verify(invitadoService, never()).emitirEntradasPorId(anyLong(), anyLong());
+    }
+
+    @Test
+    void testGenerarEntradasMasivas_OperacionIncluyeFechaDeEnvio() {
+        LocalDateTime envio = LocalDateTime.of(2030, 1, 1, 9, 0);
+        when(invitadoService.generarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID, envio)).thenReturn(invitadosMockList);
+
+        invitadoController.generarEntradasMasivasPorTipo(TIPO_ENTRADA_ID, envio, OWNER_ID, "clave-2");
+
+        verify(idempotenciaService).ejecutar(eq("clave-2"), eq(OWNER_ID),
+                eq("generar:" + TIPO_ENTRADA_ID + ":" + envio), eq(EmisionMasivaResponse.class), any());
+    }
+
+    // ----------------------------------------------------------------------------------
+    // 4. Endpoints de REENVÍO (Exclusivo OWNER)
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testReenviarEntradas_Exito_200() {
+        invitadoMock.setEstadoEnvio(EstadoEnvio.ENVIADO);
+        when(invitadoService.reenviarEntradas(INVITADO_ID, OWNER_ID)).thenReturn(invitadoMock);
+
+        ResponseEntity<Invitado> response = invitadoController.reenviarEntradas(INVITADO_ID, OWNER_ID, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(invitadoMock, response.getBody());
+        verify(invitadoService, never()).emitirEntradasPorId(anyLong(), anyLong());
+    }
+
+    @Test
+    void testReenviarEntradas_Fallo_SinEntradas_400() {
+        doThrow(new RuntimeException("El invitado aún no tiene entradas emitidas."))
+                .when(invitadoService).reenviarEntradas(INVITADO_ID, OWNER_ID);
+
+        assertThrows(RuntimeException.class, () ->
+            invitadoController.reenviarEntradas(INVITADO_ID, OWNER_ID, null)
+        );
+        // La RuntimeException será mapeada a 400.
+    }
+
+    @Test
+    void testReenviarEntradasMasivas_Exito_200() {
+        invitadoMock.setEstadoEnvio(EstadoEnvio.ENVIADO);
+        when(invitadoService.reenviarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID)).thenReturn(invitadosMockList);
+
+        ResponseEntity<EmisionMasivaResponse> response = invitadoController.reenviarEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Proceso de reenvío completado.", response.getBody().getMensaje());
+        assertEquals(2, response.getBody().getEnviadas());
+        assertEquals(0, response.getBody().getFallidas());
+    }
+
+    @Test
+    void testReenviarEntradasMasivas_SinErrores_204() {
+        when(invitadoService.reenviarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID)).thenReturn(Collections.emptyList());
+
+        ResponseEntity<EmisionMasivaResponse> response = invitadoController.reenviarEntradasMasivasPorTipo(TIPO_ENTRADA_ID, OWNER_ID, null);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    }
+}
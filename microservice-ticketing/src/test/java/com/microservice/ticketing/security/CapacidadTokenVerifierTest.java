@@ -0,0 +1,82 @@
+package com.microservice.ticketing.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CapacidadTokenVerifierTest {
+
+    private static final String SECRET = "Y2FwYWNpZGFkRW50cmFkYXNRUlRpY2tldGluZ0V2ZW50b3NTZWNyZXRvMjAyNQ==";
+    private static final Long STAFF_ID = 105L;
+    private static final Long EVENTO_ID = 1L;
+
+    private RevocacionCapacidadRegistry revocacionRegistry;
+    private CapacidadTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        revocacionRegistry = new RevocacionCapacidadRegistry(Duration.ofMinutes(10));
+        verifier = new CapacidadTokenVerifier(SECRET, revocacionRegistry);
+    }
+
+    private String token(String secret, Long usuarioId, Long idEvento, Set<String> permisos, Date emitidoEn, Date expira) {
+        return Jwts.builder()
+                .setSubject(String.valueOf(usuarioId))
+                .claim("idEvento", idEvento)
+                .claim("permisos", permisos)
+                .setIssuedAt(emitidoEn)
+                .setExpiration(expira)
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private String tokenVigente(Set<String> permisos) {
+        long ahora = System.currentTimeMillis();
+        return token(SECRET, STAFF_ID, EVENTO_ID, permisos, new Date(ahora - 5_000), new Date(ahora + 60_000));
+    }
+
+    @Test
+    void autoriza_tokenValidoConPermiso() {
+        assertTrue(verifier.autoriza(tokenVigente(Set.of("escanear_entrada")), STAFF_ID, EVENTO_ID, "escanear_entrada"));
+    }
+
+    @Test
+    void noAutoriza_sinPermiso_otroUsuario_otroEvento() {
+        String token = tokenVigente(Set.of("registrar_invitados"));
+        assertFalse(verifier.autoriza(token, STAFF_ID, EVENTO_ID, "escanear_entrada"));
+
+        String tokenEscaneo = tokenVigente(Set.of("escanear_entrada"));
+        assertFalse(verifier.autoriza(tokenEscaneo, 999L, EVENTO_ID, "escanear_entrada"));
+        assertFalse(verifier.autoriza(tokenEscaneo, STAFF_ID, 2L, "escanear_entrada"));
+    }
+
+    @Test
+    void noAutoriza_tokenExpiradoOFirmaInvalida() {
+        long ahora = System.currentTimeMillis();
+        String expirado = token(SECRET, STAFF_ID, EVENTO_ID, Set.of("escanear_entrada"),
+                new Date(ahora - 120_000), new Date(ahora - 60_000));
+        assertFalse(verifier.autoriza(expirado, STAFF_ID, EVENTO_ID, "escanear_entrada"));
+
+        String otraFirma = token("b3Ryb1NlY3JldG9EaXN0aW50b1BhcmFGaXJtYXJUb2tlbnNEZUNhcGFjaWRhZA==", STAFF_ID, EVENTO_ID,
+                Set.of("escanear_entrada"), new Date(ahora), new Date(ahora + 60_000));
+        assertFalse(verifier.autoriza(otraFirma, STAFF_ID, EVENTO_ID, "escanear_entrada"));
+        assertFalse(verifier.autoriza("no-es-un-jwt", STAFF_ID, EVENTO_ID, "escanear_entrada"));
+    }
+
+    @Test
+    void noAutoriza_tokenEmitidoAntesDeLaRevocacion() {
+        String token = tokenVigente(Set.of("escanear_entrada"));
+
+        revocacionRegistry.revocar(EVENTO_ID, STAFF_ID, System.currentTimeMillis());
+
+        assertFalse(verifier.autoriza(token, STAFF_ID, EVENTO_ID, "escanear_entrada"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.microservice.ticketing.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodigoEntradaFirmadoTest {
+
+    private static final String SECRET = "ZW50cmFkYXNRUkNvZGlnb3NGaXJtYWRvc1BvckV2ZW50b1NlY3JldG8yMDI1";
+    private static final LocalDateTime EMISION = LocalDateTime.of(2025, 3, 1, 20, 15, 30);
+
+    private CodigoEntradaFirmado codigoEntradaFirmado;
+
+    @BeforeEach
+    void setUp() {
+        codigoEntradaFirmado = new CodigoEntradaFirmado(SECRET, true);
+    }
+
+    @Test
+    void firmarYVerificar_recuperaElContenido() {
+        String codigo = codigoEntradaFirmado.firmar(123456789L, 77L, 10L, EMISION);
+
+        assertTrue(CodigoEntradaFirmado.esFormatoFirmado(codigo));
+        assertTrue(codigo.matches("Q[A-Z2-7]+"));
+
+        CodigoEntradaFirmado.Contenido contenido = codigoEntradaFirmado.verificar(codigo).orElseThrow();
+        assertEquals(123456789L, contenido.idEntrada());
+        assertEquals(77L, contenido.idTipoEntrada());
+        assertEquals(10L, contenido.idEvento());
+        assertEquals(EMISION.toInstant(ZoneOffset.UTC), contenido.emitidoEn());
+    }
+
+    @Test
+    void verificar_rechazaCodigoAlteradoOFirmadoConOtroSecreto() {
+        String codigo = codigoEntradaFirmado.firmar(1L, 77L, 10L, EMISION);
+        char[] alterado = codigo.toCharArray();
+        alterado[5] = alterado[5] == 'A' ? 'B' : 'A';
+
+        assertTrue(codigoEntradaFirmado.verificar(new String(alterado)).isEmpty());
+
+        String otroSecreto = new CodigoEntradaFirmado("otro-secreto", true).firmar(1L, 77L, 10L, EMISION);
+        assertTrue(codigoEntradaFirmado.verificar(otroSecreto).isEmpty());
+    }
+
+    @Test
+    void verificar_ignoraCodigosAleatoriosAnteriores() {
+        assertFalse(CodigoEntradaFirmado.esFormatoFirmado("3F2504E04F8911D39A0C0305E82C3301"));
+        assertTrue(codigoEntradaFirmado.verificar("3F2504E04F8911D39A0C0305E82C3301").isEmpty());
+    }
+
+    @Test
+    void claveEvento_distintaPorEvento() {
+        assertNotEquals(codigoEntradaFirmado.claveEventoBase32(10L), codigoEntradaFirmado.claveEventoBase32(11L));
+        assertEquals(codigoEntradaFirmado.claveEventoBase32(10L), codigoEntradaFirmado.claveEventoBase32(10L));
+    }
+}
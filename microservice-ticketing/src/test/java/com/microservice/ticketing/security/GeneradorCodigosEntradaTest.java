@@ -0,0 +1,124 @@
+package com.microservice.ticketing.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneradorCodigosEntradaTest {
+
+    private static final String ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private GeneradorCodigosEntrada generador;
+
+    @BeforeEach
+    void setUp() {
+        generador = new GeneradorCodigosEntrada();
+    }
+
+    @Test
+    void generar_veinteCaracteresCrockfordSinFormatoFirmado() {
+        for (int i = 0; i < 1_000; i++) {
+            String codigo = generador.generar();
+
+            assertEquals(GeneradorCodigosEntrada.LARGO_CODIGO, codigo.length());
+            assertTrue(codigo.matches("[0-9A-HJKMNP-TV-Z]+"), codigo);
+            assertFalse(CodigoEntradaFirmado.esFormatoFirmado(codigo));
+        }
+    }
+
+    @Test
+    void generarLote_tamanoPedidoYCodigosDistintos() {
+        String[] codigos = generador.generar(5_000);
+
+        assertEquals(5_000, codigos.length);
+        assertEquals(5_000, new HashSet<>(Arrays.asList(codigos)).size());
+        assertEquals(0, generador.generar(0).length);
+    }
+
+    @Test
+    void generarLote_cantidadNegativa_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> generador.generar(-1));
+    }
+
+    @Test
+    void generar_usaTodoElAlfabetoEnCadaPosicion() {
+        List<Set<Character>> porPosicion = new ArrayList<>();
+        for (int i = 0; i < GeneradorCodigosEntrada.LARGO_CODIGO; i++) {
+            porPosicion.add(new HashSet<>());
+        }
+        for (String codigo : generador.generar(20_000)) {
+            for (int i = 0; i < codigo.length(); i++) {
+                porPosicion.get(i).add(codigo.charAt(i));
+            }
+        }
+
+        porPosicion.forEach(caracteres -> assertEquals(ALFABETO.length(), caracteres.size()));
+    }
+
+    @Test
+    void generar_concurrente_sinRepetidosEntreHilos() throws Exception {
+        Set<String> todos = ConcurrentHashMap.newKeySet();
+        try (ExecutorService hilos = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < 8; h++) {
+                tareas.add(hilos.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        todos.add(generador.generar());
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+
+        assertEquals(80_000, todos.size());
+    }
+
+    /**
+     * 10 millones de códigos sin choques. Se comparan 64 de los 100 bits (ordenados en un long[] para no guardar
+     * 10 millones de Strings): la cantidad esperada de coincidencias es n^2 / 2^65, unas 3 en un millón de
+     * ejecuciones, así que cualquier repetición indica un generador sesgado.
+     */
+    @Test
+    void generar_diezMillones_sinColisiones() {
+        int total = 10_000_000;
+        int lote = 10_000;
+        long[] claves = new long[total];
+        for (int desde = 0; desde < total; desde += lote) {
+            String[] codigos = generador.generar(lote);
+            for (int i = 0; i < lote; i++) {
+                claves[desde + i] = clave64(codigos[i]);
+            }
+        }
+
+        Arrays.sort(claves);
+        int colisiones = 0;
+        for (int i = 1; i < total; i++) {
+            if (claves[i] == claves[i - 1]) {
+                colisiones++;
+            }
+        }
+        assertEquals(0, colisiones);
+    }
+
+    // Primeros 64 bits del código (los 12 primeros caracteres y 4 bits del siguiente)
+    private static long clave64(String codigo) {
+        long clave = 0;
+        for (int i = 0; i < 12; i++) {
+            clave = (clave << 5) | ALFABETO.indexOf(codigo.charAt(i));
+        }
+        return (clave << 4) | (ALFABETO.indexOf(codigo.charAt(12)) >>> 1);
+    }
+}
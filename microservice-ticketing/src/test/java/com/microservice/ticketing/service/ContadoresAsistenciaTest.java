@@ -0,0 +1,122 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.dto.AsistenciaResponse;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.event.EntradasEmitidasEvent;
+import com.microservice.ticketing.model.EntradaEmitida.EstadoUso;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ContadoresAsistenciaTest {
+
+    private static final Long EVENTO_ID = 101L;
+    private static final Long TIPO_GENERAL = 1L;
+    private static final Long TIPO_VIP = 2L;
+
+    @Mock
+    private EntradaEmitidaRepository entradaEmitidaRepository;
+
+    private ContadoresAsistencia contadores;
+
+    private record Conteo(Long getIdTipoEntrada, EstadoUso getEstadoUso, Long getCantidad)
+            implements EntradaEmitidaRepository.ConteoEstadoFila {
+    }
+
+    @BeforeEach
+    void setUp() {
+        contadores = new ContadoresAsistencia(entradaEmitidaRepository, Duration.ofMinutes(1), Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        contadores.cerrar();
+    }
+
+    @Test
+    void obtener_CargaUnaVezDesdeBD_YLuegoSumaLosCambiosEnMemoria() {
+        when(entradaEmitidaRepository.contarPorTipoYEstado(EVENTO_ID)).thenReturn(List.of(
+                new Conteo(TIPO_GENERAL, EstadoUso.NO_UTILIZADA, 60L),
+                new Conteo(TIPO_GENERAL, EstadoUso.UTILIZADA, 40L),
+                new Conteo(TIPO_VIP, EstadoUso.NO_UTILIZADA, 10L)));
+
+        AsistenciaResponse inicial = contadores.obtener(EVENTO_ID);
+        assertEquals(110, inicial.getEmitidas());
+        assertEquals(40, inicial.getUtilizadas());
+
+        contadores.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, TIPO_VIP, 500L, null, EstadoUso.UTILIZADA));
+        contadores.onEntradasEmitidas(new EntradasEmitidasEvent(EVENTO_ID, TIPO_VIP, 1));
+        contadores.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, TIPO_GENERAL, 502L, null, EstadoUso.ANULADA));
+
+        AsistenciaResponse actual = contadores.obtener(EVENTO_ID);
+        assertEquals(110, actual.getEmitidas()); // +1 VIP, -1 General
+        assertEquals(41, actual.getUtilizadas());
+        assertEquals(1, actual.getAnuladas());
+        AsistenciaResponse.TipoAsistencia vip = actual.getTipos().get(1);
+        assertEquals(TIPO_VIP, vip.getIdTipoEntrada());
+        assertEquals(11, vip.getEmitidas());
+        assertEquals(1, vip.getUtilizadas());
+
+        verify(entradaEmitidaRepository, times(1)).contarPorTipoYEstado(EVENTO_ID);
+    }
+
+    @Test
+    void onEntradaCambio_EventoNoCargado_NoConsultaLaBD() {
+        contadores.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, TIPO_GENERAL, 1L, null, EstadoUso.UTILIZADA));
+
+        verifyNoInteractions(entradaEmitidaRepository);
+    }
+
+    @Test
+    void reconciliar_AjustaALosConteosDeLaBD_ConservandoLasAnuladas() {
+        when(entradaEmitidaRepository.contarPorTipoYEstado(EVENTO_ID))
+                .thenReturn(List.of(new Conteo(TIPO_GENERAL, EstadoUso.NO_UTILIZADA, 100L)))
+                // Check-ins hechos en otra instancia
+                .thenReturn(List.of(
+                        new Conteo(TIPO_GENERAL, EstadoUso.NO_UTILIZADA, 70L),
+                        new Conteo(TIPO_GENERAL, EstadoUso.UTILIZADA, 29L)));
+
+        contadores.obtener(EVENTO_ID);
+        contadores.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, TIPO_GENERAL, 7L, null, EstadoUso.ANULADA));
+
+        contadores.reconciliar();
+
+        AsistenciaResponse asistencia = contadores.obtener(EVENTO_ID);
+        assertEquals(99, asistencia.getEmitidas());
+        assertEquals(29, asistencia.getUtilizadas());
+        assertEquals(1, asistencia.getAnuladas());
+    }
+
+    @Test
+    void reconciliar_EventoInactivo_SeQuitaSinConsultarLaBD() {
+        ContadoresAsistencia sinRetencion = new ContadoresAsistencia(entradaEmitidaRepository,
+                Duration.ofMinutes(1), Duration.ZERO);
+        try {
+            when(entradaEmitidaRepository.contarPorTipoYEstado(EVENTO_ID))
+                    .thenReturn(List.of(new Conteo(TIPO_GENERAL, EstadoUso.NO_UTILIZADA, 100L)));
+            sinRetencion.obtener(EVENTO_ID);
+
+            sinRetencion.reconciliar();
+            // Ya no está cargado: los cambios se ignoran y no hubo consulta de reconciliación
+            sinRetencion.onEntradasEmitidas(new EntradasEmitidasEvent(EVENTO_ID, TIPO_GENERAL, 5));
+            verify(entradaEmitidaRepository, times(1)).contarPorTipoYEstado(EVENTO_ID);
+
+            // La próxima consulta lo vuelve a cargar
+            assertEquals(100, sinRetencion.obtener(EVENTO_ID).getEmitidas());
+            verify(entradaEmitidaRepository, times(2)).contarPorTipoYEstado(EVENTO_ID);
+        } finally {
+            sinRetencion.cerrar();
+        }
+    }
+}
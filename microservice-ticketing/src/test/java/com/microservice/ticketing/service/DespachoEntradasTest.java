@@ -0,0 +1,72 @@
+package com.microservice.ticketing.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DespachoEntradasTest {
+
+    @Mock
+    private InvitadoService invitadoService;
+
+    private DespachoEntradas despacho;
+
+    @BeforeEach
+    void setUp() {
+        despacho = new DespachoEntradas(invitadoService, 100, Duration.ofHours(1), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void despachar_DescuentaLoEnviadoDelCupoDeLaVentana() {
+        when(invitadoService.despacharProgramados(100)).thenReturn(70);
+        when(invitadoService.despacharProgramados(30)).thenReturn(30);
+
+        despacho.despachar();
+        despacho.despachar();
+        despacho.despachar(); // Cupo agotado: no consulta
+
+        verify(invitadoService).despacharProgramados(100);
+        verify(invitadoService).despacharProgramados(30);
+        // Los envíos interrumpidos se cierran en cada pasada, aunque no quede cupo
+        verify(invitadoService, times(3)).cerrarEnviosInterrumpidos(any());
+        verifyNoMoreInteractions(invitadoService);
+    }
+
+    @Test
+    void despachar_NuevaVentana_RestableceElCupo() {
+        despacho = new DespachoEntradas(invitadoService, 100, Duration.ZERO, Duration.ofMinutes(10));
+        when(invitadoService.despacharProgramados(100)).thenReturn(100);
+
+        despacho.despachar();
+        despacho.despachar();
+
+        verify(invitadoService, times(2)).despacharProgramados(100);
+    }
+
+    @Test
+    void despachar_ErrorDelServicio_NoPropaga() {
+        when(invitadoService.despacharProgramados(100)).thenThrow(new RuntimeException("BD no disponible"));
+
+        despacho.despachar();
+
+        verify(invitadoService).despacharProgramados(100);
+    }
+
+    @Test
+    void despachar_CierraEnviosInterrumpidosSegunElPlazo() {
+        despacho.despachar();
+
+        LocalDateTime hace10Min = LocalDateTime.now().minusMinutes(10);
+        verify(invitadoService).cerrarEnviosInterrumpidos(argThat(limite ->
+                !limite.isAfter(hace10Min) && limite.isAfter(hace10Min.minusSeconds(5))));
+    }
+}
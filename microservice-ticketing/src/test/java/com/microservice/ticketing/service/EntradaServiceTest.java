@@ -3,20 +3,25 @@ package com.microservice.ticketing.service;
 import com.microservice.ticketing.client.EventoClient;
 import com.microservice.ticketing.dto.CheckinResponse;
 import com.microservice.ticketing.dto.EventoOwnerDTO;
+import com.microservice.ticketing.event.EntradaCambioEvent;
 import com.microservice.ticketing.model.EntradaEmitida;
 import com.microservice.ticketing.model.Invitado;
 import com.microservice.ticketing.model.TipoEntrada;
 import com.microservice.ticketing.repository.EntradaEmitidaRepository;
 import com.microservice.ticketing.repository.InvitadoRepository;
 import com.microservice.ticketing.repository.TipoEntradaRepository;
+import com.microservice.ticketing.security.CapacidadTokenVerifier;
+import com.microservice.ticketing.security.CodigoEntradaFirmado;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.Mockito; // IMPORTACIÓN AÑADIDA
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -36,6 +41,14 @@ public class EntradaServiceTest {
     private TipoEntradaRepository tipoEntradaRepository;
     @Mock
     private EventoClient eventoClient;
+    @Mock
+    private CapacidadTokenVerifier capacidadTokenVerifier;
+    @Mock
+    private CodigoEntradaFirmado codigoEntradaFirmado;
+    @Mock
+    private RegistroUsoEntradas registroUsoEntradas;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private EntradaService entradaService; // Clase bajo prueba
@@ -123,6 +136,7 @@ public class EntradaServiceTest {
         
         // Verificación de la actualización en DB
         verify(entradaEmitidaRepository, times(1)).save(entradaNoUsada);
+        verify(eventPublisher).publishEvent(new EntradaCambioEvent(EVENTO_ID, TIPO_ENTRADA_ID, 1L, null, EntradaEmitida.EstadoUso.UTILIZADA));
         // CORRECCIÓN: La llamada a staffTienePermiso siempre ocurre en el servicio,
         // por lo que solo verificamos que fue llamado, no usamos 'never()'.
         verify(eventoClient, times(1)).staffTienePermiso(eq(EVENTO_ID), eq(STAFF_ID_OWNER), eq("escanear_entrada"));
@@ -152,6 +166,96 @@ public class EntradaServiceTest {
         verify(eventoClient, times(1)).staffTienePermiso(eq(EVENTO_ID), eq(STAFF_ID_PERMITTED), eq("escanear_entrada"));
     }
 
+    @Test
+    void testValidarYUsarEntrada_AccesoConcedido_TokenCapacidadValido_SinLlamarAEventos() {
+        // Arrange
+        String token = "token-valido";
+        when(entradaEmitidaRepository.findByCodigoQR(VALID_QR)).thenReturn(Optional.of(entradaNoUsada));
+        when(capacidadTokenVerifier.autoriza(token, STAFF_ID_PERMITTED, EVENTO_ID, "escanear_entrada")).thenReturn(true);
+        when(entradaEmitidaRepository.save(any(EntradaEmitida.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        CheckinResponse response = entradaService.validarYUsarEntrada(STAFF_ID_PERMITTED, VALID_QR, token);
+
+        // Assert
+        assertEquals("ACCESO CONCEDIDO.", response.getMensaje());
+        verify(entradaEmitidaRepository, times(1)).save(entradaNoUsada);
+        // El camino caliente no debe consultar a microservice-eventos
+        verifyNoInteractions(eventoClient);
+    }
+
+    @Test
+    void testValidarYUsarEntrada_TokenCapacidadInvalido_ConsultaAEventos() {
+        // Arrange
+        String token = "token-revocado";
+        when(entradaEmitidaRepository.findByCodigoQR(VALID_QR)).thenReturn(Optional.of(entradaNoUsada));
+        when(capacidadTokenVerifier.autoriza(token, STAFF_ID_UNAUTHORIZED, EVENTO_ID, "escanear_entrada")).thenReturn(false);
+        when(eventoClient.getEventoOwnerById(EVENTO_ID)).thenReturn(eventoOwnerDTO);
+        when(eventoClient.staffTienePermiso(eq(EVENTO_ID), eq(STAFF_ID_UNAUTHORIZED), eq("escanear_entrada"))).thenReturn(false);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                entradaService.validarYUsarEntrada(STAFF_ID_UNAUTHORIZED, VALID_QR, token)
+        );
+
+        assertEquals("Acceso Denegado. El Staff no tiene permisos para escanear en este evento.", exception.getMessage());
+        verify(entradaEmitidaRepository, never()).save(any());
+    }
+
+    @Test
+    void testValidarYUsarEntrada_CodigoFirmado_EventoDesdeElCodigoYBusquedaPorId() {
+        // Arrange
+        String codigoFirmado = "Q" + "A".repeat(50);
+        entradaNoUsada.setCodigoQR(codigoFirmado);
+        String token = "token-valido";
+        when(codigoEntradaFirmado.verificar(codigoFirmado)).thenReturn(Optional.of(
+                new CodigoEntradaFirmado.Contenido(1L, TIPO_ENTRADA_ID, EVENTO_ID, Instant.now())));
+        when(capacidadTokenVerifier.autoriza(token, STAFF_ID_PERMITTED, EVENTO_ID, "escanear_entrada")).thenReturn(true);
+        when(entradaEmitidaRepository.findById(1L)).thenReturn(Optional.of(entradaNoUsada));
+        when(entradaEmitidaRepository.save(any(EntradaEmitida.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        CheckinResponse response = entradaService.validarYUsarEntrada(STAFF_ID_PERMITTED, codigoFirmado, token);
+
+        // Assert
+        assertEquals("ACCESO CONCEDIDO.", response.getMensaje());
+        verify(entradaEmitidaRepository, never()).findByCodigoQR(any());
+        verifyNoInteractions(eventoClient);
+    }
+
+    @Test
+    void testValidarYUsarEntrada_CodigoFirmadoYaUsado_RechazaDesdeElMapaDeUso() {
+        // Arrange
+        String codigoFirmado = "Q" + "A".repeat(50);
+        when(codigoEntradaFirmado.verificar(codigoFirmado)).thenReturn(Optional.of(
+                new CodigoEntradaFirmado.Contenido(1L, TIPO_ENTRADA_ID, EVENTO_ID, Instant.now())));
+        when(capacidadTokenVerifier.autoriza("token-valido", STAFF_ID_PERMITTED, EVENTO_ID, "escanear_entrada")).thenReturn(true);
+        when(registroUsoEntradas.estaUsada(EVENTO_ID, 1L)).thenReturn(true);
+
+        // Act
+        CheckinResponse response = entradaService.validarYUsarEntrada(STAFF_ID_PERMITTED, codigoFirmado, "token-valido");
+
+        // Assert
+        assertEquals("Entrada ya utilizada. Acceso denegado.", response.getMensaje());
+        assertEquals(EntradaEmitida.EstadoUso.UTILIZADA.name(), response.getEstadoUso());
+        verifyNoInteractions(entradaEmitidaRepository, invitadoRepository, eventPublisher);
+    }
+
+    @Test
+    void testValidarYUsarEntrada_CodigoFirmadoAlterado_RechazaSinConsultarBD() {
+        // Arrange
+        String codigoAlterado = "Q" + "B".repeat(50);
+        when(codigoEntradaFirmado.verificar(codigoAlterado)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                entradaService.validarYUsarEntrada(STAFF_ID_PERMITTED, codigoAlterado, null)
+        );
+
+        assertEquals("QR no válido o no encontrado.", exception.getMessage());
+        verifyNoInteractions(entradaEmitidaRepository, eventoClient);
+    }
+
     // --- TESTS DE CASOS DE FALLO (LÓGICA DE NEGOCIO) ---
 
     @Test
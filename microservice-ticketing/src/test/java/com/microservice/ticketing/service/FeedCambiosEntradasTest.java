@@ -0,0 +1,161 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.dto.CambioEntradaDTO;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.model.EntradaAnulada;
+import com.microservice.ticketing.model.EntradaEmitida.EstadoUso;
+import com.microservice.ticketing.repository.EntradaAnuladaRepository;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeedCambiosEntradasTest {
+
+    private static final Long EVENTO_ID = 101L;
+
+    @Mock
+    private EntradaEmitidaRepository entradaEmitidaRepository;
+
+    @Mock
+    private EntradaAnuladaRepository entradaAnuladaRepository;
+
+    private FeedCambiosEntradas feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new FeedCambiosEntradas(entradaEmitidaRepository, entradaAnuladaRepository, 3, 100,
+                Duration.ofMinutes(1), Duration.ofDays(7), Duration.ofHours(2));
+    }
+
+    // Cursor de un escáner que se desconectó hace una hora
+    private static long cursorHaceUnaHora() {
+        return Instant.now().minus(Duration.ofHours(1)).toEpochMilli() * 1000;
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.cerrar();
+    }
+
+    @Test
+    void cambiosEnMemoria_DevuelveSoloLosPosterioresAlCursor() {
+        long inicio = feed.ultimaSecuencia(EVENTO_ID);
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 10L, 110L, EstadoUso.UTILIZADA));
+        long cursor = feed.ultimaSecuencia(EVENTO_ID);
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 11L, 111L, EstadoUso.ANULADA));
+
+        List<CambioEntradaDTO> cambios = feed.cambiosEnMemoria(EVENTO_ID, cursor).orElseThrow();
+
+        assertTrue(cursor > inicio);
+        assertEquals(1, cambios.size());
+        assertEquals(11L, cambios.get(0).getIdEntrada());
+        assertEquals(111L, cambios.get(0).getHashCodigo());
+        assertEquals("ANULADA", cambios.get(0).getEstadoUso());
+        assertTrue(cambios.get(0).getSecuencia() > cursor);
+        assertEquals(2, feed.cambiosEnMemoria(EVENTO_ID, inicio).orElseThrow().size());
+    }
+
+    @Test
+    void cambiosEnMemoria_CursorAnteriorAlBuffer_NoSePuedeServirDesdeMemoria() {
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 10L, 110L, EstadoUso.UTILIZADA));
+
+        // Cursor de otra instancia o de antes del arranque
+        assertEquals(Optional.empty(), feed.cambiosEnMemoria(EVENTO_ID, 1L));
+    }
+
+    @Test
+    void cambiosEnMemoria_AlDarLaVueltaElBufferDescartaLosMasAntiguos() {
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 10L, 110L, EstadoUso.UTILIZADA));
+        long cursorDiez = feed.ultimaSecuencia(EVENTO_ID);
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 11L, 111L, EstadoUso.UTILIZADA));
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 12L, 112L, EstadoUso.UTILIZADA));
+        long cursorDoce = feed.ultimaSecuencia(EVENTO_ID);
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 13L, 113L, EstadoUso.UTILIZADA));
+        feed.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 14L, 114L, EstadoUso.UTILIZADA));
+
+        // Capacidad 3: se descartaron 10 y 11, un escáner que solo vio el 10 quedó atrás
+        assertTrue(feed.cambiosEnMemoria(EVENTO_ID, cursorDiez).isEmpty());
+        List<CambioEntradaDTO> cambios = feed.cambiosEnMemoria(EVENTO_ID, cursorDoce).orElseThrow();
+        assertEquals(List.of(13L, 14L), cambios.stream().map(CambioEntradaDTO::getIdEntrada).toList());
+    }
+
+    @Test
+    void suscribir_ConCursorAtrasado_ConsultaLaBD() {
+        long cursor = cursorHaceUnaHora();
+        LocalDateTime desde = LocalDateTime.ofInstant(Instant.ofEpochMilli(cursor / 1000 - 5_000), ZoneId.systemDefault());
+        when(entradaEmitidaRepository.findCambiosByIdEventoDesde(eq(EVENTO_ID), any(LocalDateTime.class), any()))
+                .thenReturn(Collections.emptyList());
+        when(entradaAnuladaRepository.findByIdEventoDesde(eq(EVENTO_ID), any(LocalDateTime.class), any()))
+                .thenReturn(Collections.emptyList());
+
+        assertNotNull(feed.suscribir(EVENTO_ID, cursor));
+
+        verify(entradaEmitidaRepository, timeout(1000)).findCambiosByIdEventoDesde(eq(EVENTO_ID), eq(desde), any());
+        // Las entradas eliminadas solo se conocen por su registro de anulación
+        verify(entradaAnuladaRepository, timeout(1000)).findByIdEventoDesde(eq(EVENTO_ID), eq(desde), any());
+    }
+
+    @Test
+    void suscribir_CursorAnteriorALaRetencion_NoConsultaLaBD() {
+        assertNotNull(feed.suscribir(EVENTO_ID, 1_700_000_000_000_000L));
+
+        // Se le pide resincronizar: las anulaciones de entonces ya se purgaron
+        verify(entradaEmitidaRepository, after(200).never()).findCambiosByIdEventoDesde(any(), any(), any());
+    }
+
+    @Test
+    void registrarAnulacion_GuardaSoloLasAnulaciones() {
+        feed.registrarAnulacion(new EntradaCambioEvent(EVENTO_ID, 1L, 10L, 110L, EstadoUso.UTILIZADA));
+        feed.registrarAnulacion(new EntradaCambioEvent(EVENTO_ID, 1L, 11L, 111L, EstadoUso.ANULADA));
+
+        ArgumentCaptor<EntradaAnulada> captor = ArgumentCaptor.forClass(EntradaAnulada.class);
+        verify(entradaAnuladaRepository, times(1)).save(captor.capture());
+        assertEquals(11L, captor.getValue().getIdEntrada());
+        assertEquals(EVENTO_ID, captor.getValue().getIdEvento());
+        assertEquals(111L, captor.getValue().getHashCodigo());
+    }
+
+    @Test
+    void limpiar_LiberaBuffersInactivosYPurgaAnulaciones() {
+        FeedCambiosEntradas sinRetencion = new FeedCambiosEntradas(entradaEmitidaRepository, entradaAnuladaRepository,
+                3, 100, Duration.ofMinutes(1), Duration.ofDays(7), Duration.ZERO);
+        try {
+            sinRetencion.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 10L, 110L, EstadoUso.UTILIZADA));
+            long cursor = sinRetencion.ultimaSecuencia(EVENTO_ID);
+
+            sinRetencion.limpiar();
+
+            // Buffer nuevo: el cursor anterior ya no se puede servir desde memoria
+            assertTrue(sinRetencion.cambiosEnMemoria(EVENTO_ID, cursor).isEmpty());
+            verify(entradaAnuladaRepository).eliminarAnteriores(any(LocalDateTime.class));
+        } finally {
+            sinRetencion.cerrar();
+        }
+    }
+
+    @Test
+    void suscribir_SinCursor_NoConsultaLaBD() {
+        assertNotNull(feed.suscribir(EVENTO_ID, null));
+
+        verify(entradaEmitidaRepository, after(200).never()).findCambiosByIdEventoDesde(any(), any(), any());
+    }
+}
@@ -0,0 +1,257 @@
+package com.microservice.ticketing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.ticketing.dto.EmisionMasivaResponse;
+import com.microservice.ticketing.model.SolicitudIdempotente;
+import com.microservice.ticketing.model.SolicitudIdempotente.EstadoSolicitud;
+import com.microservice.ticketing.repository.SolicitudIdempotenteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotenciaServiceTest {
+
+    private static final Long USUARIO = 1L;
+    private static final String CLAVE = "8f14e45f-ceea-4e7a-9b1c-1d2e3f4a5b6c";
+    private static final String OPERACION = "emitir-masiva:101";
+
+    @Mock
+    private SolicitudIdempotenteRepository solicitudRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private IdempotenciaService idempotenciaService;
+    private AtomicInteger ejecuciones;
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaService = new IdempotenciaService(solicitudRepository, objectMapper,
+                Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofMinutes(1));
+        ejecuciones = new AtomicInteger();
+    }
+
+    private Supplier<ResponseEntity<EmisionMasivaResponse>> accion() {
+        return () -> {
+            ejecuciones.incrementAndGet();
+            return ResponseEntity.ok(EmisionMasivaResponse.builder()
+                    .mensaje("Proceso de emisión completado.")
+                    .totalProcesados(3)
+                    .enviadas(3)
+                    .build());
+        };
+    }
+
+    // Simula el INSERT: la reserva vuelve con su ID generado
+    private void reservaConId(Long id) {
+        when(solicitudRepository.saveAndFlush(any(SolicitudIdempotente.class))).thenAnswer(i -> {
+            SolicitudIdempotente solicitud = i.getArgument(0);
+            solicitud.setId(id);
+            return solicitud;
+        });
+    }
+
+    private SolicitudIdempotente existente(EstadoSolicitud estado, String operacion, LocalDateTime expiraEn) {
+        return SolicitudIdempotente.builder()
+                .id(7L)
+                .idUsuario(USUARIO)
+                .clave(CLAVE)
+                .operacion(operacion)
+                .estado(estado)
+                .expiraEn(expiraEn)
+                .build();
+    }
+
+    @Test
+    void ejecutar_SinClave_EjecutaSinTocarLaTabla() {
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(null, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, ejecuciones.get());
+        verifyNoInteractions(solicitudRepository);
+    }
+
+    @Test
+    void ejecutar_ClaveDemasiadoLarga_400() {
+        String larga = "x".repeat(SolicitudIdempotente.LARGO_MAXIMO_CLAVE + 1);
+
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(larga, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_PrimeraVez_ReservaEjecutaYGuardaLaRespuesta() {
+        reservaConId(7L);
+        when(solicitudRepository.completar(eq(7L), eq(EstadoSolicitud.EN_PROCESO), eq(EstadoSolicitud.COMPLETADA),
+                anyInt(), anyString(), any(LocalDateTime.class))).thenReturn(1);
+
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, ejecuciones.get());
+
+        ArgumentCaptor<String> respuesta = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> expiraEn = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(solicitudRepository).completar(eq(7L), eq(EstadoSolicitud.EN_PROCESO), eq(EstadoSolicitud.COMPLETADA),
+                eq(200), respuesta.capture(), expiraEn.capture());
+        assertTrue(respuesta.getValue().contains("\"totalProcesados\":3"));
+        assertTrue(expiraEn.getValue().isAfter(LocalDateTime.now().plusHours(23)));
+        verify(solicitudRepository, never()).save(any());
+    }
+
+    @Test
+    void ejecutar_LatidoRenuevaLaReservaMientrasLaAccionCorre() {
+        reservaConId(7L);
+        Supplier<ResponseEntity<EmisionMasivaResponse>> larga = () -> {
+            idempotenciaService.renovarEnProceso();
+            return accion().get();
+        };
+
+        idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, larga);
+        verify(solicitudRepository).renovar(eq(List.of(7L)), eq(EstadoSolicitud.EN_PROCESO),
+                argThat(expira -> expira.isAfter(LocalDateTime.now().plusMinutes(4))));
+
+        // Terminada la acción ya no se renueva
+        idempotenciaService.renovarEnProceso();
+        verify(solicitudRepository, times(1)).renovar(any(), any(), any());
+    }
+
+    @Test
+    void ejecutar_ReservaTomadaPorOtraSolicitud_NoEscribeSobreElla() {
+        reservaConId(7L);
+        when(solicitudRepository.completar(eq(7L), any(), any(), anyInt(), anyString(), any())).thenReturn(0);
+
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        // La acción ya se hizo: se responde igual, pero la fila (ahora de otra solicitud) no se toca
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(solicitudRepository, never()).save(any());
+        verify(solicitudRepository, never()).delete(any());
+    }
+
+    @Test
+    void constructor_LatidoNoMenorQueMaxEnProceso_Rechaza() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotenciaService(solicitudRepository, objectMapper,
+                Duration.ofHours(24), Duration.ofMinutes(5), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void ejecutar_ClaveCompletada_DevuelveLaRespuestaGuardadaSinEjecutar() throws Exception {
+        SolicitudIdempotente completada = existente(EstadoSolicitud.COMPLETADA, OPERACION, LocalDateTime.now().plusHours(1));
+        completada.setCodigoRespuesta(200);
+        completada.setRespuesta(objectMapper.writeValueAsString(
+                EmisionMasivaResponse.builder().mensaje("Proceso de emisión completado.").totalProcesados(3).enviadas(3).build()));
+        when(solicitudRepository.saveAndFlush(any(SolicitudIdempotente.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotencia_usuario_clave"));
+        when(solicitudRepository.findByIdUsuarioAndClave(USUARIO, CLAVE)).thenReturn(Optional.of(completada));
+
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA));
+        assertEquals(3, response.getBody().getTotalProcesados());
+        assertEquals(0, ejecuciones.get());
+        verify(solicitudRepository, never()).save(any());
+    }
+
+    @Test
+    void ejecutar_ClaveEnProceso_409() {
+        when(solicitudRepository.saveAndFlush(any(SolicitudIdempotente.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotencia_usuario_clave"));
+        when(solicitudRepository.findByIdUsuarioAndClave(USUARIO, CLAVE))
+                .thenReturn(Optional.of(existente(EstadoSolicitud.EN_PROCESO, OPERACION, LocalDateTime.now().plusMinutes(5))));
+
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_ClaveUsadaEnOtraOperacion_422() {
+        when(solicitudRepository.saveAndFlush(any(SolicitudIdempotente.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotencia_usuario_clave"));
+        when(solicitudRepository.findByIdUsuarioAndClave(USUARIO, CLAVE))
+                .thenReturn(Optional.of(existente(EstadoSolicitud.COMPLETADA, "emitir:5", LocalDateTime.now().plusHours(1))));
+
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_AccionFalla_LiberaLaClaveYPropagaLaExcepcion() {
+        reservaConId(7L);
+        Supplier<ResponseEntity<EmisionMasivaResponse>> falla = () -> {
+            throw new RuntimeException("Stock insuficiente para el tipo de entrada.");
+        };
+
+        assertThrows(RuntimeException.class, () ->
+                idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, falla));
+
+        verify(solicitudRepository).liberar(7L, EstadoSolicitud.EN_PROCESO);
+        verify(solicitudRepository, never()).completar(any(), any(), any(), any(), any(), any());
+        // Liberada, el latido ya no la renueva
+        idempotenciaService.renovarEnProceso();
+        verify(solicitudRepository, never()).renovar(any(), any(), any());
+    }
+
+    @Test
+    void ejecutar_ClaveExpirada_SeEliminaYSeVuelveAEjecutar() {
+        SolicitudIdempotente expirada = existente(EstadoSolicitud.COMPLETADA, OPERACION, LocalDateTime.now().minusMinutes(1));
+        when(solicitudRepository.saveAndFlush(any(SolicitudIdempotente.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotencia_usuario_clave"))
+                .thenAnswer(i -> {
+                    SolicitudIdempotente nueva = i.getArgument(0);
+                    nueva.setId(8L);
+                    return nueva;
+                });
+        when(solicitudRepository.findByIdUsuarioAndClave(USUARIO, CLAVE)).thenReturn(Optional.of(expirada));
+        when(solicitudRepository.eliminarSiExpirada(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+
+        ResponseEntity<EmisionMasivaResponse> response =
+                idempotenciaService.ejecutar(CLAVE, USUARIO, OPERACION, EmisionMasivaResponse.class, accion());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, ejecuciones.get());
+        verify(solicitudRepository).eliminarSiExpirada(eq(7L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void limpiarExpiradas_EliminaPorFecha() {
+        when(solicitudRepository.eliminarExpiradas(any(LocalDateTime.class))).thenReturn(4);
+
+        idempotenciaService.limpiarExpiradas();
+
+        verify(solicitudRepository).eliminarExpiradas(any(LocalDateTime.class));
+    }
+}
@@ -5,20 +5,31 @@ import com.microservice.ticketing.client.NotificacionClient;
 import com.microservice.ticketing.dto.EnvioEntradasRequest;
 import com.microservice.ticketing.dto.EventoOwnerDTO;
 import com.microservice.ticketing.dto.InvitadoRequest;
+import com.microservice.ticketing.dto.ResultadoEnvioRequest;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.event.EntradasEmitidasEvent;
 import com.microservice.ticketing.model.EntradaEmitida;
+import com.microservice.ticketing.model.EntradaEmitida.EstadoUso;
 import com.microservice.ticketing.model.Invitado;
 import com.microservice.ticketing.model.TipoEntrada;
 import com.microservice.ticketing.repository.EntradaEmitidaRepository;
 import com.microservice.ticketing.repository.InvitadoRepository;
 import com.microservice.ticketing.repository.TipoEntradaRepository;
+import com.microservice.ticketing.security.CodigoEntradaFirmado;
+import com.microservice.ticketing.security.GeneradorCodigosEntrada;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +37,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -47,6 +59,13 @@ public class InvitadoServiceTest {
     private NotificacionClient notificacionClient;
     @Mock
     private EventoClient eventoClient;
+    @Mock
+    private CodigoEntradaFirmado codigoEntradaFirmado;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    // Generador real: los códigos de las pruebas tienen el formato de producción
+    @Spy
+    private GeneradorCodigosEntrada generadorCodigosEntrada = new GeneradorCodigosEntrada();
 
     // Usamos @InjectMocks para inyectar los mocks en el servicio real
     @InjectMocks
@@ -262,6 +281,8 @@ public class InvitadoServiceTest {
         verify(tipoEntradaRepository, times(1)).save(tipoEntrada); // Se debe restaurar el stock
         verify(entradaEmitidaRepository, times(1)).deleteAll(any());
         verify(invitadoRepository, times(1)).delete(invitadoEnviado);
+        // La entrada eliminada se difunde como anulada a los escáneres
+        verify(eventPublisher, times(1)).publishEvent(any(EntradaCambioEvent.class));
     }
 
     @Test
@@ -286,7 +307,6 @@ public class InvitadoServiceTest {
         // Mocks para la emisión exitosa
         doNothing().when(notificacionClient).enviarEntradas(any(EnvioEntradasRequest.class));
         when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(entradaEmitidaRepository.findAllByIdInvitado(any())).thenReturn(Collections.emptyList());
         when(tipoEntradaRepository.save(any(TipoEntrada.class))).thenAnswer(invocation -> {
             TipoEntrada savedTipoEntrada = invocation.getArgument(0);
             tipoEntrada.setCantidadEmitida(savedTipoEntrada.getCantidadEmitida());
@@ -300,9 +320,53 @@ public class InvitadoServiceTest {
         assertEquals(12, tipoEntrada.getCantidadEmitida()); // Stock actualizado: 10 + 2 = 12
         verify(tipoEntradaRepository, times(1)).save(tipoEntrada);
         verify(entradaEmitidaRepository, times(1)).saveAll(any()); // 2 entradas creadas
+        // Un solo evento por emisión, sin cambios por entrada en el feed de los escáneres
+        verify(eventPublisher, times(1)).publishEvent(new EntradasEmitidasEvent(EVENTO_ID, TIPO_ENTRADA_ID, 2));
+        verify(eventPublisher, never()).publishEvent(any(EntradaCambioEvent.class));
         verify(notificacionClient, times(1)).enviarEntradas(any(EnvioEntradasRequest.class));
     }
 
+    @Test
+    void testEmitirEntradasPorId_CodigoAleatorio_GeneraLosCodigosEnUnLote() {
+        when(invitadoRepository.findById(INVITADO_ID)).thenReturn(Optional.of(invitadoPendiente));
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(tipoEntradaRepository.save(any(TipoEntrada.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(codigoEntradaFirmado.habilitado()).thenReturn(false);
+
+        invitadoService.emitirEntradasPorId(INVITADO_ID, OWNER_ID);
+
+        verify(generadorCodigosEntrada, times(1)).generar(2);
+        ArgumentCaptor<EnvioEntradasRequest> envio = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        verify(notificacionClient).enviarEntradas(envio.capture());
+        List<String> codigos = envio.getValue().getTickets().stream().map(EnvioEntradasRequest.TicketData::getCodigoQR).toList();
+        assertEquals(2, codigos.stream().distinct().count());
+        codigos.forEach(codigo -> assertEquals(GeneradorCodigosEntrada.LARGO_CODIGO, codigo.length()));
+    }
+
+    @Test
+    void testEmitirEntradasPorId_CodigoFirmado_UsaIdAsignadoYEventoDelTipo() {
+        when(invitadoRepository.findById(INVITADO_ID)).thenReturn(Optional.of(invitadoPendiente));
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(tipoEntradaRepository.save(any(TipoEntrada.class))).thenAnswer(i -> i.getArguments()[0]);
+        // Simula la asignación de IDs del INSERT
+        AtomicLong secuencia = new AtomicLong(1000L);
+        when(entradaEmitidaRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<EntradaEmitida> entradas = invocation.getArgument(0);
+            entradas.forEach(e -> e.setIdEntrada(secuencia.incrementAndGet()));
+            return entradas;
+        });
+        when(codigoEntradaFirmado.habilitado()).thenReturn(true);
+        when(codigoEntradaFirmado.firmar(any(), eq(TIPO_ENTRADA_ID), eq(EVENTO_ID), any()))
+                .thenAnswer(i -> "Q-FIRMADO-" + i.getArgument(0));
+
+        invitadoService.emitirEntradasPorId(INVITADO_ID, OWNER_ID);
+
+        ArgumentCaptor<EnvioEntradasRequest> envio = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        verify(notificacionClient).enviarEntradas(envio.capture());
+        assertEquals(List.of("Q-FIRMADO-1001", "Q-FIRMADO-1002"),
+                envio.getValue().getTickets().stream().map(EnvioEntradasRequest.TicketData::getCodigoQR).toList());
+    }
+
     @Test
     void testEmitirEntradasPorId_Fallo_YaEmitido() {
         when(invitadoRepository.findById(INVITADO_ID + 1)).thenReturn(Optional.of(invitadoEnviado));
@@ -340,7 +404,6 @@ public class InvitadoServiceTest {
         // Mock de fallo
         doThrow(new RuntimeException("Error de conexión")).when(notificacionClient).enviarEntradas(any(EnvioEntradasRequest.class));
         when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(entradaEmitidaRepository.findAllByIdInvitado(any())).thenReturn(Collections.emptyList());
         when(tipoEntradaRepository.save(any(TipoEntrada.class))).thenAnswer(invocation -> {
             TipoEntrada savedTipoEntrada = invocation.getArgument(0);
             tipoEntrada.setCantidadEmitida(savedTipoEntrada.getCantidadEmitida());
@@ -379,7 +442,6 @@ public class InvitadoServiceTest {
         // Simular guardado de Invitado y TipoEntrada. Usamos Spy/InjectMocks,
         // pero necesitamos simular el save de TipoEntrada para rastrear el stock.
         when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArgument(0));
-        when(entradaEmitidaRepository.findAllByIdInvitado(any())).thenReturn(Collections.emptyList());
         
         when(tipoEntradaRepository.save(any(TipoEntrada.class))).thenAnswer(invocation -> {
             TipoEntrada savedTipoEntrada = invocation.getArgument(0);
@@ -400,7 +462,8 @@ public class InvitadoServiceTest {
         // 2. Verificación de llamadas:
         // Se llama 1 vez a tipoEntradaRepository.save() para la actualización en bloque del stock
         verify(tipoEntradaRepository, times(1)).save(tipoEntrada); 
-        // Se llama 2 veces a generarYNotificar (lo que implica 2 llamadas a notificacionClient.enviarEntradas)
+        // Un correo por invitado; el de ERROR_ENVIO no tenía entradas guardadas, así que se generan en el mismo lote
+        verify(generadorCodigosEntrada, times(1)).generar(5);
         verify(notificacionClient, times(2)).enviarEntradas(any(EnvioEntradasRequest.class));
     }
 
@@ -423,4 +486,280 @@ public class InvitadoServiceTest {
         verify(tipoEntradaRepository, never()).save(any());
         verify(notificacionClient, never()).enviarEntradas(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEmitirEntradasMasivas_ErrorEnvioConEntradas_ReutilizaSinRegenerar() {
+        Invitado conError = Invitado.builder().idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(2).estadoEnvio(Invitado.EstadoEnvio.ERROR_ENVIO).build();
+        List<EntradaEmitida> existentes = List.of(
+                EntradaEmitida.builder().idEntrada(1L).idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).codigoQR("QR-1").estadoUso(EstadoUso.NO_UTILIZADA).build(),
+                EntradaEmitida.builder().idEntrada(2L).idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).codigoQR("QR-2").estadoUso(EstadoUso.NO_UTILIZADA).build());
+
+        when(invitadoRepository.findAllByIdTipoEntradaAndEstadoEnvioIn(eq(TIPO_ENTRADA_ID), any())).thenReturn(List.of(conError));
+        when(entradaEmitidaRepository.findAllByIdInvitadoIn(List.of(501L))).thenReturn(existentes);
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArgument(0));
+
+        List<Invitado> results = invitadoService.emitirEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID);
+
+        assertEquals(Invitado.EstadoEnvio.ENVIADO, results.get(0).getEstadoEnvio());
+        ArgumentCaptor<EnvioEntradasRequest> envio = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        verify(notificacionClient).enviarEntradas(envio.capture());
+        assertEquals(List.of("QR-1", "QR-2"),
+                envio.getValue().getTickets().stream().map(EnvioEntradasRequest.TicketData::getCodigoQR).toList());
+        // Ni stock, ni códigos nuevos, ni DELETE/INSERT de entradas
+        verify(tipoEntradaRepository, never()).save(any());
+        verify(generadorCodigosEntrada, never()).generar(anyInt());
+        verify(entradaEmitidaRepository, never()).saveAll(any());
+        verify(entradaEmitidaRepository, never()).deleteAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testEmitirEntradasPorId_ErrorEnvioConEntradasIncompletas_GeneraSoloLasFaltantes() {
+        Invitado conError = Invitado.builder().idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(3).estadoEnvio(Invitado.EstadoEnvio.ERROR_ENVIO).build();
+        EntradaEmitida usada = EntradaEmitida.builder().idEntrada(1L).idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).codigoQR("QR-1").estadoUso(EstadoUso.UTILIZADA).build();
+
+        when(invitadoRepository.findById(501L)).thenReturn(Optional.of(conError));
+        when(entradaEmitidaRepository.findAllByIdInvitadoIn(List.of(501L))).thenReturn(List.of(usada));
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArgument(0));
+
+        invitadoService.emitirEntradasPorId(501L, OWNER_ID);
+
+        // La entrada ya usada en puerta se conserva y se envía junto a las 2 nuevas
+        verify(entradaEmitidaRepository, never()).deleteAll(any());
+        verify(generadorCodigosEntrada, times(1)).generar(2);
+        verify(tipoEntradaRepository, never()).save(any()); // El stock ya se descontó en el primer intento
+        ArgumentCaptor<EnvioEntradasRequest> envio = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        verify(notificacionClient).enviarEntradas(envio.capture());
+        assertEquals(3, envio.getValue().getTickets().size());
+        assertEquals("QR-1", envio.getValue().getTickets().get(0).getCodigoQR());
+        verify(eventPublisher, never()).publishEvent(any(EntradaCambioEvent.class));
+        verify(eventPublisher, times(1)).publishEvent(new EntradasEmitidasEvent(EVENTO_ID, TIPO_ENTRADA_ID, 2));
+    }
+
+    @Test
+    void testEmitirEntradasPorId_ErrorEnvioConEntradasSobrantes_AnulaSoloNoUtilizadas() {
+        Invitado conError = Invitado.builder().idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(1).estadoEnvio(Invitado.EstadoEnvio.ERROR_ENVIO).build();
+        EntradaEmitida usada = EntradaEmitida.builder().idEntrada(1L).idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).codigoQR("QR-1").estadoUso(EstadoUso.UTILIZADA).build();
+        EntradaEmitida libre = EntradaEmitida.builder().idEntrada(2L).idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).codigoQR("QR-2").estadoUso(EstadoUso.NO_UTILIZADA).build();
+
+        when(invitadoRepository.findById(501L)).thenReturn(Optional.of(conError));
+        when(entradaEmitidaRepository.findAllByIdInvitadoIn(List.of(501L))).thenReturn(List.of(usada, libre));
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArgument(0));
+
+        invitadoService.emitirEntradasPorId(501L, OWNER_ID);
+
+        verify(entradaEmitidaRepository).deleteAll(List.of(libre));
+        verify(eventPublisher, times(1)).publishEvent(any(EntradaCambioEvent.class));
+        verify(generadorCodigosEntrada, never()).generar(anyInt());
+        ArgumentCaptor<EnvioEntradasRequest> envio = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        verify(notificacionClient).enviarEntradas(envio.capture());
+        assertEquals(List.of("QR-1"),
+                envio.getValue().getTickets().stream().map(EnvioEntradasRequest.TicketData::getCodigoQR).toList());
+    }
+
+    // ----------------------------------------------------------------------------------
+    // Tests de Reenvío (POST /api/invitados/reenviar/...)
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testReenviarEntradas_Exito_MismasEntradasSinTocarStock() {
+        EntradaEmitida entrada = EntradaEmitida.builder().idEntrada(7L).idInvitado(invitadoEnviado.getIdInvitado())
+                .idTipoEntrada(TIPO_ENTRADA_ID).codigoQR("QR-7").estadoUso(EstadoUso.UTILIZADA).build();
+        invitadoEnviado.setCantidad(1);
+        when(invitadoRepository.findById(invitadoEnviado.getIdInvitado())).thenReturn(Optional.of(invitadoEnviado));
+        when(entradaEmitidaRepository.findAllByIdInvitadoIn(List.of(invitadoEnviado.getIdInvitado()))).thenReturn(List.of(entrada));
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArgument(0));
+
+        Invitado result = invitadoService.reenviarEntradas(invitadoEnviado.getIdInvitado(), OWNER_ID);
+
+        assertEquals(Invitado.EstadoEnvio.ENVIADO, result.getEstadoEnvio());
+        ArgumentCaptor<EnvioEntradasRequest> envio = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        verify(notificacionClient).enviarEntradas(envio.capture());
+        assertEquals("QR-7", envio.getValue().getTickets().get(0).getCodigoQR());
+        assertEquals("UTILIZADA", envio.getValue().getTickets().get(0).getEstadoUso());
+        verify(tipoEntradaRepository, never()).save(any());
+        verify(entradaEmitidaRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testReenviarEntradas_Fallo_SinEntradasEmitidas() {
+        when(invitadoRepository.findById(INVITADO_ID)).thenReturn(Optional.of(invitadoPendiente));
+
+        assertThrows(RuntimeException.class, () -> invitadoService.reenviarEntradas(INVITADO_ID, OWNER_ID));
+        verifyNoInteractions(notificacionClient);
+    }
+
+    @Test
+    void testReenviarEntradas_Fallo_EnvioEnCurso() {
+        invitadoEnviado.setEstadoEnvio(Invitado.EstadoEnvio.ENVIANDO);
+        when(invitadoRepository.findById(invitadoEnviado.getIdInvitado())).thenReturn(Optional.of(invitadoEnviado));
+
+        assertThrows(RuntimeException.class, () -> invitadoService.reenviarEntradas(invitadoEnviado.getIdInvitado(), OWNER_ID));
+        verifyNoInteractions(notificacionClient);
+    }
+
+    @Test
+    void testReenviarEntradas_Fallo_NoOwner() {
+        when(invitadoRepository.findById(INVITADO_ID + 1)).thenReturn(Optional.of(invitadoEnviado));
+        doThrow(new SecurityException("Solo el Owner puede emitir tickets."))
+                .when(tipoEntradaService).validarPropiedadEvento(TIPO_ENTRADA_ID, STAFF_ID);
+
+        assertThrows(SecurityException.class, () -> invitadoService.reenviarEntradas(INVITADO_ID + 1, STAFF_ID));
+        verifyNoInteractions(notificacionClient);
+    }
+
+    @Test
+    void testReenviarEntradasMasivas_SoloErrorEnvio_UnaLecturaEnBloque() {
+        Invitado e1 = Invitado.builder().idInvitado(600L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(1).estadoEnvio(Invitado.EstadoEnvio.ERROR_ENVIO).build();
+        Invitado e2 = Invitado.builder().idInvitado(601L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(1).estadoEnvio(Invitado.EstadoEnvio.ERROR_ENVIO).build();
+        when(invitadoRepository.findAllByIdTipoEntradaAndEstadoEnvioIn(TIPO_ENTRADA_ID, List.of(Invitado.EstadoEnvio.ERROR_ENVIO)))
+                .thenReturn(List.of(e1, e2));
+        when(entradaEmitidaRepository.findAllByIdInvitadoIn(List.of(600L, 601L))).thenReturn(List.of(
+                EntradaEmitida.builder().idInvitado(600L).codigoQR("QR-600").estadoUso(EstadoUso.NO_UTILIZADA).build(),
+                EntradaEmitida.builder().idInvitado(601L).codigoQR("QR-601").estadoUso(EstadoUso.NO_UTILIZADA).build()));
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(i -> i.getArgument(0));
+        doThrow(new RuntimeException("SMTP caído")).doNothing()
+                .when(notificacionClient).enviarEntradas(any(EnvioEntradasRequest.class));
+
+        List<Invitado> results = invitadoService.reenviarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID);
+
+        assertEquals(Invitado.EstadoEnvio.ERROR_ENVIO, results.get(0).getEstadoEnvio());
+        assertEquals(Invitado.EstadoEnvio.ENVIADO, results.get(1).getEstadoEnvio());
+        verify(entradaEmitidaRepository, times(1)).findAllByIdInvitadoIn(any());
+        verify(entradaEmitidaRepository, never()).findAllByIdInvitado(any());
+        verify(generadorCodigosEntrada, never()).generar(anyInt());
+        verify(tipoEntradaRepository, never()).save(any());
+    }
+
+    @Test
+    void testReenviarEntradasMasivas_SinErrores_NoConsultaEvento() {
+        when(invitadoRepository.findAllByIdTipoEntradaAndEstadoEnvioIn(eq(TIPO_ENTRADA_ID), any())).thenReturn(Collections.emptyList());
+
+        assertTrue(invitadoService.reenviarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID).isEmpty());
+        verify(eventoClient, never()).getEventoOwnerById(any());
+        verifyNoInteractions(notificacionClient);
+    }
+
+    // ----------------------------------------------------------------------------------
+    // Tests de Emisión por Etapas (generar sin enviar + despacho programado)
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testGenerarEntradasMasivas_GeneraSoloPendientesYNoEnviaCorreos() {
+        Invitado p1 = Invitado.builder().idInvitado(500L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(2).estadoEnvio(Invitado.EstadoEnvio.PENDIENTE).build();
+        Invitado p2 = Invitado.builder().idInvitado(501L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(3).estadoEnvio(Invitado.EstadoEnvio.ERROR_ENVIO).build();
+        LocalDateTime envio = LocalDateTime.of(2030, 5, 1, 9, 0);
+
+        when(invitadoRepository.findAllByIdTipoEntradaAndEstadoEnvioIn(eq(TIPO_ENTRADA_ID), any()))
+                .thenReturn(List.of(p1, p2));
+        when(invitadoRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+        when(tipoEntradaRepository.save(any(TipoEntrada.class))).thenAnswer(i -> i.getArgument(0));
+
+        List<Invitado> results = invitadoService.generarEntradasMasivas(TIPO_ENTRADA_ID, OWNER_ID, envio);
+
+        assertEquals(2, results.size());
+        assertEquals(12, tipoEntrada.getCantidadEmitida()); // Solo el PENDIENTE descuenta stock
+        // Un lote de códigos para el PENDIENTE; el de ERROR_ENVIO conserva sus entradas
+        verify(generadorCodigosEntrada, times(1)).generar(2);
+        verify(entradaEmitidaRepository, times(1)).saveAll(any());
+        results.forEach(i -> {
+            assertEquals(Invitado.EstadoEnvio.EMITIDO, i.getEstadoEnvio());
+            assertEquals(envio, i.getFechaEnvioProgramada());
+        });
+        verifyNoInteractions(notificacionClient);
+        verify(eventoClient, never()).getEventoOwnerById(any());
+    }
+
+    @Test
+    void testDespacharProgramados_EnviaConLasEntradasGeneradas() {
+        Invitado emitido = Invitado.builder().idInvitado(500L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(1)
+                .correo("juan@test.com").estadoEnvio(Invitado.EstadoEnvio.EMITIDO).build();
+        EntradaEmitida entrada = EntradaEmitida.builder().idInvitado(500L).codigoQR("ABC123")
+                .estadoUso(EntradaEmitida.EstadoUso.NO_UTILIZADA).build();
+
+        when(invitadoRepository.findByEstadoEnvioAndFechaEnvioProgramadaLessThanEqual(eq(Invitado.EstadoEnvio.EMITIDO), any(), any()))
+                .thenReturn(List.of(emitido));
+        when(invitadoRepository.reclamarEnvio(eq(500L), eq(Invitado.EstadoEnvio.EMITIDO), eq(Invitado.EstadoEnvio.ENVIANDO), any()))
+                .thenReturn(1);
+        when(entradaEmitidaRepository.findAllByIdInvitado(500L)).thenReturn(List.of(entrada));
+
+        int intentados = invitadoService.despacharProgramados(10);
+
+        assertEquals(1, intentados);
+        ArgumentCaptor<EnvioEntradasRequest> envio = ArgumentCaptor.forClass(EnvioEntradasRequest.class);
+        // ENVIADO solo después de que comunicaciones aceptó el envío
+        InOrder orden = inOrder(notificacionClient, invitadoRepository);
+        orden.verify(notificacionClient).enviarEntradas(envio.capture());
+        orden.verify(invitadoRepository).actualizarEstadoEnvio(500L, Invitado.EstadoEnvio.ENVIANDO, Invitado.EstadoEnvio.ENVIADO);
+        assertEquals("Conferencia Tech", envio.getValue().getNombreEvento());
+        assertEquals("ABC123", envio.getValue().getTickets().get(0).getCodigoQR());
+        verify(generadorCodigosEntrada, never()).generar(anyInt());
+    }
+
+    @Test
+    void testDespacharProgramados_TomadoPorOtraInstancia_NoEnvia() {
+        Invitado emitido = Invitado.builder().idInvitado(500L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(1)
+                .estadoEnvio(Invitado.EstadoEnvio.EMITIDO).build();
+        when(invitadoRepository.findByEstadoEnvioAndFechaEnvioProgramadaLessThanEqual(eq(Invitado.EstadoEnvio.EMITIDO), any(), any()))
+                .thenReturn(List.of(emitido));
+        when(invitadoRepository.reclamarEnvio(eq(500L), eq(Invitado.EstadoEnvio.EMITIDO), eq(Invitado.EstadoEnvio.ENVIANDO), any()))
+                .thenReturn(0);
+
+        assertEquals(0, invitadoService.despacharProgramados(10));
+        verifyNoInteractions(notificacionClient);
+        verify(invitadoRepository, never()).actualizarEstadoEnvio(any(), any(), any());
+    }
+
+    @Test
+    void testDespacharProgramados_FalloComunicaciones_MarcaErrorEnvio() {
+        Invitado emitido = Invitado.builder().idInvitado(500L).idTipoEntrada(TIPO_ENTRADA_ID).cantidad(1)
+                .estadoEnvio(Invitado.EstadoEnvio.EMITIDO).build();
+        when(invitadoRepository.findByEstadoEnvioAndFechaEnvioProgramadaLessThanEqual(eq(Invitado.EstadoEnvio.EMITIDO), any(), any()))
+                .thenReturn(List.of(emitido));
+        when(invitadoRepository.reclamarEnvio(eq(500L), eq(Invitado.EstadoEnvio.EMITIDO), eq(Invitado.EstadoEnvio.ENVIANDO), any()))
+                .thenReturn(1);
+        when(entradaEmitidaRepository.findAllByIdInvitado(500L)).thenReturn(Collections.emptyList());
+        doThrow(new RuntimeException("SMTP caído")).when(notificacionClient).enviarEntradas(any());
+
+        assertEquals(1, invitadoService.despacharProgramados(10));
+        verify(invitadoRepository).actualizarEstadoEnvio(500L, Invitado.EstadoEnvio.ENVIANDO, Invitado.EstadoEnvio.ERROR_ENVIO);
+        verify(invitadoRepository, never()).actualizarEstadoEnvio(500L, Invitado.EstadoEnvio.ENVIANDO, Invitado.EstadoEnvio.ENVIADO);
+    }
+
+    @Test
+    void testCerrarEnviosInterrumpidos_PasanAErrorEnvio() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(10);
+        when(invitadoRepository.actualizarEstadoEnvioAnteriorA(Invitado.EstadoEnvio.ENVIANDO, Invitado.EstadoEnvio.ERROR_ENVIO, limite))
+                .thenReturn(2);
+
+        assertEquals(2, invitadoService.cerrarEnviosInterrumpidos(limite));
+    }
+
+    // ----------------------------------------------------------------------------------
+    // Tests de Resultados de Reintentos (reportados por comunicaciones)
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testRegistrarResultadosEnvio_EntregadosPasanAEnviadoEnBloque() {
+        when(invitadoRepository.actualizarEstadoEnvioEnBloque(List.of(500L, 502L),
+                Invitado.EstadoEnvio.ERROR_ENVIO, Invitado.EstadoEnvio.ENVIADO)).thenReturn(2);
+
+        int actualizados = invitadoService.registrarResultadosEnvio(List.of(
+                new ResultadoEnvioRequest(500L, true, 2),
+                new ResultadoEnvioRequest(501L, false, 8),
+                new ResultadoEnvioRequest(502L, true, 3),
+                new ResultadoEnvioRequest(500L, true, 2))); // Reporte repetido
+
+        assertEquals(2, actualizados);
+        verify(invitadoRepository, times(1)).actualizarEstadoEnvioEnBloque(any(), any(), any());
+        verifyNoInteractions(notificacionClient);
+    }
+
+    @Test
+    void testRegistrarResultadosEnvio_SoloAgotados_NoActualiza() {
+        int actualizados = invitadoService.registrarResultadosEnvio(List.of(new ResultadoEnvioRequest(501L, false, 8)));
+
+        assertEquals(0, actualizados);
+        verify(invitadoRepository, never()).actualizarEstadoEnvioEnBloque(any(), any(), any());
+    }
+}
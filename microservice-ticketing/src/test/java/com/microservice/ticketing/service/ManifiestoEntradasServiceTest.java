@@ -0,0 +1,115 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.model.EntradaEmitida.EstadoUso;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ManifiestoEntradasServiceTest {
+
+    private static final Long EVENTO_ID = 101L;
+    private static final Long STAFF_ID = 20L;
+
+    @Mock
+    private EntradaEmitidaRepository entradaEmitidaRepository;
+    @Mock
+    private EntradaService entradaService;
+
+    @InjectMocks
+    private ManifiestoEntradasService manifiestoEntradasService;
+
+    private record Fila(Long getHashCodigo, EstadoUso getEstadoUso, String getNombreInvitado)
+            implements EntradaEmitidaRepository.ManifiestoFila {
+    }
+
+    @Test
+    void testEscribirManifiesto_Completo_FormatoYRegistrosEnOrden() throws IOException {
+        // Arrange
+        when(entradaEmitidaRepository.countByIdEvento(EVENTO_ID)).thenReturn(2L);
+        when(entradaEmitidaRepository.streamManifiestoByIdEvento(eq(EVENTO_ID), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(
+                        new Fila(-5L, EstadoUso.UTILIZADA, "Juan Pérez"),
+                        new Fila(42L, EstadoUso.NO_UTILIZADA, null)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        manifiestoEntradasService.escribirManifiesto(EVENTO_ID, null, 1_700_000_000_000L, salida);
+
+        // Assert
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(salida.toByteArray()));
+        assertEquals(ManifiestoEntradasService.MAGIC, in.readInt());
+        assertEquals(ManifiestoEntradasService.TIPO_COMPLETO, in.readByte());
+        assertEquals(EVENTO_ID, in.readLong());
+        assertEquals(1_700_000_000_000L, in.readLong());
+        assertEquals(2, in.readInt());
+
+        assertEquals(EstadoUso.UTILIZADA.ordinal(), in.readByte());
+        assertEquals(-5L, in.readLong());
+        byte[] nombre = new byte[in.readShort()];
+        in.readFully(nombre);
+        assertEquals("Juan Pérez", new String(nombre, StandardCharsets.UTF_8));
+
+        assertEquals(EstadoUso.NO_UTILIZADA.ordinal(), in.readByte());
+        assertEquals(42L, in.readLong());
+        assertEquals(0, in.readShort());
+
+        assertEquals(ManifiestoEntradasService.FIN, in.readByte());
+        assertEquals(2, in.readInt());
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    void testEscribirManifiesto_Delta_ConsultaDesdeElCursor() throws IOException {
+        // Arrange
+        long cursor = 1_700_000_000_000L;
+        when(entradaEmitidaRepository.countByIdEvento(EVENTO_ID)).thenReturn(500L);
+        when(entradaEmitidaRepository.streamManifiestoByIdEvento(eq(EVENTO_ID), any(LocalDateTime.class)))
+                .thenReturn(Stream.empty());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        manifiestoEntradasService.escribirManifiesto(EVENTO_ID, cursor, cursor + 60_000, salida);
+
+        // Assert
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(salida.toByteArray()));
+        in.readInt();
+        assertEquals(ManifiestoEntradasService.TIPO_DELTA, in.readByte());
+        in.readLong();
+        in.readLong();
+        assertEquals(500, in.readInt());
+        assertEquals(ManifiestoEntradasService.FIN, in.readByte());
+        assertEquals(0, in.readInt());
+
+        verify(entradaEmitidaRepository).streamManifiestoByIdEvento(eq(EVENTO_ID),
+                argThat(desde -> desde.getYear() > 2020));
+    }
+
+    @Test
+    void testPrepararManifiesto_SinPermiso_NoGeneraVersion() {
+        // Arrange
+        doThrow(new RuntimeException("Acceso Denegado. El Staff no tiene permisos para escanear en este evento."))
+                .when(entradaService).verificarPermisoEscaneo(STAFF_ID, EVENTO_ID, null);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () ->
+                manifiestoEntradasService.prepararManifiesto(STAFF_ID, EVENTO_ID, null));
+        verifyNoInteractions(entradaEmitidaRepository);
+    }
+}
@@ -0,0 +1,129 @@
+package com.microservice.ticketing.service;
+
+import com.microservice.ticketing.dto.HuellaEntradasEvento;
+import com.microservice.ticketing.event.EntradaCambioEvent;
+import com.microservice.ticketing.model.EntradaEmitida.EstadoUso;
+import com.microservice.ticketing.repository.EntradaEmitidaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RegistroUsoEntradasTest {
+
+    private static final Long EVENTO_ID = 10L;
+    private static final HuellaEntradasEvento HUELLA = new HuellaEntradasEvento(1000L, 2999L, 2000L);
+
+    @Mock
+    private EntradaEmitidaRepository entradaEmitidaRepository;
+
+    @TempDir
+    Path directorio;
+
+    private RegistroUsoEntradas registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RegistroUsoEntradas(entradaEmitidaRepository, directorio.toString(), Duration.ofHours(2));
+    }
+
+    @Test
+    void cargaDesdeBD_yDetectaReingresoEnMemoria() {
+        when(entradaEmitidaRepository.findHuellaByIdEvento(EVENTO_ID)).thenReturn(HUELLA);
+        when(entradaEmitidaRepository.findIdsByIdEventoAndEstadoUsoDesde(eq(EVENTO_ID), eq(EstadoUso.UTILIZADA), any()))
+                .thenReturn(List.of(1000L, 1500L));
+
+        assertTrue(registro.estaUsada(EVENTO_ID, 1500L));
+        assertFalse(registro.estaUsada(EVENTO_ID, 1501L));
+
+        registro.onEntradaCambio(new EntradaCambioEvent(EVENTO_ID, 1L, 1501L, null, EstadoUso.UTILIZADA));
+        assertTrue(registro.estaUsada(EVENTO_ID, 1501L));
+
+        // La carga desde BD ocurre una sola vez por evento
+        verify(entradaEmitidaRepository, times(1)).findHuellaByIdEvento(EVENTO_ID);
+    }
+
+    @Test
+    void entradaConIdMenorALaBase_desplazaElMapa() {
+        when(entradaEmitidaRepository.findHuellaByIdEvento(EVENTO_ID)).thenReturn(HUELLA);
+        when(entradaEmitidaRepository.findIdsByIdEventoAndEstadoUsoDesde(eq(EVENTO_ID), eq(EstadoUso.UTILIZADA), any()))
+                .thenReturn(List.of(1002L));
+
+        registro.marcarUsada(EVENTO_ID, 990L);
+
+        assertTrue(registro.estaUsada(EVENTO_ID, 990L));
+        assertTrue(registro.estaUsada(EVENTO_ID, 1002L));
+        assertFalse(registro.estaUsada(EVENTO_ID, 1000L));
+    }
+
+    @Test
+    void snapshot_seRecargaTrasReinicio_ySoloPideElDeltaALaBD() {
+        when(entradaEmitidaRepository.findHuellaByIdEvento(EVENTO_ID)).thenReturn(HUELLA);
+        when(entradaEmitidaRepository.findIdsByIdEventoAndEstadoUsoDesde(eq(EVENTO_ID), eq(EstadoUso.UTILIZADA), any()))
+                .thenReturn(List.of(1000L, 1700L))
+                .thenReturn(List.of(1800L));
+
+        registro.marcarUsada(EVENTO_ID, 1750L);
+        registro.guardarSnapshots();
+        assertTrue(Files.exists(directorio.resolve("evento-10.bits")));
+
+        // "Reinicio": nueva instancia sobre el mismo directorio
+        RegistroUsoEntradas reiniciado = new RegistroUsoEntradas(entradaEmitidaRepository, directorio.toString(), Duration.ofHours(2));
+
+        assertTrue(reiniciado.estaUsada(EVENTO_ID, 1000L));
+        assertTrue(reiniciado.estaUsada(EVENTO_ID, 1750L));
+        assertTrue(reiniciado.estaUsada(EVENTO_ID, 1800L));
+        assertFalse(reiniciado.estaUsada(EVENTO_ID, 1001L));
+        // Solo el delta desde el snapshot se pidió a la BD, no el historial completo
+        verify(entradaEmitidaRepository, times(1)).findIdsByIdEventoAndEstadoUsoDesde(eq(EVENTO_ID), eq(EstadoUso.UTILIZADA),
+                argThat(desde -> desde.getYear() > 2000));
+    }
+
+    @Test
+    void snapshot_conOtraHuellaEnBD_seDescartaYSeReconstruye() {
+        when(entradaEmitidaRepository.findHuellaByIdEvento(EVENTO_ID))
+                .thenReturn(HUELLA)
+                .thenReturn(HUELLA)
+                // BD recreada: mismos IDs, pero otra cantidad de entradas
+                .thenReturn(new HuellaEntradasEvento(1000L, 2999L, 1500L));
+        when(entradaEmitidaRepository.findIdsByIdEventoAndEstadoUsoDesde(eq(EVENTO_ID), eq(EstadoUso.UTILIZADA), any()))
+                .thenReturn(List.of(1700L))
+                .thenReturn(List.of());
+
+        registro.marcarUsada(EVENTO_ID, 1750L);
+        registro.guardarSnapshots();
+
+        RegistroUsoEntradas reiniciado = new RegistroUsoEntradas(entradaEmitidaRepository, directorio.toString(), Duration.ofHours(2));
+
+        assertFalse(reiniciado.estaUsada(EVENTO_ID, 1700L));
+        assertFalse(reiniciado.estaUsada(EVENTO_ID, 1750L));
+    }
+
+    @Test
+    void eventoInactivo_seGuardaYSeQuitaDeMemoria() {
+        RegistroUsoEntradas sinRetencion = new RegistroUsoEntradas(entradaEmitidaRepository, directorio.toString(), Duration.ZERO);
+        when(entradaEmitidaRepository.findHuellaByIdEvento(EVENTO_ID)).thenReturn(HUELLA);
+        when(entradaEmitidaRepository.findIdsByIdEventoAndEstadoUsoDesde(eq(EVENTO_ID), eq(EstadoUso.UTILIZADA), any()))
+                .thenReturn(List.of());
+
+        sinRetencion.marcarUsada(EVENTO_ID, 1750L);
+        sinRetencion.guardarSnapshots();
+
+        // Se recarga desde el snapshot al volver a usarlo
+        assertTrue(sinRetencion.estaUsada(EVENTO_ID, 1750L));
+        verify(entradaEmitidaRepository, times(2)).findIdsByIdEventoAndEstadoUsoDesde(eq(EVENTO_ID), eq(EstadoUso.UTILIZADA), any());
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -38,6 +39,8 @@ public class TipoEntradaServiceTest {
     private EntradaEmitidaRepository entradaEmitidaRepository;
     @Mock
     private EventoClient eventoClient; // Feign Client
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     // Clase bajo prueba
     @InjectMocks
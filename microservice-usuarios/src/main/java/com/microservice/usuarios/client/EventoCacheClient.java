@@ -0,0 +1,12 @@
+package com.microservice.usuarios.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient(name = "microservice-eventos", path = "/internal/cache")
+public interface EventoCacheClient {
+
+    @DeleteMapping("/usuarios/{idUsuario}")
+    void invalidarUsuario(@PathVariable("idUsuario") Long idUsuario);
+}
@@ -1,7 +1,10 @@
 package com.microservice.usuarios.config;
 
 import com.microservice.usuarios.dto.ErrorResponse;
+import com.microservice.usuarios.model.Usuario;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -9,6 +12,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -38,7 +42,7 @@ public class GlobalExceptionHandler {
         
         if (ex.getMessage().contains("El correo ya está registrado") || ex.getMessage().contains("El RUT ya está registrado.")) {
             status = HttpStatus.CONFLICT;
-        } else if (ex.getMessage().contains("Credenciales inválidas")) {
+        } else if (ex.getMessage().contains("Credenciales inválidas") || ex.getMessage().contains("Refresh token")) {
              status = HttpStatus.UNAUTHORIZED;
         } else {
             status = HttpStatus.BAD_REQUEST;
@@ -69,4 +73,47 @@ public class GlobalExceptionHandler {
         
         return new ResponseEntity<>(errorResponse, status);
     }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecution(RejectedExecutionException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message("Demasiadas solicitudes de autenticación en curso. Intente nuevamente en unos segundos.")
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        // MySQL informa la restricción violada: "Duplicate entry '...' for key 'usuarios.uk_usuarios_correo'"
+        String causa = String.valueOf(ex.getMostSpecificCause().getMessage());
+        String mensaje;
+        if (causa.contains(Usuario.UK_CORREO)) {
+            mensaje = "El correo ya está registrado.";
+        } else if (causa.contains(Usuario.UK_RUT)) {
+            mensaje = "El RUT ya está registrado.";
+        } else {
+            mensaje = "Los datos entran en conflicto con un registro existente.";
+        }
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(mensaje)
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
 }
\ No newline at end of file
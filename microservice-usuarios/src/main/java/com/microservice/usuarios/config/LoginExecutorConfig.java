@@ -0,0 +1,35 @@
+package com.microservice.usuarios.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool acotado para la verificación de contraseñas. BCrypt es CPU-bound: con un hilo por núcleo
+ * y una cola limitada, un pico de logins no acapara los hilos del servidor; si la cola se llena,
+ * la tarea se rechaza y el cliente recibe 503 para reintentar.
+ */
+@Configuration
+public class LoginExecutorConfig {
+
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor(
+            @Value("${login.executor.pool-size:0}") int poolSize,
+            @Value("${login.executor.queue-capacity:200}") int queueCapacity) {
+
+        int hilos = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
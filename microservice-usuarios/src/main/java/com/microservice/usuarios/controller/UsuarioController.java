@@ -3,10 +3,14 @@ package com.microservice.usuarios.controller;
 import com.microservice.usuarios.dto.ChangePasswordRequest;
 import com.microservice.usuarios.dto.LoginRequest;
 import com.microservice.usuarios.dto.LoginResponse; // Importar el nuevo DTO
+import com.microservice.usuarios.dto.ProvisionUsuariosResponse;
+import com.microservice.usuarios.dto.RefreshTokenRequest;
 import com.microservice.usuarios.dto.UsuarioRegistroRequest;
 import com.microservice.usuarios.dto.UsuarioResponse;
 import com.microservice.usuarios.dto.UsuarioUpdateRequest;
 import com.microservice.usuarios.model.Usuario;
+import com.microservice.usuarios.service.ProvisionUsuariosService;
+import com.microservice.usuarios.service.RefreshTokenService;
 import com.microservice.usuarios.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,9 +20,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/usuarios")
 @RequiredArgsConstructor
@@ -26,6 +34,8 @@ import org.springframework.web.bind.annotation.*;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final RefreshTokenService refreshTokenService;
+    private final ProvisionUsuariosService provisionUsuariosService;
 
     // --- HELPER para manejar ID faltante ---
     private void checkUserId(Long id) {
@@ -52,6 +62,51 @@ public class UsuarioController {
         return new ResponseEntity<>(nuevoUsuario, HttpStatus.CREATED);
     }
 
+    @Operation(
+            summary = "Aprovisionar Cuentas de Staff (JSON)",
+            description = "Crea en lote hasta " + ProvisionUsuariosService.MAX_FILAS + " cuentas. Solo para administradores. Las cuentas cuyo correo o RUT ya existen se omiten " +
+                    "y las filas incompletas se reportan como errores; el resto se inserta igualmente.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote procesado. Retorna creados, omitidos y errores."),
+                    @ApiResponse(responseCode = "400", description = "Lote vacío o demasiado grande."),
+                    @ApiResponse(responseCode = "401", description = "Token o ID de usuario faltante."),
+                    @ApiResponse(responseCode = "403", description = "El usuario no es administrador."),
+                    @ApiResponse(responseCode = "503", description = "Pool de hashing saturado. Reintentar en unos segundos.")
+            }
+    )
+    @PostMapping(value = "/provision", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProvisionUsuariosResponse> aprovisionar(
+            @Parameter(description = "ID del usuario inyectado por el Gateway.", required = true)
+            @RequestHeader(value = "X-User-ID", required = false) Long id,
+            @RequestBody List<UsuarioRegistroRequest> cuentas) {
+
+        checkUserId(id);
+        return ResponseEntity.ok(provisionUsuariosService.aprovisionar(id, cuentas));
+    }
+
+    @Operation(
+            summary = "Aprovisionar Cuentas de Staff (CSV)",
+            description = "Igual que la versión JSON, con un CSV de cabecera \"rut,correo,nombres,apellidos,telefono,password\".",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote procesado. Retorna creados, omitidos y errores."),
+                    @ApiResponse(responseCode = "400", description = "CSV inválido, vacío o demasiado grande."),
+                    @ApiResponse(responseCode = "401", description = "Token o ID de usuario faltante."),
+                    @ApiResponse(responseCode = "403", description = "El usuario no es administrador."),
+                    @ApiResponse(responseCode = "503", description = "Pool de hashing saturado. Reintentar en unos segundos.")
+            }
+    )
+    @PostMapping(value = "/provision", consumes = "text/csv")
+    public ResponseEntity<ProvisionUsuariosResponse> aprovisionarCsv(
+            @Parameter(description = "ID del usuario inyectado por el Gateway.", required = true)
+            @RequestHeader(value = "X-User-ID", required = false) Long id,
+            @RequestBody String csv) {
+
+        checkUserId(id);
+        // Se valida antes de parsear para no procesar el CSV de un usuario sin permiso
+        provisionUsuariosService.validarAdministrador(id);
+        return ResponseEntity.ok(provisionUsuariosService.aprovisionar(id, provisionUsuariosService.parsearCsv(csv)));
+    }
+
     @Operation(
             summary = "Autenticación de Usuario (Login)",
             description = "Valida las credenciales del usuario y retorna un token JWT para la sesión.",
@@ -60,15 +115,34 @@ public class UsuarioController {
                     @ApiResponse(responseCode = "200", description = "Login exitoso. Retorna JWT.",
                             content = @Content(schema = @Schema(implementation = LoginResponse.class))),
                     @ApiResponse(responseCode = "401", description = "Credenciales inválidas (correo o contraseña)."),
-                    @ApiResponse(responseCode = "404", description = "Usuario no encontrado.")
+                    @ApiResponse(responseCode = "404", description = "Usuario no encontrado."),
+                    @ApiResponse(responseCode = "503", description = "Servicio de autenticación saturado. Reintentar en unos segundos.")
             }
     )
     @PostMapping("/login")
-    // Actualizado: Cambio de String a LoginResponse
-    public ResponseEntity<LoginResponse> login(
+    // La verificación de la contraseña corre en el pool de login; el hilo HTTP se libera mientras tanto
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(
             @RequestBody LoginRequest request) {
 
-        LoginResponse response = usuarioService.login(request.getCorreo(), request.getPassword());
+        return usuarioService.loginAsync(request.getCorreo(), request.getPassword())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "Renovar Sesión (Refresh Token)",
+            description = "Canjea un refresh token por un nuevo JWT y un nuevo refresh token (rotación). El token presentado queda invalidado; " +
+                    "si se reutiliza un token ya canjeado se revocan todas las sesiones derivadas del mismo login.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Sesión renovada. Retorna el nuevo par de tokens.",
+                            content = @Content(schema = @Schema(implementation = LoginResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado o reutilizado.")
+            }
+    )
+    @PostMapping("/token/refresh")
+    public ResponseEntity<LoginResponse> refresh(
+            @RequestBody RefreshTokenRequest request) {
+
+        LoginResponse response = refreshTokenService.renovar(request.getRefreshToken());
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,52 @@
+package com.microservice.usuarios.controller;
+
+import com.microservice.usuarios.repository.UsuarioRepository;
+import com.microservice.usuarios.service.UsuarioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Consultas de servicio a servicio (eventos, ticketing). No se exponen por el Gateway.
+ * Responden una proyección con id, correo, nombres, apellidos y estado: sin hash de clave ni columnas no usadas.
+ */
+@RestController
+@RequestMapping("/internal/usuarios")
+@RequiredArgsConstructor
+@Tag(name = "Interno - Usuarios", description = "Consultas livianas de usuarios para otros microservicios.")
+public class UsuarioInternoController {
+
+    private final UsuarioService usuarioService;
+
+    @Operation(
+            summary = "Resumen de Usuario por ID",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Usuario encontrado."),
+                    @ApiResponse(responseCode = "404", description = "Usuario no encontrado.")
+            }
+    )
+    @GetMapping("/{id}")
+    public ResponseEntity<UsuarioRepository.UsuarioResumen> getResumenById(
+            @Parameter(description = "ID del usuario.") @PathVariable("id") Long id) {
+
+        return ResponseEntity.ok(usuarioService.getResumenById(id));
+    }
+
+    @Operation(
+            summary = "Resumen de Usuario por Correo",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Usuario encontrado."),
+                    @ApiResponse(responseCode = "404", description = "Usuario no encontrado.")
+            }
+    )
+    @GetMapping("/correo/{correo}")
+    public ResponseEntity<UsuarioRepository.UsuarioResumen> getResumenByCorreo(
+            @Parameter(description = "Correo del usuario.") @PathVariable("correo") String correo) {
+
+        return ResponseEntity.ok(usuarioService.getResumenByCorreo(correo));
+    }
+}
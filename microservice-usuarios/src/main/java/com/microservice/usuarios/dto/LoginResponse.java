@@ -8,9 +8,13 @@ import lombok.Data;
 @AllArgsConstructor
 @Data
 @Builder
-@Schema(description = "Respuesta de autenticación que contiene el token JWT.")
+@Schema(description = "Respuesta de autenticación que contiene el token JWT y el refresh token para renovarlo.")
 public class LoginResponse {
     
     @Schema(description = "Token JWT de acceso para la sesión.", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVC...")
     private final String token;
-}
\ No newline at end of file
+
+    @Schema(description = "Refresh token opaco de un solo uso. Se canjea en /api/usuarios/token/refresh por un nuevo par de tokens.",
+            example = "kQ2n8V0yJ3...")
+    private final String refreshToken;
+}
@@ -0,0 +1,26 @@
+package com.microservice.usuarios.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado del aprovisionamiento masivo de cuentas.")
+public class ProvisionUsuariosResponse {
+
+    @Schema(description = "Cantidad de cuentas creadas.", example = "298")
+    private int creados;
+
+    @Schema(description = "Correos omitidos porque el correo o el RUT ya estaban registrados (o repetidos en el lote).")
+    private List<String> omitidos;
+
+    @Schema(description = "Filas rechazadas por datos incompletos o demasiado largos, con su número de fila y motivo.")
+    private List<String> errores;
+}
@@ -0,0 +1,12 @@
+package com.microservice.usuarios.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "DTO para renovar la sesión con un refresh token.")
+public class RefreshTokenRequest {
+
+    @Schema(description = "Refresh token recibido en el login o en la última renovación.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String refreshToken;
+}
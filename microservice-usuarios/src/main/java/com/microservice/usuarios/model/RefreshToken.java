@@ -0,0 +1,49 @@
+package com.microservice.usuarios.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_familia", columnList = "familia"),
+        @Index(name = "idx_refresh_tokens_usuario", columnList = "usuario_id"),
+        @Index(name = "idx_refresh_tokens_expira_en", columnList = "expira_en")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Refresh token opaco emitido en el login. Solo se guarda su hash SHA-256.")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    @Schema(description = "SHA-256 (hex) del token entregado al cliente.")
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(nullable = false, length = 36)
+    @Schema(description = "Cadena de rotación: todos los tokens derivados de un mismo login comparten familia.")
+    private String familia;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    @Column(nullable = false)
+    @Schema(description = "true cuando el token ya fue rotado o revocado. Presentarlo de nuevo se considera reutilización.")
+    private boolean revocado;
+}
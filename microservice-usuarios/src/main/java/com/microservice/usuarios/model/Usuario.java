@@ -1,5 +1,6 @@
 package com.microservice.usuarios.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -9,7 +10,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", uniqueConstraints = {
+        // Nombres explícitos: GlobalExceptionHandler traduce la violación a 409 según la restricción
+        @UniqueConstraint(name = Usuario.UK_CORREO, columnNames = "correo"),
+        @UniqueConstraint(name = Usuario.UK_RUT, columnNames = "rut")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,19 +22,23 @@ import java.time.LocalDateTime;
 @Schema(description = "Detalles completos de la entidad Usuario en la base de datos.")
 public class Usuario {
 
+    public static final String UK_CORREO = "uk_usuarios_correo";
+    public static final String UK_RUT = "uk_usuarios_rut";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(description = "Identificador único del usuario.", example = "1")
     private Long idUsuario;
 
-    @Column(name = "rut", nullable = false, unique = true, length = 15)
+    @Column(name = "rut", nullable = false, length = 15)
     @Schema(description = "Rol Único Tributario (identificador nacional).", example = "12345678-9", requiredMode = Schema.RequiredMode.REQUIRED)
     private String rut;
 
-    @Column(name = "correo", nullable = false, unique = true, length = 255)
+    @Column(name = "correo", nullable = false, length = 255)
     @Schema(description = "Correo electrónico del usuario, usado para login.", example = "ferguzq@gmail.com", requiredMode = Schema.RequiredMode.REQUIRED)
     private String correo;
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "clave_hash", nullable = false, length = 255)
     @Schema(description = "Hash de la clave.", accessMode = Schema.AccessMode.WRITE_ONLY, requiredMode = Schema.RequiredMode.REQUIRED)
     private String claveHash;
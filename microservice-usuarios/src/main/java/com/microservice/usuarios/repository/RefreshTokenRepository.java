@@ -0,0 +1,39 @@
+package com.microservice.usuarios.repository;
+
+import com.microservice.usuarios.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Búsqueda por índice único + usuario en el mismo SELECT (lo necesita la firma del nuevo JWT)
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.usuario WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marca el token como usado de forma condicional: si dos peticiones rotan el mismo token a la vez,
+     * solo una obtiene 1 fila actualizada.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revocado = true WHERE rt.id = :id AND rt.revocado = false")
+    int marcarUsado(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revocado = true WHERE rt.familia = :familia AND rt.revocado = false")
+    int revocarFamilia(@Param("familia") String familia);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revocado = true WHERE rt.usuario.idUsuario = :usuarioId AND rt.revocado = false")
+    int revocarPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiraEn < :limite")
+    int eliminarExpirados(@Param("limite") LocalDateTime limite);
+}
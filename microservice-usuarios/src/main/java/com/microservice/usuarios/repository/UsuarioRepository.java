@@ -2,9 +2,43 @@ package com.microservice.usuarios.repository;
 
 import com.microservice.usuarios.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByCorreo(String correo);
     Optional<Usuario> findByRut(String rut);
+
+    // Proyecciones para las llamadas entre servicios: solo se leen las columnas que usan los consumidores
+    Optional<UsuarioResumen> findResumenByIdUsuario(Long idUsuario);
+
+    Optional<UsuarioResumen> findResumenByCorreo(String correo);
+
+    // Un solo SELECT por lote de aprovisionamiento para separar de antemano las cuentas ya existentes
+    @Query("SELECT u.correo FROM Usuario u WHERE u.correo IN :correos")
+    List<String> findCorreosExistentes(@Param("correos") Collection<String> correos);
+
+    @Query("SELECT u.rut FROM Usuario u WHERE u.rut IN :ruts")
+    List<String> findRutsExistentes(@Param("ruts") Collection<String> ruts);
+
+    // Tras el batch: el hash (con sal propia) identifica las filas que insertó este lote
+    @Query("SELECT u.rut AS rut, u.claveHash AS claveHash FROM Usuario u WHERE u.rut IN :ruts")
+    List<UsuarioClave> findClavesByRutIn(@Param("ruts") Collection<String> ruts);
+
+    interface UsuarioClave {
+        String getRut();
+        String getClaveHash();
+    }
+
+    interface UsuarioResumen {
+        Long getIdUsuario();
+        String getCorreo();
+        String getNombres();
+        String getApellidos();
+        Usuario.EstadoUsuario getEstado();
+    }
 }
\ No newline at end of file
@@ -1,17 +1,26 @@
 package com.microservice.usuarios.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String ID_BCRYPT = "bcrypt";
+    private static final Pattern COSTO_BCRYPT = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
@@ -25,8 +34,27 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Codificador delegante: los hashes nuevos se guardan como "{bcrypt}..." con el costo configurado
+     * (elegido con el benchmark de microservice-benchmarks). Los hashes antiguos sin prefijo se siguen
+     * validando con BCrypt y se re-codifican en el siguiente login exitoso.
+     *
+     * También se re-codifican los hashes con un costo distinto al configurado. BCryptPasswordEncoder solo
+     * lo hace si el costo guardado es menor; aquí bajar bcrypt-strength también alcanza a los hashes existentes.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${seguridad.password.bcrypt-strength:10}") int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength) {
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                Matcher costo = encodedPassword == null ? null : COSTO_BCRYPT.matcher(encodedPassword);
+                // Un hash ilegible ya falló en matches(): no hay nada que re-codificar
+                return costo != null && costo.find() && Integer.parseInt(costo.group(1)) != bcryptStrength;
+            }
+        };
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(ID_BCRYPT, Map.of(ID_BCRYPT, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 }
@@ -0,0 +1,239 @@
+package com.microservice.usuarios.service;
+
+import com.microservice.usuarios.dto.ProvisionUsuariosResponse;
+import com.microservice.usuarios.dto.UsuarioRegistroRequest;
+import com.microservice.usuarios.model.Usuario;
+import com.microservice.usuarios.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de cuentas de Staff, reservada a los administradores de usuarios.provision.administradores.
+ * Los hashes BCrypt se calculan en el pool acotado de login y las filas se insertan con un batch JDBC; INSERT IGNORE deja que las restricciones únicas resuelvan cualquier duplicado
+ * que aparezca entre la verificación previa y la inserción.
+ *
+ * Con rewriteBatchedStatements el driver no informa qué filas insertó (SUCCESS_NO_INFO), así que el resultado
+ * se obtiene releyendo los RUT del lote: una fila es nuestra si guarda el hash que calculó este lote.
+ */
+@Service
+public class ProvisionUsuariosService {
+
+    public static final int MAX_FILAS = 1000;
+
+    // Largos de las columnas de Usuario
+    private static final int LARGO_RUT = 15;
+    private static final int LARGO_CORREO = 255;
+    private static final int LARGO_NOMBRE = 100;
+    private static final int LARGO_TELEFONO = 20;
+
+    private static final String SQL_INSERT =
+            "INSERT IGNORE INTO usuarios (rut, correo, clave_hash, nombres, apellidos, telefono, fecha_registro, estado) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CABECERA_CSV = "rut,correo,nombres,apellidos,telefono,password";
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    @Qualifier("loginExecutor")
+    private Executor loginExecutor;
+
+    @Value("${usuarios.provision.administradores:}")
+    private Set<Long> administradores;
+
+    @Value("${usuarios.provision.hilos-bcrypt:2}")
+    private int hilosBcrypt;
+
+    /**
+     * El X-User-ID solo prueba que hay una sesión válida; el alta masiva exige además ser administrador.
+     */
+    public void validarAdministrador(Long idSolicitante) {
+        if (idSolicitante == null || !administradores.contains(idSolicitante)) {
+            throw new SecurityException("Solo los administradores pueden aprovisionar cuentas.");
+        }
+    }
+
+    // Sin @Transactional a propósito: no se retiene una conexión mientras se calculan los hashes
+    public ProvisionUsuariosResponse aprovisionar(Long idSolicitante, List<UsuarioRegistroRequest> filas) {
+        validarAdministrador(idSolicitante);
+        if (filas == null || filas.isEmpty()) {
+            throw new IllegalArgumentException("Debe enviar al menos una cuenta.");
+        }
+        if (filas.size() > MAX_FILAS) {
+            throw new IllegalArgumentException("Máximo " + MAX_FILAS + " cuentas por solicitud.");
+        }
+
+        List<String> errores = new ArrayList<>();
+        List<String> omitidos = new ArrayList<>();
+        List<UsuarioRegistroRequest> validas = new ArrayList<>();
+
+        for (int i = 0; i < filas.size(); i++) {
+            String motivo = validar(filas.get(i));
+            if (motivo != null) {
+                errores.add("Fila " + (i + 1) + ": " + motivo);
+            } else {
+                validas.add(filas.get(i));
+            }
+        }
+
+        if (validas.isEmpty()) {
+            return ProvisionUsuariosResponse.builder().creados(0).omitidos(omitidos).errores(errores).build();
+        }
+
+        // Un SELECT por columna única para descartar cuentas existentes sin gastar BCrypt en ellas
+        Set<String> correosExistentes = new HashSet<>(usuarioRepository.findCorreosExistentes(
+                validas.stream().map(UsuarioRegistroRequest::getCorreo).toList()));
+        Set<String> rutsExistentes = new HashSet<>(usuarioRepository.findRutsExistentes(
+                validas.stream().map(UsuarioRegistroRequest::getRut).toList()));
+
+        Set<String> correosLote = new HashSet<>();
+        Set<String> rutsLote = new HashSet<>();
+        List<UsuarioRegistroRequest> nuevas = new ArrayList<>();
+        for (UsuarioRegistroRequest fila : validas) {
+            String correo = fila.getCorreo().toLowerCase(Locale.ROOT);
+            if (correosExistentes.contains(fila.getCorreo()) || rutsExistentes.contains(fila.getRut())
+                    || !correosLote.add(correo) || !rutsLote.add(fila.getRut())) {
+                omitidos.add(fila.getCorreo());
+            } else {
+                nuevas.add(fila);
+            }
+        }
+
+        if (nuevas.isEmpty()) {
+            return ProvisionUsuariosResponse.builder().creados(0).omitidos(omitidos).errores(errores).build();
+        }
+
+        List<String> hashes = hashear(nuevas.stream().map(UsuarioRegistroRequest::getPassword).toList());
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Object[]> parametros = new ArrayList<>(nuevas.size());
+        for (int i = 0; i < nuevas.size(); i++) {
+            UsuarioRegistroRequest fila = nuevas.get(i);
+            parametros.add(new Object[]{
+                    fila.getRut(), fila.getCorreo(), hashes.get(i), fila.getNombres(), fila.getApellidos(),
+                    fila.getTelefono(), ahora, Usuario.EstadoUsuario.Activo.name()
+            });
+        }
+
+        jdbcTemplate.batchUpdate(SQL_INSERT, parametros);
+
+        Map<String, String> hashesGuardados = usuarioRepository.findClavesByRutIn(
+                        nuevas.stream().map(UsuarioRegistroRequest::getRut).toList())
+                .stream()
+                .collect(Collectors.toMap(UsuarioRepository.UsuarioClave::getRut,
+                        UsuarioRepository.UsuarioClave::getClaveHash, (a, b) -> a));
+
+        int creados = 0;
+        for (int i = 0; i < nuevas.size(); i++) {
+            // Otro hash (o ninguno) significa que INSERT IGNORE la descartó por un duplicado concurrente
+            if (hashes.get(i).equals(hashesGuardados.get(nuevas.get(i).getRut()))) {
+                creados++;
+            } else {
+                omitidos.add(nuevas.get(i).getCorreo());
+            }
+        }
+
+        return ProvisionUsuariosResponse.builder().creados(creados).omitidos(omitidos).errores(errores).build();
+    }
+
+    /**
+     * BCrypt es CPU-bound: el lote se parte en a lo sumo hilos-bcrypt tramos que corren en el pool de login,
+     * así un alta masiva comparte su cola acotada en vez de competir con los logins fuera de ella.
+     * Si el pool está saturado la RejectedExecutionException termina en 503.
+     */
+    private List<String> hashear(List<String> claves) {
+        int tareas = Math.max(1, Math.min(hilosBcrypt, claves.size()));
+        int tamano = (claves.size() + tareas - 1) / tareas;
+
+        List<CompletableFuture<List<String>>> tramos = new ArrayList<>(tareas);
+        for (int desde = 0; desde < claves.size(); desde += tamano) {
+            List<String> tramo = claves.subList(desde, Math.min(desde + tamano, claves.size()));
+            tramos.add(CompletableFuture.supplyAsync(
+                    () -> tramo.stream().map(passwordEncoder::encode).toList(), loginExecutor));
+        }
+
+        List<String> hashes = new ArrayList<>(claves.size());
+        for (CompletableFuture<List<String>> tramo : tramos) {
+            hashes.addAll(tramo.join());
+        }
+        return hashes;
+    }
+
+    /**
+     * Lee un CSV con cabecera "rut,correo,nombres,apellidos,telefono,password" (campos sin comas).
+     */
+    public List<UsuarioRegistroRequest> parsearCsv(String csv) {
+        if (csv == null || csv.isBlank()) {
+            throw new IllegalArgumentException("El CSV está vacío.");
+        }
+
+        String[] lineas = csv.strip().split("\\r?\\n");
+        if (!lineas[0].replace(" ", "").equalsIgnoreCase(CABECERA_CSV)) {
+            throw new IllegalArgumentException("Cabecera CSV inválida. Se espera: " + CABECERA_CSV);
+        }
+
+        List<UsuarioRegistroRequest> filas = new ArrayList<>();
+        for (int i = 1; i < lineas.length; i++) {
+            if (lineas[i].isBlank()) {
+                continue;
+            }
+            String[] campos = lineas[i].split(",", -1);
+            UsuarioRegistroRequest fila = new UsuarioRegistroRequest();
+            if (campos.length == 6) {
+                fila.setRut(campos[0].trim());
+                fila.setCorreo(campos[1].trim());
+                fila.setNombres(campos[2].trim());
+                fila.setApellidos(campos[3].trim());
+                fila.setTelefono(campos[4].isBlank() ? null : campos[4].trim());
+                fila.setPassword(campos[5]);
+            }
+            // Una fila con columnas faltantes queda con campos nulos y se reporta en "errores"
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    private String validar(UsuarioRegistroRequest fila) {
+        if (esVacio(fila.getRut()) || esVacio(fila.getCorreo()) || esVacio(fila.getNombres())
+                || esVacio(fila.getApellidos()) || esVacio(fila.getPassword())) {
+            return "rut, correo, nombres, apellidos y password son obligatorios.";
+        }
+        // INSERT IGNORE truncaría en silencio los valores más largos que la columna
+        if (fila.getRut().length() > LARGO_RUT) {
+            return "rut excede " + LARGO_RUT + " caracteres.";
+        }
+        if (fila.getCorreo().length() > LARGO_CORREO) {
+            return "correo excede " + LARGO_CORREO + " caracteres.";
+        }
+        if (fila.getNombres().length() > LARGO_NOMBRE || fila.getApellidos().length() > LARGO_NOMBRE) {
+            return "nombres y apellidos no pueden exceder " + LARGO_NOMBRE + " caracteres.";
+        }
+        if (fila.getTelefono() != null && fila.getTelefono().length() > LARGO_TELEFONO) {
+            return "telefono excede " + LARGO_TELEFONO + " caracteres.";
+        }
+        return null;
+    }
+
+    private boolean esVacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+}
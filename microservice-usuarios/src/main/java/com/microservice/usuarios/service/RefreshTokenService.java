@@ -0,0 +1,124 @@
+package com.microservice.usuarios.service;
+
+import com.microservice.usuarios.dto.LoginResponse;
+import com.microservice.usuarios.model.RefreshToken;
+import com.microservice.usuarios.model.Usuario;
+import com.microservice.usuarios.repository.RefreshTokenRepository;
+import com.microservice.usuarios.security.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Emisión y rotación de refresh tokens. Renovar la sesión cuesta una búsqueda por índice único
+ * y una firma HMAC, en vez de una verificación BCrypt.
+ * Cada canje invalida el token presentado y entrega uno nuevo de la misma familia; si un token ya
+ * canjeado se vuelve a presentar (robo o reutilización) se revoca la familia completa.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int BYTES_TOKEN = 32;
+    private static final String MENSAJE_INVALIDO = "Refresh token inválido o expirado.";
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.refresh-expiration:30d}")
+    private Duration refreshExpiration;
+
+    /**
+     * Emite un par (JWT, refresh token) para un login nuevo: abre una familia de rotación.
+     */
+    @Transactional
+    public LoginResponse emitirSesion(Usuario usuario) {
+        String refreshToken = emitirRefreshToken(usuario, UUID.randomUUID().toString());
+        return new LoginResponse(jwtUtil.generateToken(usuario), refreshToken);
+    }
+
+    // noRollbackFor: la revocación de la familia ante una reutilización debe persistir aunque se lance la excepción
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public LoginResponse renovar(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new IllegalArgumentException(MENSAJE_INVALIDO);
+        }
+
+        RefreshToken actual = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new IllegalArgumentException(MENSAJE_INVALIDO));
+
+        if (actual.isRevocado() || refreshTokenRepository.marcarUsado(actual.getId()) == 0) {
+            // Token ya rotado: alguien más lo tiene. Se corta la sesión completa de esa familia.
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            System.err.println("Reutilización de refresh token detectada para el usuario "
+                    + actual.getUsuario().getIdUsuario() + "; familia revocada.");
+            throw new IllegalArgumentException(MENSAJE_INVALIDO);
+        }
+
+        if (actual.getExpiraEn().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException(MENSAJE_INVALIDO);
+        }
+
+        Usuario usuario = actual.getUsuario();
+        String nuevoRefresh = emitirRefreshToken(usuario, actual.getFamilia());
+        return new LoginResponse(jwtUtil.generateToken(usuario), nuevoRefresh);
+    }
+
+    /**
+     * Revoca todas las sesiones renovables del usuario (p. ej. tras un cambio de contraseña).
+     */
+    @Transactional
+    public void revocarSesiones(Long usuarioId) {
+        refreshTokenRepository.revocarPorUsuario(usuarioId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-purga-cron:0 30 3 * * *}")
+    public void purgarExpirados() {
+        int eliminados = refreshTokenRepository.eliminarExpirados(LocalDateTime.now());
+        if (eliminados > 0) {
+            System.out.println("Refresh tokens expirados eliminados: " + eliminados);
+        }
+    }
+
+    private String emitirRefreshToken(Usuario usuario, String familia) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .usuario(usuario)
+                .familia(familia)
+                .creadoEn(ahora)
+                .expiraEn(ahora.plus(refreshExpiration))
+                .revocado(false)
+                .build());
+        return token;
+    }
+
+    // El token tiene 256 bits aleatorios: basta un SHA-256 sin sal para no guardarlo en claro
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.microservice.usuarios.service;
 
+import com.microservice.usuarios.client.EventoCacheClient;
 import com.microservice.usuarios.dto.ChangePasswordRequest;
 import com.microservice.usuarios.dto.LoginResponse;
 import com.microservice.usuarios.dto.UsuarioRegistroRequest;
@@ -7,13 +8,15 @@ import com.microservice.usuarios.dto.UsuarioResponse;
 import com.microservice.usuarios.dto.UsuarioUpdateRequest;
 import com.microservice.usuarios.model.Usuario;
 import com.microservice.usuarios.repository.UsuarioRepository;
-import com.microservice.usuarios.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class UsuarioService {
@@ -23,7 +26,12 @@ public class UsuarioService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     @Autowired
-    private JwtUtil jwtUtil;
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private EventoCacheClient eventoCacheClient;
+    @Autowired
+    @Qualifier("loginExecutor")
+    private Executor loginExecutor;
 
     private UsuarioResponse mapToResponse(Usuario usuario) {
         return UsuarioResponse.builder()
@@ -37,14 +45,8 @@ public class UsuarioService {
     }
 
     public UsuarioResponse registrarUsuario(UsuarioRegistroRequest request) {
-        if (usuarioRepository.findByCorreo(request.getCorreo()).isPresent()) {
-            throw new IllegalArgumentException("El correo ya está registrado.");
-        }
-
-        if (usuarioRepository.findByRut(request.getRut()).isPresent()) {
-            throw new IllegalArgumentException("El RUT ya está registrado.");
-        }
-
+        // Sin SELECT previos: las restricciones únicas de correo y RUT resuelven el duplicado en el mismo INSERT
+        // (sin carrera entre verificación e inserción). GlobalExceptionHandler traduce la violación a 409.
         Usuario nuevoUsuario = Usuario.builder()
                 .rut(request.getRut())
                 .correo(request.getCorreo())
@@ -68,10 +70,23 @@ public class UsuarioService {
         if (!passwordEncoder.matches(password, usuario.getClaveHash())) {
             throw new IllegalArgumentException("Credenciales inválidas.");
         }
-        String token = jwtUtil.generateToken(usuario);
-        LoginResponse response = new LoginResponse(token);
 
-        return response;
+        // Rehash transparente: si el hash quedó sin prefijo o con un costo distinto al configurado, se re-codifica
+        // aprovechando que en este punto conocemos la contraseña en claro.
+        if (passwordEncoder.upgradeEncoding(usuario.getClaveHash())) {
+            usuario.setClaveHash(passwordEncoder.encode(password));
+            usuarioRepository.save(usuario);
+        }
+
+        return refreshTokenService.emitirSesion(usuario);
+    }
+
+    /**
+     * Ejecuta el login en el pool acotado "loginExecutor" para no bloquear los hilos del servidor con BCrypt.
+     * Si el pool está saturado lanza RejectedExecutionException de inmediato (mapeada a 503).
+     */
+    public CompletableFuture<LoginResponse> loginAsync(String correo, String password) {
+        return CompletableFuture.supplyAsync(() -> login(correo, password), loginExecutor);
     }
 
     public Usuario getUsuarioById(Long idUsuario) {
@@ -84,6 +99,16 @@ public class UsuarioService {
                 .orElseThrow(() -> new NoSuchElementException("Usuario no encontrado."));
     }
 
+    public UsuarioRepository.UsuarioResumen getResumenById(Long idUsuario) {
+        return usuarioRepository.findResumenByIdUsuario(idUsuario)
+                .orElseThrow(() -> new NoSuchElementException("Usuario no encontrado."));
+    }
+
+    public UsuarioRepository.UsuarioResumen getResumenByCorreo(String correo) {
+        return usuarioRepository.findResumenByCorreo(correo)
+                .orElseThrow(() -> new NoSuchElementException("Usuario no encontrado."));
+    }
+
     public UsuarioResponse getProfile(Long idUsuario) {
         Usuario usuario = getUsuarioById(idUsuario);
         return mapToResponse(usuario);
@@ -97,6 +122,14 @@ public class UsuarioService {
 
         Usuario updatedUser = usuarioRepository.save(usuario);
 
+        // Notificamos a microservice-eventos para que descarte su copia en caché del usuario
+        try {
+            eventoCacheClient.invalidarUsuario(idUsuario);
+        } catch (Exception e) {
+            // La caché expira por TTL; un fallo de notificación no debe romper la actualización
+            System.err.println("No se pudo invalidar la caché del usuario " + idUsuario + " en eventos: " + e.getMessage());
+        }
+
         return mapToResponse(updatedUser);
     }
 
@@ -117,5 +150,8 @@ public class UsuarioService {
 
         usuario.setClaveHash(passwordEncoder.encode(request.getNewPassword()));
         usuarioRepository.save(usuario);
+
+        // Las sesiones abiertas con la contraseña anterior ya no pueden renovarse
+        refreshTokenService.revocarSesiones(idUsuario);
     }
 }
\ No newline at end of file
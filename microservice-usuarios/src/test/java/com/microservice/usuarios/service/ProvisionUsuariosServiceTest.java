@@ -0,0 +1,147 @@
+package com.microservice.usuarios.service;
+
+import com.microservice.usuarios.dto.ProvisionUsuariosResponse;
+import com.microservice.usuarios.dto.UsuarioRegistroRequest;
+import com.microservice.usuarios.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProvisionUsuariosServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ProvisionUsuariosService provisionUsuariosService;
+
+    private static final Long ADMIN = 1L;
+
+    @BeforeEach
+    void setUp() {
+        // El pool de login se reemplaza por uno que ejecuta en el mismo hilo
+        ReflectionTestUtils.setField(provisionUsuariosService, "loginExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(provisionUsuariosService, "administradores", Set.of(ADMIN));
+        ReflectionTestUtils.setField(provisionUsuariosService, "hilosBcrypt", 2);
+    }
+
+    private UsuarioRegistroRequest fila(String rut, String correo) {
+        UsuarioRegistroRequest fila = new UsuarioRegistroRequest();
+        fila.setRut(rut);
+        fila.setCorreo(correo);
+        fila.setNombres("Ana");
+        fila.setApellidos("Gómez");
+        fila.setPassword("clave-" + rut);
+        return fila;
+    }
+
+    private UsuarioRepository.UsuarioClave clave(String rut, String claveHash) {
+        return new UsuarioRepository.UsuarioClave() {
+            public String getRut() { return rut; }
+            public String getClaveHash() { return claveHash; }
+        };
+    }
+
+    @Test
+    void aprovisionar_duplicadoConcurrente_seReportaComoOmitido() {
+        when(passwordEncoder.encode(anyString())).thenAnswer(inv -> "hash-" + inv.getArgument(0));
+        // 2-2 lo insertó otra solicitud entre la verificación previa y el batch: guarda otro hash
+        when(usuarioRepository.findClavesByRutIn(List.of("1-1", "2-2")))
+                .thenReturn(List.of(clave("1-1", "hash-clave-1-1"), clave("2-2", "hash-ajeno")));
+
+        ProvisionUsuariosResponse respuesta = provisionUsuariosService.aprovisionar(ADMIN,
+                List.of(fila("1-1", "a@x.cl"), fila("2-2", "b@x.cl")));
+
+        assertEquals(1, respuesta.getCreados());
+        assertEquals(List.of("b@x.cl"), respuesta.getOmitidos());
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void aprovisionar_existentesYRepetidosEnLote_noSeInsertan() {
+        when(usuarioRepository.findCorreosExistentes(anyCollection())).thenReturn(List.of("a@x.cl"));
+        when(usuarioRepository.findRutsExistentes(anyCollection())).thenReturn(List.of());
+        when(passwordEncoder.encode(anyString())).thenAnswer(inv -> "hash-" + inv.getArgument(0));
+        when(usuarioRepository.findClavesByRutIn(List.of("2-2")))
+                .thenReturn(List.of(clave("2-2", "hash-clave-2-2")));
+
+        ProvisionUsuariosResponse respuesta = provisionUsuariosService.aprovisionar(ADMIN, List.of(
+                fila("1-1", "a@x.cl"), fila("2-2", "b@x.cl"), fila("3-3", "B@x.cl")));
+
+        assertEquals(1, respuesta.getCreados());
+        assertEquals(List.of("a@x.cl", "B@x.cl"), respuesta.getOmitidos());
+        verify(passwordEncoder, times(1)).encode(anyString());
+    }
+
+    @Test
+    void aprovisionar_filasInvalidas_seReportanSinInsertar() {
+        UsuarioRegistroRequest incompleta = fila("1-1", "a@x.cl");
+        incompleta.setNombres(" ");
+        UsuarioRegistroRequest rutLargo = fila("1234567890123456", "b@x.cl");
+        UsuarioRegistroRequest correoLargo = fila("3-3", "a".repeat(251) + "@x.cl");
+
+        ProvisionUsuariosResponse respuesta = provisionUsuariosService.aprovisionar(ADMIN,
+                List.of(incompleta, rutLargo, correoLargo));
+
+        assertEquals(0, respuesta.getCreados());
+        assertEquals(3, respuesta.getErrores().size());
+        assertTrue(respuesta.getErrores().get(0).startsWith("Fila 1: "));
+        assertTrue(respuesta.getErrores().get(1).startsWith("Fila 2: rut"));
+        assertTrue(respuesta.getErrores().get(2).startsWith("Fila 3: correo"));
+        verifyNoInteractions(usuarioRepository, passwordEncoder, jdbcTemplate);
+    }
+
+    @Test
+    void aprovisionar_loteEnVariosTramos_conservaElOrdenDeLosHashes() {
+        when(passwordEncoder.encode(anyString())).thenAnswer(inv -> "hash-" + inv.getArgument(0));
+        when(usuarioRepository.findClavesByRutIn(List.of("1-1", "2-2", "3-3"))).thenReturn(List.of(
+                clave("1-1", "hash-clave-1-1"), clave("2-2", "hash-clave-2-2"), clave("3-3", "hash-clave-3-3")));
+
+        ProvisionUsuariosResponse respuesta = provisionUsuariosService.aprovisionar(ADMIN,
+                List.of(fila("1-1", "a@x.cl"), fila("2-2", "b@x.cl"), fila("3-3", "c@x.cl")));
+
+        assertEquals(3, respuesta.getCreados());
+        assertTrue(respuesta.getOmitidos().isEmpty());
+    }
+
+    @Test
+    void aprovisionar_poolSaturado_propagaElRechazo() {
+        ReflectionTestUtils.setField(provisionUsuariosService, "loginExecutor",
+                (Executor) tarea -> { throw new RejectedExecutionException("lleno"); });
+
+        assertThrows(RejectedExecutionException.class, () -> provisionUsuariosService.aprovisionar(ADMIN,
+                List.of(fila("1-1", "a@x.cl"))));
+
+        verifyNoInteractions(passwordEncoder, jdbcTemplate);
+    }
+
+    @Test
+    void aprovisionar_usuarioNoAdministrador_esRechazado() {
+        assertThrows(SecurityException.class, () -> provisionUsuariosService.aprovisionar(2L,
+                List.of(fila("1-1", "a@x.cl"))));
+        assertThrows(SecurityException.class, () -> provisionUsuariosService.aprovisionar(null,
+                List.of(fila("1-1", "a@x.cl"))));
+
+        verifyNoInteractions(usuarioRepository, passwordEncoder, jdbcTemplate);
+    }
+}
@@ -0,0 +1,133 @@
+package com.microservice.usuarios.service;
+
+import com.microservice.usuarios.dto.LoginResponse;
+import com.microservice.usuarios.model.RefreshToken;
+import com.microservice.usuarios.model.Usuario;
+import com.microservice.usuarios.repository.RefreshTokenRepository;
+import com.microservice.usuarios.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", Duration.ofDays(30));
+        usuario = new Usuario();
+        usuario.setIdUsuario(7L);
+    }
+
+    // Emite una sesión y devuelve el registro que se guardó para su refresh token
+    private RefreshToken sesionGuardada(LoginResponse sesion) {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, atLeastOnce()).save(captor.capture());
+        RefreshToken guardado = captor.getValue();
+        guardado.setId(1L);
+        assertNotEquals(sesion.getRefreshToken(), guardado.getTokenHash(), "El token no se guarda en claro");
+        return guardado;
+    }
+
+    @Test
+    void renovar_rotaElTokenDentroDeLaMismaFamilia() {
+        when(jwtUtil.generateToken(usuario)).thenReturn("jwt");
+        LoginResponse sesion = refreshTokenService.emitirSesion(usuario);
+        RefreshToken actual = sesionGuardada(sesion);
+        when(refreshTokenRepository.findByTokenHash(actual.getTokenHash())).thenReturn(Optional.of(actual));
+        when(refreshTokenRepository.marcarUsado(1L)).thenReturn(1);
+
+        LoginResponse renovada = refreshTokenService.renovar(sesion.getRefreshToken());
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(captor.capture());
+        List<RefreshToken> guardados = captor.getAllValues();
+        RefreshToken nuevo = guardados.get(1);
+        assertEquals(actual.getFamilia(), nuevo.getFamilia());
+        assertNotEquals(actual.getTokenHash(), nuevo.getTokenHash());
+        assertNotEquals(sesion.getRefreshToken(), renovada.getRefreshToken());
+        assertEquals("jwt", renovada.getToken());
+        verify(refreshTokenRepository, never()).revocarFamilia(anyString());
+    }
+
+    @Test
+    void renovar_tokenYaRotado_revocaLaFamilia() {
+        when(jwtUtil.generateToken(usuario)).thenReturn("jwt");
+        LoginResponse sesion = refreshTokenService.emitirSesion(usuario);
+        RefreshToken actual = sesionGuardada(sesion);
+        actual.setRevocado(true);
+        when(refreshTokenRepository.findByTokenHash(actual.getTokenHash())).thenReturn(Optional.of(actual));
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.renovar(sesion.getRefreshToken()));
+
+        verify(refreshTokenRepository).revocarFamilia(actual.getFamilia());
+        verify(refreshTokenRepository, never()).marcarUsado(anyLong());
+        verify(refreshTokenRepository, times(1)).save(any());
+    }
+
+    @Test
+    void renovar_canjeConcurrente_pierdeYRevocaLaFamilia() {
+        when(jwtUtil.generateToken(usuario)).thenReturn("jwt");
+        LoginResponse sesion = refreshTokenService.emitirSesion(usuario);
+        RefreshToken actual = sesionGuardada(sesion);
+        when(refreshTokenRepository.findByTokenHash(actual.getTokenHash())).thenReturn(Optional.of(actual));
+        // Otra petición marcó el token como usado entre la lectura y el UPDATE
+        when(refreshTokenRepository.marcarUsado(1L)).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.renovar(sesion.getRefreshToken()));
+
+        verify(refreshTokenRepository).revocarFamilia(actual.getFamilia());
+        verify(refreshTokenRepository, times(1)).save(any());
+    }
+
+    @Test
+    void renovar_tokenExpirado_seRechazaSinEmitirOtro() {
+        when(jwtUtil.generateToken(usuario)).thenReturn("jwt");
+        LoginResponse sesion = refreshTokenService.emitirSesion(usuario);
+        RefreshToken actual = sesionGuardada(sesion);
+        actual.setExpiraEn(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(actual.getTokenHash())).thenReturn(Optional.of(actual));
+        when(refreshTokenRepository.marcarUsado(1L)).thenReturn(1);
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.renovar(sesion.getRefreshToken()));
+
+        verify(refreshTokenRepository, never()).revocarFamilia(anyString());
+        verify(refreshTokenRepository, times(1)).save(any());
+        verify(jwtUtil, times(1)).generateToken(any());
+    }
+
+    @Test
+    void renovar_tokenDesconocido_seRechaza() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.renovar("desconocido"));
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.renovar(" "));
+
+        verify(refreshTokenRepository, times(1)).findByTokenHash(anyString());
+        verifyNoInteractions(jwtUtil);
+    }
+}
@@ -0,0 +1,106 @@
+package com.microservice.usuarios.service;
+
+import com.microservice.usuarios.client.EventoCacheClient;
+import com.microservice.usuarios.dto.LoginResponse;
+import com.microservice.usuarios.model.Usuario;
+import com.microservice.usuarios.repository.UsuarioRepository;
+import com.microservice.usuarios.security.SecurityConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioServiceTest {
+
+    // Costo bajo para que las pruebas no dependan de la velocidad de BCrypt
+    private static final int COSTO = 5;
+    private static final String CORREO = "ana@x.cl";
+    private static final String CLAVE = "secreta";
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private EventoCacheClient eventoCacheClient;
+    @Mock
+    private Executor loginExecutor;
+
+    @InjectMocks
+    private UsuarioService usuarioService;
+
+    private final PasswordEncoder passwordEncoder = new SecurityConfig().passwordEncoder(COSTO);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(usuarioService, "passwordEncoder", passwordEncoder);
+    }
+
+    private Usuario usuarioConHash(String claveHash) {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(1L);
+        usuario.setCorreo(CORREO);
+        usuario.setClaveHash(claveHash);
+        when(usuarioRepository.findByCorreo(CORREO)).thenReturn(Optional.of(usuario));
+        return usuario;
+    }
+
+    @Test
+    void login_hashSinPrefijo_seRecodificaConElCostoConfigurado() {
+        Usuario usuario = usuarioConHash(new BCryptPasswordEncoder(COSTO).encode(CLAVE));
+
+        usuarioService.login(CORREO, CLAVE);
+
+        assertTrue(usuario.getClaveHash().startsWith("{bcrypt}$2a$0" + COSTO + "$"));
+        assertTrue(passwordEncoder.matches(CLAVE, usuario.getClaveHash()));
+        verify(usuarioRepository).save(usuario);
+    }
+
+    @Test
+    void login_costoMenorOMayor_seRecodifica() {
+        for (int costo : new int[]{COSTO - 1, COSTO + 1}) {
+            Usuario usuario = usuarioConHash("{bcrypt}" + new BCryptPasswordEncoder(costo).encode(CLAVE));
+
+            usuarioService.login(CORREO, CLAVE);
+
+            assertTrue(usuario.getClaveHash().startsWith("{bcrypt}$2a$0" + COSTO + "$"), "costo " + costo);
+            verify(usuarioRepository).save(usuario);
+        }
+    }
+
+    @Test
+    void login_hashVigente_noSeRecodifica() {
+        String vigente = passwordEncoder.encode(CLAVE);
+        Usuario usuario = usuarioConHash(vigente);
+        when(refreshTokenService.emitirSesion(usuario)).thenReturn(new LoginResponse("jwt", "refresh"));
+
+        LoginResponse respuesta = usuarioService.login(CORREO, CLAVE);
+
+        assertEquals("jwt", respuesta.getToken());
+        assertEquals(vigente, usuario.getClaveHash());
+        verify(usuarioRepository, never()).save(any());
+    }
+
+    @Test
+    void login_claveIncorrecta_noSeRecodifica() {
+        usuarioConHash(new BCryptPasswordEncoder(COSTO - 1).encode(CLAVE));
+
+        assertThrows(IllegalArgumentException.class, () -> usuarioService.login(CORREO, "otra"));
+
+        verify(usuarioRepository, never()).save(any());
+        verifyNoInteractions(refreshTokenService);
+    }
+}